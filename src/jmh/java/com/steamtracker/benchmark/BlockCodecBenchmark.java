@@ -0,0 +1,54 @@
+package com.steamtracker.benchmark;
+
+import com.steamtracker.repository.SampleBlockCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding one day block of a busy game at 30 s sampling (2880 samples).
+ * The encoded size per sample is printed at setup for comparison with a player_counts row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockCodecBenchmark {
+
+    private static final int SAMPLES = 2_880;
+
+    private final long[] timestamps = new long[SAMPLES];
+    private final int[] counts = new int[SAMPLES];
+    private final long[] decodedTimestamps = new long[SAMPLES];
+    private final int[] decodedCounts = new int[SAMPLES];
+    private byte[] block;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        long time = 1_700_000_000_000L;
+        int count = 800_000;
+        for (int i = 0; i < SAMPLES; i++) {
+            timestamps[i] = time + random.nextInt(200);
+            counts[i] = count;
+            time += 30_000;
+            count += random.nextInt(2_001) - 1_000;
+        }
+        block = SampleBlockCodec.encode(timestamps, counts, SAMPLES);
+        System.out.printf("%n%d samples encoded into %d bytes (%.2f bytes/sample)%n",
+                SAMPLES, block.length, (double) block.length / SAMPLES);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return SampleBlockCodec.encode(timestamps, counts, SAMPLES);
+    }
+
+    @Benchmark
+    public int decode() {
+        return SampleBlockCodec.decode(block, decodedTimestamps, decodedCounts);
+    }
+}
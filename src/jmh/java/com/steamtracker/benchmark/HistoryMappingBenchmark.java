@@ -0,0 +1,59 @@
+package com.steamtracker.benchmark;
+
+import com.steamtracker.dto.PlayerCountData;
+import com.steamtracker.dto.PlayerCountSeries;
+import com.steamtracker.entity.Game;
+import com.steamtracker.entity.PlayerCount;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Turning a history window into the response list: the original entity-to-DTO stream mapping
+ * against building it from the primitive series used by the hot tier and JDBC readers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HistoryMappingBenchmark {
+
+    // 7 days at 30 s sampling
+    @Param({"20160"})
+    public int samples;
+
+    private List<PlayerCount> entities;
+    private PlayerCountSeries series;
+
+    @Setup
+    public void setUp() {
+        Game game = new Game(730L, "Counter-Strike 2");
+        LocalDateTime start = LocalDateTime.now().minusDays(7);
+        entities = new ArrayList<>(samples);
+        series = new PlayerCountSeries(samples);
+        for (int i = 0; i < samples; i++) {
+            PlayerCount pc = new PlayerCount(game, 1_000_000 + (i % 5_000));
+            pc.setRecordedAt(start.plusSeconds(30L * i));
+            entities.add(pc);
+            series.add(PlayerCountSeries.toEpochMillis(pc.getRecordedAt()), pc.getPlayerCount());
+        }
+    }
+
+    @Benchmark
+    public List<PlayerCountData> entitiesToDto() {
+        return entities.stream()
+                .map(pc -> new PlayerCountData(pc.getRecordedAt(), pc.getPlayerCount()))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<PlayerCountData> seriesToDto() {
+        return series.toPlayerCountData();
+    }
+}
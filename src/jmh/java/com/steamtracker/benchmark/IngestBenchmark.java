@@ -0,0 +1,80 @@
+package com.steamtracker.benchmark;
+
+import com.steamtracker.dto.PlayerCountSample;
+import com.steamtracker.repository.PlayerCountBulkWriter;
+import com.steamtracker.repository.PlayerCountRollupRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The sample persist path against a local PostgreSQL database with the application schema
+ * (start the app once to create it). Connection settings come from -Dbenchmark.db.url,
+ * -Dbenchmark.db.username and -Dbenchmark.db.password. Without a database this benchmark
+ * fails in setup and the others still run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngestBenchmark {
+
+    private static final long FIRST_APP_ID = 9_100_000_000L;
+
+    // 1 is the per-sample path collectPlayerCount takes, larger values a collection cycle
+    @Param({"1", "1000"})
+    public int batchSize;
+
+    private JdbcTemplate jdbcTemplate;
+    private PlayerCountBulkWriter writer;
+    private long tick;
+
+    @Setup
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getProperty("benchmark.db.url", "jdbc:postgresql://localhost:5432/player_count"),
+                System.getProperty("benchmark.db.username", "postgres"),
+                System.getProperty("benchmark.db.password", ""));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        PlayerCountRollupRepository rollups = new PlayerCountRollupRepository();
+        ReflectionTestUtils.setField(rollups, "jdbcTemplate", jdbcTemplate);
+        writer = new PlayerCountBulkWriter();
+        ReflectionTestUtils.setField(writer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(writer, "playerCountRollupRepository", rollups);
+
+        tearDown();
+        for (int i = 0; i < batchSize; i++) {
+            jdbcTemplate.update("INSERT INTO games (app_id, name, created_at, last_updated) VALUES (?, ?, now(), now())",
+                    FIRST_APP_ID + i, "Benchmark game " + i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (String table : List.of("player_counts", "player_count_blocks", "player_counts_hourly", "player_counts_daily", "games")) {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE app_id >= ?", FIRST_APP_ID);
+        }
+    }
+
+    /**
+     * One operation writes {@code batchSize} samples; rows/s is the score times the batch size.
+     */
+    @Benchmark
+    public int writeSamples() {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(tick++);
+        List<PlayerCountSample> samples = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            samples.add(new PlayerCountSample(FIRST_APP_ID + i, 1_000 + i, now));
+        }
+        return writer.writeSamples(samples);
+    }
+}
@@ -0,0 +1,33 @@
+package com.steamtracker.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of GetNumberOfCurrentPlayers responses the way {@code SteamApiService} does it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerCountDecodeBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Param({"{\"response\":{\"player_count\":1324567,\"result\":1}}", "{\"response\":{\"result\":42}}"})
+    public String response;
+
+    @Benchmark
+    public Integer readTree() throws Exception {
+        JsonNode root = objectMapper.readTree(response);
+        if (root.has("response") && root.get("response").has("player_count")) {
+            return root.get("response").get("player_count").asInt();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,98 @@
+package com.steamtracker.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.steamtracker.dto.ColumnarHistory;
+import com.steamtracker.dto.DeltaHistory;
+import com.steamtracker.dto.PlayerCountData;
+import com.steamtracker.dto.PlayerCountSeries;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializing a history response in each negotiated format: the default list of JSON objects,
+ * columnar JSON and delta-encoded CBOR, each with and without gzip. Mapping the list into the
+ * columnar DTOs is included in their cost. Payload sizes are printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseEncodingBenchmark {
+
+    // 7 days at 30 s sampling
+    @Param({"20160"})
+    public int samples;
+
+    private List<PlayerCountData> history;
+    // Configured like Spring Boot's: java.time values as ISO strings
+    private final ObjectMapper jsonMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final CBORMapper cborMapper = new CBORMapper();
+
+    @Setup
+    public void setUp() throws IOException {
+        LocalDateTime start = LocalDateTime.now().withNano(0).minusDays(7);
+        PlayerCountSeries series = new PlayerCountSeries(samples);
+        for (int i = 0; i < samples; i++) {
+            // Slowly drifting count with small jitter, like a real game
+            int count = 1_000_000 + (int) (200_000 * Math.sin(i / 2880.0 * Math.PI)) + (i * 7919) % 500;
+            series.add(PlayerCountSeries.toEpochMillis(start.plusSeconds(30L * i)), count);
+        }
+        history = series.toPlayerCountData();
+
+        System.out.printf("%nPayload bytes for %d samples (plain / gzip):%n", samples);
+        System.out.printf("  json objects   %9d / %8d%n", jsonObjects().length, jsonObjectsGzip().length);
+        System.out.printf("  columnar json  %9d / %8d%n", columnarJson().length, columnarJsonGzip().length);
+        System.out.printf("  delta cbor     %9d / %8d%n", deltaCbor().length, deltaCborGzip().length);
+    }
+
+    @Benchmark
+    public byte[] jsonObjects() throws IOException {
+        return jsonMapper.writeValueAsBytes(history);
+    }
+
+    @Benchmark
+    public byte[] columnarJson() throws IOException {
+        return jsonMapper.writeValueAsBytes(ColumnarHistory.from(history));
+    }
+
+    @Benchmark
+    public byte[] deltaCbor() throws IOException {
+        return cborMapper.writeValueAsBytes(DeltaHistory.from(ColumnarHistory.from(history)));
+    }
+
+    @Benchmark
+    public byte[] jsonObjectsGzip() throws IOException {
+        return gzip(jsonObjects());
+    }
+
+    @Benchmark
+    public byte[] columnarJsonGzip() throws IOException {
+        return gzip(columnarJson());
+    }
+
+    @Benchmark
+    public byte[] deltaCborGzip() throws IOException {
+        return gzip(deltaCbor());
+    }
+
+    private static byte[] gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        }
+        return out.toByteArray();
+    }
+}
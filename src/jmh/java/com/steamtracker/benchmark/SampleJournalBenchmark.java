@@ -0,0 +1,56 @@
+package com.steamtracker.benchmark;
+
+import com.steamtracker.dto.PlayerCountSample;
+import com.steamtracker.repository.SampleJournal;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of persisting one collected sample on the collector's path: an append to the local journal.
+ * Segments are rotated and deleted as they fill, like the flusher does, so disk use stays bounded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SampleJournalBenchmark {
+
+    private Path directory;
+    private SampleJournal journal;
+    private List<PlayerCountSample> sample;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-benchmark");
+        journal = new SampleJournal(directory, 16 * 1024 * 1024);
+        sample = List.of(new PlayerCountSample(730L, 1_000_000, LocalDateTime.now()));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        journal.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public long appendSample() {
+        long sequence = journal.append(sample);
+        if (sequence % 100_000 == 0) {
+            journal.deleteUpTo(sequence);
+        }
+        return sequence;
+    }
+}
@@ -0,0 +1,72 @@
+package com.steamtracker.benchmark;
+
+import com.steamtracker.service.SteamApiService;
+import com.steamtracker.service.SteamAppCatalog;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SteamApiService#searchGames} against a synthetic GetAppList snapshot of {@code apps} entries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final String[] WORDS = {
+            "counter", "strike", "legend", "dark", "souls", "simulator", "farming", "space", "war", "craft",
+            "tycoon", "hero", "quest", "puzzle", "racing", "city", "builder", "zombie", "survival", "island",
+            "dragon", "empire", "the", "of", "2", "deluxe", "edition", "soundtrack", "vr", "tales"
+    };
+
+    @Param({"100000"})
+    public int apps;
+
+    @Param({"cs2", "counter str", "simulatr", "dragon qest", "zz"})
+    public String query;
+
+    private SteamApiService steamApiService;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path snapshot = Files.createTempFile("applist", ".json");
+        Random random = new Random(42);
+        try (Writer out = Files.newBufferedWriter(snapshot, StandardCharsets.UTF_8)) {
+            out.write("{\"applist\":{\"apps\":[");
+            for (int i = 0; i < apps; i++) {
+                StringBuilder name = new StringBuilder();
+                int words = 1 + random.nextInt(4);
+                for (int w = 0; w < words; w++) {
+                    name.append(w == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+                }
+                name.append(' ').append(Integer.toString(i, 36));
+                out.write((i == 0 ? "" : ",") + "{\"appid\":" + (1_000_000 + i) + ",\"name\":\"" + name + "\"}");
+            }
+            out.write("]}}");
+        }
+
+        SteamAppCatalog catalog = new SteamAppCatalog();
+        catalog.loadSnapshot(snapshot);
+        Files.delete(snapshot);
+
+        steamApiService = new SteamApiService();
+        ReflectionTestUtils.setField(steamApiService, "steamAppCatalog", catalog);
+    }
+
+    @Benchmark
+    public List<SteamApiService.GameInfo> searchGames() {
+        return steamApiService.searchGames(query);
+    }
+}
@@ -1,14 +1,52 @@
 package com.steamtracker;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
 @SpringBootApplication
-@EnableScheduling
 public class SteamPlayerTrackerApplication {
+    private static final Map<String, String> IMPORT_DEFAULTS = Map.of(
+            "scheduling.enabled", "false",
+            "journal.enabled", "false",
+            "collector.cluster.enabled", "false");
 
     public static void main(String[] args) {
-        SpringApplication.run(SteamPlayerTrackerApplication.class, args);
+        SpringApplication application = new SpringApplication(SteamPlayerTrackerApplication.class);
+        if (Arrays.stream(args).anyMatch(arg -> arg.startsWith("--import.file="))) {
+            // Command-line import (see BulkImportRunner): no web server, no collection, and neither the
+            // local journal nor shard leases of the server that may be running next to it
+            application.setWebApplicationType(WebApplicationType.NONE);
+            System.exit(SpringApplication.exit(application.run(withDefaults(args, IMPORT_DEFAULTS))));
+        }
+        application.run(args);
+    }
+
+    /**
+     * Adds {@code --key=value} for each default the arguments do not set; application.yml would
+     * override plain default properties.
+     */
+    private static String[] withDefaults(String[] args, Map<String, String> defaults) {
+        List<String> result = new ArrayList<>(Arrays.asList(args));
+        defaults.forEach((key, value) -> {
+            if (Arrays.stream(args).noneMatch(arg -> arg.startsWith("--" + key + "="))) {
+                result.add("--" + key + "=" + value);
+            }
+        });
+        return result.toArray(new String[0]);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableScheduling
+    @ConditionalOnProperty(name = "scheduling.enabled", matchIfMissing = true)
+    static class SchedulingConfiguration {
     }
-}
\ No newline at end of file
+}
@@ -1,26 +1,62 @@
 package com.steamtracker.controller;
 
+import com.steamtracker.dto.AlignedHistory;
+import com.steamtracker.dto.CollectionCycleResult;
+import com.steamtracker.dto.ColumnarHistory;
+import com.steamtracker.dto.ColumnarTrackedGamesPage;
+import com.steamtracker.dto.DeltaHistory;
+import com.steamtracker.dto.GamePeaks;
 import com.steamtracker.dto.GameSearchResponse;
+import com.steamtracker.dto.GameStats;
+import com.steamtracker.dto.HotTierStats;
+import com.steamtracker.dto.JobStatus;
+import com.steamtracker.dto.LeaderboardEntry;
 import com.steamtracker.dto.PlayerCountData;
-import com.steamtracker.entity.Game;
+import com.steamtracker.dto.PlayerCountPage;
+import com.steamtracker.dto.SamplingStatus;
+import com.steamtracker.dto.StorageStats;
+import com.steamtracker.dto.TrackedGamesPage;
+import com.steamtracker.service.DownsampleMode;
 import com.steamtracker.service.GameService;
+import com.steamtracker.service.LiveSampleBroadcaster;
+import com.steamtracker.service.PlayerCountCollector;
+import com.steamtracker.service.TrackedGameSort;
+import com.steamtracker.service.TrackedGamesCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @RestController // Backend REST endpoint
 @RequestMapping("/api/games")
 @CrossOrigin(origins = "http://localhost:3000")
 public class GameController {
     private static final Logger logger = LoggerFactory.getLogger(GameController.class);
+    private static final int MAX_TRACKED_PAGE_SIZE = 500;
 
     @Autowired
     private GameService gameService;
 
+    @Autowired
+    private PlayerCountCollector playerCountCollector;
+
+    @Autowired
+    private LiveSampleBroadcaster liveSampleBroadcaster;
+
     @GetMapping("/search")
     public ResponseEntity<List<GameSearchResponse>> searchGames(@RequestParam String query) {
         logger.info("Searching for games with query: {}", query);
@@ -42,6 +78,9 @@ public class GameController {
         try {
             gameService.startTrackingGame(appId, gameName);
             return ResponseEntity.ok("Game tracking started successfully");
+        } catch (IllegalStateException e) {
+            logger.warn("Not tracking game {}: {}", appId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (Exception e) {
             logger.error("Error starting game tracking", e);
             return ResponseEntity.internalServerError()
@@ -50,41 +89,211 @@ public class GameController {
     }
 
     @GetMapping("/{appId}/history")
-    public ResponseEntity<List<PlayerCountData>> getPlayerCountHistory(
+    public ResponseEntity<?> getPlayerCountHistory(
             @PathVariable Long appId,
-            @RequestParam(required = false) Integer days) {
+            @RequestParam(required = false) Integer days,
+            @RequestParam(required = false) Integer points,
+            @RequestParam(required = false) Long bucketSeconds,
+            @RequestParam(required = false) String mode,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         logger.info("Getting player count history for app ID: {}", appId);
 
         try {
-            List<PlayerCountData> history = gameService.getPlayerCountHistory(appId, days);
-            return ResponseEntity.ok(history);
+            List<PlayerCountData> history = gameService.getPlayerCountHistory(
+                    appId, days, points, bucketSeconds, DownsampleMode.fromParameter(mode));
+            ResponseFormat format = ResponseFormat.negotiate(accept);
+            Object body = switch (format) {
+                case JSON -> history;
+                case COLUMNAR_JSON -> ColumnarHistory.from(history);
+                case CBOR -> DeltaHistory.from(ColumnarHistory.from(history));
+            };
+            return ResponseEntity.ok()
+                    .contentType(format.getMediaType())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(body);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid history request for app ID {}: {}", appId, e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error getting player count history", e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    @GetMapping("/history")
+    public ResponseEntity<AlignedHistory> getAlignedHistory(
+            @RequestParam List<Long> appIds,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer days,
+            @RequestParam(required = false) Long bucketSeconds,
+            @RequestParam(required = false) Integer points,
+            @RequestParam(required = false) String mode) {
+        logger.info("Getting aligned player count history for app IDs: {}", appIds);
+
+        try {
+            LocalDateTime end = to != null ? to : LocalDateTime.now();
+            LocalDateTime start = from != null ? from : end.minusDays(days != null ? days : 7);
+            return ResponseEntity.ok(gameService.getAlignedHistory(
+                    appIds, start, end, bucketSeconds, points, DownsampleMode.fromParameter(mode)));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid aligned history request for app IDs {}: {}", appIds, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error getting aligned player count history", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping(value = "/{appId}/history/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamPlayerCountHistory(
+            @PathVariable Long appId,
+            @RequestParam(required = false) Integer days) {
+        logger.info("Streaming player count history for app ID: {}", appId);
+
+        StreamingResponseBody body = out -> gameService.streamPlayerCountHistory(appId, days, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    @GetMapping("/{appId}/history/page")
+    public ResponseEntity<PlayerCountPage> getPlayerCountHistoryPage(
+            @PathVariable Long appId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime after,
+            @RequestParam(required = false) Integer days,
+            @RequestParam(defaultValue = "1000") int limit) {
+        logger.info("Getting player count history page for app ID: {} after {}", appId, after);
+
+        try {
+            return ResponseEntity.ok(gameService.getPlayerCountHistoryPage(appId, after, days, limit));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid history page request for app ID {}: {}", appId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error getting player count history page", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToLiveSamples(@RequestParam(required = false) Set<Long> appIds) {
+        logger.info("Live sample subscription for app IDs: {}", appIds);
+        return liveSampleBroadcaster.subscribe(appIds != null ? appIds : Set.of());
+    }
+
     @GetMapping("/tracked")
-    public ResponseEntity<List<Game>> getAllTrackedGames() {
-        logger.info("Getting all tracked games");
+    public ResponseEntity<?> getTrackedGames(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest request) {
+        logger.debug("Getting tracked games page {} (size {}, sort {} {})", page, size, sort, direction);
 
+        if (page < 0 || size < 1 || size > MAX_TRACKED_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            List<Game> games = gameService.getAllTrackedGames();
-            logger.info("Found {} tracked games", games.size());
-            return ResponseEntity.ok(games);
+            TrackedGameSort sortKey = TrackedGameSort.fromParameter(sort);
+            boolean descending = "desc".equalsIgnoreCase(direction);
+            ResponseFormat format = ResponseFormat.negotiate(accept);
+            TrackedGamesCache.Snapshot snapshot = gameService.getTrackedGames();
+            String etag = format.etag(snapshot.getEtag());
+            // Clients revalidate every time; an unchanged snapshot costs a 304 without a body
+            if (request.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(CacheControl.noCache())
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .build();
+            }
+            TrackedGamesPage result = snapshot.getPage(sortKey, descending, page, size);
+            return ResponseEntity.ok()
+                    .contentType(format.getMediaType())
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(format == ResponseFormat.JSON ? result : ColumnarTrackedGamesPage.from(result));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error getting tracked games", e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    @GetMapping("/top")
+    public ResponseEntity<List<LeaderboardEntry>> getTopGames(@RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(gameService.getTopGames(limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{appId}/peaks")
+    public ResponseEntity<GamePeaks> getPeaks(@PathVariable Long appId) {
+        GamePeaks peaks = gameService.getPeaks(appId);
+        return peaks != null ? ResponseEntity.ok(peaks) : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/{appId}/stats")
+    public ResponseEntity<GameStats> getStats(@PathVariable Long appId) {
+        GameStats stats = gameService.getStats(appId);
+        return stats != null ? ResponseEntity.ok(stats) : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/anomalies")
+    public ResponseEntity<List<GameStats>> getAnomalies(@RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(gameService.getAnomalies(limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/hot-tier")
+    public ResponseEntity<HotTierStats> getHotTierStats() {
+        return ResponseEntity.ok(gameService.getHotTierStats());
+    }
+
+    @GetMapping("/storage")
+    public ResponseEntity<StorageStats> getStorageStats() {
+        return ResponseEntity.ok(gameService.getStorageStats());
+    }
+
+    @GetMapping("/sampling")
+    public ResponseEntity<List<SamplingStatus>> getSamplingStatus() {
+        return ResponseEntity.ok(gameService.getSamplingStatus());
+    }
+
+    @PutMapping("/{appId}/sampling-interval")
+    public ResponseEntity<String> setSamplingInterval(
+            @PathVariable Long appId,
+            @RequestParam(required = false) Integer seconds) {
+        logger.info("Request to set sampling interval for app ID: {} to {}", appId, seconds);
+
+        try {
+            gameService.setSamplingInterval(appId, seconds);
+            return ResponseEntity.ok(seconds != null
+                    ? "Sampling interval set to " + seconds + " seconds"
+                    : "Sampling interval is adaptive");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @PostMapping("/collect")
     public ResponseEntity<String> collectPlayerCounts() {
         logger.info("Manual player count collection triggered");
 
         try {
-            gameService.collectPlayerCountsForAllGames();
-            return ResponseEntity.ok("Player counts collected successfully");
+            CollectionCycleResult result = playerCountCollector.collectAll();
+            return ResponseEntity.ok(String.format(
+                    "Player counts collected successfully: %d of %d games in %d ms",
+                    result.getSamplesRecorded(), result.getGamesAttempted(), result.getDurationMillis()));
         } catch (Exception e) {
             logger.error("Error collecting player counts", e);
             return ResponseEntity.internalServerError()
@@ -101,6 +310,9 @@ public class GameController {
         try {
             gameService.startTrackingGame(appId, gameName);
             return ResponseEntity.ok("Game added successfully");
+        } catch (IllegalStateException e) {
+            logger.warn("Not adding game {}: {}", appId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (Exception e) {
             logger.error("Error adding game by ID", e);
             return ResponseEntity.internalServerError()
@@ -113,8 +325,10 @@ public class GameController {
         logger.info("Request to stop tracking game with app ID: {}", appId);
 
         try {
-            gameService.stopTrackingGame(appId);
-            return ResponseEntity.ok("Game untracked successfully");
+            JobStatus job = gameService.stopTrackingGame(appId);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/jobs/" + job.getId()))
+                    .body("Game untracked, history purge job " + job.getId() + " started");
         } catch (Exception e) {
             logger.error("Error stopping game tracking", e);
             return ResponseEntity.internalServerError()
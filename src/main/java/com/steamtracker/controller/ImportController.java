@@ -0,0 +1,61 @@
+package com.steamtracker.controller;
+
+import com.steamtracker.dto.ImportStatus;
+import com.steamtracker.service.BulkImportService;
+import com.steamtracker.service.PlayerCountImportReader;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/imports")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ImportController {
+    private static final Logger logger = LoggerFactory.getLogger(ImportController.class);
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    /**
+     * Imports the request body as it streams in: CSV for a text/csv body (or {@code format=csv}),
+     * JSON otherwise, gzipped or not. Pass the same {@code importId} again to resume an interrupted upload.
+     */
+    @PostMapping
+    public ResponseEntity<ImportStatus> importPlayerCounts(HttpServletRequest request,
+                                                           @RequestParam(required = false) String importId,
+                                                           @RequestParam(required = false) Long appId,
+                                                           @RequestParam(required = false) String format) throws IOException {
+        String id = importId != null ? importId : "upload-" + UUID.randomUUID();
+        PlayerCountImportReader.Format inputFormat =
+                PlayerCountImportReader.Format.of(format != null ? format : request.getContentType());
+        logger.info("Import {} uploaded as {}", id, inputFormat);
+        try (InputStream body = request.getInputStream()) {
+            ImportStatus status = bulkImportService.importPlayerCounts(id, "upload", body, inputFormat, appId);
+            return "SUCCEEDED".equals(status.getState())
+                    ? ResponseEntity.ok(status)
+                    : ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(status);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ImportStatus>> getImports() {
+        return ResponseEntity.ok(bulkImportService.getImports());
+    }
+
+    @GetMapping("/{importId}")
+    public ResponseEntity<ImportStatus> getImport(@PathVariable String importId) {
+        ImportStatus status = bulkImportService.getImport(importId);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+}
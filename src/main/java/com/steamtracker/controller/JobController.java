@@ -0,0 +1,40 @@
+package com.steamtracker.controller;
+
+import com.steamtracker.dto.JobStatus;
+import com.steamtracker.service.DataLifecycleJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/jobs")
+@CrossOrigin(origins = "http://localhost:3000")
+public class JobController {
+    private static final Logger logger = LoggerFactory.getLogger(JobController.class);
+
+    @Autowired
+    private DataLifecycleJobService dataLifecycleJobService;
+
+    @GetMapping
+    public ResponseEntity<List<JobStatus>> getJobs() {
+        return ResponseEntity.ok(dataLifecycleJobService.getJobs());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<JobStatus> getJob(@PathVariable long id) {
+        JobStatus job = dataLifecycleJobService.getJob(id);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
+
+    @PostMapping("/retention")
+    public ResponseEntity<JobStatus> startRetention() {
+        logger.info("Manual retention purge triggered");
+        JobStatus job = dataLifecycleJobService.submitRetention();
+        return ResponseEntity.accepted().location(URI.create("/api/jobs/" + job.getId())).body(job);
+    }
+}
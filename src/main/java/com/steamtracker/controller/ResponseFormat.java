@@ -0,0 +1,70 @@
+package com.steamtracker.controller;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Representations of the history and tracked games responses, chosen from the Accept header.
+ * Wildcards and anything unrecognised get the default JSON objects, so existing clients are unaffected.
+ */
+public enum ResponseFormat {
+    JSON(MediaType.APPLICATION_JSON, null),
+    COLUMNAR_JSON(MediaType.parseMediaType("application/vnd.steamtracker.columnar+json"), "columnar"),
+    CBOR(MediaType.parseMediaType("application/cbor"), "cbor");
+
+    private final MediaType mediaType;
+    private final String etagSuffix;
+
+    ResponseFormat(MediaType mediaType, String etagSuffix) {
+        this.mediaType = mediaType;
+        this.etagSuffix = etagSuffix;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Entity tag of this representation: every format of one resource version needs its own.
+     */
+    public String etag(String etag) {
+        if (etagSuffix == null || !etag.endsWith("\"")) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + etagSuffix + '"';
+    }
+
+    /**
+     * The format of the most preferred media type named exactly; JSON otherwise.
+     */
+    public static ResponseFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        // Stable sort: types of equal quality keep the client's order
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                break;
+            }
+            for (ResponseFormat format : values()) {
+                if (format.mediaType.equalsTypeAndSubtype(type)) {
+                    return format;
+                }
+            }
+            if (type.isWildcardType() || type.isWildcardSubtype() && type.getType().equals("application")) {
+                return JSON;
+            }
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,48 @@
+package com.steamtracker.dto;
+
+import java.util.Map;
+
+/**
+ * History of several games on one time axis, column by column: {@code timestamps[i]} is the start
+ * of bucket i (epoch millis, UTC) and {@code series.get(appId)[i]} that game's value in it,
+ * null when the game has no samples in the bucket.
+ */
+public class AlignedHistory {
+    private long bucketSeconds;
+    private long[] timestamps;
+    private Map<Long, Integer[]> series;
+
+    // Constructors
+    public AlignedHistory() {}
+
+    public AlignedHistory(long bucketSeconds, long[] timestamps, Map<Long, Integer[]> series) {
+        this.bucketSeconds = bucketSeconds;
+        this.timestamps = timestamps;
+        this.series = series;
+    }
+
+    // Getters and Setters
+    public long getBucketSeconds() {
+        return bucketSeconds;
+    }
+
+    public void setBucketSeconds(long bucketSeconds) {
+        this.bucketSeconds = bucketSeconds;
+    }
+
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    public void setTimestamps(long[] timestamps) {
+        this.timestamps = timestamps;
+    }
+
+    public Map<Long, Integer[]> getSeries() {
+        return series;
+    }
+
+    public void setSeries(Map<Long, Integer[]> series) {
+        this.series = series;
+    }
+}
@@ -0,0 +1,61 @@
+package com.steamtracker.dto;
+
+public class CollectionCycleResult {
+    private int gamesAttempted;
+    private int samplesRecorded;
+    private int failures;
+    private long durationMillis;
+    private double gamesPerSecond;
+
+    // Constructors
+    public CollectionCycleResult() {}
+
+    public CollectionCycleResult(int gamesAttempted, int samplesRecorded, int failures, long durationMillis) {
+        this.gamesAttempted = gamesAttempted;
+        this.samplesRecorded = samplesRecorded;
+        this.failures = failures;
+        this.durationMillis = durationMillis;
+        this.gamesPerSecond = durationMillis > 0 ? gamesAttempted * 1000.0 / durationMillis : gamesAttempted;
+    }
+
+    // Getters and Setters
+    public int getGamesAttempted() {
+        return gamesAttempted;
+    }
+
+    public void setGamesAttempted(int gamesAttempted) {
+        this.gamesAttempted = gamesAttempted;
+    }
+
+    public int getSamplesRecorded() {
+        return samplesRecorded;
+    }
+
+    public void setSamplesRecorded(int samplesRecorded) {
+        this.samplesRecorded = samplesRecorded;
+    }
+
+    public int getFailures() {
+        return failures;
+    }
+
+    public void setFailures(int failures) {
+        this.failures = failures;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public double getGamesPerSecond() {
+        return gamesPerSecond;
+    }
+
+    public void setGamesPerSecond(double gamesPerSecond) {
+        this.gamesPerSecond = gamesPerSecond;
+    }
+}
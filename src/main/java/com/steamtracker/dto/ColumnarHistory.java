@@ -0,0 +1,49 @@
+package com.steamtracker.dto;
+
+import java.util.List;
+
+/**
+ * History of one game as two parallel columns: {@code timestamps[i]} (epoch seconds, UTC) and
+ * {@code playerCounts[i]}. Served for {@code Accept: application/vnd.steamtracker.columnar+json},
+ * it drops the per-point keys and ISO date strings of the {@link PlayerCountData} list.
+ */
+public class ColumnarHistory {
+    private long[] timestamps;
+    private int[] playerCounts;
+
+    // Constructors
+    public ColumnarHistory() {}
+
+    public ColumnarHistory(long[] timestamps, int[] playerCounts) {
+        this.timestamps = timestamps;
+        this.playerCounts = playerCounts;
+    }
+
+    public static ColumnarHistory from(List<PlayerCountData> history) {
+        long[] timestamps = new long[history.size()];
+        int[] playerCounts = new int[history.size()];
+        for (int i = 0; i < history.size(); i++) {
+            PlayerCountData point = history.get(i);
+            timestamps[i] = Math.floorDiv(PlayerCountSeries.toEpochMillis(point.getTimestamp()), 1000);
+            playerCounts[i] = point.getPlayerCount() != null ? point.getPlayerCount() : 0;
+        }
+        return new ColumnarHistory(timestamps, playerCounts);
+    }
+
+    // Getters and Setters
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    public void setTimestamps(long[] timestamps) {
+        this.timestamps = timestamps;
+    }
+
+    public int[] getPlayerCounts() {
+        return playerCounts;
+    }
+
+    public void setPlayerCounts(int[] playerCounts) {
+        this.playerCounts = playerCounts;
+    }
+}
@@ -0,0 +1,131 @@
+package com.steamtracker.dto;
+
+import java.util.List;
+
+/**
+ * A {@link TrackedGamesPage} column by column: index i of every array describes the same game.
+ * Dates are epoch seconds (UTC); null entries mean the game has no such value yet.
+ */
+public class ColumnarTrackedGamesPage {
+    private int page;
+    private int size;
+    private int totalItems;
+    private int totalPages;
+    private long[] appIds;
+    private String[] names;
+    private Long[] createdAt;
+    private Long[] lastUpdated;
+    private Integer[] sampleIntervalSeconds;
+    private Integer[] currentPlayers;
+
+    // Constructors
+    public ColumnarTrackedGamesPage() {}
+
+    public static ColumnarTrackedGamesPage from(TrackedGamesPage page) {
+        List<TrackedGame> items = page.getItems();
+        ColumnarTrackedGamesPage columns = new ColumnarTrackedGamesPage();
+        columns.page = page.getPage();
+        columns.size = page.getSize();
+        columns.totalItems = page.getTotalItems();
+        columns.totalPages = page.getTotalPages();
+        columns.appIds = new long[items.size()];
+        columns.names = new String[items.size()];
+        columns.createdAt = new Long[items.size()];
+        columns.lastUpdated = new Long[items.size()];
+        columns.sampleIntervalSeconds = new Integer[items.size()];
+        columns.currentPlayers = new Integer[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            TrackedGame game = items.get(i);
+            columns.appIds[i] = game.getAppId();
+            columns.names[i] = game.getName();
+            columns.createdAt[i] = game.getCreatedAt() != null
+                    ? Math.floorDiv(PlayerCountSeries.toEpochMillis(game.getCreatedAt()), 1000) : null;
+            columns.lastUpdated[i] = game.getLastUpdated() != null
+                    ? Math.floorDiv(PlayerCountSeries.toEpochMillis(game.getLastUpdated()), 1000) : null;
+            columns.sampleIntervalSeconds[i] = game.getSampleIntervalSeconds();
+            columns.currentPlayers[i] = game.getCurrentPlayers();
+        }
+        return columns;
+    }
+
+    // Getters and Setters
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getTotalItems() {
+        return totalItems;
+    }
+
+    public void setTotalItems(int totalItems) {
+        this.totalItems = totalItems;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+
+    public long[] getAppIds() {
+        return appIds;
+    }
+
+    public void setAppIds(long[] appIds) {
+        this.appIds = appIds;
+    }
+
+    public String[] getNames() {
+        return names;
+    }
+
+    public void setNames(String[] names) {
+        this.names = names;
+    }
+
+    public Long[] getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Long[] createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long[] getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public void setLastUpdated(Long[] lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+
+    public Integer[] getSampleIntervalSeconds() {
+        return sampleIntervalSeconds;
+    }
+
+    public void setSampleIntervalSeconds(Integer[] sampleIntervalSeconds) {
+        this.sampleIntervalSeconds = sampleIntervalSeconds;
+    }
+
+    public Integer[] getCurrentPlayers() {
+        return currentPlayers;
+    }
+
+    public void setCurrentPlayers(Integer[] currentPlayers) {
+        this.currentPlayers = currentPlayers;
+    }
+}
@@ -0,0 +1,66 @@
+package com.steamtracker.dto;
+
+/**
+ * Columnar history with delta-encoded timestamps, served as CBOR for {@code Accept: application/cbor}.
+ * Sample {@code i} was recorded at {@code start} plus the sum of {@code timestampDeltas[0..i]}
+ * (epoch seconds, UTC; the first delta is 0). CBOR writes small integers in one to three bytes,
+ * so a 30 s delta costs 2 bytes where an epoch timestamp costs 5.
+ */
+public class DeltaHistory {
+    private long start;
+    private int[] timestampDeltas;
+    private int[] playerCounts;
+
+    // Constructors
+    public DeltaHistory() {}
+
+    public DeltaHistory(long start, int[] timestampDeltas, int[] playerCounts) {
+        this.start = start;
+        this.timestampDeltas = timestampDeltas;
+        this.playerCounts = playerCounts;
+    }
+
+    public static DeltaHistory from(ColumnarHistory history) {
+        long[] timestamps = history.getTimestamps();
+        int[] deltas = new int[timestamps.length];
+        for (int i = 1; i < timestamps.length; i++) {
+            deltas[i] = Math.toIntExact(timestamps[i] - timestamps[i - 1]);
+        }
+        return new DeltaHistory(timestamps.length > 0 ? timestamps[0] : 0, deltas, history.getPlayerCounts());
+    }
+
+    public ColumnarHistory toColumnar() {
+        long[] timestamps = new long[timestampDeltas.length];
+        long timestamp = start;
+        for (int i = 0; i < timestampDeltas.length; i++) {
+            timestamp += timestampDeltas[i];
+            timestamps[i] = timestamp;
+        }
+        return new ColumnarHistory(timestamps, playerCounts);
+    }
+
+    // Getters and Setters
+    public long getStart() {
+        return start;
+    }
+
+    public void setStart(long start) {
+        this.start = start;
+    }
+
+    public int[] getTimestampDeltas() {
+        return timestampDeltas;
+    }
+
+    public void setTimestampDeltas(int[] timestampDeltas) {
+        this.timestampDeltas = timestampDeltas;
+    }
+
+    public int[] getPlayerCounts() {
+        return playerCounts;
+    }
+
+    public void setPlayerCounts(int[] playerCounts) {
+        this.playerCounts = playerCounts;
+    }
+}
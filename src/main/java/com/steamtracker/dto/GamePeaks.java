@@ -0,0 +1,107 @@
+package com.steamtracker.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Current count and the 24h / 7d peaks and lows of one game; a field is null when the window has no samples.
+ */
+public class GamePeaks {
+    private Long appId;
+    private Integer currentPlayers;
+    private LocalDateTime recordedAt;
+    private Integer peak24h;
+    private LocalDateTime peak24hAt;
+    private Integer low24h;
+    private Integer peak7d;
+    private LocalDateTime peak7dAt;
+    private Integer low7d;
+
+    // Constructors
+    public GamePeaks() {}
+
+    public GamePeaks(Long appId, Integer currentPlayers, LocalDateTime recordedAt, Integer peak24h,
+                     LocalDateTime peak24hAt, Integer low24h, Integer peak7d, LocalDateTime peak7dAt, Integer low7d) {
+        this.appId = appId;
+        this.currentPlayers = currentPlayers;
+        this.recordedAt = recordedAt;
+        this.peak24h = peak24h;
+        this.peak24hAt = peak24hAt;
+        this.low24h = low24h;
+        this.peak7d = peak7d;
+        this.peak7dAt = peak7dAt;
+        this.low7d = low7d;
+    }
+
+    // Getters and Setters
+    public Long getAppId() {
+        return appId;
+    }
+
+    public void setAppId(Long appId) {
+        this.appId = appId;
+    }
+
+    public Integer getCurrentPlayers() {
+        return currentPlayers;
+    }
+
+    public void setCurrentPlayers(Integer currentPlayers) {
+        this.currentPlayers = currentPlayers;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+
+    public void setRecordedAt(LocalDateTime recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+
+    public Integer getPeak24h() {
+        return peak24h;
+    }
+
+    public void setPeak24h(Integer peak24h) {
+        this.peak24h = peak24h;
+    }
+
+    public LocalDateTime getPeak24hAt() {
+        return peak24hAt;
+    }
+
+    public void setPeak24hAt(LocalDateTime peak24hAt) {
+        this.peak24hAt = peak24hAt;
+    }
+
+    public Integer getLow24h() {
+        return low24h;
+    }
+
+    public void setLow24h(Integer low24h) {
+        this.low24h = low24h;
+    }
+
+    public Integer getPeak7d() {
+        return peak7d;
+    }
+
+    public void setPeak7d(Integer peak7d) {
+        this.peak7d = peak7d;
+    }
+
+    public LocalDateTime getPeak7dAt() {
+        return peak7dAt;
+    }
+
+    public void setPeak7dAt(LocalDateTime peak7dAt) {
+        this.peak7dAt = peak7dAt;
+    }
+
+    public Integer getLow7d() {
+        return low7d;
+    }
+
+    public void setLow7d(Integer low7d) {
+        this.low7d = low7d;
+    }
+}
@@ -0,0 +1,168 @@
+package com.steamtracker.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running statistics of one game, maintained at ingest: overall mean and standard deviation, short and long
+ * EWMAs and the trend between them, the baseline of the current hour of the week, and the z-score and
+ * status of the latest sample. Values that are not known yet (while warming up) are null.
+ */
+public class GameStats {
+    private Long appId;
+    private Long samples;
+    private Integer currentPlayers;
+    private LocalDateTime recordedAt;
+    private Double mean;
+    private Double stdDev;
+    private Double ewmaShort;
+    private Double ewmaLong;
+    private Double trendPercent;
+    private Double seasonalMean;
+    private Double seasonalStdDev;
+    private Integer seasonalSamples;
+    private Double currentZScore;
+    private String status;
+    private LocalDateTime lastAnomalyAt;
+    private String lastAnomalyType;
+    private Double lastAnomalyZScore;
+
+    // Constructors
+    public GameStats() {}
+
+    // Getters and Setters
+    public Long getAppId() {
+        return appId;
+    }
+
+    public void setAppId(Long appId) {
+        this.appId = appId;
+    }
+
+    public Long getSamples() {
+        return samples;
+    }
+
+    public void setSamples(Long samples) {
+        this.samples = samples;
+    }
+
+    public Integer getCurrentPlayers() {
+        return currentPlayers;
+    }
+
+    public void setCurrentPlayers(Integer currentPlayers) {
+        this.currentPlayers = currentPlayers;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+
+    public void setRecordedAt(LocalDateTime recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+
+    public Double getMean() {
+        return mean;
+    }
+
+    public void setMean(Double mean) {
+        this.mean = mean;
+    }
+
+    public Double getStdDev() {
+        return stdDev;
+    }
+
+    public void setStdDev(Double stdDev) {
+        this.stdDev = stdDev;
+    }
+
+    public Double getEwmaShort() {
+        return ewmaShort;
+    }
+
+    public void setEwmaShort(Double ewmaShort) {
+        this.ewmaShort = ewmaShort;
+    }
+
+    public Double getEwmaLong() {
+        return ewmaLong;
+    }
+
+    public void setEwmaLong(Double ewmaLong) {
+        this.ewmaLong = ewmaLong;
+    }
+
+    public Double getTrendPercent() {
+        return trendPercent;
+    }
+
+    public void setTrendPercent(Double trendPercent) {
+        this.trendPercent = trendPercent;
+    }
+
+    public Double getSeasonalMean() {
+        return seasonalMean;
+    }
+
+    public void setSeasonalMean(Double seasonalMean) {
+        this.seasonalMean = seasonalMean;
+    }
+
+    public Double getSeasonalStdDev() {
+        return seasonalStdDev;
+    }
+
+    public void setSeasonalStdDev(Double seasonalStdDev) {
+        this.seasonalStdDev = seasonalStdDev;
+    }
+
+    public Integer getSeasonalSamples() {
+        return seasonalSamples;
+    }
+
+    public void setSeasonalSamples(Integer seasonalSamples) {
+        this.seasonalSamples = seasonalSamples;
+    }
+
+    public Double getCurrentZScore() {
+        return currentZScore;
+    }
+
+    public void setCurrentZScore(Double currentZScore) {
+        this.currentZScore = currentZScore;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getLastAnomalyAt() {
+        return lastAnomalyAt;
+    }
+
+    public void setLastAnomalyAt(LocalDateTime lastAnomalyAt) {
+        this.lastAnomalyAt = lastAnomalyAt;
+    }
+
+    public String getLastAnomalyType() {
+        return lastAnomalyType;
+    }
+
+    public void setLastAnomalyType(String lastAnomalyType) {
+        this.lastAnomalyType = lastAnomalyType;
+    }
+
+    public Double getLastAnomalyZScore() {
+        return lastAnomalyZScore;
+    }
+
+    public void setLastAnomalyZScore(Double lastAnomalyZScore) {
+        this.lastAnomalyZScore = lastAnomalyZScore;
+    }
+}
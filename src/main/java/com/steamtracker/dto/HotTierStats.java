@@ -0,0 +1,71 @@
+package com.steamtracker.dto;
+
+public class HotTierStats {
+    private int hotHours;
+    private int capacityPerGame;
+    private int games;
+    private long samples;
+    private long footprintBytes;
+    private long footprintBytesPerGame;
+
+    // Constructors
+    public HotTierStats() {}
+
+    public HotTierStats(int hotHours, int capacityPerGame, int games, long samples, long footprintBytes) {
+        this.hotHours = hotHours;
+        this.capacityPerGame = capacityPerGame;
+        this.games = games;
+        this.samples = samples;
+        this.footprintBytes = footprintBytes;
+        this.footprintBytesPerGame = (long) capacityPerGame * (Long.BYTES + Integer.BYTES);
+    }
+
+    // Getters and Setters
+    public int getHotHours() {
+        return hotHours;
+    }
+
+    public void setHotHours(int hotHours) {
+        this.hotHours = hotHours;
+    }
+
+    public int getCapacityPerGame() {
+        return capacityPerGame;
+    }
+
+    public void setCapacityPerGame(int capacityPerGame) {
+        this.capacityPerGame = capacityPerGame;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public void setGames(int games) {
+        this.games = games;
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+
+    public void setSamples(long samples) {
+        this.samples = samples;
+    }
+
+    public long getFootprintBytes() {
+        return footprintBytes;
+    }
+
+    public void setFootprintBytes(long footprintBytes) {
+        this.footprintBytes = footprintBytes;
+    }
+
+    public long getFootprintBytesPerGame() {
+        return footprintBytesPerGame;
+    }
+
+    public void setFootprintBytesPerGame(long footprintBytesPerGame) {
+        this.footprintBytesPerGame = footprintBytesPerGame;
+    }
+}
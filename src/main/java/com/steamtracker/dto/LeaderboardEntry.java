@@ -0,0 +1,63 @@
+package com.steamtracker.dto;
+
+import java.time.LocalDateTime;
+
+public class LeaderboardEntry {
+    private int rank;
+    private Long appId;
+    private String name;
+    private int currentPlayers;
+    private LocalDateTime recordedAt;
+
+    // Constructors
+    public LeaderboardEntry() {}
+
+    public LeaderboardEntry(int rank, Long appId, String name, int currentPlayers, LocalDateTime recordedAt) {
+        this.rank = rank;
+        this.appId = appId;
+        this.name = name;
+        this.currentPlayers = currentPlayers;
+        this.recordedAt = recordedAt;
+    }
+
+    // Getters and Setters
+    public int getRank() {
+        return rank;
+    }
+
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+
+    public Long getAppId() {
+        return appId;
+    }
+
+    public void setAppId(Long appId) {
+        this.appId = appId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getCurrentPlayers() {
+        return currentPlayers;
+    }
+
+    public void setCurrentPlayers(int currentPlayers) {
+        this.currentPlayers = currentPlayers;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+
+    public void setRecordedAt(LocalDateTime recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+}
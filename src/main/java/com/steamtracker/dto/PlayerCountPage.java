@@ -0,0 +1,35 @@
+package com.steamtracker.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class PlayerCountPage {
+    private List<PlayerCountData> items;
+    private LocalDateTime nextCursor;
+
+    // Constructors
+    public PlayerCountPage() {}
+
+    public PlayerCountPage(List<PlayerCountData> items, LocalDateTime nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<PlayerCountData> getItems() {
+        return items;
+    }
+
+    public void setItems(List<PlayerCountData> items) {
+        this.items = items;
+    }
+
+    // Pass back as "after" to fetch the next page; null once the window is exhausted
+    public LocalDateTime getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(LocalDateTime nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
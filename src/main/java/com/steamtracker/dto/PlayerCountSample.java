@@ -0,0 +1,28 @@
+package com.steamtracker.dto;
+
+import java.time.LocalDateTime;
+
+// A single fetched player count, waiting to be persisted
+public class PlayerCountSample {
+    private final Long appId;
+    private final Integer playerCount;
+    private final LocalDateTime recordedAt;
+
+    public PlayerCountSample(Long appId, Integer playerCount, LocalDateTime recordedAt) {
+        this.appId = appId;
+        this.playerCount = playerCount;
+        this.recordedAt = recordedAt;
+    }
+
+    public Long getAppId() {
+        return appId;
+    }
+
+    public Integer getPlayerCount() {
+        return playerCount;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+}
@@ -0,0 +1,65 @@
+package com.steamtracker.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Growable primitive series of samples, timestamps in epoch milliseconds (UTC).
+ * Avoids one entity and one {@link LocalDateTime} per point while a series is processed.
+ */
+public class PlayerCountSeries {
+    private long[] timestamps;
+    private int[] counts;
+    private int size;
+
+    public PlayerCountSeries() {
+        this(256);
+    }
+
+    public PlayerCountSeries(int initialCapacity) {
+        this.timestamps = new long[Math.max(initialCapacity, 1)];
+        this.counts = new int[Math.max(initialCapacity, 1)];
+    }
+
+    public void add(long timestampMillis, int count) {
+        if (size == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, size * 2);
+            counts = Arrays.copyOf(counts, size * 2);
+        }
+        timestamps[size] = timestampMillis;
+        counts[size] = count;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    public int[] getCounts() {
+        return counts;
+    }
+
+    public List<PlayerCountData> toPlayerCountData() {
+        List<PlayerCountData> data = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            data.add(new PlayerCountData(toLocalDateTime(timestamps[i]), counts[i]));
+        }
+        return data;
+    }
+
+    public static long toEpochMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000),
+                Math.floorMod(epochMillis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,62 @@
+package com.steamtracker.dto;
+
+public class SamplingStatus {
+    private Long appId;
+    private long intervalSeconds;
+    private boolean overridden;
+    private long nextDueMillis;
+    private double changePerSecond;
+
+    // Constructors
+    public SamplingStatus() {}
+
+    public SamplingStatus(Long appId, long intervalSeconds, boolean overridden, long nextDueMillis,
+                          double changePerSecond) {
+        this.appId = appId;
+        this.intervalSeconds = intervalSeconds;
+        this.overridden = overridden;
+        this.nextDueMillis = nextDueMillis;
+        this.changePerSecond = changePerSecond;
+    }
+
+    // Getters and Setters
+    public Long getAppId() {
+        return appId;
+    }
+
+    public void setAppId(Long appId) {
+        this.appId = appId;
+    }
+
+    public long getIntervalSeconds() {
+        return intervalSeconds;
+    }
+
+    public void setIntervalSeconds(long intervalSeconds) {
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    public boolean isOverridden() {
+        return overridden;
+    }
+
+    public void setOverridden(boolean overridden) {
+        this.overridden = overridden;
+    }
+
+    public long getNextDueMillis() {
+        return nextDueMillis;
+    }
+
+    public void setNextDueMillis(long nextDueMillis) {
+        this.nextDueMillis = nextDueMillis;
+    }
+
+    public double getChangePerSecond() {
+        return changePerSecond;
+    }
+
+    public void setChangePerSecond(double changePerSecond) {
+        this.changePerSecond = changePerSecond;
+    }
+}
@@ -0,0 +1,69 @@
+package com.steamtracker.dto;
+
+public class StorageStats {
+    private long rawRows;
+    private long rawBytes;
+    private long blocks;
+    private long blockSamples;
+    private long blockBytes;
+
+    // Constructors
+    public StorageStats() {}
+
+    public StorageStats(long rawRows, long rawBytes, long blocks, long blockSamples, long blockBytes) {
+        this.rawRows = rawRows;
+        this.rawBytes = rawBytes;
+        this.blocks = blocks;
+        this.blockSamples = blockSamples;
+        this.blockBytes = blockBytes;
+    }
+
+    // Getters and Setters
+    public long getRawRows() {
+        return rawRows;
+    }
+
+    public void setRawRows(long rawRows) {
+        this.rawRows = rawRows;
+    }
+
+    public long getRawBytes() {
+        return rawBytes;
+    }
+
+    public void setRawBytes(long rawBytes) {
+        this.rawBytes = rawBytes;
+    }
+
+    public long getBlocks() {
+        return blocks;
+    }
+
+    public void setBlocks(long blocks) {
+        this.blocks = blocks;
+    }
+
+    public long getBlockSamples() {
+        return blockSamples;
+    }
+
+    public void setBlockSamples(long blockSamples) {
+        this.blockSamples = blockSamples;
+    }
+
+    public long getBlockBytes() {
+        return blockBytes;
+    }
+
+    public void setBlockBytes(long blockBytes) {
+        this.blockBytes = blockBytes;
+    }
+
+    public double getBytesPerRawSample() {
+        return rawRows > 0 ? (double) rawBytes / rawRows : 0;
+    }
+
+    public double getBytesPerBlockSample() {
+        return blockSamples > 0 ? (double) blockBytes / blockSamples : 0;
+    }
+}
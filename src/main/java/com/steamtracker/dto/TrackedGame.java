@@ -0,0 +1,75 @@
+package com.steamtracker.dto;
+
+import java.time.LocalDateTime;
+
+public class TrackedGame {
+    private Long appId;
+    private String name;
+    private LocalDateTime createdAt;
+    private LocalDateTime lastUpdated;
+    private Integer sampleIntervalSeconds;
+    private Integer currentPlayers;
+
+    // Constructors
+    public TrackedGame() {}
+
+    public TrackedGame(Long appId, String name, LocalDateTime createdAt, LocalDateTime lastUpdated,
+                       Integer sampleIntervalSeconds, Integer currentPlayers) {
+        this.appId = appId;
+        this.name = name;
+        this.createdAt = createdAt;
+        this.lastUpdated = lastUpdated;
+        this.sampleIntervalSeconds = sampleIntervalSeconds;
+        this.currentPlayers = currentPlayers;
+    }
+
+    // Getters and Setters
+    public Long getAppId() {
+        return appId;
+    }
+
+    public void setAppId(Long appId) {
+        this.appId = appId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public void setLastUpdated(LocalDateTime lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+
+    public Integer getSampleIntervalSeconds() {
+        return sampleIntervalSeconds;
+    }
+
+    public void setSampleIntervalSeconds(Integer sampleIntervalSeconds) {
+        this.sampleIntervalSeconds = sampleIntervalSeconds;
+    }
+
+    // Latest sample, null until the game has one
+    public Integer getCurrentPlayers() {
+        return currentPlayers;
+    }
+
+    public void setCurrentPlayers(Integer currentPlayers) {
+        this.currentPlayers = currentPlayers;
+    }
+}
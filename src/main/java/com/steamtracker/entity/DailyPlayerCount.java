@@ -0,0 +1,9 @@
+package com.steamtracker.entity;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "player_counts_daily")
+@IdClass(PlayerCountRollupId.class)
+public class DailyPlayerCount extends PlayerCountRollup {
+}
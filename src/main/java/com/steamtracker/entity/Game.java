@@ -21,6 +21,15 @@ public class Game {
     @Column(name = "last_updated")
     private LocalDateTime lastUpdated;
 
+    // Fixed sampling interval; null lets the scheduler adapt it
+    @Column(name = "sample_interval_seconds")
+    private Integer sampleIntervalSeconds;
+
+    // Set when the game is untracked; the row is deleted once its history has been purged
+    @Column(name = "untracked_at")
+    @JsonIgnore
+    private LocalDateTime untrackedAt;
+
     @OneToMany(mappedBy = "game", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore  // Add this annotation to prevent JSON serialization issues
     private List<PlayerCount> playerCounts = new ArrayList<>();
@@ -68,6 +77,22 @@ public class Game {
         this.lastUpdated = lastUpdated;
     }
 
+    public Integer getSampleIntervalSeconds() {
+        return sampleIntervalSeconds;
+    }
+
+    public void setSampleIntervalSeconds(Integer sampleIntervalSeconds) {
+        this.sampleIntervalSeconds = sampleIntervalSeconds;
+    }
+
+    public LocalDateTime getUntrackedAt() {
+        return untrackedAt;
+    }
+
+    public void setUntrackedAt(LocalDateTime untrackedAt) {
+        this.untrackedAt = untrackedAt;
+    }
+
     public List<PlayerCount> getPlayerCounts() {
         return playerCounts;
     }
@@ -0,0 +1,105 @@
+package com.steamtracker.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One day of raw samples of one game, packed with {@code SampleBlockCodec}.
+ * Rows are written with SQL by the block compactor; the entity mapping only defines the schema.
+ */
+@Entity
+@Table(name = "player_count_blocks", indexes = @Index(name = "idx_player_count_blocks_last_recorded_at",
+        columnList = "last_recorded_at"))
+@IdClass(PlayerCountBlockId.class)
+public class PlayerCountBlock {
+    @Id
+    @Column(name = "app_id")
+    private Long appId;
+
+    @Id
+    @Column(name = "block_start")
+    private LocalDateTime blockStart;
+
+    @Column(name = "first_recorded_at", nullable = false)
+    private LocalDateTime firstRecordedAt;
+
+    @Column(name = "last_recorded_at", nullable = false)
+    private LocalDateTime lastRecordedAt;
+
+    @Column(name = "sample_count", nullable = false)
+    private Integer sampleCount;
+
+    @Column(name = "min_count", nullable = false)
+    private Integer minCount;
+
+    @Column(name = "max_count", nullable = false)
+    private Integer maxCount;
+
+    @Column(name = "data", nullable = false, columnDefinition = "bytea")
+    private byte[] data;
+
+    // Getters and Setters
+    public Long getAppId() {
+        return appId;
+    }
+
+    public void setAppId(Long appId) {
+        this.appId = appId;
+    }
+
+    public LocalDateTime getBlockStart() {
+        return blockStart;
+    }
+
+    public void setBlockStart(LocalDateTime blockStart) {
+        this.blockStart = blockStart;
+    }
+
+    public LocalDateTime getFirstRecordedAt() {
+        return firstRecordedAt;
+    }
+
+    public void setFirstRecordedAt(LocalDateTime firstRecordedAt) {
+        this.firstRecordedAt = firstRecordedAt;
+    }
+
+    public LocalDateTime getLastRecordedAt() {
+        return lastRecordedAt;
+    }
+
+    public void setLastRecordedAt(LocalDateTime lastRecordedAt) {
+        this.lastRecordedAt = lastRecordedAt;
+    }
+
+    public Integer getSampleCount() {
+        return sampleCount;
+    }
+
+    public void setSampleCount(Integer sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+    public Integer getMinCount() {
+        return minCount;
+    }
+
+    public void setMinCount(Integer minCount) {
+        this.minCount = minCount;
+    }
+
+    public Integer getMaxCount() {
+        return maxCount;
+    }
+
+    public void setMaxCount(Integer maxCount) {
+        this.maxCount = maxCount;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public void setData(byte[] data) {
+        this.data = data;
+    }
+}
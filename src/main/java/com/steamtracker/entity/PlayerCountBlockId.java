@@ -0,0 +1,30 @@
+package com.steamtracker.entity;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Composite key of player_count_blocks: one block per game per day
+public class PlayerCountBlockId implements Serializable {
+    private Long appId;
+    private LocalDateTime blockStart;
+
+    public PlayerCountBlockId() {}
+
+    public PlayerCountBlockId(Long appId, LocalDateTime blockStart) {
+        this.appId = appId;
+        this.blockStart = blockStart;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PlayerCountBlockId other)) return false;
+        return Objects.equals(appId, other.appId) && Objects.equals(blockStart, other.blockStart);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(appId, blockStart);
+    }
+}
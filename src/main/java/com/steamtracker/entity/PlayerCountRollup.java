@@ -0,0 +1,102 @@
+package com.steamtracker.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate of all samples of one game inside one time bucket.
+ * Rows are maintained with SQL upserts on every write; the entity mapping only defines the schema.
+ */
+@MappedSuperclass
+public abstract class PlayerCountRollup {
+    @Id
+    @Column(name = "app_id")
+    private Long appId;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Column(name = "min_count", nullable = false)
+    private Integer minCount;
+
+    @Column(name = "max_count", nullable = false)
+    private Integer maxCount;
+
+    @Column(name = "sum_count", nullable = false)
+    private Long sumCount;
+
+    @Column(name = "sample_count", nullable = false)
+    private Integer sampleCount;
+
+    @Column(name = "last_count", nullable = false)
+    private Integer lastCount;
+
+    @Column(name = "last_recorded_at", nullable = false)
+    private LocalDateTime lastRecordedAt;
+
+    // Getters and Setters
+    public Long getAppId() {
+        return appId;
+    }
+
+    public void setAppId(Long appId) {
+        this.appId = appId;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public Integer getMinCount() {
+        return minCount;
+    }
+
+    public void setMinCount(Integer minCount) {
+        this.minCount = minCount;
+    }
+
+    public Integer getMaxCount() {
+        return maxCount;
+    }
+
+    public void setMaxCount(Integer maxCount) {
+        this.maxCount = maxCount;
+    }
+
+    public Long getSumCount() {
+        return sumCount;
+    }
+
+    public void setSumCount(Long sumCount) {
+        this.sumCount = sumCount;
+    }
+
+    public Integer getSampleCount() {
+        return sampleCount;
+    }
+
+    public void setSampleCount(Integer sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+    public Integer getLastCount() {
+        return lastCount;
+    }
+
+    public void setLastCount(Integer lastCount) {
+        this.lastCount = lastCount;
+    }
+
+    public LocalDateTime getLastRecordedAt() {
+        return lastRecordedAt;
+    }
+
+    public void setLastRecordedAt(LocalDateTime lastRecordedAt) {
+        this.lastRecordedAt = lastRecordedAt;
+    }
+}
@@ -0,0 +1,30 @@
+package com.steamtracker.entity;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Composite key shared by the rollup tables: one row per game per bucket
+public class PlayerCountRollupId implements Serializable {
+    private Long appId;
+    private LocalDateTime bucketStart;
+
+    public PlayerCountRollupId() {}
+
+    public PlayerCountRollupId(Long appId, LocalDateTime bucketStart) {
+        this.appId = appId;
+        this.bucketStart = bucketStart;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PlayerCountRollupId other)) return false;
+        return Objects.equals(appId, other.appId) && Objects.equals(bucketStart, other.bucketStart);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(appId, bucketStart);
+    }
+}
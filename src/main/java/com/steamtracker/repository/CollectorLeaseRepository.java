@@ -0,0 +1,78 @@
+package com.steamtracker.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Heartbeats of collector instances and leases on collector_shards (see V4__collector_leases.sql).
+ * Lease times come from the database clock, so instance clocks do not have to agree.
+ */
+@Repository
+public class CollectorLeaseRepository {
+
+    private static final String CLAIM_SQL =
+            "UPDATE collector_shards SET owner_id = ?, lease_until = now() + make_interval(secs => ?) " +
+            "WHERE shard_id IN (SELECT shard_id FROM collector_shards " +
+            "WHERE owner_id IS NULL OR lease_until < now() ORDER BY shard_id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING shard_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates the shard rows if the table has fewer than {@code shards}.
+     */
+    public void ensureShards(int shards) {
+        jdbcTemplate.update("INSERT INTO collector_shards (shard_id) SELECT generate_series(0, ? - 1) " +
+                "ON CONFLICT (shard_id) DO NOTHING", shards);
+    }
+
+    /**
+     * Records a heartbeat for {@code instanceId}, forgets instances silent for longer than
+     * {@code leaseSeconds} and returns how many are left, this one included.
+     */
+    public int heartbeat(String instanceId, int leaseSeconds) {
+        jdbcTemplate.update("INSERT INTO collector_instances (instance_id, heartbeat_at) VALUES (?, now()) " +
+                "ON CONFLICT (instance_id) DO UPDATE SET heartbeat_at = now()", instanceId);
+        jdbcTemplate.update("DELETE FROM collector_instances WHERE heartbeat_at < now() - make_interval(secs => ?)",
+                leaseSeconds);
+        Integer live = jdbcTemplate.queryForObject("SELECT count(*) FROM collector_instances", Integer.class);
+        return live != null ? live : 1;
+    }
+
+    /**
+     * Extends every lease still held by {@code instanceId}.
+     *
+     * @return the shards it holds, in order
+     */
+    public List<Integer> renew(String instanceId, int leaseSeconds) {
+        return jdbcTemplate.queryForList("UPDATE collector_shards SET lease_until = now() + make_interval(secs => ?) " +
+                "WHERE owner_id = ? RETURNING shard_id", Integer.class, leaseSeconds, instanceId)
+                .stream().sorted().toList();
+    }
+
+    /**
+     * Leases up to {@code limit} shards that are free or whose lease ran out.
+     *
+     * @return the shards claimed
+     */
+    public List<Integer> claim(String instanceId, int leaseSeconds, int limit) {
+        return jdbcTemplate.queryForList(CLAIM_SQL, Integer.class, instanceId, leaseSeconds, limit);
+    }
+
+    public void release(String instanceId, List<Integer> shards) {
+        for (Integer shard : shards) {
+            jdbcTemplate.update("UPDATE collector_shards SET owner_id = NULL, lease_until = NULL " +
+                    "WHERE shard_id = ? AND owner_id = ?", shard, instanceId);
+        }
+    }
+
+    public void leave(String instanceId) {
+        jdbcTemplate.update("UPDATE collector_shards SET owner_id = NULL, lease_until = NULL WHERE owner_id = ?",
+                instanceId);
+        jdbcTemplate.update("DELETE FROM collector_instances WHERE instance_id = ?", instanceId);
+    }
+}
@@ -2,20 +2,56 @@ package com.steamtracker.repository;
 
 import com.steamtracker.entity.Game;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Games being untracked keep their row until their history is purged; the "Tracked" queries skip them.
+ */
 @Repository
 public interface GameRepository extends JpaRepository<Game, Long> {
 
-    @Query("SELECT g FROM Game g WHERE LOWER(g.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    List<Game> findByNameContainingIgnoreCase(@Param("searchTerm") String searchTerm);
-
     Optional<Game> findByAppId(Long appId);
 
     boolean existsByAppId(Long appId);
+
+    @Query("SELECT g FROM Game g WHERE g.untrackedAt IS NULL")
+    List<Game> findAllTracked();
+
+    @Query("SELECT g FROM Game g WHERE g.appId IN :appIds AND g.untrackedAt IS NULL")
+    List<Game> findTrackedByAppIds(@Param("appIds") Collection<Long> appIds);
+
+    @Query("SELECT g FROM Game g WHERE g.appId = :appId AND g.untrackedAt IS NULL")
+    Optional<Game> findTrackedByAppId(@Param("appId") Long appId);
+
+    /**
+     * App ID, sampling interval override and last update of every tracked game.
+     */
+    @Query("SELECT g.appId, g.sampleIntervalSeconds, g.lastUpdated FROM Game g WHERE g.untrackedAt IS NULL")
+    List<Object[]> findTrackedSamplingState();
+
+    @Query("SELECT COUNT(g) > 0 FROM Game g WHERE g.appId = :appId AND g.untrackedAt IS NULL")
+    boolean isTracked(@Param("appId") Long appId);
+
+    /**
+     * @return 1 if the game was tracked and is now marked as untracked
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Game g SET g.untrackedAt = :now WHERE g.appId = :appId AND g.untrackedAt IS NULL")
+    int markUntracked(@Param("appId") Long appId, @Param("now") LocalDateTime now);
+
+    // Bulk delete: skips the cascade to playerCounts, which the purge job has already emptied
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Game g WHERE g.appId = :appId AND g.untrackedAt IS NOT NULL")
+    int deleteUntracked(@Param("appId") Long appId);
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.steamtracker.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checkpoints of the per-game running statistics (see V7__game_stats.sql); the state is an opaque
+ * byte array written by {@code RunningStats}. Rows are removed with their game.
+ */
+@Repository
+public class GameStatsRepository {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO game_stats (app_id, state, updated_at) " +
+            "SELECT ?, ?, now() WHERE EXISTS (SELECT 1 FROM games WHERE app_id = ? AND untracked_at IS NULL) " +
+            "ON CONFLICT (app_id) DO UPDATE SET state = EXCLUDED.state, updated_at = EXCLUDED.updated_at";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Writes the checkpoints of games that are still tracked; the others are skipped.
+     */
+    public void saveAll(Map<Long, byte[]> states) {
+        List<Object[]> batch = states.entrySet().stream()
+                .map(entry -> new Object[]{entry.getKey(), entry.getValue(), entry.getKey()})
+                .toList();
+        jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+    }
+
+    /**
+     * Streams the checkpoints of tracked games written after {@code sinceMillis} (all of them for 0).
+     */
+    public void forEachUpdatedSince(long sinceMillis, StateHandler handler) {
+        jdbcTemplate.query("SELECT s.app_id, s.state, s.updated_at FROM game_stats s " +
+                        "JOIN games g ON g.app_id = s.app_id " +
+                        "WHERE g.untracked_at IS NULL AND s.updated_at > ?",
+                rs -> {
+                    handler.accept(rs.getLong(1), rs.getBytes(2), rs.getTimestamp(3).getTime());
+                },
+                new Timestamp(sinceMillis));
+    }
+
+    @FunctionalInterface
+    public interface StateHandler {
+        void accept(long appId, byte[] state, long updatedMillis);
+    }
+}
@@ -0,0 +1,34 @@
+package com.steamtracker.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Progress of each bulk import (see V8__import_checkpoints.sql), so an interrupted import resumes
+ * after the records it has loaded. Records loaded past the checkpoint are found again as duplicates.
+ */
+@Repository
+public class ImportCheckpointRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Number of leading records of {@code importId} already loaded, 0 for a new import.
+     */
+    public long findRecordsDone(String importId) {
+        List<Long> records = jdbcTemplate.queryForList(
+                "SELECT records_done FROM import_checkpoints WHERE import_id = ?", Long.class, importId);
+        return records.isEmpty() ? 0 : records.get(0);
+    }
+
+    public void advance(String importId, long recordsDone) {
+        jdbcTemplate.update("INSERT INTO import_checkpoints (import_id, records_done) VALUES (?, ?) " +
+                "ON CONFLICT (import_id) DO UPDATE SET records_done = " +
+                "GREATEST(import_checkpoints.records_done, EXCLUDED.records_done), updated_at = now()",
+                importId, recordsDone);
+    }
+}
@@ -0,0 +1,35 @@
+package com.steamtracker.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Flushed position of each {@link SampleJournal} (see V6__sample_journal_checkpoints.sql).
+ * It is advanced in the transaction that inserts the flushed samples, so after a crash every
+ * journaled sample is written exactly once.
+ */
+@Repository
+public class JournalCheckpointRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Sequence of the last sample of {@code journalId} in the database, 0 if none is.
+     */
+    public long findFlushedSequence(String journalId) {
+        List<Long> sequences = jdbcTemplate.queryForList(
+                "SELECT flushed_sequence FROM sample_journal_checkpoints WHERE journal_id = ?", Long.class, journalId);
+        return sequences.isEmpty() ? 0 : sequences.get(0);
+    }
+
+    public void advance(String journalId, long flushedSequence) {
+        jdbcTemplate.update("INSERT INTO sample_journal_checkpoints (journal_id, flushed_sequence) VALUES (?, ?) " +
+                "ON CONFLICT (journal_id) DO UPDATE SET flushed_sequence = " +
+                "GREATEST(sample_journal_checkpoints.flushed_sequence, EXCLUDED.flushed_sequence), updated_at = now()",
+                journalId, flushedSequence);
+    }
+}
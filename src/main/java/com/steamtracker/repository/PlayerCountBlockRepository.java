@@ -0,0 +1,244 @@
+package com.steamtracker.repository;
+
+import com.steamtracker.dto.PlayerCountSeries;
+import com.steamtracker.dto.StorageStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes and maintains player_count_blocks, the compressed form of raw samples.
+ * Reads go through {@link PlayerCountSeriesRepository}, which merges blocks with unsealed rows.
+ */
+@Repository
+public class PlayerCountBlockRepository {
+
+    private static final int FETCH_SIZE = 5_000;
+    private static final int UPSERT_BATCH_SIZE = 500;
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private static final String DAY_SAMPLES_SQL =
+            "SELECT app_id, recorded_at, player_count FROM player_counts " +
+            "WHERE recorded_at >= ? AND recorded_at < ? " +
+            "AND app_id IN (SELECT app_id FROM games WHERE untracked_at IS NULL) " +
+            "ORDER BY app_id, recorded_at";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO player_count_blocks (app_id, block_start, first_recorded_at, last_recorded_at, " +
+            "sample_count, min_count, max_count, data) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (app_id, block_start) DO UPDATE SET " +
+            "first_recorded_at = EXCLUDED.first_recorded_at, last_recorded_at = EXCLUDED.last_recorded_at, " +
+            "sample_count = EXCLUDED.sample_count, min_count = EXCLUDED.min_count, " +
+            "max_count = EXCLUDED.max_count, data = EXCLUDED.data";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Start of the oldest day that has raw rows in {@code [from, to)}, or null when there is none.
+     */
+    public LocalDateTime findOldestRawDay(LocalDateTime from, LocalDateTime to) {
+        Timestamp oldest = jdbcTemplate.queryForObject(
+                "SELECT date_trunc('day', min(recorded_at)) FROM player_counts WHERE recorded_at >= ? AND recorded_at < ?",
+                Timestamp.class, Timestamp.valueOf(from), Timestamp.valueOf(to));
+        return oldest != null ? oldest.toLocalDateTime() : null;
+    }
+
+    /**
+     * Packs every raw row of the day starting at {@code dayStart} into one block per game and deletes
+     * the rows. Rows that arrive for a day that already has a block are merged into it; rows of games
+     * being untracked are deleted without sealing.
+     * Runs on one snapshot, so rows committed while sealing stay in player_counts for the next run.
+     *
+     * @return the number of samples sealed
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public int sealDay(LocalDateTime dayStart) {
+        Timestamp from = Timestamp.valueOf(dayStart);
+        Timestamp to = Timestamp.valueOf(dayStart.plusDays(1));
+
+        Map<Long, byte[]> existing = new HashMap<>();
+        jdbcTemplate.query("SELECT app_id, data FROM player_count_blocks WHERE block_start = ?",
+                rs -> {
+                    existing.put(rs.getLong(1), rs.getBytes(2));
+                }, from);
+
+        List<Object[]> batch = new ArrayList<>();
+        Integer sealed = jdbcTemplate.query(connection -> {
+            var ps = connection.prepareStatement(DAY_SAMPLES_SQL);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setTimestamp(1, from);
+            ps.setTimestamp(2, to);
+            return ps;
+        }, rs -> {
+            int samples = 0;
+            long appId = -1;
+            PlayerCountSeries series = new PlayerCountSeries();
+            while (rs.next()) {
+                long rowAppId = rs.getLong(1);
+                if (rowAppId != appId && series.size() > 0) {
+                    addBlock(batch, appId, from, series, existing.get(appId));
+                    series = new PlayerCountSeries();
+                }
+                appId = rowAppId;
+                series.add(PlayerCountSeries.toEpochMillis(rs.getTimestamp(2).toLocalDateTime()), rs.getInt(3));
+                samples++;
+            }
+            if (series.size() > 0) {
+                addBlock(batch, appId, from, series, existing.get(appId));
+            }
+            return samples;
+        });
+        flush(batch);
+
+        jdbcTemplate.update("DELETE FROM player_counts WHERE recorded_at >= ? AND recorded_at < ?", from, to);
+        return sealed != null ? sealed : 0;
+    }
+
+    /**
+     * Marks which of the samples (epoch milliseconds) are already sealed into a block of their game,
+     * reading only the blocks of the days they fall in.
+     */
+    public boolean[] findSealed(long[] appIds, long[] timestamps, int size) {
+        Map<Long, Set<Long>> daysByApp = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            daysByApp.computeIfAbsent(appIds[i], id -> new HashSet<>()).add(Math.floorDiv(timestamps[i], DAY_MILLIS));
+        }
+        List<Long> blockAppIds = new ArrayList<>();
+        List<Timestamp> blockStarts = new ArrayList<>();
+        daysByApp.forEach((appId, days) -> days.forEach(day -> {
+            blockAppIds.add(appId);
+            blockStarts.add(Timestamp.valueOf(PlayerCountSeries.toLocalDateTime(day * DAY_MILLIS)));
+        }));
+
+        Map<Long, Map<Long, long[]>> sealed = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            var ps = connection.prepareStatement("SELECT b.app_id, b.block_start, b.data FROM player_count_blocks b " +
+                    "JOIN unnest(?::bigint[], ?::timestamp[]) AS k(app_id, block_start) " +
+                    "ON b.app_id = k.app_id AND b.block_start = k.block_start");
+            ps.setArray(1, connection.createArrayOf("bigint", blockAppIds.toArray()));
+            ps.setArray(2, connection.createArrayOf("timestamp", blockStarts.toArray()));
+            return ps;
+        }, rs -> {
+            byte[] block = rs.getBytes(3);
+            long[] blockTimestamps = new long[SampleBlockCodec.sampleCount(block)];
+            SampleBlockCodec.decode(block, blockTimestamps, new int[blockTimestamps.length]);
+            long day = Math.floorDiv(PlayerCountSeries.toEpochMillis(rs.getTimestamp(2).toLocalDateTime()), DAY_MILLIS);
+            sealed.computeIfAbsent(rs.getLong(1), id -> new HashMap<>()).put(day, blockTimestamps);
+        });
+
+        boolean[] result = new boolean[size];
+        if (sealed.isEmpty()) {
+            return result;
+        }
+        for (int i = 0; i < size; i++) {
+            Map<Long, long[]> days = sealed.get(appIds[i]);
+            long[] blockTimestamps = days != null ? days.get(Math.floorDiv(timestamps[i], DAY_MILLIS)) : null;
+            result[i] = blockTimestamps != null && Arrays.binarySearch(blockTimestamps, timestamps[i]) >= 0;
+        }
+        return result;
+    }
+
+    /**
+     * Deletes up to {@code limit} blocks of a game; fewer than {@code limit} means none are left.
+     */
+    public int deleteChunkByAppId(Long appId, int limit) {
+        return jdbcTemplate.update("DELETE FROM player_count_blocks WHERE (app_id, block_start) IN " +
+                "(SELECT app_id, block_start FROM player_count_blocks WHERE app_id = ? LIMIT ?)", appId, limit);
+    }
+
+    /**
+     * Deletes up to {@code limit} blocks whose newest sample is older than {@code cutoff};
+     * fewer than {@code limit} means none are left.
+     */
+    public int deleteChunkOlderThan(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update("DELETE FROM player_count_blocks WHERE (app_id, block_start) IN " +
+                "(SELECT app_id, block_start FROM player_count_blocks WHERE last_recorded_at < ? LIMIT ?)",
+                Timestamp.valueOf(cutoff), limit);
+    }
+
+    /**
+     * On-disk size of both raw layouts, including indexes and TOAST. Raw row counts are the planner's estimate.
+     */
+    public StorageStats getStorageStats() {
+        return jdbcTemplate.queryForObject(
+                "SELECT (SELECT greatest(reltuples, 0)::bigint FROM pg_class WHERE oid = 'player_counts'::regclass), " +
+                "pg_total_relation_size('player_counts'), " +
+                "(SELECT count(*) FROM player_count_blocks), " +
+                "(SELECT coalesce(sum(sample_count), 0) FROM player_count_blocks), " +
+                "pg_total_relation_size('player_count_blocks')",
+                (rs, rowNum) -> new StorageStats(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4),
+                        rs.getLong(5)));
+    }
+
+    private void addBlock(List<Object[]> batch, long appId, Timestamp blockStart, PlayerCountSeries series,
+                          byte[] existingBlock) {
+        long[] timestamps = series.getTimestamps();
+        int[] counts = series.getCounts();
+        int size = series.size();
+        if (existingBlock != null) {
+            int existingSize = SampleBlockCodec.sampleCount(existingBlock);
+            long[] oldTimestamps = new long[existingSize];
+            int[] oldCounts = new int[existingSize];
+            SampleBlockCodec.decode(existingBlock, oldTimestamps, oldCounts);
+            PlayerCountSeries merged = merge(oldTimestamps, oldCounts, existingSize, timestamps, counts, size);
+            timestamps = merged.getTimestamps();
+            counts = merged.getCounts();
+            size = merged.size();
+        }
+
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, counts[i]);
+            max = Math.max(max, counts[i]);
+        }
+        batch.add(new Object[]{appId, blockStart,
+                Timestamp.valueOf(PlayerCountSeries.toLocalDateTime(timestamps[0])),
+                Timestamp.valueOf(PlayerCountSeries.toLocalDateTime(timestamps[size - 1])),
+                size, min, max, SampleBlockCodec.encode(timestamps, counts, size)});
+        if (batch.size() >= UPSERT_BATCH_SIZE) {
+            flush(batch);
+        }
+    }
+
+    // Both inputs are time ordered; on equal timestamps the newly sealed sample wins
+    private static PlayerCountSeries merge(long[] oldTimestamps, int[] oldCounts, int oldSize,
+                                           long[] newTimestamps, int[] newCounts, int newSize) {
+        PlayerCountSeries merged = new PlayerCountSeries(oldSize + newSize);
+        int i = 0;
+        int j = 0;
+        while (i < oldSize || j < newSize) {
+            if (j >= newSize || (i < oldSize && oldTimestamps[i] < newTimestamps[j])) {
+                merged.add(oldTimestamps[i], oldCounts[i]);
+                i++;
+            } else {
+                if (i < oldSize && oldTimestamps[i] == newTimestamps[j]) {
+                    i++;
+                }
+                merged.add(newTimestamps[j], newCounts[j]);
+                j++;
+            }
+        }
+        return merged;
+    }
+
+    private void flush(List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+            batch.clear();
+        }
+    }
+}
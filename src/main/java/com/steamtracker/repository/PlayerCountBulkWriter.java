@@ -0,0 +1,212 @@
+package com.steamtracker.repository;
+
+import com.steamtracker.dto.PlayerCountSample;
+import com.steamtracker.dto.PlayerCountSeries;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based write path for a batch of samples.
+ * The statement count is fixed regardless of batch size: one INSERT ... SELECT over
+ * unnested arrays into player_counts, one upsert per rollup tier and one UPDATE of games.last_updated.
+ * Imported batches are loaded the same way, but through COPY and with duplicates removed.
+ */
+@Repository
+public class PlayerCountBulkWriter {
+
+    // Joining on games drops samples for games untracked while the batch was in flight
+    private static final String INSERT_SAMPLES_SQL =
+            "INSERT INTO player_counts (app_id, player_count, recorded_at) " +
+            "SELECT s.app_id, s.player_count, s.recorded_at " +
+            "FROM unnest(?::bigint[], ?::integer[], ?::timestamp[]) AS s(app_id, player_count, recorded_at) " +
+            "JOIN games g ON g.app_id = s.app_id WHERE g.untracked_at IS NULL";
+
+    private static final String DELETE_CHUNK_BY_APP_SQL =
+            "DELETE FROM player_counts WHERE (id, recorded_at) IN " +
+            "(SELECT id, recorded_at FROM player_counts WHERE app_id = ? LIMIT ?)";
+
+    private static final String UPDATE_LAST_UPDATED_SQL =
+            "UPDATE games g SET last_updated = s.recorded_at " +
+            "FROM unnest(?::bigint[], ?::timestamp[]) AS s(app_id, recorded_at) " +
+            "WHERE g.app_id = s.app_id " +
+            "AND (g.last_updated IS NULL OR g.last_updated < s.recorded_at)";
+
+    // Per connection; emptied at every commit
+    private static final String CREATE_IMPORT_STAGING_SQL =
+            "CREATE TEMP TABLE IF NOT EXISTS player_count_import " +
+            "(app_id bigint, player_count integer, recorded_ms bigint) ON COMMIT DELETE ROWS";
+
+    private static final String COPY_IMPORT_STAGING_SQL =
+            "COPY player_count_import (app_id, player_count, recorded_ms) FROM STDIN";
+
+    // Exports carry milliseconds, so a stored sample matches when it falls within the incoming
+    // millisecond. Comparing the bare column keeps the recorded_at indexes usable; the range on
+    // recorded_at (the batch's first and last sample) keeps the anti join to the rows it can match.
+    private static final String INSERT_IMPORTED_SQL =
+            "INSERT INTO player_counts (app_id, player_count, recorded_at) " +
+            "SELECT DISTINCT ON (s.app_id, s.recorded_at) s.app_id, s.player_count, s.recorded_at " +
+            "FROM (SELECT app_id, player_count, timestamp 'epoch' + (recorded_ms / 1000) * interval '1 second' " +
+            "+ (recorded_ms % 1000) * interval '1 millisecond' AS recorded_at FROM player_count_import) s " +
+            "JOIN games g ON g.app_id = s.app_id WHERE g.untracked_at IS NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM player_counts p WHERE p.app_id = s.app_id " +
+            "AND p.recorded_at >= s.recorded_at AND p.recorded_at < s.recorded_at + interval '1 millisecond' " +
+            "AND p.recorded_at >= ? AND p.recorded_at < ?) " +
+            "ORDER BY s.app_id, s.recorded_at " +
+            "RETURNING app_id, player_count, recorded_at";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlayerCountRollupRepository playerCountRollupRepository;
+
+    @Autowired
+    private JournalCheckpointRepository journalCheckpointRepository;
+
+    @Autowired
+    private PlayerCountBlockRepository playerCountBlockRepository;
+
+    /**
+     * Inserts all samples and advances last_updated for every game involved.
+     *
+     * @return the number of player_counts rows written
+     */
+    @Transactional
+    public int writeSamples(List<PlayerCountSample> samples) {
+        if (samples.isEmpty()) {
+            return 0;
+        }
+
+        int size = samples.size();
+        Long[] appIds = new Long[size];
+        Integer[] playerCounts = new Integer[size];
+        Timestamp[] recordedAt = new Timestamp[size];
+        Map<Long, Timestamp> latestByApp = new HashMap<>();
+
+        for (int i = 0; i < size; i++) {
+            PlayerCountSample sample = samples.get(i);
+            appIds[i] = sample.getAppId();
+            playerCounts[i] = sample.getPlayerCount();
+            recordedAt[i] = Timestamp.valueOf(sample.getRecordedAt());
+            latestByApp.merge(appIds[i], recordedAt[i], (a, b) -> a.after(b) ? a : b);
+        }
+
+        int inserted = jdbcTemplate.update(INSERT_SAMPLES_SQL, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("bigint", appIds));
+            ps.setArray(2, connection.createArrayOf("integer", playerCounts));
+            ps.setArray(3, connection.createArrayOf("timestamp", recordedAt));
+        });
+        playerCountRollupRepository.applySamples(appIds, playerCounts, recordedAt);
+        updateLastUpdated(latestByApp);
+
+        return inserted;
+    }
+
+    /**
+     * Loads a batch of imported samples (timestamps in epoch milliseconds) through COPY into a staging
+     * table and inserts those not stored yet, raw or sealed into a block, into player_counts and the
+     * rollups. Samples of games that are not tracked are dropped.
+     *
+     * @return the number of player_counts rows written
+     */
+    @Transactional
+    public int importSamples(long[] appIds, long[] timestamps, int[] playerCounts, int size) {
+        boolean[] sealed = playerCountBlockRepository.findSealed(appIds, timestamps, size);
+        StringBuilder rows = new StringBuilder(size * 32);
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            if (!sealed[i]) {
+                first = Math.min(first, timestamps[i]);
+                last = Math.max(last, timestamps[i]);
+                rows.append(appIds[i]).append('\t').append(playerCounts[i]).append('\t').append(timestamps[i]).append('\n');
+            }
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.execute(CREATE_IMPORT_STAGING_SQL);
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(COPY_IMPORT_STAGING_SQL, new StringReader(rows.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        // Without statistics the planner assumes a tiny staging table
+        jdbcTemplate.execute("ANALYZE player_count_import");
+
+        List<Long> insertedAppIds = new ArrayList<>();
+        List<Integer> insertedCounts = new ArrayList<>();
+        List<Timestamp> insertedAt = new ArrayList<>();
+        Map<Long, Timestamp> latestByApp = new HashMap<>();
+        jdbcTemplate.query(INSERT_IMPORTED_SQL, rs -> {
+            Long appId = rs.getLong(1);
+            Timestamp recordedAt = rs.getTimestamp(3);
+            insertedAppIds.add(appId);
+            insertedCounts.add(rs.getInt(2));
+            insertedAt.add(recordedAt);
+            latestByApp.merge(appId, recordedAt, (a, b) -> a.after(b) ? a : b);
+        }, Timestamp.valueOf(PlayerCountSeries.toLocalDateTime(first)),
+                Timestamp.valueOf(PlayerCountSeries.toLocalDateTime(last + 1)));
+        if (insertedAppIds.isEmpty()) {
+            return 0;
+        }
+        playerCountRollupRepository.applySamples(insertedAppIds.toArray(new Long[0]),
+                insertedCounts.toArray(new Integer[0]), insertedAt.toArray(new Timestamp[0]));
+        updateLastUpdated(latestByApp);
+        return insertedAppIds.size();
+    }
+
+    private void updateLastUpdated(Map<Long, Timestamp> latestByApp) {
+        Long[] updateAppIds = latestByApp.keySet().toArray(new Long[0]);
+        Timestamp[] updateTimes = new Timestamp[updateAppIds.length];
+        for (int i = 0; i < updateAppIds.length; i++) {
+            updateTimes[i] = latestByApp.get(updateAppIds[i]);
+        }
+        jdbcTemplate.update(UPDATE_LAST_UPDATED_SQL, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("bigint", updateAppIds));
+            ps.setArray(2, connection.createArrayOf("timestamp", updateTimes));
+        });
+    }
+
+    /**
+     * Writes a batch drained from a {@link SampleJournal} and advances its checkpoint in the same
+     * transaction, so a batch is never written twice.
+     *
+     * @return the number of player_counts rows written
+     */
+    @Transactional
+    public int writeJournalBatch(List<PlayerCountSample> samples, String journalId, long lastSequence) {
+        int inserted = writeSamples(samples);
+        journalCheckpointRepository.advance(journalId, lastSequence);
+        return inserted;
+    }
+
+    /**
+     * Deletes up to {@code limit} raw rows of a game in its own short transaction.
+     *
+     * @return the number of rows deleted; fewer than {@code limit} means none are left
+     */
+    public int deleteChunkByAppId(Long appId, int limit) {
+        return jdbcTemplate.update(DELETE_CHUNK_BY_APP_SQL, appId, limit);
+    }
+}
@@ -0,0 +1,106 @@
+package com.steamtracker.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * DDL for the monthly partitions of player_counts (see V2__partition_player_counts.sql).
+ * Partition names are derived from {@link YearMonth} values only, never from request input.
+ */
+@Repository
+public class PlayerCountPartitionRepository {
+
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("player_counts_y(\\d{4})m(\\d{2})");
+    private static final String DEFAULT_PARTITION = "player_counts_default";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Months that currently have a partition, oldest first.
+     */
+    public List<YearMonth> findMonths() {
+        return jdbcTemplate.queryForList(
+                        "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "WHERE i.inhparent = 'player_counts'::regclass", String.class)
+                .stream()
+                .map(name -> {
+                    Matcher matcher = MONTHLY_PARTITION.matcher(name);
+                    return matcher.matches()
+                            ? YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)))
+                            : null;
+                })
+                .filter(Objects::nonNull)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Months that have rows in the default partition, oldest first.
+     */
+    public List<YearMonth> findDefaultPartitionMonths() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT date_trunc('month', recorded_at) FROM " + DEFAULT_PARTITION,
+                        Timestamp.class)
+                .stream()
+                .map(month -> YearMonth.from(month.toLocalDateTime()))
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Creates the partition of a month. Rows of that month already in the default partition (imports,
+     * clock skew) would make a plain CREATE ... PARTITION OF fail, so they are moved into the new table
+     * before it is attached.
+     *
+     * @return the number of rows moved out of the default partition
+     */
+    @Transactional
+    public int createMonth(YearMonth month) {
+        String name = partitionName(month);
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        Boolean strays = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION +
+                " WHERE recorded_at >= ? AND recorded_at < ?)", Boolean.class, from, to);
+        if (!Boolean.TRUE.equals(strays)) {
+            jdbcTemplate.execute(String.format(
+                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF player_counts FOR VALUES FROM ('%s') TO ('%s')",
+                    name, month.atDay(1), month.plusMonths(1).atDay(1)));
+            return 0;
+        }
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE player_counts)");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION +
+                " WHERE recorded_at >= ? AND recorded_at < ? RETURNING id, app_id, player_count, recorded_at) " +
+                "INSERT INTO " + name + " (id, app_id, player_count, recorded_at) SELECT * FROM moved", from, to);
+        jdbcTemplate.execute(String.format("ALTER TABLE player_counts ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')",
+                name, month.atDay(1), month.plusMonths(1).atDay(1)));
+        return moved;
+    }
+
+    public void dropMonth(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName(month));
+    }
+
+    /**
+     * Deletes up to {@code limit} raw rows older than {@code cutoff} from whichever partitions are left,
+     * the default one included; fewer than {@code limit} means none are left.
+     */
+    public int deleteChunkBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update("DELETE FROM player_counts WHERE (id, recorded_at) IN " +
+                "(SELECT id, recorded_at FROM player_counts WHERE recorded_at < ? LIMIT ?)",
+                Timestamp.valueOf(cutoff), limit);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("player_counts_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+}
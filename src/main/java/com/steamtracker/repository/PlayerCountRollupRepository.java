@@ -0,0 +1,314 @@
+package com.steamtracker.repository;
+
+import com.steamtracker.dto.PlayerCountData;
+import com.steamtracker.dto.PlayerCountSeries;
+import com.steamtracker.service.DownsampleMode;
+import com.steamtracker.service.StorageTier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains and queries the hourly and daily rollup tables.
+ * Table names and date_trunc units come from {@link StorageTier}, never from request input.
+ */
+@Repository
+public class PlayerCountRollupRepository {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO %1$s AS r (app_id, bucket_start, min_count, max_count, sum_count, sample_count, " +
+            "last_count, last_recorded_at) " +
+            "SELECT s.app_id, date_trunc('%2$s', s.recorded_at), min(s.player_count), max(s.player_count), " +
+            "sum(s.player_count), count(*), (array_agg(s.player_count ORDER BY s.recorded_at DESC))[1], " +
+            "max(s.recorded_at) " +
+            "FROM unnest(?::bigint[], ?::integer[], ?::timestamp[]) AS s(app_id, player_count, recorded_at) " +
+            "JOIN games g ON g.app_id = s.app_id WHERE g.untracked_at IS NULL " +
+            "GROUP BY s.app_id, date_trunc('%2$s', s.recorded_at) " +
+            "ON CONFLICT (app_id, bucket_start) DO UPDATE SET " +
+            "min_count = LEAST(r.min_count, EXCLUDED.min_count), " +
+            "max_count = GREATEST(r.max_count, EXCLUDED.max_count), " +
+            "sum_count = r.sum_count + EXCLUDED.sum_count, " +
+            "sample_count = r.sample_count + EXCLUDED.sample_count, " +
+            "last_count = CASE WHEN EXCLUDED.last_recorded_at >= r.last_recorded_at " +
+            "THEN EXCLUDED.last_count ELSE r.last_count END, " +
+            "last_recorded_at = GREATEST(r.last_recorded_at, EXCLUDED.last_recorded_at)";
+
+    // Rebuilding skips buckets that already exist so it can never double count
+    private static final String INSERT_BUCKETS_SQL =
+            "INSERT INTO %1$s (app_id, bucket_start, min_count, max_count, sum_count, sample_count, " +
+            "last_count, last_recorded_at) " +
+            "SELECT * FROM unnest(?::bigint[], ?::timestamp[], ?::integer[], ?::integer[], ?::bigint[], " +
+            "?::integer[], ?::integer[], ?::timestamp[]) " +
+            "ON CONFLICT (app_id, bucket_start) DO NOTHING";
+
+    private static final int REBUILD_BATCH_SIZE = 5_000;
+
+    private static final String BUCKETED_SQL =
+            "SELECT floor(extract(epoch FROM bucket_start) / ?)::bigint AS bucket, %2$s AS player_count " +
+            "FROM %1$s WHERE app_id = ? AND bucket_start >= date_trunc('%3$s', ?::timestamp) " +
+            "GROUP BY bucket ORDER BY bucket";
+
+    private static final String MULTI_BUCKETED_SQL =
+            "SELECT app_id, floor(extract(epoch FROM bucket_start) / ?)::bigint AS bucket, %2$s AS player_count " +
+            "FROM %1$s WHERE app_id = ANY(?) AND bucket_start >= date_trunc('%3$s', ?::timestamp) " +
+            "AND bucket_start < ? GROUP BY app_id, bucket";
+
+    private static final String UPDATED_SINCE_SQL =
+            "SELECT r.app_id, g.name, r.min_count, r.max_count, r.last_count, r.last_recorded_at " +
+            "FROM %1$s r JOIN games g ON g.app_id = r.app_id " +
+            "WHERE g.untracked_at IS NULL AND r.bucket_start >= date_trunc('%2$s', ?::timestamp) " +
+            "AND r.last_recorded_at > ? ORDER BY r.last_recorded_at";
+
+    private static final String AVERAGE_SERIES_SQL =
+            "SELECT bucket_start, round(sum_count::numeric / sample_count)::integer AS player_count " +
+            "FROM %1$s WHERE app_id = ? AND bucket_start >= date_trunc('%2$s', ?::timestamp) " +
+            "ORDER BY bucket_start";
+
+    // %2$s is a fixed predicate on the primary key columns
+    private static final String DELETE_CHUNK_SQL =
+            "DELETE FROM %1$s WHERE (app_id, bucket_start) IN " +
+            "(SELECT app_id, bucket_start FROM %1$s WHERE %2$s LIMIT ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlayerCountSeriesRepository playerCountSeriesRepository;
+
+    /**
+     * Folds a batch of new samples into every rollup tier. Runs inside the caller's write transaction.
+     */
+    public void applySamples(Long[] appIds, Integer[] playerCounts, Timestamp[] recordedAt) {
+        for (StorageTier tier : StorageTier.values()) {
+            if (!tier.isRollup()) {
+                continue;
+            }
+            jdbcTemplate.update(String.format(UPSERT_SQL, tier.getTableName(), tier.getTruncateUnit()),
+                    ps -> {
+                        Connection connection = ps.getConnection();
+                        ps.setArray(1, connection.createArrayOf("bigint", appIds));
+                        ps.setArray(2, connection.createArrayOf("integer", playerCounts));
+                        ps.setArray(3, connection.createArrayOf("timestamp", recordedAt));
+                    });
+        }
+    }
+
+    /**
+     * Builds missing buckets of a tier from every sample since the start of the bucket holding
+     * {@code since}: raw rows and sealed blocks alike, so days already compacted are not skipped.
+     *
+     * @return the number of buckets added
+     */
+    @Transactional
+    public int rebuild(StorageTier tier, LocalDateTime since) {
+        long width = tier.getResolutionSeconds() * 1000;
+        long from = Math.floorDiv(PlayerCountSeries.toEpochMillis(since), width) * width;
+        BucketBatch batch = new BucketBatch(tier);
+        playerCountSeriesRepository.forEachSampleSince(PlayerCountSeries.toLocalDateTime(from),
+                (appId, timestampMillis, playerCount) ->
+                        batch.add(appId, Math.floorDiv(timestampMillis, width) * width, timestampMillis, playerCount));
+        batch.finishBucket();
+        batch.flush();
+        return batch.inserted;
+    }
+
+    public boolean isEmpty(StorageTier tier) {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + tier.getTableName() + ")", Boolean.class);
+        return !Boolean.TRUE.equals(exists);
+    }
+
+    /**
+     * Deletes up to {@code limit} buckets of a game; fewer than {@code limit} means none are left.
+     */
+    public int deleteChunkByAppId(StorageTier tier, Long appId, int limit) {
+        return jdbcTemplate.update(String.format(DELETE_CHUNK_SQL, tier.getTableName(), "app_id = ?"),
+                appId, limit);
+    }
+
+    /**
+     * Deletes up to {@code limit} buckets older than {@code cutoff}; fewer than {@code limit} means none are left.
+     */
+    public int deleteChunkOlderThan(StorageTier tier, LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update(String.format(DELETE_CHUNK_SQL, tier.getTableName(), "bucket_start < ?"),
+                Timestamp.valueOf(cutoff), limit);
+    }
+
+    /**
+     * Re-aggregates a tier's buckets into buckets of {@code bucketSeconds}, which should be
+     * at least the tier's own resolution.
+     */
+    public List<PlayerCountData> findBucketed(StorageTier tier, Long appId, LocalDateTime since,
+                                              long bucketSeconds, DownsampleMode mode) {
+        long width = Math.max(bucketSeconds, tier.getResolutionSeconds());
+        String sql = String.format(BUCKETED_SQL, tier.getTableName(), aggregate(mode), tier.getTruncateUnit());
+        return jdbcTemplate.query(sql,
+                (rs, rowNum) -> new PlayerCountData(
+                        PlayerCountSeries.toLocalDateTime(rs.getLong("bucket") * width * 1000),
+                        rs.getInt("player_count")),
+                width, appId, Timestamp.valueOf(since));
+    }
+
+    /**
+     * One average point per bucket of the tier, as a primitive series.
+     */
+    public PlayerCountSeries findAverageSeries(StorageTier tier, Long appId, LocalDateTime since) {
+        PlayerCountSeries series = new PlayerCountSeries();
+        jdbcTemplate.query(String.format(AVERAGE_SERIES_SQL, tier.getTableName(), tier.getTruncateUnit()),
+                rs -> {
+                    series.add(PlayerCountSeries.toEpochMillis(rs.getTimestamp(1).toLocalDateTime()), rs.getInt(2));
+                },
+                appId, Timestamp.valueOf(since));
+        return series;
+    }
+
+    /**
+     * Re-aggregates the buckets of several games in {@code [since, to)} into buckets of
+     * {@code bucketSeconds} with one query, passing each game's bucket number (bucket start
+     * divided by the width) and value to {@code handler}.
+     */
+    public void forEachBucket(StorageTier tier, List<Long> appIds, LocalDateTime since, LocalDateTime to,
+                              long bucketSeconds, DownsampleMode mode, BucketHandler handler) {
+        String sql = String.format(MULTI_BUCKETED_SQL, tier.getTableName(), aggregate(mode), tier.getTruncateUnit());
+        jdbcTemplate.query(connection -> {
+            var ps = connection.prepareStatement(sql);
+            ps.setLong(1, bucketSeconds);
+            ps.setArray(2, connection.createArrayOf("bigint", appIds.toArray()));
+            ps.setTimestamp(3, Timestamp.valueOf(since));
+            ps.setTimestamp(4, Timestamp.valueOf(to));
+            return ps;
+        }, rs -> {
+            handler.accept(rs.getLong(1), rs.getLong(2), rs.getInt(3));
+        });
+    }
+
+    /**
+     * Streams the buckets of tracked games that received samples after {@code since}, oldest last sample first.
+     */
+    public void forEachBucketUpdatedSince(StorageTier tier, LocalDateTime since, UpdatedBucketHandler handler) {
+        Timestamp from = Timestamp.valueOf(since);
+        jdbcTemplate.query(String.format(UPDATED_SINCE_SQL, tier.getTableName(), tier.getTruncateUnit()),
+                rs -> {
+                    handler.accept(rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getInt(4), rs.getInt(5),
+                            PlayerCountSeries.toEpochMillis(rs.getTimestamp(6).toLocalDateTime()));
+                },
+                from, from);
+    }
+
+    @FunctionalInterface
+    public interface UpdatedBucketHandler {
+        void accept(long appId, String name, int minCount, int maxCount, int lastCount, long lastRecordedMillis);
+    }
+
+    @FunctionalInterface
+    public interface BucketHandler {
+        void accept(long appId, long bucket, int playerCount);
+    }
+
+    /**
+     * Aggregates a sample stream grouped by game and ascending in time into buckets, inserting
+     * them {@link #REBUILD_BATCH_SIZE} at a time.
+     */
+    private final class BucketBatch {
+        private final String sql;
+        private final List<Long> appIds = new ArrayList<>();
+        private final List<Timestamp> bucketStarts = new ArrayList<>();
+        private final List<Integer> minCounts = new ArrayList<>();
+        private final List<Integer> maxCounts = new ArrayList<>();
+        private final List<Long> sumCounts = new ArrayList<>();
+        private final List<Integer> sampleCounts = new ArrayList<>();
+        private final List<Integer> lastCounts = new ArrayList<>();
+        private final List<Timestamp> lastRecordedAt = new ArrayList<>();
+        private int inserted;
+
+        // The bucket being aggregated
+        private long appId;
+        private long bucketStart = Long.MIN_VALUE;
+        private int min;
+        private int max;
+        private long sum;
+        private int count;
+        private int last;
+        private long lastMillis;
+
+        private BucketBatch(StorageTier tier) {
+            this.sql = String.format(INSERT_BUCKETS_SQL, tier.getTableName());
+        }
+
+        private void add(long sampleAppId, long sampleBucketStart, long timestampMillis, int playerCount) {
+            if (sampleAppId != appId || sampleBucketStart != bucketStart) {
+                finishBucket();
+                appId = sampleAppId;
+                bucketStart = sampleBucketStart;
+                min = playerCount;
+                max = playerCount;
+                sum = 0;
+                count = 0;
+            }
+            min = Math.min(min, playerCount);
+            max = Math.max(max, playerCount);
+            sum += playerCount;
+            count++;
+            last = playerCount;
+            lastMillis = timestampMillis;
+        }
+
+        private void finishBucket() {
+            if (count == 0) {
+                return;
+            }
+            appIds.add(appId);
+            bucketStarts.add(Timestamp.valueOf(PlayerCountSeries.toLocalDateTime(bucketStart)));
+            minCounts.add(min);
+            maxCounts.add(max);
+            sumCounts.add(sum);
+            sampleCounts.add(count);
+            lastCounts.add(last);
+            lastRecordedAt.add(Timestamp.valueOf(PlayerCountSeries.toLocalDateTime(lastMillis)));
+            count = 0;
+            if (appIds.size() >= REBUILD_BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (appIds.isEmpty()) {
+                return;
+            }
+            inserted += jdbcTemplate.update(sql, ps -> {
+                Connection connection = ps.getConnection();
+                ps.setArray(1, connection.createArrayOf("bigint", appIds.toArray()));
+                ps.setArray(2, connection.createArrayOf("timestamp", bucketStarts.toArray()));
+                ps.setArray(3, connection.createArrayOf("integer", minCounts.toArray()));
+                ps.setArray(4, connection.createArrayOf("integer", maxCounts.toArray()));
+                ps.setArray(5, connection.createArrayOf("bigint", sumCounts.toArray()));
+                ps.setArray(6, connection.createArrayOf("integer", sampleCounts.toArray()));
+                ps.setArray(7, connection.createArrayOf("integer", lastCounts.toArray()));
+                ps.setArray(8, connection.createArrayOf("timestamp", lastRecordedAt.toArray()));
+            });
+            appIds.clear();
+            bucketStarts.clear();
+            minCounts.clear();
+            maxCounts.clear();
+            sumCounts.clear();
+            sampleCounts.clear();
+            lastCounts.clear();
+            lastRecordedAt.clear();
+        }
+    }
+
+    private static String aggregate(DownsampleMode mode) {
+        return switch (mode) {
+            case MIN -> "min(min_count)";
+            case MAX -> "max(max_count)";
+            default -> "round(sum(sum_count)::numeric / sum(sample_count))::integer";
+        };
+    }
+}
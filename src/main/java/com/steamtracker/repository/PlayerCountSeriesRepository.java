@@ -0,0 +1,220 @@
+package com.steamtracker.repository;
+
+import com.steamtracker.dto.PlayerCountData;
+import com.steamtracker.dto.PlayerCountSeries;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-side queries over raw samples that skip entity mapping.
+ * Raw samples live in player_count_blocks (sealed days, compressed) and player_counts (everything
+ * not sealed yet); every reader merges both into one time-ordered stream, decoding blocks as it goes.
+ */
+@Repository
+public class PlayerCountSeriesRepository {
+
+    private static final int FETCH_SIZE = 5_000;
+    private static final LocalDateTime FAR_FUTURE = LocalDateTime.of(3000, 1, 1, 0, 0);
+
+    // Block rows sort at their block_start with a null count; the merge interleaves their samples with raw rows
+    private static final String RANGE_SQL =
+            "SELECT app_id, t, player_count, data FROM (" +
+            "SELECT app_id, block_start AS t, NULL::integer AS player_count, data FROM player_count_blocks " +
+            "WHERE app_id = ? AND last_recorded_at >= ? AND first_recorded_at < ? " +
+            "UNION ALL " +
+            "SELECT app_id, recorded_at, player_count, NULL::bytea FROM player_counts " +
+            "WHERE app_id = ? AND recorded_at >= ? AND recorded_at < ?" +
+            ") s ORDER BY t";
+
+    private static final String MULTI_RANGE_SQL =
+            "SELECT app_id, t, player_count, data FROM (" +
+            "SELECT app_id, block_start AS t, NULL::integer AS player_count, data FROM player_count_blocks " +
+            "WHERE app_id = ANY(?) AND last_recorded_at >= ? AND first_recorded_at < ? " +
+            "UNION ALL " +
+            "SELECT app_id, recorded_at, player_count, NULL::bytea FROM player_counts " +
+            "WHERE app_id = ANY(?) AND recorded_at >= ? AND recorded_at < ?" +
+            ") s ORDER BY app_id, t";
+
+    private static final String ALL_SAMPLES_SINCE_SQL =
+            "SELECT app_id, t, player_count, data FROM (" +
+            "SELECT app_id, block_start AS t, NULL::integer AS player_count, data FROM player_count_blocks " +
+            "WHERE last_recorded_at >= ? " +
+            "UNION ALL " +
+            "SELECT app_id, recorded_at, player_count, NULL::bytea FROM player_counts WHERE recorded_at >= ?" +
+            ") s ORDER BY app_id, t";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Streams the raw samples of a window into a primitive series.
+     */
+    @Transactional(readOnly = true)
+    public PlayerCountSeries findSeries(Long appId, LocalDateTime since) {
+        PlayerCountSeries series = new PlayerCountSeries();
+        forEachSample(appId, since, FAR_FUTURE, (id, timestampMillis, playerCount) ->
+                series.add(timestampMillis, playerCount));
+        return series;
+    }
+
+    /**
+     * Streams the samples of {@code [from, to)} through a server-side cursor, one row or block at a time.
+     */
+    @Transactional(readOnly = true)
+    public void forEachSample(Long appId, LocalDateTime from, LocalDateTime to, SampleHandler handler) {
+        readRange(appId, from, to, Integer.MAX_VALUE, handler);
+    }
+
+    /**
+     * Streams the samples of several games in {@code [from, to)} with one query, grouped by game
+     * and ascending in time.
+     */
+    @Transactional(readOnly = true)
+    public void forEachSample(List<Long> appIds, LocalDateTime from, LocalDateTime to, SampleHandler handler) {
+        Timestamp fromTimestamp = Timestamp.valueOf(from);
+        Timestamp toTimestamp = Timestamp.valueOf(to);
+        jdbcTemplate.query(connection -> {
+            var ps = connection.prepareStatement(MULTI_RANGE_SQL);
+            ps.setFetchSize(FETCH_SIZE);
+            var ids = connection.createArrayOf("bigint", appIds.toArray());
+            ps.setArray(1, ids);
+            ps.setTimestamp(2, fromTimestamp);
+            ps.setTimestamp(3, toTimestamp);
+            ps.setArray(4, ids);
+            ps.setTimestamp(5, fromTimestamp);
+            ps.setTimestamp(6, toTimestamp);
+            return ps;
+        }, new MergingExtractor(PlayerCountSeries.toEpochMillis(from), PlayerCountSeries.toEpochMillis(to),
+                Integer.MAX_VALUE, handler));
+    }
+
+    /**
+     * Up to {@code limit} samples recorded strictly after {@code after}, in time order.
+     */
+    @Transactional(readOnly = true)
+    public List<PlayerCountData> findPage(Long appId, LocalDateTime after, int limit) {
+        // Samples are read at millisecond precision, so the page starts at the next millisecond
+        LocalDateTime from = PlayerCountSeries.toLocalDateTime(PlayerCountSeries.toEpochMillis(after) + 1);
+        List<PlayerCountData> page = new ArrayList<>(Math.min(limit, FETCH_SIZE));
+        readRange(appId, from, FAR_FUTURE, limit, (id, timestampMillis, playerCount) ->
+                page.add(new PlayerCountData(PlayerCountSeries.toLocalDateTime(timestampMillis), playerCount)));
+        return page;
+    }
+
+    /**
+     * Streams every sample recorded since {@code since}, grouped by game and ascending in time.
+     */
+    @Transactional(readOnly = true)
+    public void forEachSampleSince(LocalDateTime since, SampleHandler handler) {
+        Timestamp from = Timestamp.valueOf(since);
+        jdbcTemplate.query(connection -> {
+            var ps = connection.prepareStatement(ALL_SAMPLES_SINCE_SQL);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setTimestamp(1, from);
+            ps.setTimestamp(2, from);
+            return ps;
+        }, new MergingExtractor(PlayerCountSeries.toEpochMillis(since), Long.MAX_VALUE, Integer.MAX_VALUE, handler));
+    }
+
+    private void readRange(Long appId, LocalDateTime from, LocalDateTime to, int limit, SampleHandler handler) {
+        Timestamp fromTimestamp = Timestamp.valueOf(from);
+        Timestamp toTimestamp = Timestamp.valueOf(to);
+        jdbcTemplate.query(connection -> {
+            var ps = connection.prepareStatement(RANGE_SQL);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setLong(1, appId);
+            ps.setTimestamp(2, fromTimestamp);
+            ps.setTimestamp(3, toTimestamp);
+            ps.setLong(4, appId);
+            ps.setTimestamp(5, fromTimestamp);
+            ps.setTimestamp(6, toTimestamp);
+            return ps;
+        }, new MergingExtractor(PlayerCountSeries.toEpochMillis(from), PlayerCountSeries.toEpochMillis(to),
+                limit, handler));
+    }
+
+    @FunctionalInterface
+    public interface SampleHandler {
+        void accept(long appId, long timestampMillis, int playerCount);
+    }
+
+    /**
+     * Turns rows ordered by (app_id, t) into one sample stream within {@code [fromMillis, toMillis)}.
+     * A block is decoded when its row arrives and its samples are emitted up to the time of each
+     * following raw row, so late rows that landed inside a sealed day still come out in order.
+     * Stops reading once {@code limit} samples have been emitted.
+     */
+    private static final class MergingExtractor implements ResultSetExtractor<Integer> {
+        private final long fromMillis;
+        private final long toMillis;
+        private final int limit;
+        private final SampleHandler handler;
+
+        private long appId;
+        private long[] blockTimestamps = new long[0];
+        private int[] blockCounts = new int[0];
+        private int blockSize;
+        private int blockPosition;
+        private int emitted;
+
+        private MergingExtractor(long fromMillis, long toMillis, int limit, SampleHandler handler) {
+            this.fromMillis = fromMillis;
+            this.toMillis = toMillis;
+            this.limit = limit;
+            this.handler = handler;
+        }
+
+        @Override
+        public Integer extractData(ResultSet rs) throws SQLException {
+            while (emitted < limit && rs.next()) {
+                long rowAppId = rs.getLong(1);
+                if (rowAppId != appId) {
+                    drainBlock(Long.MAX_VALUE);
+                    blockSize = 0;
+                    appId = rowAppId;
+                }
+                byte[] block = rs.getBytes(4);
+                if (block != null) {
+                    drainBlock(Long.MAX_VALUE);
+                    int size = SampleBlockCodec.sampleCount(block);
+                    if (blockTimestamps.length < size) {
+                        blockTimestamps = new long[size];
+                        blockCounts = new int[size];
+                    }
+                    blockSize = SampleBlockCodec.decode(block, blockTimestamps, blockCounts);
+                    blockPosition = 0;
+                } else {
+                    long timestampMillis = PlayerCountSeries.toEpochMillis(rs.getTimestamp(2).toLocalDateTime());
+                    drainBlock(timestampMillis);
+                    emit(timestampMillis, rs.getInt(3));
+                }
+            }
+            drainBlock(Long.MAX_VALUE);
+            return emitted;
+        }
+
+        private void drainBlock(long beforeMillis) {
+            while (blockPosition < blockSize && blockTimestamps[blockPosition] < beforeMillis && emitted < limit) {
+                emit(blockTimestamps[blockPosition], blockCounts[blockPosition]);
+                blockPosition++;
+            }
+        }
+
+        private void emit(long timestampMillis, int playerCount) {
+            if (timestampMillis >= fromMillis && timestampMillis < toMillis && emitted < limit) {
+                handler.accept(appId, timestampMillis, playerCount);
+                emitted++;
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.steamtracker.repository;
+
+import java.util.Arrays;
+
+/**
+ * Binary format of one compressed block of samples (one game, time ordered).
+ * <p>
+ * Layout: varint sample count, then the first timestamp (epoch millis) and count, then per sample
+ * the delta-of-delta of its timestamp and the delta of its count. Every number after the sample
+ * count is a zigzag varint, so a steady sampling rate costs one or two bytes per timestamp and a
+ * slowly moving count one or two bytes per value.
+ */
+public final class SampleBlockCodec {
+
+    private SampleBlockCodec() {
+    }
+
+    public static byte[] encode(long[] timestamps, int[] counts, int size) {
+        Writer out = new Writer(16 + size * 4);
+        out.writeUnsigned(size);
+        long previousTimestamp = 0;
+        long previousDelta = 0;
+        int previousCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (i == 0) {
+                out.writeSigned(timestamps[0]);
+            } else {
+                long delta = timestamps[i] - previousTimestamp;
+                out.writeSigned(delta - previousDelta);
+                previousDelta = delta;
+            }
+            out.writeSigned((long) counts[i] - previousCount);
+            previousTimestamp = timestamps[i];
+            previousCount = counts[i];
+        }
+        return out.toByteArray();
+    }
+
+    public static int sampleCount(byte[] block) {
+        return (int) new Reader(block).readUnsigned();
+    }
+
+    /**
+     * Decodes {@code block} into the start of the given arrays, which must hold
+     * at least {@link #sampleCount} entries.
+     *
+     * @return the number of samples decoded
+     */
+    public static int decode(byte[] block, long[] timestamps, int[] counts) {
+        Reader in = new Reader(block);
+        int size = (int) in.readUnsigned();
+        long timestamp = 0;
+        long delta = 0;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (i == 0) {
+                timestamp = in.readSigned();
+            } else {
+                delta += in.readSigned();
+                timestamp += delta;
+            }
+            count += (int) in.readSigned();
+            timestamps[i] = timestamp;
+            counts[i] = count;
+        }
+        return size;
+    }
+
+    private static final class Writer {
+        private byte[] buffer;
+        private int position;
+
+        private Writer(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        private void writeSigned(long value) {
+            writeUnsigned((value << 1) ^ (value >> 63));
+        }
+
+        private void writeUnsigned(long value) {
+            if (position + 10 > buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2 + 10);
+            }
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+
+        private Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        private long readSigned() {
+            long value = readUnsigned();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private long readUnsigned() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+}
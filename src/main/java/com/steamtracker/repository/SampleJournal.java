@@ -0,0 +1,316 @@
+package com.steamtracker.repository;
+
+import com.steamtracker.dto.PlayerCountSample;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of samples in memory-mapped segment files, one directory per instance.
+ * <p>
+ * Every sample gets a sequence number; a segment is named after the sequence of its first record
+ * and holds a fixed number of 24-byte records: app ID, recorded time (epoch micros, UTC), player
+ * count and a CRC32C of the three. Appending is a copy into the mapped page cache, so a sample
+ * survives a crash of the process (not of the machine) as soon as it is appended; full segments
+ * are forced to disk when the journal rotates. On open the records are validated up to the first
+ * bad checksum, which ends the journal: a torn last record is dropped, the rest is replayed.
+ * Which sequences have reached the database is not tracked here, see {@link JournalCheckpointRepository}.
+ */
+public class SampleJournal implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(SampleJournal.class);
+
+    static final int RECORD_BYTES = 24;
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final String journalId;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    // Sequence the next appended record gets
+    private long nextSequence = 1;
+
+    public SampleJournal(Path directory, int segmentBytes) {
+        if (segmentBytes < RECORD_BYTES) {
+            throw new IllegalArgumentException("Journal segments must hold at least one record");
+        }
+        this.directory = directory;
+        this.recordsPerSegment = segmentBytes / RECORD_BYTES;
+        try {
+            Files.createDirectories(directory);
+            lockChannel = FileChannel.open(directory.resolve("journal.lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            lock = tryLock(lockChannel);
+            if (lock == null) {
+                lockChannel.close();
+                throw new IllegalStateException("Journal " + directory + " is in use by another process");
+            }
+            openSegments();
+            // Without segments the sequences start over, so they must not be checked against an old checkpoint
+            journalId = segments.isEmpty() ? createId(directory.resolve("journal.id"))
+                    : Files.readString(directory.resolve("journal.id")).trim();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open journal " + directory, e);
+        }
+    }
+
+    /**
+     * Identifies this journal's checkpoint in the database; it survives restarts with the directory.
+     */
+    public String getJournalId() {
+        return journalId;
+    }
+
+    /**
+     * Appends the samples in order.
+     *
+     * @return the sequence of the last one, or of the last record already in the journal when empty
+     */
+    public synchronized long append(List<PlayerCountSample> samples) {
+        for (PlayerCountSample sample : samples) {
+            Segment segment = segments.peekLast();
+            if (segment == null || segment.isFull()) {
+                segment = rotate();
+            }
+            segment.write(sample.getAppId(), toEpochMicros(sample.getRecordedAt()), sample.getPlayerCount());
+            nextSequence++;
+        }
+        return nextSequence - 1;
+    }
+
+    /**
+     * Reads up to {@code limit} records with sequences from {@code fromSequence} on into {@code into}.
+     *
+     * @return the sequence of the last record read, or {@code fromSequence - 1} if none was
+     */
+    public synchronized long read(long fromSequence, int limit, List<PlayerCountSample> into) {
+        long sequence = fromSequence;
+        for (Segment segment : segments) {
+            if (sequence >= segment.firstSequence + segment.count) {
+                continue;
+            }
+            if (sequence < segment.firstSequence) {
+                // A gap left by a damaged segment
+                sequence = segment.firstSequence;
+            }
+            while (sequence < segment.firstSequence + segment.count && limit > 0) {
+                into.add(segment.read((int) (sequence - segment.firstSequence)));
+                sequence++;
+                limit--;
+            }
+            if (limit == 0) {
+                break;
+            }
+        }
+        return sequence - 1;
+    }
+
+    /**
+     * Sequence of the last appended record, 0 for an empty journal.
+     */
+    public synchronized long getLastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Deletes the segments whose records are all at or below {@code sequence}, except the one appended to.
+     *
+     * @return how many segments were deleted
+     */
+    public synchronized int deleteUpTo(long sequence) {
+        int deleted = 0;
+        while (segments.size() > 1 && segments.peekFirst().lastSequence() <= sequence) {
+            Segment segment = segments.removeFirst();
+            try {
+                segment.close();
+                Files.deleteIfExists(segment.path);
+                deleted++;
+            } catch (IOException e) {
+                logger.warn("Could not delete journal segment {}: {}", segment.path, e.getMessage());
+                segments.addFirst(segment);
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.force();
+            segment.close();
+        }
+        segments.clear();
+        lock.release();
+        lockChannel.close();
+    }
+
+    static long toEpochMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromEpochMicros(long epochMicros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMicros, 1_000_000),
+                Math.floorMod(epochMicros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    private void openSegments() throws IOException {
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = new ArrayList<>(files.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).toList());
+        }
+        paths.sort((a, b) -> Long.compare(firstSequenceOf(a), firstSequenceOf(b)));
+        for (Path path : paths) {
+            Segment segment = Segment.open(path, firstSequenceOf(path));
+            if (segment.count < segment.capacity && !path.equals(paths.get(paths.size() - 1))) {
+                logger.warn("Journal segment {} ends after {} valid records", path, segment.count);
+            }
+            segments.addLast(segment);
+            nextSequence = segment.firstSequence + segment.count;
+        }
+        if (!segments.isEmpty()) {
+            logger.info("Opened journal {} with {} segments, last sequence {}", directory, segments.size(),
+                    nextSequence - 1);
+        }
+    }
+
+    private Segment rotate() {
+        Segment current = segments.peekLast();
+        try {
+            if (current != null) {
+                current.force();
+            }
+            Path path = directory.resolve(String.format("%020d%s", nextSequence, SUFFIX));
+            Segment segment = Segment.create(path, nextSequence, recordsPerSegment);
+            segments.addLast(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create journal segment", e);
+        }
+    }
+
+    private static long firstSequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    private static String createId(Path path) throws IOException {
+        String id = UUID.randomUUID().toString();
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.writeString(temporary, id);
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+        return id;
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final long firstSequence;
+        private final int capacity;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final CRC32C crc = new CRC32C();
+        private final byte[] record = new byte[RECORD_BYTES];
+        private final ByteBuffer recordBuffer = ByteBuffer.wrap(record);
+        private int count;
+
+        private Segment(Path path, long firstSequence, FileChannel channel, int capacity) throws IOException {
+            this.path = path;
+            this.firstSequence = firstSequence;
+            this.capacity = capacity;
+            this.channel = channel;
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_BYTES);
+        }
+
+        static Segment create(Path path, long firstSequence, int capacity) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(path, firstSequence, channel, capacity);
+        }
+
+        static Segment open(Path path, long firstSequence) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Segment segment = new Segment(path, firstSequence, channel, (int) (channel.size() / RECORD_BYTES));
+            while (segment.count < segment.capacity && segment.isValid(segment.count)) {
+                segment.count++;
+            }
+            return segment;
+        }
+
+        boolean isFull() {
+            return count == capacity;
+        }
+
+        long lastSequence() {
+            return firstSequence + capacity - 1;
+        }
+
+        void write(long appId, long recordedAtMicros, int playerCount) {
+            recordBuffer.putLong(0, appId);
+            recordBuffer.putLong(8, recordedAtMicros);
+            recordBuffer.putInt(16, playerCount);
+            recordBuffer.putInt(20, checksum());
+            buffer.put(count * RECORD_BYTES, record);
+            count++;
+        }
+
+        PlayerCountSample read(int index) {
+            int offset = index * RECORD_BYTES;
+            return new PlayerCountSample(buffer.getLong(offset), buffer.getInt(offset + 16),
+                    fromEpochMicros(buffer.getLong(offset + 8)));
+        }
+
+        private boolean isValid(int index) {
+            buffer.get(index * RECORD_BYTES, record);
+            return recordBuffer.getLong(0) != 0 && recordBuffer.getInt(20) == checksum();
+        }
+
+        // Of the record staged in the scratch array, without its checksum field
+        private int checksum() {
+            crc.reset();
+            crc.update(record, 0, RECORD_BYTES - 4);
+            return (int) crc.getValue();
+        }
+
+        void force() {
+            buffer.force();
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+}
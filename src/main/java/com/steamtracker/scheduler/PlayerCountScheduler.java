@@ -1,26 +1,96 @@
 package com.steamtracker.scheduler;
 
-import com.steamtracker.service.GameService;
+import com.steamtracker.dto.CollectionCycleResult;
+import com.steamtracker.service.AdaptiveSamplingSchedule;
+import com.steamtracker.service.PlayerCountCollector;
+import com.steamtracker.service.ShardLeaseService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects whichever games {@link AdaptiveSamplingSchedule} reports as due, checking every
+ * {@code collector.sampling.tick-ms}. How often each game is sampled is up to the schedule;
+ * with several instances each collects only the games in its {@link ShardLeaseService} shards.
+ * Collection waits for whole batches of Steam requests, so it runs on its own thread rather than
+ * the shared scheduler's.
+ */
 @Component
+@ConditionalOnProperty(name = "scheduling.enabled", matchIfMissing = true)
 public class PlayerCountScheduler {
     private static final Logger logger = LoggerFactory.getLogger(PlayerCountScheduler.class);
 
     @Autowired
-    private GameService gameService;
-
-    // Run every 30 seconds for demo purposes
-    // Change this to 30 * 60 * 1000 (30 minutes) for production
-     @Scheduled(fixedRate = 30 * 1000) // For collecting data every 30 seconds.
-//    @Scheduled(fixedRate = 30 * 60 * 1000)
-    public void collectPlayerCounts() {
-        logger.info("Scheduled player count collection started");
-        gameService.collectPlayerCountsForAllGames();
-        logger.info("Scheduled player count collection completed");
+    private PlayerCountCollector playerCountCollector;
+
+    @Autowired
+    private AdaptiveSamplingSchedule samplingSchedule;
+
+    @Autowired
+    private ShardLeaseService shardLeaseService;
+
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final long tickMillis;
+    private final ScheduledExecutorService collector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "collector");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PlayerCountScheduler(@Value("${collector.sampling.tick-ms:1000}") long tickMillis,
+                                MeterRegistry meterRegistry) {
+        this.tickMillis = tickMillis;
+        Gauge.builder("collector.cycle.lag", lagMillis, lag -> lag.get() / 1000.0)
+                .description("How overdue the most overdue game in the last collected batch was")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        collector.scheduleWithFixedDelay(() -> {
+            try {
+                collectDuePlayerCounts();
+            } catch (RuntimeException e) {
+                // Keeps the collector scheduled
+                logger.error("Collection tick failed", e);
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void collectDuePlayerCounts() {
+        long now = AdaptiveSamplingSchedule.currentMillis();
+        long oldestDue = samplingSchedule.nextDueMillis();
+        // Games in shards owned by other instances are polled too, so they stay due when a shard moves here
+        List<Long> due = shardLeaseService.filterOwned(samplingSchedule.pollDue(now));
+        if (due.isEmpty()) {
+            lagMillis.set(0);
+            return;
+        }
+        lagMillis.set(Math.max(0, now - oldestDue));
+
+        CollectionCycleResult result = playerCountCollector.collect(due);
+        logger.debug("Collected {} due games: {} samples recorded, {} failures in {} ms",
+                result.getGamesAttempted(), result.getSamplesRecorded(), result.getFailures(),
+                result.getDurationMillis());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        collector.shutdownNow();
     }
 }
\ No newline at end of file
@@ -0,0 +1,326 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.PlayerCountSample;
+import com.steamtracker.dto.PlayerCountSeries;
+import com.steamtracker.dto.SamplingStatus;
+import com.steamtracker.entity.Game;
+import com.steamtracker.repository.GameRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-game sampling schedule: a priority queue of tracked games keyed by their next due time.
+ * <p>
+ * Each game's interval adapts between {@code min-interval-seconds} and {@code max-interval-seconds}
+ * so that consecutive samples differ by about {@code target-change}. Change is measured relative to
+ * the player count plus {@code noise-floor-players}, so a small game jumping from 3 to 6 players
+ * barely counts while a 2% swing on a popular game does. Intervals shrink immediately when a game
+ * gets busy and grow at most twofold per sample when it settles. A per-game override replaces the
+ * adaptive interval.
+ * <p>
+ * Times are epoch millis of {@link LocalDateTime} values read as UTC, like sample timestamps
+ * everywhere else; use {@link #currentMillis()} for "now".
+ */
+@Component
+public class AdaptiveSamplingSchedule {
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveSamplingSchedule.class);
+
+    // Weight of the newest observation in the change-rate average
+    private static final double RATE_SMOOTHING = 0.3;
+    private static final double MAX_GROWTH = 2.0;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    private final long minIntervalMillis;
+    private final long maxIntervalMillis;
+    private final double targetChange;
+    private final int noiseFloorPlayers;
+
+    private final Map<Long, GameSchedule> games = new HashMap<>();
+    private final PriorityQueue<Due> queue = new PriorityQueue<>(Comparator.comparingLong(due -> due.dueMillis));
+
+    public AdaptiveSamplingSchedule(@Value("${collector.sampling.min-interval-seconds:30}") long minIntervalSeconds,
+                                    @Value("${collector.sampling.max-interval-seconds:1800}") long maxIntervalSeconds,
+                                    @Value("${collector.sampling.target-change:0.02}") double targetChange,
+                                    @Value("${collector.sampling.noise-floor-players:100}") int noiseFloorPlayers,
+                                    MeterRegistry meterRegistry) {
+        if (minIntervalSeconds < 1 || maxIntervalSeconds < minIntervalSeconds) {
+            throw new IllegalArgumentException("Sampling intervals must satisfy 1 <= min <= max");
+        }
+        if (targetChange <= 0) {
+            throw new IllegalArgumentException("collector.sampling.target-change must be positive");
+        }
+        this.minIntervalMillis = TimeUnit.SECONDS.toMillis(minIntervalSeconds);
+        this.maxIntervalMillis = TimeUnit.SECONDS.toMillis(maxIntervalSeconds);
+        this.targetChange = targetChange;
+        this.noiseFloorPlayers = Math.max(1, noiseFloorPlayers);
+
+        Gauge.builder("collector.schedule.games", this, AdaptiveSamplingSchedule::size)
+                .description("Games in the sampling schedule")
+                .register(meterRegistry);
+        Gauge.builder("collector.schedule.rate", this, AdaptiveSamplingSchedule::requestsPerSecond)
+                .description("Steam requests per second the current intervals add up to")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Schedules every tracked game one interval after its last sample, so games keep their phase
+     * across a restart and those the restart made overdue are collected at once. Games without a
+     * sample are spread over the minimum interval. Runs before the other startup listeners.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void load() {
+        long now = currentMillis();
+        List<Game> tracked = gameRepository.findAllTracked();
+        for (Game game : tracked) {
+            Long lastSampleMillis = game.getLastUpdated() != null
+                    ? PlayerCountSeries.toEpochMillis(game.getLastUpdated()) : null;
+            track(game.getAppId(), game.getSampleIntervalSeconds(),
+                    firstDueMillis(lastSampleMillis, game.getSampleIntervalSeconds(), now));
+        }
+        logger.info("Sampling schedule loaded with {} games", tracked.size());
+    }
+
+    /**
+     * Adds a game (or updates its override) and makes it due at {@code firstDueMillis}.
+     *
+     * @param overrideSeconds fixed interval for this game, or null to adapt
+     */
+    public synchronized void track(Long appId, Integer overrideSeconds, long firstDueMillis) {
+        GameSchedule game = games.computeIfAbsent(appId, id -> new GameSchedule(minIntervalMillis));
+        game.overrideMillis = overrideMillis(overrideSeconds);
+        reschedule(appId, game, firstDueMillis);
+    }
+
+    /**
+     * Sets or clears ({@code null}) the fixed interval of a scheduled game; the next sample
+     * moves to the new interval from the last one.
+     */
+    public synchronized void setOverride(Long appId, Integer overrideSeconds) {
+        GameSchedule game = games.get(appId);
+        if (game == null) {
+            return;
+        }
+        game.overrideMillis = overrideMillis(overrideSeconds);
+        long from = game.lastSampleMillis > 0 ? game.lastSampleMillis : currentMillis();
+        reschedule(appId, game, from + currentInterval(game));
+    }
+
+    /**
+     * Brings the schedule in line with the tracked games and their overrides (null to adapt):
+     * new games become due within the minimum interval, missing ones are dropped.
+     */
+    public synchronized void reconcile(Map<Long, Integer> tracked) {
+        long now = currentMillis();
+        for (Map.Entry<Long, Integer> entry : tracked.entrySet()) {
+            GameSchedule game = games.get(entry.getKey());
+            if (game == null) {
+                track(entry.getKey(), entry.getValue(), now + ThreadLocalRandom.current().nextLong(minIntervalMillis));
+            } else if (game.overrideMillis != overrideMillis(entry.getValue())) {
+                setOverride(entry.getKey(), entry.getValue());
+            }
+        }
+        games.keySet().removeIf(appId -> !tracked.containsKey(appId));
+    }
+
+    public synchronized void untrack(Long appId) {
+        GameSchedule game = games.remove(appId);
+        if (game != null) {
+            game.version++;
+        }
+    }
+
+    /**
+     * Removes and returns the games due at {@code nowMillis}, most overdue first.
+     * Each is provisionally rescheduled one interval ahead, so a game whose sample never
+     * arrives is still retried; a recorded sample replaces that with the adapted due time.
+     */
+    public synchronized List<Long> pollDue(long nowMillis) {
+        List<Long> due = new ArrayList<>();
+        while (!queue.isEmpty() && queue.peek().dueMillis <= nowMillis) {
+            Due next = queue.poll();
+            GameSchedule game = games.get(next.appId);
+            if (game == null || game.version != next.version) {
+                continue;
+            }
+            due.add(next.appId);
+            reschedule(next.appId, game, nowMillis + currentInterval(game));
+        }
+        return due;
+    }
+
+    /**
+     * Due time of the earliest scheduled game, or {@link Long#MAX_VALUE} when nothing is scheduled.
+     */
+    public synchronized long nextDueMillis() {
+        while (!queue.isEmpty()) {
+            Due next = queue.peek();
+            GameSchedule game = games.get(next.appId);
+            if (game != null && game.version == next.version) {
+                return next.dueMillis;
+            }
+            queue.poll();
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Adapts each sampled game's interval to how much its count moved and schedules its next sample.
+     */
+    public synchronized void recordSamples(List<PlayerCountSample> samples) {
+        for (PlayerCountSample sample : samples) {
+            GameSchedule game = games.get(sample.getAppId());
+            if (game == null || sample.getPlayerCount() == null) {
+                continue;
+            }
+            long sampledAt = PlayerCountSeries.toEpochMillis(sample.getRecordedAt());
+            recordSample(sample.getAppId(), game, sample.getPlayerCount(), sampledAt);
+        }
+    }
+
+    /**
+     * The samples of games in the schedule, i.e. of games this instance knows to be tracked.
+     */
+    public synchronized List<PlayerCountSample> filterScheduled(List<PlayerCountSample> samples) {
+        List<PlayerCountSample> scheduled = new ArrayList<>(samples.size());
+        for (PlayerCountSample sample : samples) {
+            if (games.containsKey(sample.getAppId())) {
+                scheduled.add(sample);
+            }
+        }
+        return scheduled;
+    }
+
+    public synchronized List<SamplingStatus> getStatus() {
+        List<SamplingStatus> status = new ArrayList<>(games.size());
+        for (Map.Entry<Long, GameSchedule> entry : games.entrySet()) {
+            GameSchedule game = entry.getValue();
+            status.add(new SamplingStatus(entry.getKey(), currentInterval(game) / 1000, game.overrideMillis > 0,
+                    game.dueMillis, game.changePerSecond));
+        }
+        status.sort(Comparator.comparingLong(SamplingStatus::getNextDueMillis));
+        return status;
+    }
+
+    public synchronized long getIntervalMillis(Long appId) {
+        GameSchedule game = games.get(appId);
+        return game != null ? currentInterval(game) : -1;
+    }
+
+    public synchronized int size() {
+        return games.size();
+    }
+
+    public static long currentMillis() {
+        return PlayerCountSeries.toEpochMillis(LocalDateTime.now());
+    }
+
+    private void recordSample(Long appId, GameSchedule game, int playerCount, long sampledAt) {
+        if (game.lastCount >= 0 && sampledAt > game.lastSampleMillis) {
+            double elapsedSeconds = (sampledAt - game.lastSampleMillis) / 1000.0;
+            double change = Math.abs(playerCount - game.lastCount)
+                    / (double) (Math.max(playerCount, game.lastCount) + noiseFloorPlayers);
+            double rate = change / elapsedSeconds;
+            game.changePerSecond = game.changePerSecond < 0
+                    ? rate
+                    : RATE_SMOOTHING * rate + (1 - RATE_SMOOTHING) * game.changePerSecond;
+
+            // Interval at which the expected change between samples equals the target
+            double desired = game.changePerSecond > 0
+                    ? targetChange / game.changePerSecond * 1000
+                    : Double.MAX_VALUE;
+            long grown = (long) Math.min(game.adaptiveMillis * MAX_GROWTH, desired);
+            game.adaptiveMillis = Math.max(minIntervalMillis, Math.min(maxIntervalMillis, grown));
+        }
+        if (sampledAt >= game.lastSampleMillis) {
+            game.lastCount = playerCount;
+            game.lastSampleMillis = sampledAt;
+        }
+        reschedule(appId, game, sampledAt + currentInterval(game));
+    }
+
+    long firstDueMillis(Long lastSampleMillis, Integer overrideSeconds, long nowMillis) {
+        if (lastSampleMillis == null) {
+            return nowMillis + ThreadLocalRandom.current().nextLong(minIntervalMillis);
+        }
+        long interval = overrideSeconds != null ? overrideMillis(overrideSeconds) : minIntervalMillis;
+        return Math.max(nowMillis, lastSampleMillis + interval);
+    }
+
+    private static long overrideMillis(Integer overrideSeconds) {
+        return overrideSeconds != null ? TimeUnit.SECONDS.toMillis(Math.max(1, overrideSeconds)) : 0;
+    }
+
+    private long currentInterval(GameSchedule game) {
+        return game.overrideMillis > 0 ? game.overrideMillis : game.adaptiveMillis;
+    }
+
+    // Stale queue entries are skipped by version instead of being searched for and removed
+    private void reschedule(Long appId, GameSchedule game, long dueMillis) {
+        game.version++;
+        game.dueMillis = dueMillis;
+        queue.add(new Due(appId, dueMillis, game.version));
+        if (queue.size() > 4 * games.size() + 64) {
+            queue.removeIf(due -> {
+                GameSchedule current = games.get(due.appId);
+                return current == null || current.version != due.version;
+            });
+        }
+    }
+
+    private synchronized double requestsPerSecond() {
+        double rate = 0;
+        for (GameSchedule game : games.values()) {
+            rate += 1000.0 / currentInterval(game);
+        }
+        return rate;
+    }
+
+    private static class GameSchedule {
+        private long adaptiveMillis;
+        private long overrideMillis;
+        private long dueMillis;
+        private long version;
+        private int lastCount = -1;
+        private long lastSampleMillis;
+        // Smoothed relative change per second, -1 until two samples have been seen
+        private double changePerSecond = -1;
+
+        private GameSchedule(long initialIntervalMillis) {
+            this.adaptiveMillis = initialIntervalMillis;
+        }
+    }
+
+    private static class Due {
+        private final Long appId;
+        private final long dueMillis;
+        private final long version;
+
+        private Due(Long appId, long dueMillis, long version) {
+            this.appId = appId;
+            this.dueMillis = dueMillis;
+            this.version = version;
+        }
+    }
+}
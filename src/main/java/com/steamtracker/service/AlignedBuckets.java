@@ -0,0 +1,112 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.AlignedHistory;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accumulates samples of several games into one grid of epoch-aligned buckets
+ * (the same alignment as {@link HistoryDownsampler#bucket}).
+ * Raw samples go through {@link #add}; values already aggregated per bucket, e.g. by SQL, through {@link #put}.
+ */
+public final class AlignedBuckets {
+
+    private final long widthMillis;
+    private final long firstBucket;
+    private final int bucketCount;
+    private final DownsampleMode mode;
+    private final List<Long> appIds;
+    private final Map<Long, Column> columns = new HashMap<>();
+
+    /**
+     * Covers {@code [fromMillis, toMillis)}: every bucket that overlaps the range.
+     */
+    public AlignedBuckets(List<Long> appIds, long fromMillis, long toMillis, long bucketSeconds, DownsampleMode mode) {
+        if (bucketSeconds < 1 || toMillis <= fromMillis) {
+            throw new IllegalArgumentException("Bucket width and time range must be positive");
+        }
+        if (mode == DownsampleMode.LTTB) {
+            throw new IllegalArgumentException("LTTB keeps different points per game and cannot be aligned");
+        }
+        this.widthMillis = bucketSeconds * 1000;
+        this.firstBucket = Math.floorDiv(fromMillis, widthMillis);
+        this.bucketCount = Math.toIntExact(Math.floorDiv(toMillis - 1, widthMillis) - firstBucket + 1);
+        this.mode = mode;
+        this.appIds = appIds;
+        for (Long appId : appIds) {
+            columns.put(appId, new Column(bucketCount));
+        }
+    }
+
+    public static long bucketCount(long fromMillis, long toMillis, long bucketSeconds) {
+        long widthMillis = bucketSeconds * 1000;
+        return Math.floorDiv(toMillis - 1, widthMillis) - Math.floorDiv(fromMillis, widthMillis) + 1;
+    }
+
+    public void add(long appId, long timestampMillis, int playerCount) {
+        Column column = columns.get(appId);
+        int index = (int) (Math.floorDiv(timestampMillis, widthMillis) - firstBucket);
+        if (column == null || index < 0 || index >= bucketCount) {
+            return;
+        }
+        column.sum[index] += playerCount;
+        column.count[index]++;
+        column.min[index] = column.count[index] == 1 ? playerCount : Math.min(column.min[index], playerCount);
+        column.max[index] = column.count[index] == 1 ? playerCount : Math.max(column.max[index], playerCount);
+    }
+
+    /**
+     * Sets the final value of bucket number {@code epochBucket} (bucket start divided by the width).
+     */
+    public void put(long appId, long epochBucket, int value) {
+        Column column = columns.get(appId);
+        long index = epochBucket - firstBucket;
+        if (column == null || index < 0 || index >= bucketCount) {
+            return;
+        }
+        column.sum[(int) index] = value;
+        column.count[(int) index] = 1;
+        column.min[(int) index] = value;
+        column.max[(int) index] = value;
+    }
+
+    public AlignedHistory toHistory() {
+        long[] timestamps = new long[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            timestamps[i] = (firstBucket + i) * widthMillis;
+        }
+        Map<Long, Integer[]> series = new LinkedHashMap<>();
+        for (Long appId : appIds) {
+            Column column = columns.get(appId);
+            Integer[] values = new Integer[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                if (column.count[i] > 0) {
+                    values[i] = switch (mode) {
+                        case MIN -> column.min[i];
+                        case MAX -> column.max[i];
+                        default -> (int) Math.round((double) column.sum[i] / column.count[i]);
+                    };
+                }
+            }
+            series.put(appId, values);
+        }
+        return new AlignedHistory(widthMillis / 1000, timestamps, series);
+    }
+
+    private static class Column {
+        private final long[] sum;
+        private final int[] count;
+        private final int[] min;
+        private final int[] max;
+
+        private Column(int buckets) {
+            this.sum = new long[buckets];
+            this.count = new int[buckets];
+            this.min = new int[buckets];
+            this.max = new int[buckets];
+        }
+    }
+}
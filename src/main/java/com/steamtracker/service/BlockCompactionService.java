@@ -0,0 +1,118 @@
+package com.steamtracker.service;
+
+import com.steamtracker.repository.PlayerCountBlockRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seals complete days of raw samples into compressed per-game blocks, one day per transaction,
+ * oldest first. The current day stays in player_counts, where new samples are appended. Days past
+ * the raw retention are left to the retention job, which would delete their blocks right away.
+ * <p>
+ * Runs on its own thread and seals at most {@code history.blocks.max-days-per-run} days per run, so
+ * a backlog (after a bulk import, say) is worked off in steps {@code history.blocks.backlog-delay-ms}
+ * apart instead of in one long run.
+ */
+@Service
+@ConditionalOnProperty(name = "scheduling.enabled", matchIfMissing = true)
+public class BlockCompactionService {
+    private static final Logger logger = LoggerFactory.getLogger(BlockCompactionService.class);
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private PlayerCountBlockRepository playerCountBlockRepository;
+
+    @Autowired
+    private ShardLeaseService shardLeaseService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Value("${history.blocks.enabled:true}")
+    private boolean enabled;
+
+    @Value("${history.blocks.initial-delay-ms:60000}")
+    private long initialDelayMillis;
+
+    @Value("${history.blocks.compaction-interval-ms:3600000}")
+    private long intervalMillis;
+
+    @Value("${history.blocks.max-days-per-run:7}")
+    private int maxDaysPerRun;
+
+    @Value("${history.blocks.backlog-delay-ms:60000}")
+    private long backlogDelayMillis;
+
+    private final ScheduledExecutorService compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "block-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (maxDaysPerRun < 1) {
+            throw new IllegalArgumentException("history.blocks.max-days-per-run must be at least 1");
+        }
+        if (enabled) {
+            compactor.schedule(this::run, initialDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void run() {
+        boolean backlog = false;
+        try {
+            backlog = sealCompleteDays();
+        } catch (RuntimeException e) {
+            logger.error("Block compaction failed", e);
+        }
+        if (!compactor.isShutdown()) {
+            compactor.schedule(this::run, backlog ? backlogDelayMillis : intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Seals up to {@code history.blocks.max-days-per-run} complete days.
+     *
+     * @return whether complete days were left unsealed
+     */
+    public boolean sealCompleteDays() {
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        int retentionDays = rollupService.getRetentionDays(StorageTier.RAW);
+        LocalDateTime oldest = retentionDays > 0 ? today.minusDays(retentionDays) : EPOCH;
+        for (int sealed = 0; sealed < maxDaysPerRun; sealed++) {
+            // Leadership can move between days
+            if (!shardLeaseService.isLeader()) {
+                return false;
+            }
+            LocalDateTime day = playerCountBlockRepository.findOldestRawDay(oldest, today);
+            if (day == null) {
+                return false;
+            }
+            long start = System.nanoTime();
+            int samples = playerCountBlockRepository.sealDay(day);
+            logger.info("Sealed {} samples from {} into blocks in {} ms", samples, day.toLocalDate(),
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+        }
+        return playerCountBlockRepository.findOldestRawDay(oldest, today) != null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        compactor.shutdownNow();
+    }
+}
@@ -0,0 +1,57 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.ImportStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command-line import: {@code java -jar steam-player-tracker.jar --import.file=counts.csv.gz}, optionally
+ * with {@code --import.app-id} for files without an app ID column and {@code --import.format} when the
+ * file name does not tell. The import ID is the file's absolute path, so running the same command
+ * again resumes an interrupted import. The application exits when the import is done.
+ */
+@Component
+@ConditionalOnProperty(name = "import.file")
+public class BulkImportRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Value("${import.file}")
+    private String file;
+
+    @Value("${import.app-id:#{null}}")
+    private Long appId;
+
+    @Value("${import.format:#{null}}")
+    private String format;
+
+    private int exitCode;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        Path path = Path.of(file).toAbsolutePath();
+        PlayerCountImportReader.Format inputFormat =
+                PlayerCountImportReader.Format.of(format != null ? format : path.getFileName().toString());
+        try (InputStream in = Files.newInputStream(path)) {
+            ImportStatus status = bulkImportService.importPlayerCounts("file:" + path, path.toString(), in,
+                    inputFormat, appId);
+            exitCode = "SUCCEEDED".equals(status.getState()) ? 0 : 1;
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+}
@@ -0,0 +1,441 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.ImportStatus;
+import com.steamtracker.entity.Game;
+import com.steamtracker.repository.GameRepository;
+import com.steamtracker.repository.ImportCheckpointRepository;
+import com.steamtracker.repository.PlayerCountBulkWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Loads historical player counts from CSV or JSON exports into the history of tracked games.
+ * <p>
+ * The input is parsed as a stream ({@link PlayerCountImportReader}) and cut into chunks of
+ * {@code import.batch-size} records. Each chunk is split by game over {@code import.workers}
+ * workers, which load their part through COPY ({@link PlayerCountBulkWriter#importSamples}),
+ * skipping samples already stored. A game always goes to the same worker, so workers never race
+ * on the same samples. At most two parts per worker are in flight, so memory use does not depend
+ * on the input size. Once every chunk up to a point is loaded, that point is checkpointed under the
+ * import ID; running the same import again resumes after it. Imported months that have no partition
+ * yet land in the default partition and get their own once the import ends
+ * ({@link PartitionMaintenanceService#partitionDefaultRows}).
+ */
+@Service
+public class BulkImportService {
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportService.class);
+
+    private static final int MAX_LOGGED_REJECTS = 20;
+    private static final int HISTORY_SIZE = 50;
+    private static final long PROGRESS_LOG_NANOS = Duration.ofSeconds(10).toNanos();
+    private static final long MAX_CLOCK_SKEW_MILLIS = Duration.ofMinutes(1).toMillis();
+
+    @Autowired
+    private PlayerCountBulkWriter playerCountBulkWriter;
+
+    @Autowired
+    private ImportCheckpointRepository importCheckpointRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    private final int workers;
+    private final int batchSize;
+    private final Counter inserted;
+    private final Counter duplicates;
+    private final Counter rejected;
+    private final Map<String, Import> imports = new ConcurrentHashMap<>();
+
+    public BulkImportService(@Value("${import.workers:4}") int workers,
+                             @Value("${import.batch-size:50000}") int batchSize,
+                             MeterRegistry meterRegistry) {
+        if (workers < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("import.workers and import.batch-size must be at least 1");
+        }
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.inserted = recordCounter(meterRegistry, "inserted");
+        this.duplicates = recordCounter(meterRegistry, "duplicate");
+        this.rejected = recordCounter(meterRegistry, "rejected");
+    }
+
+    private static Counter recordCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("import.records")
+                .description("Imported player count records by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Imports everything in {@code in}, blocking until it is loaded or has failed.
+     *
+     * @param importId     identifies the input across runs, for resuming
+     * @param defaultAppId game of records without an app ID, may be null
+     * @throws IllegalStateException when an import with the same ID is running
+     */
+    public ImportStatus importPlayerCounts(String importId, String source, InputStream in,
+                                           PlayerCountImportReader.Format format, Long defaultAppId) {
+        Import run = new Import(importId, source, format);
+        synchronized (imports) {
+            Import previous = imports.get(importId);
+            if (previous != null && previous.finishedAt == null) {
+                throw new IllegalStateException("Import " + importId + " is already running");
+            }
+            imports.put(importId, run);
+            forgetOldImports();
+        }
+        try {
+            run.execute(in, defaultAppId);
+        } catch (IOException | RuntimeException e) {
+            run.error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            run.state = "FAILED";
+            logger.error("Import {} failed after {} records", importId, run.recordsRead.get(), e);
+        } finally {
+            run.finishedNanos = System.nanoTime();
+            run.finishedAt = LocalDateTime.now();
+        }
+        if (run.rowsInserted.get() > 0) {
+            partitionMaintenanceService.partitionDefaultRows();
+        }
+        return run.toStatus();
+    }
+
+    public ImportStatus getImport(String importId) {
+        Import run = imports.get(importId);
+        return run != null ? run.toStatus() : null;
+    }
+
+    public List<ImportStatus> getImports() {
+        List<ImportStatus> statuses = new ArrayList<>();
+        for (Import run : imports.values()) {
+            statuses.add(run.toStatus());
+        }
+        statuses.sort(Comparator.comparing(ImportStatus::getStartedAt).reversed());
+        return statuses;
+    }
+
+    private void forgetOldImports() {
+        if (imports.size() <= HISTORY_SIZE) {
+            return;
+        }
+        imports.values().stream()
+                .filter(run -> run.finishedAt != null)
+                .sorted(Comparator.comparing(run -> run.startedAt))
+                .limit(imports.size() - HISTORY_SIZE)
+                .toList()
+                .forEach(run -> imports.remove(run.id));
+    }
+
+    private class Import {
+        private final String id;
+        private final String source;
+        private final PlayerCountImportReader.Format format;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong recordsRead = new AtomicLong();
+        private final AtomicLong rowsInserted = new AtomicLong();
+        private final AtomicLong duplicateRows = new AtomicLong();
+        private final AtomicLong rejectedRows = new AtomicLong();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        // Chunks not loaded yet, oldest first
+        private final ArrayDeque<Chunk> openChunks = new ArrayDeque<>();
+        private final Semaphore inFlight = new Semaphore(workers * 2);
+        private volatile long resumedFrom;
+        private volatile String state = "RUNNING";
+        private volatile long finishedNanos;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        // Owned by the parsing thread
+        private Chunk chunk;
+        private long lastProgressNanos = startNanos;
+
+        private Import(String id, String source, PlayerCountImportReader.Format format) {
+            this.id = id;
+            this.source = source;
+            this.format = format;
+        }
+
+        private void execute(InputStream in, Long defaultAppId) throws IOException {
+            resumedFrom = importCheckpointRepository.findRecordsDone(id);
+            Set<Long> tracked = new HashSet<>();
+            for (Game game : gameRepository.findAllTracked()) {
+                tracked.add(game.getAppId());
+            }
+            long latestMillis = AdaptiveSamplingSchedule.currentMillis() + MAX_CLOCK_SKEW_MILLIS;
+            logger.info("Importing {} ({}) as {}{}", source, format, id,
+                    resumedFrom > 0 ? ", resuming after record " + resumedFrom : "");
+
+            ExecutorService[] loaders = new ExecutorService[workers];
+            for (int i = 0; i < workers; i++) {
+                String name = "import-" + i;
+                loaders[i] = Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, name);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            try {
+                chunk = new Chunk();
+                new PlayerCountImportReader(in, format, defaultAppId).read(new PlayerCountImportReader.RecordHandler() {
+                    @Override
+                    public void accept(long record, long appId, long timestampMillis, int playerCount) {
+                        if (record <= resumedFrom) {
+                            return;
+                        }
+                        if (!tracked.contains(appId)) {
+                            reject(record, "game " + appId + " is not tracked");
+                        } else if (playerCount < 0) {
+                            reject(record, "negative player count");
+                        } else if (timestampMillis > latestMillis) {
+                            reject(record, "timestamp in the future");
+                        } else {
+                            read(record);
+                            chunk.add(appId, timestampMillis, playerCount);
+                            if (chunk.size == batchSize) {
+                                dispatch(loaders);
+                            }
+                        }
+                    }
+
+                    @Override
+                    public void reject(long record, String reason) {
+                        if (record <= resumedFrom) {
+                            return;
+                        }
+                        read(record);
+                        rejected.increment();
+                        if (rejectedRows.incrementAndGet() <= MAX_LOGGED_REJECTS) {
+                            logger.warn("Import {}: record {} rejected, {}", id, record, reason);
+                        }
+                    }
+                });
+                dispatch(loaders);
+            } finally {
+                for (ExecutorService loader : loaders) {
+                    loader.shutdown();
+                }
+                awaitLoaders(loaders);
+            }
+
+            Throwable loadFailure = failure.get();
+            if (loadFailure != null) {
+                throw new IllegalStateException("Loading failed: " + loadFailure.getMessage(), loadFailure);
+            }
+            state = "SUCCEEDED";
+            logger.info("Import {} finished: {} records in {} ms ({} records/s), {} inserted, {} duplicates, {} rejected",
+                    id, recordsRead.get(), Duration.ofNanos(System.nanoTime() - startNanos).toMillis(),
+                    Math.round(recordsPerSecond()), rowsInserted.get(), duplicateRows.get(), rejectedRows.get());
+        }
+
+        private void read(long record) {
+            recordsRead.incrementAndGet();
+            chunk.lastRecord = record;
+            long now = System.nanoTime();
+            if (now - lastProgressNanos >= PROGRESS_LOG_NANOS) {
+                lastProgressNanos = now;
+                logger.info("Import {}: {} records read ({} records/s), {} inserted, {} duplicates, {} rejected",
+                        id, recordsRead.get(), Math.round(recordsPerSecond()), rowsInserted.get(),
+                        duplicateRows.get(), rejectedRows.get());
+            }
+        }
+
+        /**
+         * Hands the current chunk to the workers, waiting while too many parts are in flight.
+         */
+        private void dispatch(ExecutorService[] loaders) {
+            Throwable loadFailure = failure.get();
+            if (loadFailure != null) {
+                throw new IllegalStateException("Loading failed: " + loadFailure.getMessage(), loadFailure);
+            }
+            Chunk full = chunk;
+            chunk = new Chunk();
+            chunk.lastRecord = full.lastRecord;
+            if (full.lastRecord <= resumedFrom) {
+                return;
+            }
+
+            List<Part> parts = full.split(workers);
+            synchronized (this) {
+                full.pendingParts = parts.size();
+                openChunks.add(full);
+                if (parts.isEmpty()) {
+                    checkpoint();
+                    return;
+                }
+            }
+            for (Part part : parts) {
+                inFlight.acquireUninterruptibly();
+                loaders[part.worker].execute(() -> {
+                    try {
+                        if (failure.get() == null) {
+                            int rows = playerCountBulkWriter.importSamples(part.appIds, part.timestamps,
+                                    part.playerCounts, part.size);
+                            rowsInserted.addAndGet(rows);
+                            duplicateRows.addAndGet(part.size - rows);
+                            inserted.increment(rows);
+                            duplicates.increment(part.size - rows);
+                            partLoaded(full);
+                        }
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+
+        private synchronized void partLoaded(Chunk loaded) {
+            loaded.pendingParts--;
+            checkpoint();
+        }
+
+        /**
+         * Checkpoints every record up to the newest chunk with no older chunk still loading.
+         */
+        private synchronized void checkpoint() {
+            long done = -1;
+            while (!openChunks.isEmpty() && openChunks.peek().pendingParts == 0) {
+                done = openChunks.poll().lastRecord;
+            }
+            if (done > 0) {
+                importCheckpointRepository.advance(id, done);
+            }
+        }
+
+        private void awaitLoaders(ExecutorService[] loaders) {
+            try {
+                for (ExecutorService loader : loaders) {
+                    while (!loader.awaitTermination(1, TimeUnit.MINUTES)) {
+                        logger.info("Import {}: waiting for loaders", id);
+                    }
+                }
+            } catch (InterruptedException e) {
+                for (ExecutorService loader : loaders) {
+                    loader.shutdownNow();
+                }
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private double recordsPerSecond() {
+            double seconds = ((finishedAt != null ? finishedNanos : System.nanoTime()) - startNanos) / 1e9;
+            return seconds > 0 ? recordsRead.get() / seconds : 0;
+        }
+
+        private ImportStatus toStatus() {
+            ImportStatus status = new ImportStatus();
+            status.setId(id);
+            status.setSource(source);
+            status.setFormat(format.name());
+            status.setState(state);
+            status.setResumedFrom(resumedFrom);
+            status.setRecordsRead(recordsRead.get());
+            status.setRowsInserted(rowsInserted.get());
+            status.setDuplicates(duplicateRows.get());
+            status.setRejected(rejectedRows.get());
+            status.setRecordsPerSecond(Math.round(recordsPerSecond() * 10) / 10.0);
+            status.setStartedAt(startedAt);
+            status.setFinishedAt(finishedAt);
+            status.setError(error);
+            return status;
+        }
+    }
+
+    /**
+     * Consecutive records, loaded as one part per worker.
+     */
+    private class Chunk {
+        private final long[] appIds = new long[batchSize];
+        private final long[] timestamps = new long[batchSize];
+        private final int[] playerCounts = new int[batchSize];
+        private int size;
+        private long lastRecord;
+        // Guarded by the import
+        private int pendingParts;
+
+        private void add(long appId, long timestampMillis, int playerCount) {
+            appIds[size] = appId;
+            timestamps[size] = timestampMillis;
+            playerCounts[size] = playerCount;
+            size++;
+        }
+
+        private List<Part> split(int workers) {
+            int[] sizes = new int[workers];
+            for (int i = 0; i < size; i++) {
+                sizes[worker(appIds[i], workers)]++;
+            }
+            Part[] parts = new Part[workers];
+            for (int w = 0; w < workers; w++) {
+                if (sizes[w] > 0) {
+                    parts[w] = new Part(w, sizes[w]);
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                parts[worker(appIds[i], workers)].add(appIds[i], timestamps[i], playerCounts[i]);
+            }
+            List<Part> nonEmpty = new ArrayList<>();
+            for (Part part : parts) {
+                if (part != null) {
+                    nonEmpty.add(part);
+                }
+            }
+            return nonEmpty;
+        }
+
+        private static int worker(long appId, int workers) {
+            return Math.floorMod(Long.hashCode(appId), workers);
+        }
+    }
+
+    private static class Part {
+        private final int worker;
+        private final long[] appIds;
+        private final long[] timestamps;
+        private final int[] playerCounts;
+        private int size;
+
+        private Part(int worker, int capacity) {
+            this.worker = worker;
+            this.appIds = new long[capacity];
+            this.timestamps = new long[capacity];
+            this.playerCounts = new int[capacity];
+        }
+
+        private void add(long appId, long timestampMillis, int playerCount) {
+            appIds[size] = appId;
+            timestamps[size] = timestampMillis;
+            playerCounts[size] = playerCount;
+            size++;
+        }
+    }
+}
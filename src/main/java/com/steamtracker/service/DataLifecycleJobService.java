@@ -0,0 +1,283 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.JobStatus;
+import com.steamtracker.entity.Game;
+import com.steamtracker.repository.GameRepository;
+import com.steamtracker.repository.PlayerCountBlockRepository;
+import com.steamtracker.repository.PlayerCountBulkWriter;
+import com.steamtracker.repository.PlayerCountPartitionRepository;
+import com.steamtracker.repository.PlayerCountRollupRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Background jobs that delete history: purging an untracked game and applying retention.
+ * Jobs run one at a time on a single worker thread and delete in chunks of
+ * {@code lifecycle.chunk-size} rows, each chunk in its own short transaction, so neither
+ * request threads nor long-held locks are involved. Status is kept in memory for the most
+ * recent {@code lifecycle.history-size} jobs.
+ */
+@Service
+public class DataLifecycleJobService {
+    private static final Logger logger = LoggerFactory.getLogger(DataLifecycleJobService.class);
+
+    public static final String UNTRACK = "untrack";
+    public static final String RETENTION = "retention";
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private PlayerCountBulkWriter playerCountBulkWriter;
+
+    @Autowired
+    private PlayerCountBlockRepository playerCountBlockRepository;
+
+    @Autowired
+    private PlayerCountRollupRepository playerCountRollupRepository;
+
+    @Autowired
+    private PlayerCountPartitionRepository playerCountPartitionRepository;
+
+    @Autowired
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private ShardLeaseService shardLeaseService;
+
+    private final int chunkSize;
+    private final int historySize;
+    private final AtomicLong nextId = new AtomicLong();
+    private final Map<Long, Job> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "data-lifecycle");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DataLifecycleJobService(@Value("${lifecycle.chunk-size:10000}") int chunkSize,
+                                   @Value("${lifecycle.history-size:100}") int historySize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("lifecycle.chunk-size must be at least 1");
+        }
+        this.chunkSize = chunkSize;
+        this.historySize = historySize;
+    }
+
+    /**
+     * Resumes purges of games left untracked by a restart or by an instance that went away. Only the
+     * leader resumes, and not for games it is already purging, so instances never race on one purge.
+     * Runs a while after startup, once leases have settled, and periodically after that.
+     */
+    @Scheduled(initialDelayString = "${lifecycle.resume-delay-ms:60000}",
+            fixedDelayString = "${lifecycle.resume-interval-ms:3600000}")
+    public void resumePendingUntracks() {
+        if (!shardLeaseService.isLeader()) {
+            return;
+        }
+        for (Game game : gameRepository.findAll()) {
+            if (game.getUntrackedAt() != null && !isPurging(game.getAppId())) {
+                submitUntrack(game.getAppId());
+            }
+        }
+    }
+
+    private boolean isPurging(Long appId) {
+        for (Job job : jobs.values()) {
+            if (UNTRACK.equals(job.type) && appId.equals(job.appId) && job.finishedAt == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Queues deletion of all history of a game already marked as untracked, then of the game row.
+     */
+    public JobStatus submitUntrack(Long appId) {
+        return submit(UNTRACK, appId, job -> {
+            job.phase = "player_counts";
+            deleteInChunks(job, () -> playerCountBulkWriter.deleteChunkByAppId(appId, chunkSize));
+            job.phase = "player_count_blocks";
+            deleteInChunks(job, () -> playerCountBlockRepository.deleteChunkByAppId(appId, chunkSize));
+            for (StorageTier tier : StorageTier.values()) {
+                if (tier.isRollup()) {
+                    job.phase = tier.getTableName();
+                    deleteInChunks(job, () -> playerCountRollupRepository.deleteChunkByAppId(tier, appId, chunkSize));
+                }
+            }
+            // A collection batch that started before the game was marked may have committed since
+            job.phase = "player_counts";
+            deleteInChunks(job, () -> playerCountBulkWriter.deleteChunkByAppId(appId, chunkSize));
+            job.phase = "games";
+            job.rowsDeleted.addAndGet(gameRepository.deleteUntracked(appId));
+        });
+    }
+
+    @Scheduled(cron = "${history.retention.purge-cron:0 15 3 * * *}")
+    public void scheduleRetention() {
+        if (shardLeaseService.isLeader()) {
+            submitRetention();
+        }
+    }
+
+    /**
+     * Queues a retention purge, or returns the one already queued or running.
+     */
+    public synchronized JobStatus submitRetention() {
+        for (Job job : jobs.values()) {
+            if (RETENTION.equals(job.type) && job.finishedAt == null) {
+                return job.toStatus();
+            }
+        }
+        return submit(RETENTION, null, job -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (StorageTier tier : StorageTier.values()) {
+                int retentionDays = rollupService.getRetentionDays(tier);
+                if (retentionDays <= 0) {
+                    continue;
+                }
+                LocalDateTime cutoff = now.minusDays(retentionDays);
+                job.phase = tier.getTableName();
+                if (tier.isRollup()) {
+                    deleteInChunks(job, () -> playerCountRollupRepository.deleteChunkOlderThan(tier, cutoff, chunkSize));
+                    continue;
+                }
+                // Raw retention covers both raw layouts. Fully expired monthly partitions are dropped whole;
+                // the rest (rows in partly expired or default partitions, and the sealed blocks that hold
+                // most raw samples once compaction has run) is deleted in chunks.
+                int partitions = partitionMaintenanceService.dropExpiredPartitions(cutoff);
+                logger.info("Dropped {} expired player_counts partitions", partitions);
+                deleteInChunks(job, () -> playerCountPartitionRepository.deleteChunkBefore(cutoff, chunkSize));
+                job.phase = "player_count_blocks";
+                deleteInChunks(job, () -> playerCountBlockRepository.deleteChunkOlderThan(cutoff, chunkSize));
+            }
+        });
+    }
+
+    public JobStatus getJob(long id) {
+        Job job = jobs.get(id);
+        return job != null ? job.toStatus() : null;
+    }
+
+    public List<JobStatus> getJobs() {
+        List<JobStatus> statuses = new ArrayList<>();
+        for (Job job : jobs.values()) {
+            statuses.add(job.toStatus());
+        }
+        statuses.sort(Comparator.comparingLong(JobStatus::getId).reversed());
+        return statuses;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private JobStatus submit(String type, Long appId, JobBody body) {
+        Job job = new Job(nextId.incrementAndGet(), type, appId);
+        jobs.put(job.id, job);
+        forgetOldJobs();
+        worker.execute(() -> run(job, body));
+        logger.info("Queued {} job {}{}", type, job.id, appId != null ? " for app ID " + appId : "");
+        return job.toStatus();
+    }
+
+    private void run(Job job, JobBody body) {
+        job.startedAt = LocalDateTime.now();
+        job.state = "RUNNING";
+        try {
+            body.run(job);
+            job.state = "SUCCEEDED";
+            job.phase = null;
+            logger.info("{} job {} deleted {} rows", job.type, job.id, job.rowsDeleted.get());
+        } catch (CancellationException e) {
+            job.state = "CANCELLED";
+            job.error = e.getMessage();
+            logger.warn("{} job {} cancelled in phase {}", job.type, job.id, job.phase);
+        } catch (RuntimeException e) {
+            job.state = "FAILED";
+            job.error = e.getMessage();
+            logger.error("{} job {} failed in phase {}", job.type, job.id, job.phase, e);
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Deletes until a chunk comes back short.
+     *
+     * @throws CancellationException when the worker is interrupted, so later phases do not run
+     */
+    private void deleteInChunks(Job job, IntSupplier deleteChunk) {
+        int deleted;
+        do {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Interrupted after deleting " + job.rowsDeleted.get() + " rows");
+            }
+            deleted = deleteChunk.getAsInt();
+            job.rowsDeleted.addAndGet(deleted);
+        } while (deleted >= chunkSize);
+    }
+
+    private void forgetOldJobs() {
+        if (jobs.size() <= historySize) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(job -> job.finishedAt != null)
+                .sorted(Comparator.comparingLong(job -> job.id))
+                .limit(jobs.size() - historySize)
+                .toList()
+                .forEach(job -> jobs.remove(job.id));
+    }
+
+    @FunctionalInterface
+    private interface JobBody {
+        void run(Job job);
+    }
+
+    private static class Job {
+        private final long id;
+        private final String type;
+        private final Long appId;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final AtomicLong rowsDeleted = new AtomicLong();
+        private volatile String state = "QUEUED";
+        private volatile String phase;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Job(long id, String type, Long appId) {
+            this.id = id;
+            this.type = type;
+            this.appId = appId;
+        }
+
+        private JobStatus toStatus() {
+            return new JobStatus(id, type, appId, state, phase, rowsDeleted.get(), submittedAt, startedAt,
+                    finishedAt, error);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.steamtracker.service;
+
+/**
+ * How a history series is reduced to chart resolution.
+ */
+public enum DownsampleMode {
+    AVG,
+    MIN,
+    MAX,
+    // Largest-Triangle-Three-Buckets: keeps real samples that preserve the visual shape
+    LTTB;
+
+    public static DownsampleMode fromParameter(String value) {
+        if (value == null || value.isBlank()) {
+            return AVG;
+        }
+        try {
+            return DownsampleMode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown downsample mode: " + value);
+        }
+    }
+}
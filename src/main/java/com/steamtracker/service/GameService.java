@@ -1,91 +1,167 @@
 package com.steamtracker.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.steamtracker.dto.AlignedHistory;
+import com.steamtracker.dto.GamePeaks;
 import com.steamtracker.dto.GameSearchResponse;
+import com.steamtracker.dto.GameStats;
+import com.steamtracker.dto.HotTierStats;
+import com.steamtracker.dto.JobStatus;
+import com.steamtracker.dto.LeaderboardEntry;
 import com.steamtracker.dto.PlayerCountData;
+import com.steamtracker.dto.PlayerCountPage;
+import com.steamtracker.dto.PlayerCountSample;
+import com.steamtracker.dto.PlayerCountSeries;
+import com.steamtracker.dto.SamplingStatus;
+import com.steamtracker.dto.StorageStats;
 import com.steamtracker.entity.Game;
-import com.steamtracker.entity.PlayerCount;
 import com.steamtracker.repository.GameRepository;
-import com.steamtracker.repository.PlayerCountRepository;
+import com.steamtracker.repository.PlayerCountBlockRepository;
+import com.steamtracker.repository.PlayerCountRollupRepository;
+import com.steamtracker.repository.PlayerCountSeriesRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class GameService {
     private static final Logger logger = LoggerFactory.getLogger(GameService.class);
+    private static final int MAX_PAGE_SIZE = 10_000;
+    private static final int MAX_ALIGNED_GAMES = 50;
+    private static final int MAX_ALIGNED_BUCKETS = 10_000;
+    private static final int DEFAULT_ALIGNED_POINTS = 500;
+    private static final int MAX_LEADERBOARD_SIZE = 1_000;
 
     @Autowired
     private GameRepository gameRepository;
 
     @Autowired
-    private PlayerCountRepository playerCountRepository;
+    private SampleJournalService sampleJournalService;
+
+    @Autowired
+    private PlayerCountSeriesRepository playerCountSeriesRepository;
+
+    @Autowired
+    private PlayerCountRollupRepository playerCountRollupRepository;
+
+    @Autowired
+    private PlayerCountBlockRepository playerCountBlockRepository;
 
     @Autowired
     private SteamApiService steamApiService;
 
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private RecentSampleCache recentSampleCache;
+
+    @Autowired
+    private SteamAppCatalog steamAppCatalog;
+
+    @Autowired
+    private PlayerCountCache playerCountCache;
+
+    @Autowired
+    private LiveSampleBroadcaster liveSampleBroadcaster;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private GameStalenessMetrics gameStalenessMetrics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AdaptiveSamplingSchedule samplingSchedule;
+
+    @Autowired
+    private DataLifecycleJobService dataLifecycleJobService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private TrackedGamesCache trackedGamesCache;
+
+    @Autowired
+    private GameStatsService gameStatsService;
+
     public List<GameSearchResponse> searchGames(String searchTerm) {
         logger.debug("Searching for games with term: {}", searchTerm);
 
-        // First, search in local database
-        List<Game> localGames = gameRepository.findByNameContainingIgnoreCase(searchTerm);
-        List<GameSearchResponse> results = new ArrayList<>();
+        // Tracked games and the Steam catalog share one in-memory index
+        List<SteamApiService.GameInfo> matches = steamApiService.searchGames(searchTerm);
+        Map<Long, Game> trackedGames = gameRepository.findTrackedByAppIds(
+                        matches.stream().map(SteamApiService.GameInfo::getAppId).toList())
+                .stream()
+                .collect(Collectors.toMap(Game::getAppId, Function.identity()));
+
+        // Cached counts return immediately, missing ones are fetched in parallel
+        List<CompletableFuture<Integer>> playerCounts = matches.stream()
+                .map(match -> playerCountCache.getAsync(match.getAppId()).exceptionally(e -> {
+                    logger.debug("No current player count for app ID {}: {}", match.getAppId(), e.getMessage());
+                    return null;
+                }))
+                .toList();
 
-        // Add local games to results
-        for (Game game : localGames) {
-            Integer currentPlayerCount = steamApiService.getCurrentPlayerCount(game.getAppId());
+        List<GameSearchResponse> results = new ArrayList<>();
+        for (int i = 0; i < matches.size(); i++) {
+            SteamApiService.GameInfo match = matches.get(i);
+            Game tracked = trackedGames.get(match.getAppId());
             results.add(new GameSearchResponse(
-                    game.getAppId(),
-                    game.getName(),
-                    currentPlayerCount,
-                    game.getLastUpdated(),
-                    true
+                    match.getAppId(),
+                    tracked != null ? tracked.getName() : match.getName(),
+                    playerCounts.get(i).join(),
+                    tracked != null ? tracked.getLastUpdated() : null,
+                    tracked != null
             ));
         }
 
-        // If we have fewer than 10 results, search Steam API
-        if (results.size() < 10) {
-            List<SteamApiService.GameInfo> steamGames = steamApiService.searchGames(searchTerm);
-
-            for (SteamApiService.GameInfo steamGame : steamGames) {
-                // Skip if we already have this game in results
-                boolean alreadyExists = results.stream()
-                        .anyMatch(r -> r.getAppId().equals(steamGame.getAppId()));
-
-                if (!alreadyExists) {
-                    Integer currentPlayerCount = steamApiService.getCurrentPlayerCount(steamGame.getAppId());
-                    results.add(new GameSearchResponse(
-                            steamGame.getAppId(),
-                            steamGame.getName(),
-                            currentPlayerCount,
-                            null,
-                            false
-                    ));
-
-                    if (results.size() >= 10) {
-                        break;
-                    }
-                }
-            }
-        }
-
         logger.debug("Found {} games for search term: {}", results.size(), searchTerm);
         return results;
     }
 
-    @Transactional
+    /**
+     * Not transactional: the game row is committed by {@code save} before the first sample is
+     * journaled, so a journal flush cannot drop that sample for want of its game.
+     */
     public void startTrackingGame(Long appId, String gameName) {
         logger.info("Starting to track game: {} (ID: {})", gameName, appId);
 
-        if (!gameRepository.existsByAppId(appId)) {
+        Game existing = gameRepository.findByAppId(appId).orElse(null);
+        if (existing != null && existing.getUntrackedAt() != null) {
+            throw new IllegalStateException("Game is still being untracked, try again later");
+        }
+        if (existing == null) {
             Game game = new Game(appId, gameName);
             gameRepository.save(game);
+            steamAppCatalog.registerTrackedGame(appId, gameName);
+            gameStalenessMetrics.track(appId, game.getLastUpdated());
+            samplingSchedule.track(appId, null, AdaptiveSamplingSchedule.currentMillis());
+            leaderboardService.track(appId, gameName);
+            trackedGamesCache.track(game);
             logger.info("Game added to tracking: {}", gameName);
         } else {
             logger.debug("Game already being tracked: {}", gameName);
@@ -95,11 +171,10 @@ public class GameService {
         collectPlayerCount(appId);
     }
 
-    @Transactional
     public void collectPlayerCount(Long appId) {
         logger.debug("Collecting player count for app ID: {}", appId);
 
-        Game game = gameRepository.findByAppId(appId).orElse(null);
+        Game game = gameRepository.findTrackedByAppId(appId).orElse(null);
         if (game == null) {
             logger.warn("Game not found for app ID: {}", appId);
             return;
@@ -107,67 +182,339 @@ public class GameService {
 
         Integer playerCount = steamApiService.getCurrentPlayerCount(appId);
         if (playerCount != null) {
-            PlayerCount pc = new PlayerCount(game, playerCount);
-            playerCountRepository.save(pc);
-
-            // Update game's last updated timestamp
-            game.setLastUpdated(LocalDateTime.now());
-            gameRepository.save(game);
-
+            recordPlayerCounts(List.of(new PlayerCountSample(appId, playerCount, LocalDateTime.now())));
             logger.debug("Player count recorded for {}: {}", game.getName(), playerCount);
         } else {
             logger.warn("Failed to get player count for {}", game.getName());
         }
     }
 
+    /**
+     * History at the finest resolution kept for the whole window: raw samples while raw retention
+     * covers it, otherwise one average per bucket of the finest rollup tier that does.
+     */
     public List<PlayerCountData> getPlayerCountHistory(Long appId, Integer days) {
-        logger.debug("Getting player count history for app ID: {} (last {} days)", appId, days);
-
+        Timer.Sample query = Timer.start(meterRegistry);
         LocalDateTime since = LocalDateTime.now().minusDays(days != null ? days : 7);
-        List<PlayerCount> playerCounts = playerCountRepository
-                .findByGameAppIdAndRecordedAtAfterOrderByRecordedAtAsc(appId, since);
+        StorageTier tier = rollupService.selectTier(since, 0);
+        logger.debug("Getting player count history for app ID: {} from {} tier (last {} days)", appId, tier, days);
+
+        if (tier.isRollup()) {
+            return timed(query, tier.name().toLowerCase(),
+                    playerCountRollupRepository.findAverageSeries(tier, appId, since).toPlayerCountData());
+        }
+        PlayerCountSeries recent = recentSampleCache.findSeries(appId, since);
+        if (recent != null) {
+            return timed(query, "hot", recent.toPlayerCountData());
+        }
 
-        return playerCounts.stream()
-                .map(pc -> new PlayerCountData(pc.getRecordedAt(), pc.getPlayerCount()))
-                .collect(Collectors.toList());
+        return timed(query, "raw", playerCountSeriesRepository.findSeries(appId, since).toPlayerCountData());
     }
 
-    public List<Game> getAllTrackedGames() {
-        return gameRepository.findAll();
+    /**
+     * One keyset page of raw samples strictly after {@code after} (or from the start of the
+     * window when null), in time order.
+     */
+    public PlayerCountPage getPlayerCountHistoryPage(Long appId, LocalDateTime after, Integer days, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Timer.Sample query = Timer.start(meterRegistry);
+        LocalDateTime from = after != null ? after : LocalDateTime.now().minusDays(days != null ? days : 7);
+        List<PlayerCountData> items = timed(query, "raw_page", playerCountSeriesRepository.findPage(appId, from, limit));
+        LocalDateTime nextCursor = items.size() == limit ? items.get(items.size() - 1).getTimestamp() : null;
+        return new PlayerCountPage(items, nextCursor);
     }
 
-    @Transactional
-    public void collectPlayerCountsForAllGames() {
-        logger.info("Collecting player counts for all tracked games");
+    /**
+     * Writes the window as newline-delimited JSON straight from a database cursor,
+     * so memory use does not depend on the window size.
+     */
+    public void streamPlayerCountHistory(Long appId, Integer days, OutputStream out) throws IOException {
+        LocalDateTime from = LocalDateTime.now().minusDays(days != null ? days : 7);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            ObjectWriter writer = objectMapper.writerFor(PlayerCountData.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            PlayerCountData row = new PlayerCountData();
+            playerCountSeriesRepository.forEachSample(appId, from, LocalDateTime.now(),
+                    (id, timestampMillis, playerCount) -> {
+                        row.setTimestamp(PlayerCountSeries.toLocalDateTime(timestampMillis));
+                        row.setPlayerCount(playerCount);
+                        try {
+                            writer.writeValue(generator, row);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+            generator.writeRaw('\n');
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
 
-        List<Game> games = gameRepository.findAll();
-        for (Game game : games) {
-            collectPlayerCount(game.getAppId());
+    /**
+     * Returns the history window reduced to chart resolution.
+     * Either {@code points} (target number of points) or {@code bucketSeconds} sets the resolution;
+     * with neither, the window comes at its finest stored resolution (see above).
+     */
+    public List<PlayerCountData> getPlayerCountHistory(Long appId, Integer days, Integer points,
+                                                       Long bucketSeconds, DownsampleMode mode) {
+        if (points == null && bucketSeconds == null) {
+            return getPlayerCountHistory(appId, days);
         }
 
-        logger.info("Finished collecting player counts for {} games", games.size());
+        Timer.Sample query = Timer.start(meterRegistry);
+        int windowDays = days != null ? days : 7;
+        LocalDateTime since = LocalDateTime.now().minusDays(windowDays);
+        long windowSeconds = windowDays * 86_400L;
+
+        long resolution = bucketSeconds != null
+                ? bucketSeconds
+                : (points > 0 ? Math.max(1L, (windowSeconds + points - 1) / points) : 0);
+        if (resolution < 1) {
+            throw new IllegalArgumentException("Bucket width and point count must be positive");
+        }
+        StorageTier tier = rollupService.selectTier(since, resolution);
+        logger.debug("Getting {} downsampled history for app ID: {} from {} tier (last {} days, {}s buckets)",
+                mode, appId, tier, windowDays, resolution);
+
+        if (mode == DownsampleMode.LTTB) {
+            int threshold = points != null ? points : (int) Math.min(Integer.MAX_VALUE, windowSeconds / resolution);
+            if (threshold < 3) {
+                throw new IllegalArgumentException("LTTB needs at least 3 points");
+            }
+            PlayerCountSeries recent = tier.isRollup() ? null : recentSampleCache.findSeries(appId, since);
+            PlayerCountSeries series;
+            String source;
+            if (recent != null) {
+                series = recent;
+                source = "hot";
+            } else if (tier.isRollup()) {
+                series = playerCountRollupRepository.findAverageSeries(tier, appId, since);
+                source = tier.name().toLowerCase();
+            } else {
+                series = playerCountSeriesRepository.findSeries(appId, since);
+                source = "raw";
+            }
+            int[] keep = HistoryDownsampler.lttb(series.getTimestamps(), series.getCounts(), series.size(), threshold);
+            List<PlayerCountData> result = new ArrayList<>(keep.length);
+            for (int index : keep) {
+                result.add(new PlayerCountData(
+                        PlayerCountSeries.toLocalDateTime(series.getTimestamps()[index]),
+                        series.getCounts()[index]));
+            }
+            return timed(query, source, result);
+        }
+
+        if (tier.isRollup()) {
+            return timed(query, tier.name().toLowerCase(),
+                    playerCountRollupRepository.findBucketed(tier, appId, since, resolution, mode));
+        }
+        PlayerCountSeries recent = recentSampleCache.findSeries(appId, since);
+        if (recent != null) {
+            return timed(query, "hot", HistoryDownsampler.bucket(recent, resolution, mode));
+        }
+        return timed(query, "raw",
+                HistoryDownsampler.bucket(playerCountSeriesRepository.findSeries(appId, since), resolution, mode));
     }
 
-    @Transactional
-    public void stopTrackingGame(Long appId) {
+    /**
+     * History of several games in {@code [from, to)} on one shared axis of epoch-aligned buckets,
+     * read with a single query: from the hot tier when it holds every game's window, otherwise
+     * from the raw samples or the coarsest rollup tier fine enough for the bucket width.
+     * Without {@code bucketSeconds} the width gives about {@code points} buckets (500 by default).
+     */
+    public AlignedHistory getAlignedHistory(List<Long> appIds, LocalDateTime from, LocalDateTime to,
+                                            Long bucketSeconds, Integer points, DownsampleMode mode) {
+        List<Long> games = appIds.stream().distinct().toList();
+        if (games.isEmpty() || games.size() > MAX_ALIGNED_GAMES) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_ALIGNED_GAMES + " app IDs are required");
+        }
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("The time range must end after it starts");
+        }
+        long fromMillis = PlayerCountSeries.toEpochMillis(from);
+        long toMillis = PlayerCountSeries.toEpochMillis(to);
+        int targetPoints = points != null ? points : DEFAULT_ALIGNED_POINTS;
+        if (bucketSeconds == null && targetPoints < 1) {
+            throw new IllegalArgumentException("Bucket width and point count must be positive");
+        }
+        long width = bucketSeconds != null
+                ? bucketSeconds
+                : Math.max(1L, ((toMillis - fromMillis) / 1000 + targetPoints - 1) / targetPoints);
+        if (width < 1) {
+            throw new IllegalArgumentException("Bucket width and point count must be positive");
+        }
+
+        Timer.Sample query = Timer.start(meterRegistry);
+        StorageTier tier = rollupService.selectTier(from, width);
+        if (tier.isRollup()) {
+            width = Math.max(width, tier.getResolutionSeconds());
+        }
+        if (AlignedBuckets.bucketCount(fromMillis, toMillis, width) > MAX_ALIGNED_BUCKETS) {
+            throw new IllegalArgumentException("At most " + MAX_ALIGNED_BUCKETS + " buckets can be returned");
+        }
+        AlignedBuckets buckets = new AlignedBuckets(games, fromMillis, toMillis, width, mode);
+        logger.debug("Getting aligned history of {} games from {} tier ({}s buckets)", games.size(), tier, width);
+
+        if (tier.isRollup()) {
+            playerCountRollupRepository.forEachBucket(tier, games, from, to, width, mode, buckets::put);
+            return timed(query, tier.name().toLowerCase(), buckets.toHistory());
+        }
+
+        List<PlayerCountSeries> recent = new ArrayList<>(games.size());
+        for (Long appId : games) {
+            PlayerCountSeries series = recentSampleCache.findSeries(appId, from);
+            if (series == null) {
+                recent = null;
+                break;
+            }
+            recent.add(series);
+        }
+        if (recent != null) {
+            for (int g = 0; g < games.size(); g++) {
+                PlayerCountSeries series = recent.get(g);
+                for (int i = 0; i < series.size() && series.getTimestamps()[i] < toMillis; i++) {
+                    buckets.add(games.get(g), series.getTimestamps()[i], series.getCounts()[i]);
+                }
+            }
+            return timed(query, "hot", buckets.toHistory());
+        }
+
+        playerCountSeriesRepository.forEachSample(games, from, to, buckets::add);
+        return timed(query, "raw", buckets.toHistory());
+    }
+
+    /**
+     * Stops {@code query} on the {@code history.query} timer; {@code source} is where the
+     * samples came from (hot tier, raw table or a rollup tier), so its counts also give the hot-tier hit rate.
+     */
+    private <T> T timed(Timer.Sample query, String source, T result) {
+        query.stop(Timer.builder("history.query")
+                .description("Latency of player count history queries")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        return result;
+    }
+
+    public HotTierStats getHotTierStats() {
+        return recentSampleCache.getStats();
+    }
+
+    public StorageStats getStorageStats() {
+        return playerCountBlockRepository.getStorageStats();
+    }
+
+    /**
+     * The current snapshot of the tracked games list; pages and ETag come from it.
+     */
+    public TrackedGamesCache.Snapshot getTrackedGames() {
+        return trackedGamesCache.getSnapshot();
+    }
+
+    /**
+     * Persists a batch of samples fetched by {@link PlayerCountCollector} through the
+     * {@link SampleJournalService} and updates the in-memory views at once.
+     * Samples for games that were untracked while the cycle was running are dropped, so those games
+     * do not reappear in the views.
+     *
+     * @return the number of samples kept
+     */
+    public int recordPlayerCounts(List<PlayerCountSample> collected) {
+        List<PlayerCountSample> samples = samplingSchedule.filterScheduled(collected);
+        if (samples.isEmpty()) {
+            return 0;
+        }
+        int recorded = sampleJournalService.write(samples);
+        gameStalenessMetrics.record(samples);
+        samplingSchedule.recordSamples(samples);
+        leaderboardService.record(samples);
+        trackedGamesCache.record(samples);
+        gameStatsService.record(samples);
+        recentSampleCache.append(samples);
+        for (PlayerCountSample sample : samples) {
+            playerCountCache.put(sample.getAppId(), sample.getPlayerCount());
+        }
+        liveSampleBroadcaster.publish(samples);
+        logger.debug("Recorded {} player count samples", recorded);
+        return recorded;
+    }
+
+    /**
+     * Hides the game at once and queues the purge of its history.
+     *
+     * @return the purge job
+     */
+    public JobStatus stopTrackingGame(Long appId) {
         logger.info("Stopping tracking for game with app ID: {}", appId);
 
-        Game game = gameRepository.findByAppId(appId).orElse(null);
-        if (game == null) {
+        if (gameRepository.markUntracked(appId, LocalDateTime.now()) == 0) {
             logger.warn("Game not found for app ID: {}", appId);
             throw new RuntimeException("Game not found");
         }
 
-        // Delete all player count data for this game
-        playerCountRepository.deleteAll(game.getPlayerCounts());
+        // First, so that samples still being recorded are dropped instead of refilling the views
+        samplingSchedule.untrack(appId);
+        recentSampleCache.remove(appId);
+        steamAppCatalog.unregisterTrackedGame(appId);
+        gameStalenessMetrics.untrack(appId);
+        playerCountCache.invalidate(appId);
+        leaderboardService.untrack(appId);
+        trackedGamesCache.untrack(appId);
+        gameStatsService.untrack(appId);
+
+        JobStatus job = dataLifecycleJobService.submitUntrack(appId);
+        logger.info("Stopped tracking game with app ID: {}, purge job {}", appId, job.getId());
+        return job;
+    }
+
+    /**
+     * Pins a game's sampling interval, or lets the scheduler adapt it again when {@code seconds} is null.
+     */
+    @Transactional
+    public void setSamplingInterval(Long appId, Integer seconds) {
+        if (seconds != null && seconds < 1) {
+            throw new IllegalArgumentException("Sampling interval must be at least 1 second");
+        }
+        Game game = gameRepository.findTrackedByAppId(appId)
+                .orElseThrow(() -> new IllegalArgumentException("Game not found: " + appId));
+        game.setSampleIntervalSeconds(seconds);
+        gameRepository.save(game);
+        samplingSchedule.setOverride(appId, seconds);
+        trackedGamesCache.setSampleInterval(appId, seconds);
+        logger.info("Sampling interval for {} set to {}", game.getName(), seconds != null ? seconds + "s" : "adaptive");
+    }
+
+    public List<LeaderboardEntry> getTopGames(int limit) {
+        if (limit < 1 || limit > MAX_LEADERBOARD_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LEADERBOARD_SIZE);
+        }
+        return leaderboardService.getTop(limit);
+    }
 
-        // Delete the game
-        gameRepository.delete(game);
+    public GamePeaks getPeaks(Long appId) {
+        return leaderboardService.getPeaks(appId);
+    }
+
+    public GameStats getStats(Long appId) {
+        return gameStatsService.getStats(appId);
+    }
+
+    public List<GameStats> getAnomalies(int limit) {
+        if (limit < 1 || limit > MAX_LEADERBOARD_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LEADERBOARD_SIZE);
+        }
+        return gameStatsService.getAnomalies(limit);
+    }
 
-        logger.info("Successfully stopped tracking game: {}", game.getName());
+    public List<SamplingStatus> getSamplingStatus() {
+        return samplingSchedule.getStatus();
     }
 
     public boolean isGameTracked(Long appId) {
-        return gameRepository.existsByAppId(appId);
+        return gameRepository.isTracked(appId);
     }
 }
\ No newline at end of file
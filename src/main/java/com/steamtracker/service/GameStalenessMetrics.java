@@ -0,0 +1,117 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.PlayerCountSample;
+import com.steamtracker.dto.PlayerCountSeries;
+import com.steamtracker.entity.Game;
+import com.steamtracker.repository.GameRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-game staleness gauges: seconds since each tracked game's {@code lastUpdated}.
+ * Kept in memory from the samples {@link GameService} records, seeded from the games table at startup,
+ * so scrapes never touch the database.
+ */
+@Component
+public class GameStalenessMetrics {
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Long, TrackedGame> games = new ConcurrentHashMap<>();
+
+    public GameStalenessMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("steam.games.staleness.max", this, GameStalenessMetrics::maxStalenessSeconds)
+                .description("Seconds since the least recently updated tracked game got a sample")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (Game game : gameRepository.findAllTracked()) {
+            track(game.getAppId(), game.getLastUpdated() != null ? game.getLastUpdated() : LocalDateTime.now());
+        }
+    }
+
+    public void track(Long appId, LocalDateTime lastUpdated) {
+        long millis = PlayerCountSeries.toEpochMillis(lastUpdated);
+        games.computeIfAbsent(appId, id -> {
+            AtomicLong last = new AtomicLong(millis);
+            Gauge gauge = Gauge.builder("steam.game.staleness", last, l -> secondsSince(l.get()))
+                    .description("Seconds since the game's last recorded sample")
+                    .baseUnit("seconds")
+                    .tag("appId", String.valueOf(id))
+                    .register(meterRegistry);
+            return new TrackedGame(last, gauge);
+        }).lastUpdatedMillis.accumulateAndGet(millis, Math::max);
+    }
+
+    /**
+     * Only games already being tracked are updated, matching the writer, which skips samples
+     * for games untracked during a collection cycle.
+     */
+    public void record(List<PlayerCountSample> samples) {
+        for (PlayerCountSample sample : samples) {
+            TrackedGame game = games.get(sample.getAppId());
+            if (game != null) {
+                game.lastUpdatedMillis.accumulateAndGet(PlayerCountSeries.toEpochMillis(sample.getRecordedAt()), Math::max);
+            }
+        }
+    }
+
+    public void untrack(Long appId) {
+        TrackedGame game = games.remove(appId);
+        if (game != null) {
+            meterRegistry.remove(game.gauge);
+        }
+    }
+
+    /**
+     * Drops the gauges of games not in {@code tracked}, e.g. games untracked through another instance.
+     */
+    public void retain(Set<Long> tracked) {
+        for (Long appId : List.copyOf(games.keySet())) {
+            if (!tracked.contains(appId)) {
+                untrack(appId);
+            }
+        }
+    }
+
+    private double maxStalenessSeconds() {
+        long oldest = Long.MAX_VALUE;
+        for (TrackedGame game : games.values()) {
+            oldest = Math.min(oldest, game.lastUpdatedMillis.get());
+        }
+        return oldest == Long.MAX_VALUE ? 0 : secondsSince(oldest);
+    }
+
+    // lastUpdated is a LocalDateTime, so "now" has to go through the same conversion
+    private static double secondsSince(long lastUpdatedMillis) {
+        long now = PlayerCountSeries.toEpochMillis(LocalDateTime.now());
+        return Math.max(0, now - lastUpdatedMillis) / 1000.0;
+    }
+
+    private static class TrackedGame {
+        private final AtomicLong lastUpdatedMillis;
+        private final Gauge gauge;
+
+        private TrackedGame(AtomicLong lastUpdatedMillis, Gauge gauge) {
+            this.lastUpdatedMillis = lastUpdatedMillis;
+            this.gauge = gauge;
+        }
+    }
+}
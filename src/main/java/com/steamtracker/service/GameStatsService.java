@@ -0,0 +1,325 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.GameStats;
+import com.steamtracker.dto.PlayerCountSample;
+import com.steamtracker.dto.PlayerCountSeries;
+import com.steamtracker.entity.Game;
+import com.steamtracker.repository.GameRepository;
+import com.steamtracker.repository.GameStatsRepository;
+import com.steamtracker.repository.PlayerCountSeriesRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-game {@link RunningStats}, updated by every recorded sample, so stats, trends and anomalies
+ * are served from memory without reading history.
+ * <p>
+ * Every {@code stats.checkpoint-ms} the games that changed are checkpointed to game_stats, and
+ * checkpoints written by other instances are read back, so each instance also knows the games it
+ * does not collect; the checkpoint with the newest sample wins. At startup (in the background) the
+ * checkpoints are loaded and the samples recorded after them are replayed; a game without a checkpoint
+ * is built from its last {@code stats.bootstrap-days} of history.
+ */
+@Service
+public class GameStatsService {
+    private static final Logger logger = LoggerFactory.getLogger(GameStatsService.class);
+
+    // Checkpoints are re-read this far back, for transactions that committed after a later one
+    private static final long SYNC_OVERLAP_MILLIS = Duration.ofMinutes(1).toMillis();
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameStatsRepository gameStatsRepository;
+
+    @Autowired
+    private PlayerCountSeriesRepository playerCountSeriesRepository;
+
+    @Autowired
+    private StartupWarmup startupWarmup;
+
+    private final long shortTauMillis;
+    private final long longTauMillis;
+    private final int seasonalWindow;
+    private final int minBaselineSamples;
+    private final double zThreshold;
+    private final int bootstrapDays;
+    private final Counter spikes;
+    private final Counter drops;
+
+    private final Map<Long, RunningStats> games = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // Samples recorded before the startup load has finished, added after it
+    private final List<PlayerCountSample> pending = new ArrayList<>();
+    private volatile boolean loaded;
+    private long syncedUpToMillis;
+
+    public GameStatsService(@Value("${stats.short-ewma-minutes:60}") long shortEwmaMinutes,
+                            @Value("${stats.long-ewma-hours:24}") long longEwmaHours,
+                            @Value("${stats.seasonal-window:500}") int seasonalWindow,
+                            @Value("${stats.min-baseline-samples:10}") int minBaselineSamples,
+                            @Value("${stats.z-threshold:3.0}") double zThreshold,
+                            @Value("${stats.bootstrap-days:7}") int bootstrapDays,
+                            MeterRegistry meterRegistry) {
+        this.shortTauMillis = Duration.ofMinutes(shortEwmaMinutes).toMillis();
+        this.longTauMillis = Duration.ofHours(longEwmaHours).toMillis();
+        this.seasonalWindow = seasonalWindow;
+        this.minBaselineSamples = minBaselineSamples;
+        this.zThreshold = zThreshold;
+        this.bootstrapDays = bootstrapDays;
+        // Fails at startup rather than at the first sample
+        newStats();
+        this.spikes = anomalyCounter(meterRegistry, RunningStats.SPIKE);
+        this.drops = anomalyCounter(meterRegistry, RunningStats.DROP);
+    }
+
+    private static Counter anomalyCounter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("stats.anomalies")
+                .description("Samples flagged as a spike or drop against their game's baseline")
+                .tag("type", type.toLowerCase())
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleLoad() {
+        startupWarmup.submit("game stats", this::load);
+    }
+
+    /**
+     * Restores the checkpoints and replays the samples after them; samples held back meanwhile are
+     * added afterwards, also when the load fails (the games then start from scratch).
+     */
+    public void load() {
+        long start = System.nanoTime();
+        try {
+            long now = AdaptiveSamplingSchedule.currentMillis();
+            Map<Long, RunningStats> checkpoints = new HashMap<>();
+            long[] newest = {0};
+            gameStatsRepository.forEachUpdatedSince(0, (appId, state, updatedMillis) -> {
+                checkpoints.put(appId, restore(state));
+                newest[0] = Math.max(newest[0], updatedMillis);
+            });
+
+            long replayed = 0;
+            for (Game game : gameRepository.findAllTracked()) {
+                RunningStats stats = checkpoints.get(game.getAppId());
+                if (stats == null) {
+                    stats = newStats();
+                }
+                long since = stats.getCount() > 0
+                        ? stats.getLastTimestamp()
+                        : now - Duration.ofDays(bootstrapDays).toMillis();
+                PlayerCountSeries series = playerCountSeriesRepository.findSeries(game.getAppId(),
+                        PlayerCountSeries.toLocalDateTime(since));
+                long count = stats.getCount();
+                for (int i = 0; i < series.size(); i++) {
+                    stats.add(series.getTimestamps()[i], series.getCounts()[i]);
+                }
+                games.put(game.getAppId(), stats);
+                if (stats.getCount() > count) {
+                    replayed += stats.getCount() - count;
+                    dirty.add(game.getAppId());
+                }
+            }
+            syncedUpToMillis = newest[0];
+            logger.info("Game stats loaded for {} games ({} checkpoints, {} samples replayed) in {} ms",
+                    games.size(), checkpoints.size(), replayed, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } finally {
+            synchronized (pending) {
+                loaded = true;
+                add(pending);
+                pending.clear();
+            }
+        }
+    }
+
+    /**
+     * Adds recorded samples to their games' statistics; until the startup load has finished they are held back.
+     */
+    public void record(List<PlayerCountSample> samples) {
+        if (!loaded) {
+            synchronized (pending) {
+                if (!loaded) {
+                    pending.addAll(samples);
+                    return;
+                }
+            }
+        }
+        add(samples);
+    }
+
+    private void add(List<PlayerCountSample> samples) {
+        for (PlayerCountSample sample : samples) {
+            if (sample.getPlayerCount() == null) {
+                continue;
+            }
+            RunningStats stats = games.computeIfAbsent(sample.getAppId(), appId -> newStats());
+            String status = null;
+            double z;
+            synchronized (stats) {
+                if (stats.add(PlayerCountSeries.toEpochMillis(sample.getRecordedAt()), sample.getPlayerCount())) {
+                    status = stats.getStatus();
+                }
+                z = stats.getLastZ();
+            }
+            dirty.add(sample.getAppId());
+            if (status != null) {
+                (RunningStats.SPIKE.equals(status) ? spikes : drops).increment();
+                logger.info("Player count of app ID {} flagged as {}: {} (z = {})", sample.getAppId(), status,
+                        sample.getPlayerCount(), String.format("%.1f", z));
+            }
+        }
+    }
+
+    public void untrack(Long appId) {
+        games.remove(appId);
+        dirty.remove(appId);
+    }
+
+    /**
+     * Drops games not in {@code tracked}, e.g. games untracked through another instance.
+     */
+    public void retain(Set<Long> tracked) {
+        games.keySet().retainAll(tracked);
+        dirty.retainAll(tracked);
+    }
+
+    /**
+     * Writes the games that changed since the last checkpoint, then reads those checkpointed by other instances.
+     */
+    @Scheduled(fixedDelayString = "${stats.checkpoint-ms:300000}")
+    public void checkpoint() {
+        if (!loaded) {
+            return;
+        }
+        Map<Long, byte[]> states = new HashMap<>();
+        for (Long appId : List.copyOf(dirty)) {
+            dirty.remove(appId);
+            RunningStats stats = games.get(appId);
+            if (stats != null) {
+                synchronized (stats) {
+                    states.put(appId, stats.toBytes());
+                }
+            }
+        }
+        try {
+            if (!states.isEmpty()) {
+                gameStatsRepository.saveAll(states);
+            }
+            sync();
+        } catch (DataAccessException e) {
+            dirty.addAll(states.keySet());
+            logger.warn("Could not checkpoint game stats: {}", e.getMessage());
+        }
+    }
+
+    private void sync() {
+        long[] newest = {syncedUpToMillis};
+        gameStatsRepository.forEachUpdatedSince(syncedUpToMillis - SYNC_OVERLAP_MILLIS, (appId, state, updatedMillis) -> {
+            newest[0] = Math.max(newest[0], updatedMillis);
+            RunningStats checkpoint = restore(state);
+            RunningStats current = games.putIfAbsent(appId, checkpoint);
+            if (current != null) {
+                synchronized (current) {
+                    if (checkpoint.getLastTimestamp() > current.getLastTimestamp()) {
+                        current.restore(state);
+                    }
+                }
+            }
+        });
+        syncedUpToMillis = newest[0];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+
+    /**
+     * Statistics of a game as of its latest sample, or null when it has none.
+     */
+    public GameStats getStats(Long appId) {
+        RunningStats stats = games.get(appId);
+        if (stats == null) {
+            return null;
+        }
+        synchronized (stats) {
+            return stats.getCount() > 0 ? toGameStats(appId, stats) : null;
+        }
+    }
+
+    /**
+     * Games whose latest flagged sample is the most recent, newest first.
+     */
+    public List<GameStats> getAnomalies(int limit) {
+        List<GameStats> anomalies = new ArrayList<>();
+        games.forEach((appId, stats) -> {
+            synchronized (stats) {
+                if (stats.getLastAnomalyStatus() != null) {
+                    anomalies.add(toGameStats(appId, stats));
+                }
+            }
+        });
+        anomalies.sort(Comparator.comparing(GameStats::getLastAnomalyAt).reversed());
+        return anomalies.size() > limit ? new ArrayList<>(anomalies.subList(0, limit)) : anomalies;
+    }
+
+    private RunningStats newStats() {
+        return new RunningStats(shortTauMillis, longTauMillis, seasonalWindow, minBaselineSamples, zThreshold);
+    }
+
+    private RunningStats restore(byte[] state) {
+        RunningStats stats = newStats();
+        stats.restore(state);
+        return stats;
+    }
+
+    private static GameStats toGameStats(Long appId, RunningStats stats) {
+        long last = stats.getLastTimestamp();
+        GameStats result = new GameStats();
+        result.setAppId(appId);
+        result.setSamples(stats.getCount());
+        result.setCurrentPlayers(stats.getLastCount());
+        result.setRecordedAt(PlayerCountSeries.toLocalDateTime(last));
+        result.setMean(stats.getMean());
+        result.setStdDev(stats.getStdDev());
+        result.setEwmaShort(stats.getEwmaShort());
+        result.setEwmaLong(stats.getEwmaLong());
+        result.setTrendPercent(stats.getTrend() * 100);
+        result.setSeasonalMean(orNull(stats.getSeasonalMean(last)));
+        result.setSeasonalStdDev(orNull(stats.getSeasonalStdDev(last)));
+        result.setSeasonalSamples(stats.getSeasonalSamples(last));
+        result.setCurrentZScore(orNull(stats.getLastZ()));
+        result.setStatus(stats.getStatus());
+        if (stats.getLastAnomalyStatus() != null) {
+            result.setLastAnomalyAt(PlayerCountSeries.toLocalDateTime(stats.getLastAnomalyTimestamp()));
+            result.setLastAnomalyType(stats.getLastAnomalyStatus());
+            result.setLastAnomalyZScore(stats.getLastAnomalyZ());
+        }
+        return result;
+    }
+
+    private static Double orNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
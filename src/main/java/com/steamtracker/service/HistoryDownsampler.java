@@ -0,0 +1,118 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.PlayerCountData;
+import com.steamtracker.dto.PlayerCountSeries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Downsampling over primitive series, for windows that are already in memory.
+ */
+public final class HistoryDownsampler {
+
+    private HistoryDownsampler() {}
+
+    /**
+     * Largest-Triangle-Three-Buckets. The first and last points are always kept; every other
+     * bucket contributes the point forming the largest triangle with the previously selected
+     * point and the next bucket's average.
+     *
+     * @param timestamps sample times, ascending
+     * @param values     sample values, parallel to {@code timestamps}
+     * @param size       number of valid entries in the arrays
+     * @param threshold  maximum number of points to keep, at least 3
+     * @return indices of the selected samples, ascending
+     */
+    public static int[] lttb(long[] timestamps, int[] values, int size, int threshold) {
+        if (threshold < 3) {
+            throw new IllegalArgumentException("LTTB needs a threshold of at least 3 points");
+        }
+        if (threshold >= size) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] selected = new int[threshold];
+        int selectedCount = 0;
+        selected[selectedCount++] = 0;
+
+        double bucketSize = (double) (size - 2) / (threshold - 2);
+        int a = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, size);
+
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += timestamps[i];
+                avgY += values[i];
+            }
+            int nextLength = nextEnd - nextStart;
+            avgX /= nextLength;
+            avgY /= nextLength;
+
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+
+            double pointAX = timestamps[a];
+            double pointAY = values[a];
+            double maxArea = -1;
+            int maxIndex = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((pointAX - avgX) * (values[i] - pointAY)
+                        - (pointAX - timestamps[i]) * (avgY - pointAY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = i;
+                }
+            }
+
+            selected[selectedCount++] = maxIndex;
+            a = maxIndex;
+        }
+
+        selected[selectedCount++] = size - 1;
+        return Arrays.copyOf(selected, selectedCount);
+    }
+
+    /**
+     * Aggregates an ascending series into epoch-aligned buckets of {@code bucketSeconds},
+     * matching the SQL bucketing used for database-backed windows.
+     */
+    public static List<PlayerCountData> bucket(PlayerCountSeries series, long bucketSeconds, DownsampleMode mode) {
+        long widthMillis = bucketSeconds * 1000;
+        long[] timestamps = series.getTimestamps();
+        int[] counts = series.getCounts();
+        List<PlayerCountData> result = new ArrayList<>();
+
+        int i = 0;
+        while (i < series.size()) {
+            long bucket = Math.floorDiv(timestamps[i], widthMillis);
+            long sum = 0;
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            int n = 0;
+            while (i < series.size() && Math.floorDiv(timestamps[i], widthMillis) == bucket) {
+                sum += counts[i];
+                min = Math.min(min, counts[i]);
+                max = Math.max(max, counts[i]);
+                n++;
+                i++;
+            }
+            int value = switch (mode) {
+                case MIN -> min;
+                case MAX -> max;
+                default -> (int) Math.round((double) sum / n);
+            };
+            result.add(new PlayerCountData(PlayerCountSeries.toLocalDateTime(bucket * widthMillis), value));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,225 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.GamePeaks;
+import com.steamtracker.dto.LeaderboardEntry;
+import com.steamtracker.dto.PlayerCountSample;
+import com.steamtracker.dto.PlayerCountSeries;
+import com.steamtracker.entity.Game;
+import com.steamtracker.repository.GameRepository;
+import com.steamtracker.repository.PlayerCountRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * In-memory leaderboard of tracked games by current player count, with 24h and 7d peaks and lows.
+ * <p>
+ * Current counts sit in a sorted set, so the top N costs O(log n + N); peaks and lows come from
+ * {@link SlidingExtreme} deques in O(1). Samples recorded by this instance update it directly.
+ * At startup (in the background), and every {@code leaderboard.sync-ms} for samples collected by other instances, it
+ * reads the hourly rollup buckets that changed: their min and max are exact, but are dated at the
+ * bucket's last sample, so such a peak may stay in its window up to an hour too long.
+ */
+@Service
+public class LeaderboardService {
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+
+    private static final long DAY_MILLIS = Duration.ofDays(1).toMillis();
+    private static final long WEEK_MILLIS = Duration.ofDays(7).toMillis();
+    // Rollup buckets are re-read this far back, for batches that committed after a later one
+    private static final long SYNC_OVERLAP_MILLIS = Duration.ofMinutes(2).toMillis();
+    private static final Comparator<GameBoard> BY_PLAYERS =
+            Comparator.comparingInt((GameBoard game) -> game.current).reversed()
+                    .thenComparingLong(game -> game.appId);
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private PlayerCountRollupRepository playerCountRollupRepository;
+
+    @Autowired
+    private StartupWarmup startupWarmup;
+
+    private final Map<Long, GameBoard> games = new HashMap<>();
+    private final TreeSet<GameBoard> ranking = new TreeSet<>(BY_PLAYERS);
+    private volatile boolean loaded;
+    private long syncedUpToMillis;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleLoad() {
+        startupWarmup.submit("leaderboard", this::load);
+    }
+
+    public void load() {
+        long start = System.nanoTime();
+        for (Game game : gameRepository.findAllTracked()) {
+            track(game.getAppId(), game.getName());
+        }
+        syncFromRollups(AdaptiveSamplingSchedule.currentMillis() - WEEK_MILLIS);
+        loaded = true;
+        logger.info("Leaderboard loaded {} games in {} ms", size(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.sync-ms:10000}")
+    public void sync() {
+        if (!loaded) {
+            return;
+        }
+        try {
+            syncFromRollups(syncedUpToMillis - SYNC_OVERLAP_MILLIS);
+        } catch (DataAccessException e) {
+            logger.warn("Could not sync leaderboard: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void track(Long appId, String name) {
+        GameBoard game = games.computeIfAbsent(appId, GameBoard::new);
+        if (name != null) {
+            game.name = name;
+        }
+    }
+
+    public synchronized void untrack(Long appId) {
+        GameBoard game = games.remove(appId);
+        if (game != null) {
+            ranking.remove(game);
+        }
+    }
+
+    /**
+     * Drops games not in {@code tracked}, e.g. games untracked through another instance.
+     */
+    public synchronized void retain(Set<Long> tracked) {
+        for (Long appId : List.copyOf(games.keySet())) {
+            if (!tracked.contains(appId)) {
+                untrack(appId);
+            }
+        }
+    }
+
+    /**
+     * Updates the games already on the board; samples of untracked games are ignored.
+     */
+    public synchronized void record(List<PlayerCountSample> samples) {
+        for (PlayerCountSample sample : samples) {
+            GameBoard game = games.get(sample.getAppId());
+            if (game != null && sample.getPlayerCount() != null) {
+                long recordedAt = PlayerCountSeries.toEpochMillis(sample.getRecordedAt());
+                int count = sample.getPlayerCount();
+                update(game, count, count, count, recordedAt);
+            }
+        }
+    }
+
+    public synchronized List<LeaderboardEntry> getTop(int limit) {
+        List<LeaderboardEntry> top = new ArrayList<>(Math.min(limit, ranking.size()));
+        Iterator<GameBoard> iterator = ranking.iterator();
+        while (top.size() < limit && iterator.hasNext()) {
+            GameBoard game = iterator.next();
+            top.add(new LeaderboardEntry(top.size() + 1, game.appId, game.name, game.current,
+                    PlayerCountSeries.toLocalDateTime(game.currentAt)));
+        }
+        return top;
+    }
+
+    /**
+     * Peaks and lows of a tracked game, or null when the game is not on the board.
+     */
+    public synchronized GamePeaks getPeaks(Long appId) {
+        GameBoard game = games.get(appId);
+        if (game == null) {
+            return null;
+        }
+        long now = AdaptiveSamplingSchedule.currentMillis();
+        boolean hasCurrent = game.currentAt > 0;
+        return new GamePeaks(appId,
+                hasCurrent ? game.current : null,
+                hasCurrent ? PlayerCountSeries.toLocalDateTime(game.currentAt) : null,
+                count(game.max24h, now), time(game.max24h, now), count(game.min24h, now),
+                count(game.max7d, now), time(game.max7d, now), count(game.min7d, now));
+    }
+
+    /**
+     * Latest count of a game, or null before its first sample.
+     */
+    public synchronized Integer getCurrentPlayers(Long appId) {
+        GameBoard game = games.get(appId);
+        return game != null && game.currentAt > 0 ? game.current : null;
+    }
+
+    public synchronized int size() {
+        return games.size();
+    }
+
+    private void syncFromRollups(long sinceMillis) {
+        long[] newest = {syncedUpToMillis};
+        playerCountRollupRepository.forEachBucketUpdatedSince(StorageTier.HOURLY,
+                PlayerCountSeries.toLocalDateTime(sinceMillis),
+                (appId, name, minCount, maxCount, lastCount, lastRecordedMillis) -> {
+                    synchronized (this) {
+                        GameBoard game = games.computeIfAbsent(appId, GameBoard::new);
+                        game.name = name;
+                        update(game, minCount, maxCount, lastCount, lastRecordedMillis);
+                    }
+                    newest[0] = Math.max(newest[0], lastRecordedMillis);
+                });
+        syncedUpToMillis = newest[0];
+    }
+
+    private void update(GameBoard game, int minCount, int maxCount, int lastCount, long recordedAt) {
+        game.max24h.add(recordedAt, maxCount);
+        game.max7d.add(recordedAt, maxCount);
+        game.min24h.add(recordedAt, minCount);
+        game.min7d.add(recordedAt, minCount);
+        if (recordedAt >= game.currentAt) {
+            // Re-insert under the new key; the set is ordered by the current count
+            if (game.currentAt > 0) {
+                ranking.remove(game);
+            }
+            game.current = lastCount;
+            game.currentAt = recordedAt;
+            ranking.add(game);
+        }
+    }
+
+    private static Integer count(SlidingExtreme extreme, long now) {
+        return extreme.isEmpty(now) ? null : extreme.getCount(now);
+    }
+
+    private static LocalDateTime time(SlidingExtreme extreme, long now) {
+        return extreme.isEmpty(now) ? null : PlayerCountSeries.toLocalDateTime(extreme.getTimestamp(now));
+    }
+
+    private static class GameBoard {
+        private final long appId;
+        private String name;
+        private int current;
+        // 0 until the first sample
+        private long currentAt;
+        private final SlidingExtreme max24h = new SlidingExtreme(DAY_MILLIS, true);
+        private final SlidingExtreme min24h = new SlidingExtreme(DAY_MILLIS, false);
+        private final SlidingExtreme max7d = new SlidingExtreme(WEEK_MILLIS, true);
+        private final SlidingExtreme min7d = new SlidingExtreme(WEEK_MILLIS, false);
+
+        private GameBoard(long appId) {
+            this.appId = appId;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.PlayerCountSample;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes every recorded sample to subscribed dashboards over Server-Sent Events.
+ * Each subscriber has a bounded queue drained on a send pool; when a client falls behind
+ * its oldest undelivered samples are dropped, so one slow connection never blocks
+ * collection or other clients. A send blocked on a stalled connection only returns when the
+ * container's write times out, so the pool keeps {@code live.send-threads} threads and starts
+ * another whenever all of them are busy: a stalled client ties up a thread of its own, never
+ * the delivery to everyone else. A client whose send has been stuck for longer than
+ * {@code live.send-timeout-seconds} is dropped at the next heartbeat and gets nothing more.
+ */
+@Component
+public class LiveSampleBroadcaster {
+    private static final Logger logger = LoggerFactory.getLogger(LiveSampleBroadcaster.class);
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService sendExecutor;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+
+    public LiveSampleBroadcaster(@Value("${live.queue-capacity:256}") int queueCapacity,
+                                 @Value("${live.timeout-minutes:30}") long timeoutMinutes,
+                                 @Value("${live.send-threads:4}") int sendThreads,
+                                 @Value("${live.send-timeout-seconds:10}") long sendTimeoutSeconds) {
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMinutes * 60_000;
+        this.sendTimeoutNanos = TimeUnit.SECONDS.toNanos(sendTimeoutSeconds);
+        AtomicInteger threadIndex = new AtomicInteger();
+        // Threads beyond sendThreads exit after a minute idle
+        this.sendExecutor = new ThreadPoolExecutor(sendThreads, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "live-sample-send-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Opens a stream of samples for the given apps, or for every tracked game when empty.
+     */
+    public SseEmitter subscribe(Set<Long> appIds) {
+        return subscribe(appIds, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(Set<Long> appIds, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, appIds);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        logger.debug("Live subscriber added for {} ({} connected)", appIds.isEmpty() ? "all games" : appIds,
+                subscribers.size());
+        return emitter;
+    }
+
+    public void publish(List<PlayerCountSample> samples) {
+        for (Subscriber subscriber : subscribers) {
+            boolean queued = false;
+            for (PlayerCountSample sample : samples) {
+                queued |= subscriber.offer(sample);
+            }
+            if (queued) {
+                subscriber.scheduleDrain();
+            }
+        }
+    }
+
+    // Comment frames keep idle connections open and surface clients that went away. They are queued
+    // like samples, so the scheduler thread never writes to a connection itself.
+    @Scheduled(fixedRate = 15_000)
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.sending && now - subscriber.sendStartedNanos > sendTimeoutNanos) {
+                subscriber.evict();
+            } else {
+                subscriber.pingPending = true;
+                subscriber.scheduleDrain();
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<Long> appIds;
+        private final ArrayDeque<PlayerCountSample> queue = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile boolean pingPending;
+        private volatile boolean sending;
+        private volatile long sendStartedNanos;
+        private volatile boolean evicted;
+
+        private Subscriber(SseEmitter emitter, Set<Long> appIds) {
+            this.emitter = emitter;
+            this.appIds = appIds;
+        }
+
+        private boolean offer(PlayerCountSample sample) {
+            if (!appIds.isEmpty() && !appIds.contains(sample.getAppId())) {
+                return false;
+            }
+            synchronized (queue) {
+                if (queue.size() >= queueCapacity) {
+                    queue.pollFirst();
+                    dropped.incrementAndGet();
+                }
+                queue.addLast(sample);
+            }
+            return true;
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sendExecutor.execute(this::drain);
+            }
+        }
+
+        /**
+         * Stops delivering to a client stuck in a send. The emitter is completed by the sending thread
+         * once its send returns; completing it here would wait for that send.
+         */
+        private void evict() {
+            evicted = true;
+            subscribers.remove(this);
+            synchronized (queue) {
+                queue.clear();
+            }
+            logger.debug("Live subscriber dropped, a send took longer than {} s",
+                    TimeUnit.NANOSECONDS.toSeconds(sendTimeoutNanos));
+        }
+
+        private void drain() {
+            try {
+                while (!evicted) {
+                    SseEmitter.SseEventBuilder event;
+                    if (pingPending) {
+                        pingPending = false;
+                        event = SseEmitter.event().comment("ping");
+                    } else {
+                        PlayerCountSample next;
+                        synchronized (queue) {
+                            next = queue.pollFirst();
+                        }
+                        if (next == null) {
+                            break;
+                        }
+                        event = SseEmitter.event().name("sample").data(next, MediaType.APPLICATION_JSON);
+                    }
+                    send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Live subscriber disconnected after {} dropped samples", dropped.get());
+                subscribers.remove(this);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (evicted) {
+                emitter.complete();
+                return;
+            }
+            // A publish or heartbeat may have raced with the end of the loop
+            synchronized (queue) {
+                if (queue.isEmpty() && !pingPending) {
+                    return;
+                }
+            }
+            scheduleDrain();
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            sendStartedNanos = System.nanoTime();
+            sending = true;
+            try {
+                emitter.send(event);
+            } finally {
+                sending = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.steamtracker.service;
+
+import com.steamtracker.repository.PlayerCountPartitionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of player_counts ahead of the clock and drops expired ones.
+ * A partition that cannot be created is logged and retried at the next run; new rows of its
+ * month land in the default partition meanwhile. Months that still have rows in the default
+ * partition, such as imported history, get their partition at each run and after each import.
+ */
+@Service
+public class PartitionMaintenanceService {
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+    @Autowired
+    private PlayerCountPartitionRepository playerCountPartitionRepository;
+
+    @Value("${history.partitions.months-ahead:2}")
+    private int monthsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${history.partitions.cron:0 0 2 * * *}")
+    public void createUpcomingPartitions() {
+        YearMonth current = YearMonth.now();
+        List<YearMonth> existing = playerCountPartitionRepository.findMonths();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!existing.contains(month)) {
+                createMonth(month);
+            }
+        }
+        partitionDefaultRows();
+    }
+
+    /**
+     * Creates the partition of every month that has rows in the default partition, moving those rows
+     * into it.
+     *
+     * @return the number of rows moved out of the default partition
+     */
+    public int partitionDefaultRows() {
+        int moved = 0;
+        for (YearMonth month : playerCountPartitionRepository.findDefaultPartitionMonths()) {
+            moved += createMonth(month);
+        }
+        return moved;
+    }
+
+    private int createMonth(YearMonth month) {
+        try {
+            int moved = playerCountPartitionRepository.createMonth(month);
+            logger.info("Created player_counts partition for {}{}", month,
+                    moved > 0 ? ", moved " + moved + " rows out of the default partition" : "");
+            return moved;
+        } catch (DataAccessException e) {
+            logger.error("Could not create player_counts partition for {}: {}", month, e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Drops every monthly partition that ends at or before {@code cutoff}.
+     * Partitions that are only partly expired are kept whole.
+     *
+     * @return the number of partitions dropped
+     */
+    public int dropExpiredPartitions(LocalDateTime cutoff) {
+        int dropped = 0;
+        for (YearMonth month : playerCountPartitionRepository.findMonths()) {
+            if (month.plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff)) {
+                break;
+            }
+            playerCountPartitionRepository.dropMonth(month);
+            logger.info("Dropped player_counts partition for {}", month);
+            dropped++;
+        }
+        return dropped;
+    }
+}
@@ -0,0 +1,142 @@
+package com.steamtracker.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared cache of current player counts in front of {@link SteamApiService#getCurrentPlayerCount}.
+ * Concurrent lookups of the same app share one in-flight request, and every sample the
+ * collector records refreshes the entry, so tracked games are normally answered from memory.
+ * Failed lookups are not cached.
+ */
+@Component
+public class PlayerCountCache {
+    private static final Logger logger = LoggerFactory.getLogger(PlayerCountCache.class);
+
+    @Autowired
+    private SteamApiService steamApiService;
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<Integer>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public PlayerCountCache(@Value("${steam.player-count-cache.ttl-seconds:60}") long ttlSeconds,
+                            @Value("${steam.player-count-cache.max-size:10000}") int maxSize,
+                            MeterRegistry meterRegistry) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxSize = maxSize;
+        FunctionCounter.builder("steam.player_count_cache.requests", hits, AtomicLong::get)
+                .description("Current player count lookups by cache result")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("steam.player_count_cache.requests", misses, AtomicLong::get)
+                .description("Current player count lookups by cache result")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("steam.player_count_cache.size", entries, Map::size)
+                .description("Entries in the current player count cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached count, or joins/starts the single in-flight Steam lookup for this app.
+     */
+    public CompletableFuture<Integer> getAsync(Long appId) {
+        Entry entry = entries.get(appId);
+        if (entry != null && System.nanoTime() - entry.fetchedAtNanos < ttlNanos) {
+            hits.incrementAndGet();
+            return CompletableFuture.completedFuture(entry.playerCount);
+        }
+        misses.incrementAndGet();
+
+        CompletableFuture<Integer> created = new CompletableFuture<>();
+        CompletableFuture<Integer> existing = inFlight.putIfAbsent(appId, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        steamApiService.getCurrentPlayerCountAsync(appId).whenComplete((playerCount, error) -> {
+            if (playerCount != null) {
+                put(appId, playerCount);
+            }
+            inFlight.remove(appId, created);
+            if (error != null) {
+                created.completeExceptionally(error);
+            } else {
+                created.complete(playerCount);
+            }
+        });
+        return created;
+    }
+
+    public void put(Long appId, Integer playerCount) {
+        entries.put(appId, new Entry(playerCount, System.nanoTime()));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    public void invalidate(Long appId) {
+        entries.remove(appId);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Drops expired entries, then the oldest tenth, so eviction runs rarely
+    private synchronized void evict() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        long now = System.nanoTime();
+        entries.entrySet().removeIf(e -> now - e.getValue().fetchedAtNanos >= ttlNanos);
+
+        int excess = entries.size() - maxSize + maxSize / 10;
+        if (excess > 0) {
+            List<Map.Entry<Long, Entry>> oldest = new ArrayList<>(entries.entrySet());
+            oldest.sort(Comparator.comparingLong(e -> e.getValue().fetchedAtNanos));
+            for (int i = 0; i < excess && i < oldest.size(); i++) {
+                entries.remove(oldest.get(i).getKey(), oldest.get(i).getValue());
+            }
+        }
+        logger.debug("Player count cache evicted down to {} entries", entries.size());
+    }
+
+    private static class Entry {
+        private final Integer playerCount;
+        private final long fetchedAtNanos;
+
+        private Entry(Integer playerCount, long fetchedAtNanos) {
+            this.playerCount = playerCount;
+            this.fetchedAtNanos = fetchedAtNanos;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.CollectionCycleResult;
+import com.steamtracker.dto.PlayerCountSample;
+import com.steamtracker.entity.Game;
+import com.steamtracker.repository.GameRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects current player counts for a batch of games: every tracked game for a manual
+ * collection, or the games {@link AdaptiveSamplingSchedule} reports as due.
+ * Steam calls are fanned out asynchronously, at most {@code collector.concurrency} at a time
+ * (and throttled by {@link SteamRateLimiter});
+ * the finished batch is appended to the local sample journal, so the database is only touched to list
+ * the games for a manual collection.
+ */
+@Service
+public class PlayerCountCollector {
+    private static final Logger logger = LoggerFactory.getLogger(PlayerCountCollector.class);
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private SteamApiService steamApiService;
+
+    @Autowired
+    private GameService gameService;
+
+    private final int concurrency;
+    private final Timer cycleTimer;
+    private final Counter samplesCounter;
+    private final Counter failuresCounter;
+    // Milliseconds from JVM start to the first recorded sample, -1 until then
+    private final AtomicLong timeToFirstSampleMillis = new AtomicLong(-1);
+
+    public PlayerCountCollector(@Value("${collector.concurrency:8}") int concurrency, MeterRegistry meterRegistry) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("collector.concurrency must be at least 1");
+        }
+        this.concurrency = concurrency;
+        this.cycleTimer = Timer.builder("collector.cycle.duration")
+                .description("Duration of collection batches")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.samplesCounter = Counter.builder("collector.samples")
+                .description("Player count samples recorded by collection batches")
+                .register(meterRegistry);
+        this.failuresCounter = Counter.builder("collector.failures")
+                .description("Games for which a collection batch got no player count")
+                .register(meterRegistry);
+        TimeGauge.builder("collector.time.to.first.sample", timeToFirstSampleMillis, TimeUnit.MILLISECONDS,
+                        millis -> millis.get() < 0 ? Double.NaN : millis.get())
+                .description("Time from JVM start to the first recorded sample; restarts lose collection for this long")
+                .register(meterRegistry);
+    }
+
+    public CollectionCycleResult collectAll() {
+        List<Long> appIds = gameRepository.findAllTracked().stream().map(Game::getAppId).toList();
+        logger.info("Collecting player counts for {} tracked games", appIds.size());
+
+        CollectionCycleResult result = collect(appIds);
+        logger.info("Collection cycle finished: {} games, {} samples recorded, {} failures in {} ms ({} games/s)",
+                result.getGamesAttempted(), result.getSamplesRecorded(), result.getFailures(),
+                result.getDurationMillis(), String.format("%.1f", result.getGamesPerSecond()));
+        return result;
+    }
+
+    /**
+     * Collects the given games in one batch; games untracked in the meantime are skipped when persisting.
+     */
+    public CollectionCycleResult collect(List<Long> appIds) {
+        long startNanos = System.nanoTime();
+
+        // Requests are non-blocking; the semaphore only caps how many are in flight
+        Semaphore inFlight = new Semaphore(concurrency);
+        List<CompletableFuture<PlayerCountSample>> futures = new ArrayList<>(appIds.size());
+        for (Long appId : appIds) {
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Collection interrupted after {} of {} games", futures.size(), appIds.size());
+                break;
+            }
+            futures.add(steamApiService.getCurrentPlayerCountAsync(appId)
+                    .handle((playerCount, error) -> {
+                        inFlight.release();
+                        if (error != null) {
+                            logger.debug("Failed to fetch player count for app ID {}: {}", appId, error.getMessage());
+                            return null;
+                        }
+                        return new PlayerCountSample(appId, playerCount, LocalDateTime.now());
+                    }));
+        }
+
+        List<PlayerCountSample> samples = new ArrayList<>(appIds.size());
+        int failures = appIds.size() - futures.size();
+        for (CompletableFuture<PlayerCountSample> future : futures) {
+            PlayerCountSample sample = future.join();
+            if (sample != null && sample.getPlayerCount() != null) {
+                samples.add(sample);
+            } else {
+                failures++;
+            }
+        }
+
+        int recorded = samples.isEmpty() ? 0 : gameService.recordPlayerCounts(samples);
+        if (recorded > 0 && timeToFirstSampleMillis.get() < 0) {
+            long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+            if (timeToFirstSampleMillis.compareAndSet(-1, uptime)) {
+                logger.info("First sample recorded {} ms after JVM start", uptime);
+            }
+        }
+
+        long durationNanos = System.nanoTime() - startNanos;
+        cycleTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        samplesCounter.increment(recorded);
+        failuresCounter.increment(failures);
+        return new CollectionCycleResult(appIds.size(), recorded, failures, durationNanos / 1_000_000);
+    }
+}
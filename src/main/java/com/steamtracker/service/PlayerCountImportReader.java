@@ -0,0 +1,240 @@
+package com.steamtracker.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams player count records out of a CSV or JSON export one at a time, so memory use does not
+ * depend on the file size. gzip input is detected and decompressed.
+ * <ul>
+ *   <li>CSV: columns {@code app_id}, {@code recorded_at} and {@code player_count}, in that order
+ *       unless a header row names them; without an app ID column every row belongs to the default game.</li>
+ *   <li>JSON: objects with {@code appId}, {@code timestamp} (or {@code recordedAt}) and {@code playerCount},
+ *       either in one top-level array or one per line, as written by {@code /history/stream}.</li>
+ * </ul>
+ * Timestamps are ISO-8601, UTC unless they carry an offset, or epoch seconds or milliseconds.
+ * Records are numbered from 1; records that cannot be used are passed to
+ * {@link RecordHandler#reject} and reading goes on. Malformed JSON ends the read with an exception.
+ */
+public class PlayerCountImportReader {
+
+    public enum Format {
+        CSV, JSON;
+
+        /**
+         * Format named by a file name, media type or format parameter; JSON unless it mentions CSV.
+         */
+        public static Format of(String nameOrType) {
+            return nameOrType != null && nameOrType.toLowerCase(Locale.ROOT).contains("csv") ? CSV : JSON;
+        }
+    }
+
+    @FunctionalInterface
+    public interface RecordHandler {
+        void accept(long record, long appId, long timestampMillis, int playerCount);
+
+        default void reject(long record, String reason) {
+        }
+    }
+
+    // Epoch values up to this are seconds (until the year 5138), larger ones milliseconds
+    private static final long MAX_EPOCH_SECONDS = 99_999_999_999L;
+    private static final String[] APP_ID_COLUMNS = {"app_id", "appid"};
+    private static final String[] TIMESTAMP_COLUMNS = {"recorded_at", "recordedat", "timestamp", "time"};
+    private static final String[] PLAYER_COUNT_COLUMNS = {"player_count", "playercount", "players", "count"};
+
+    private final InputStream in;
+    private final Format format;
+    private final Long defaultAppId;
+    private long record;
+
+    public PlayerCountImportReader(InputStream in, Format format, Long defaultAppId) {
+        this.in = in;
+        this.format = format;
+        this.defaultAppId = defaultAppId;
+    }
+
+    /**
+     * Reads every record.
+     *
+     * @return the number of records read, rejected ones included
+     */
+    public long read(RecordHandler handler) throws IOException {
+        InputStream input = decompress(in);
+        if (format == Format.CSV) {
+            readCsv(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16), handler);
+        } else {
+            readJson(input, handler);
+        }
+        return record;
+    }
+
+    private static InputStream decompress(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, 1 << 16);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        return first == 0x1f && second == 0x8b ? new BufferedInputStream(new GZIPInputStream(buffered, 1 << 16)) : buffered;
+    }
+
+    private void readCsv(BufferedReader reader, RecordHandler handler) throws IOException {
+        // Column positions of app ID, timestamp and player count
+        int[] columns = defaultAppId != null ? new int[]{-1, 0, 1} : new int[]{0, 1, 2};
+        boolean first = true;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] fields = line.split(",", -1);
+            if (first) {
+                first = false;
+                int[] header = header(fields);
+                if (header != null) {
+                    columns = header;
+                    continue;
+                }
+            }
+            record++;
+            String appId = columns[0] >= 0 && columns[0] < fields.length ? unquote(fields[columns[0]]) : null;
+            String timestamp = columns[1] < fields.length ? unquote(fields[columns[1]]) : null;
+            String playerCount = columns[2] < fields.length ? unquote(fields[columns[2]]) : null;
+            accept(appId, timestamp, playerCount, handler);
+        }
+    }
+
+    /**
+     * Column positions named by a header row, or null when the row is data.
+     */
+    private int[] header(String[] fields) {
+        int[] columns = {-1, -1, -1};
+        boolean named = false;
+        for (int i = 0; i < fields.length; i++) {
+            String name = unquote(fields[i]).toLowerCase(Locale.ROOT);
+            for (int c = 0; c < 3; c++) {
+                for (String alias : c == 0 ? APP_ID_COLUMNS : c == 1 ? TIMESTAMP_COLUMNS : PLAYER_COUNT_COLUMNS) {
+                    if (alias.equals(name) && columns[c] < 0) {
+                        columns[c] = i;
+                        named = true;
+                    }
+                }
+            }
+        }
+        if (!named) {
+            return null;
+        }
+        if (columns[1] < 0 || columns[2] < 0 || (columns[0] < 0 && defaultAppId == null)) {
+            throw new IllegalArgumentException("CSV header needs recorded_at, player_count and, without a default game, app_id");
+        }
+        return columns;
+    }
+
+    private void readJson(InputStream input, RecordHandler handler) throws IOException {
+        try (JsonParser parser = new JsonFactory().createParser(input)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.START_ARRAY || token == JsonToken.END_ARRAY) {
+                    continue;
+                }
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IOException("Expected a JSON object at " + parser.currentLocation());
+                }
+                record++;
+                String appId = null;
+                String timestamp = null;
+                String playerCount = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName().toLowerCase(Locale.ROOT);
+                    JsonToken value = parser.nextToken();
+                    if (value.isStructStart()) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    switch (field) {
+                        case "appid", "app_id" -> appId = parser.getValueAsString();
+                        case "timestamp", "recordedat", "recorded_at" -> timestamp = parser.getValueAsString();
+                        case "playercount", "player_count" -> playerCount = parser.getValueAsString();
+                        default -> {
+                        }
+                    }
+                }
+                accept(appId, timestamp, playerCount, handler);
+            }
+        }
+    }
+
+    private void accept(String appIdValue, String timestampValue, String playerCountValue, RecordHandler handler) {
+        long appId;
+        if (appIdValue == null || appIdValue.isEmpty()) {
+            if (defaultAppId == null) {
+                handler.reject(record, "missing app ID");
+                return;
+            }
+            appId = defaultAppId;
+        } else {
+            try {
+                appId = Long.parseLong(appIdValue);
+            } catch (NumberFormatException e) {
+                handler.reject(record, "invalid app ID '" + appIdValue + "'");
+                return;
+            }
+        }
+        long timestamp;
+        try {
+            timestamp = parseTimestamp(timestampValue);
+        } catch (DateTimeParseException | NumberFormatException | NullPointerException e) {
+            handler.reject(record, "invalid timestamp '" + timestampValue + "'");
+            return;
+        }
+        int playerCount;
+        try {
+            playerCount = Integer.parseInt(playerCountValue);
+        } catch (NumberFormatException e) {
+            handler.reject(record, "invalid player count '" + playerCountValue + "'");
+            return;
+        }
+        handler.accept(record, appId, timestamp, playerCount);
+    }
+
+    static long parseTimestamp(String value) {
+        String text = value.trim();
+        if (!text.isEmpty() && text.chars().allMatch(Character::isDigit)) {
+            long epoch = Long.parseLong(text);
+            return epoch <= MAX_EPOCH_SECONDS ? epoch * 1000 : epoch;
+        }
+        text = text.replace(' ', 'T');
+        if (text.endsWith("Z") || text.endsWith("z")) {
+            return Instant.parse(text.toUpperCase(Locale.ROOT)).toEpochMilli();
+        }
+        // An offset follows the time: a sign after the 'T'
+        int t = text.indexOf('T');
+        if (t > 0 && (text.indexOf('+', t) > 0 || text.indexOf('-', t) > 0)) {
+            return OffsetDateTime.parse(text).toInstant().toEpochMilli();
+        }
+        return LocalDateTime.parse(text).toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static String unquote(String field) {
+        String value = field.trim();
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1).trim();
+        }
+        return value;
+    }
+}
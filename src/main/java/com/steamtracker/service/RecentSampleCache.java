@@ -0,0 +1,155 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.HotTierStats;
+import com.steamtracker.dto.PlayerCountSample;
+import com.steamtracker.dto.PlayerCountSeries;
+import com.steamtracker.repository.PlayerCountSeriesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory hot tier holding the last few hours of samples per tracked game.
+ * Filled by every write and warm-loaded from the database in the background at startup; until the warm load
+ * has finished it reports that it covers nothing, so callers fall back to the database.
+ * With several instances only the one collecting a game sees its new samples, so a game is
+ * only answered from here for the time this instance has been collecting it (see {@link ShardLeaseService}).
+ */
+@Component
+public class RecentSampleCache {
+    private static final Logger logger = LoggerFactory.getLogger(RecentSampleCache.class);
+
+    @Autowired
+    private PlayerCountSeriesRepository playerCountSeriesRepository;
+
+    @Autowired
+    private ShardLeaseService shardLeaseService;
+
+    @Autowired
+    private StartupWarmup startupWarmup;
+
+    private final int hotHours;
+    private final int capacityPerGame;
+    private final Map<Long, SampleRingBuffer> buffers = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    private volatile long warmLoadStartMillis = Long.MIN_VALUE;
+
+    public RecentSampleCache(@Value("${history.hot-tier.hours:24}") int hotHours,
+                             @Value("${history.hot-tier.capacity-per-game:3000}") int capacityPerGame) {
+        this.hotHours = hotHours;
+        this.capacityPerGame = capacityPerGame;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleWarmLoad() {
+        startupWarmup.submit("hot tier", this::warmLoad);
+    }
+
+    public void warmLoad() {
+        if (hotHours <= 0) {
+            logger.info("Hot tier disabled");
+            return;
+        }
+
+        long start = System.nanoTime();
+        long loadStart = AdaptiveSamplingSchedule.currentMillis();
+        long windowStart = windowStartMillis();
+        Map<Long, SampleRingBuffer> loaded = new HashMap<>();
+        playerCountSeriesRepository.forEachSampleSince(PlayerCountSeries.toLocalDateTime(windowStart),
+                (appId, timestampMillis, playerCount) -> loaded
+                        .computeIfAbsent(appId, id -> new SampleRingBuffer(capacityPerGame, windowStart))
+                        .add(timestampMillis, playerCount));
+
+        synchronized (this) {
+            // Keep anything appended by collection cycles that ran during the load
+            for (Map.Entry<Long, SampleRingBuffer> live : buffers.entrySet()) {
+                SampleRingBuffer target = loaded.computeIfAbsent(live.getKey(),
+                        id -> new SampleRingBuffer(capacityPerGame, windowStart));
+                PlayerCountSeries appended = new PlayerCountSeries();
+                live.getValue().copySince(windowStart, appended);
+                for (int i = 0; i < appended.size(); i++) {
+                    target.add(appended.getTimestamps()[i], appended.getCounts()[i]);
+                }
+            }
+            buffers.putAll(loaded);
+            warmLoadStartMillis = loadStart;
+            ready = true;
+        }
+
+        HotTierStats stats = getStats();
+        logger.info("Hot tier warm-loaded {} samples for {} games in {} ms ({} KiB)",
+                stats.getSamples(), stats.getGames(), Duration.ofNanos(System.nanoTime() - start).toMillis(),
+                stats.getFootprintBytes() / 1024);
+    }
+
+    public void append(List<PlayerCountSample> samples) {
+        if (hotHours <= 0) {
+            return;
+        }
+        long windowStart = windowStartMillis();
+        synchronized (this) {
+            for (PlayerCountSample sample : samples) {
+                SampleRingBuffer buffer = buffers.computeIfAbsent(sample.getAppId(),
+                        id -> new SampleRingBuffer(capacityPerGame, windowStart));
+                buffer.add(PlayerCountSeries.toEpochMillis(sample.getRecordedAt()), sample.getPlayerCount());
+                buffer.trimBefore(windowStart);
+            }
+            // Games another instance now collects would only get stale here
+            buffers.keySet().removeIf(appId -> shardLeaseService.ownedSinceMillis(appId) == Long.MAX_VALUE);
+        }
+    }
+
+    public void remove(Long appId) {
+        buffers.remove(appId);
+    }
+
+    /**
+     * Returns the samples since {@code since} if the hot tier holds all of them, otherwise null.
+     */
+    public PlayerCountSeries findSeries(Long appId, LocalDateTime since) {
+        if (!ready) {
+            return null;
+        }
+        long sinceMillis = PlayerCountSeries.toEpochMillis(since);
+        long ownedSince = shardLeaseService.ownedSinceMillis(appId);
+        if (ownedSince == Long.MAX_VALUE) {
+            // Another instance collects this game
+            return null;
+        }
+        if (ownedSince > warmLoadStartMillis && sinceMillis < ownedSince) {
+            return null;
+        }
+        SampleRingBuffer buffer = buffers.get(appId);
+        if (buffer == null || !buffer.covers(sinceMillis)) {
+            return null;
+        }
+        PlayerCountSeries series = new PlayerCountSeries(buffer.size());
+        buffer.copySince(sinceMillis, series);
+        return series;
+    }
+
+    public HotTierStats getStats() {
+        long samples = 0;
+        long bytes = 0;
+        for (SampleRingBuffer buffer : buffers.values()) {
+            samples += buffer.size();
+            bytes += buffer.footprintBytes();
+        }
+        return new HotTierStats(hotHours, capacityPerGame, buffers.size(), samples, bytes);
+    }
+
+    private long windowStartMillis() {
+        return PlayerCountSeries.toEpochMillis(LocalDateTime.now().minusHours(hotHours));
+    }
+}
@@ -0,0 +1,85 @@
+package com.steamtracker.service;
+
+import com.steamtracker.repository.PlayerCountRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Owns the tiered history layout: which tier answers a query, how long each tier is kept,
+ * and the one-off backfill of rollups from existing raw samples.
+ */
+@Service
+public class RollupService {
+    private static final Logger logger = LoggerFactory.getLogger(RollupService.class);
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private PlayerCountRollupRepository playerCountRollupRepository;
+
+    // Retention in days per tier, 0 keeps the tier forever
+    @Value("${history.retention.raw-days:14}")
+    private int rawRetentionDays;
+
+    @Value("${history.retention.hourly-days:365}")
+    private int hourlyRetentionDays;
+
+    @Value("${history.retention.daily-days:0}")
+    private int dailyRetentionDays;
+
+    /**
+     * Picks the coarsest tier that is still at least as fine as {@code resolutionSeconds}
+     * and still holds data back to {@code since}. When no tier is fine enough, the finest
+     * tier covering the range is used.
+     */
+    public StorageTier selectTier(LocalDateTime since, long resolutionSeconds) {
+        StorageTier[] tiers = StorageTier.values();
+        for (int i = tiers.length - 1; i >= 0; i--) {
+            if (tiers[i].getResolutionSeconds() <= resolutionSeconds && covers(tiers[i], since)) {
+                return tiers[i];
+            }
+        }
+        for (StorageTier tier : tiers) {
+            if (covers(tier, since)) {
+                return tier;
+            }
+        }
+        return StorageTier.DAILY;
+    }
+
+    private boolean covers(StorageTier tier, LocalDateTime since) {
+        int retentionDays = getRetentionDays(tier);
+        return retentionDays <= 0 || !since.isBefore(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    public int getRetentionDays(StorageTier tier) {
+        return switch (tier) {
+            case RAW -> rawRetentionDays;
+            case HOURLY -> hourlyRetentionDays;
+            case DAILY -> dailyRetentionDays;
+        };
+    }
+
+    /**
+     * Rollups are written incrementally by the ingest path. Samples that predate the rollup tables
+     * (or were written while they were empty), sealed blocks included, are folded in once at startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillEmptyRollups() {
+        LocalDateTime since = rawRetentionDays > 0 ? LocalDateTime.now().minusDays(rawRetentionDays) : EPOCH;
+        for (StorageTier tier : StorageTier.values()) {
+            if (tier.isRollup() && playerCountRollupRepository.isEmpty(tier)) {
+                int buckets = playerCountRollupRepository.rebuild(tier, since);
+                logger.info("Backfilled {} {} rollup buckets from stored samples", buckets, tier);
+            }
+        }
+    }
+}
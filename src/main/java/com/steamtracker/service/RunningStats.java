@@ -0,0 +1,268 @@
+package com.steamtracker.service;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Running statistics of one game's player count, updated in O(1) per sample without keeping samples.
+ * <ul>
+ *   <li>Two time-aware EWMAs (short and long time constant); their ratio is the trend. Sampling
+ *       intervals vary per game, so each sample's weight follows from the time since the previous one.</li>
+ *   <li>Welford mean and variance over every sample.</li>
+ *   <li>A baseline per hour of the week (168 buckets), also Welford but with the count capped at
+ *       {@code seasonalWindow}, after which older samples fade out exponentially.</li>
+ *   <li>The z-score of each sample against the baseline of its hour (or the overall one while that
+ *       has fewer than {@code minBaselineSamples}), computed before the sample is added; beyond
+ *       {@code zThreshold} the sample is flagged as a spike or drop.</li>
+ * </ul>
+ * Timestamps are epoch milliseconds (UTC). Not thread-safe.
+ */
+public class RunningStats {
+    public static final String NORMAL = "NORMAL";
+    public static final String SPIKE = "SPIKE";
+    public static final String DROP = "DROP";
+    public static final String WARMING_UP = "WARMING_UP";
+
+    static final int HOURS_PER_WEEK = 168;
+    private static final long HOUR_MILLIS = 3_600_000L;
+    // 1970-01-01 was a Thursday; shifts the epoch hour so that bucket 0 is Monday 00:00
+    private static final int EPOCH_HOUR_OF_WEEK = 3 * 24;
+    private static final byte FORMAT_VERSION = 1;
+    private static final String[] STATUSES = {NORMAL, SPIKE, DROP, WARMING_UP};
+
+    private final long shortTauMillis;
+    private final long longTauMillis;
+    private final int seasonalWindow;
+    private final int minBaselineSamples;
+    private final double zThreshold;
+
+    private long lastTimestamp = Long.MIN_VALUE;
+    private int lastCount;
+    private double ewmaShort;
+    private double ewmaLong;
+    private long count;
+    private double mean;
+    private double m2;
+    private double lastZ = Double.NaN;
+    private String status = WARMING_UP;
+    private long lastAnomalyTimestamp = Long.MIN_VALUE;
+    private double lastAnomalyZ = Double.NaN;
+    private String lastAnomalyStatus;
+    private final int[] seasonalCounts = new int[HOURS_PER_WEEK];
+    private final double[] seasonalMeans = new double[HOURS_PER_WEEK];
+    private final double[] seasonalM2 = new double[HOURS_PER_WEEK];
+
+    public RunningStats(long shortTauMillis, long longTauMillis, int seasonalWindow, int minBaselineSamples,
+                        double zThreshold) {
+        if (shortTauMillis < 1 || longTauMillis < 1 || seasonalWindow < 2 || minBaselineSamples < 2) {
+            throw new IllegalArgumentException("Invalid running statistics settings");
+        }
+        this.shortTauMillis = shortTauMillis;
+        this.longTauMillis = longTauMillis;
+        this.seasonalWindow = seasonalWindow;
+        this.minBaselineSamples = minBaselineSamples;
+        this.zThreshold = zThreshold;
+    }
+
+    /**
+     * Adds a sample; samples that are not newer than the newest one are ignored.
+     *
+     * @return whether the sample was flagged as a spike or drop
+     */
+    public boolean add(long timestampMillis, int playerCount) {
+        if (count > 0 && timestampMillis <= lastTimestamp) {
+            return false;
+        }
+        int bucket = hourOfWeek(timestampMillis);
+        flag(bucket, playerCount, timestampMillis);
+
+        if (count == 0) {
+            ewmaShort = playerCount;
+            ewmaLong = playerCount;
+        } else {
+            double elapsed = timestampMillis - lastTimestamp;
+            ewmaShort += (1 - Math.exp(-elapsed / shortTauMillis)) * (playerCount - ewmaShort);
+            ewmaLong += (1 - Math.exp(-elapsed / longTauMillis)) * (playerCount - ewmaLong);
+        }
+
+        count++;
+        double delta = playerCount - mean;
+        mean += delta / count;
+        m2 += delta * (playerCount - mean);
+
+        // Capped Welford: once full, the previous state counts as seasonalWindow - 1 samples of the same
+        // variance, so the bucket behaves like an EWMA with weight 1 / seasonalWindow
+        int previous = seasonalCounts[bucket];
+        int n = Math.min(previous + 1, seasonalWindow);
+        if (previous > 1 && n <= previous) {
+            seasonalM2[bucket] *= (n - 2) / (double) (previous - 1);
+        }
+        double seasonalDelta = playerCount - seasonalMeans[bucket];
+        seasonalMeans[bucket] += seasonalDelta / n;
+        seasonalM2[bucket] += seasonalDelta * (playerCount - seasonalMeans[bucket]);
+        seasonalCounts[bucket] = n;
+
+        lastTimestamp = timestampMillis;
+        lastCount = playerCount;
+        return SPIKE.equals(status) || DROP.equals(status);
+    }
+
+    private void flag(int bucket, int playerCount, long timestampMillis) {
+        double baselineMean;
+        double baselineVariance;
+        if (seasonalCounts[bucket] >= minBaselineSamples) {
+            baselineMean = seasonalMeans[bucket];
+            baselineVariance = seasonalM2[bucket] / (seasonalCounts[bucket] - 1);
+        } else if (count >= minBaselineSamples) {
+            baselineMean = mean;
+            baselineVariance = m2 / (count - 1);
+        } else {
+            lastZ = Double.NaN;
+            status = WARMING_UP;
+            return;
+        }
+        // Flat histories would flag every small wobble; the spread is at least 1% of the mean (or one player)
+        double spread = Math.max(Math.sqrt(baselineVariance), Math.max(1, 0.01 * Math.abs(baselineMean)));
+        lastZ = (playerCount - baselineMean) / spread;
+        status = lastZ >= zThreshold ? SPIKE : lastZ <= -zThreshold ? DROP : NORMAL;
+        if (!NORMAL.equals(status)) {
+            lastAnomalyTimestamp = timestampMillis;
+            lastAnomalyZ = lastZ;
+            lastAnomalyStatus = status;
+        }
+    }
+
+    static int hourOfWeek(long timestampMillis) {
+        return Math.floorMod(Math.floorDiv(timestampMillis, HOUR_MILLIS) + EPOCH_HOUR_OF_WEEK, HOURS_PER_WEEK);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public int getLastCount() {
+        return lastCount;
+    }
+
+    public double getEwmaShort() {
+        return ewmaShort;
+    }
+
+    public double getEwmaLong() {
+        return ewmaLong;
+    }
+
+    /**
+     * Relative difference of the short EWMA from the long one: above 0 when the count is rising.
+     */
+    public double getTrend() {
+        return count == 0 ? 0 : (ewmaShort - ewmaLong) / Math.max(1, ewmaLong);
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getStdDev() {
+        return count > 1 ? Math.sqrt(m2 / (count - 1)) : 0;
+    }
+
+    /**
+     * Baseline mean of the hour of the week {@code timestampMillis} falls in, NaN while it has no samples.
+     */
+    public double getSeasonalMean(long timestampMillis) {
+        int bucket = hourOfWeek(timestampMillis);
+        return seasonalCounts[bucket] > 0 ? seasonalMeans[bucket] : Double.NaN;
+    }
+
+    public double getSeasonalStdDev(long timestampMillis) {
+        int bucket = hourOfWeek(timestampMillis);
+        return seasonalCounts[bucket] > 1 ? Math.sqrt(seasonalM2[bucket] / (seasonalCounts[bucket] - 1)) : Double.NaN;
+    }
+
+    public int getSeasonalSamples(long timestampMillis) {
+        return seasonalCounts[hourOfWeek(timestampMillis)];
+    }
+
+    /**
+     * z-score of the last sample, NaN while warming up.
+     */
+    public double getLastZ() {
+        return lastZ;
+    }
+
+    /**
+     * {@link #NORMAL}, {@link #SPIKE} or {@link #DROP} for the last sample, or {@link #WARMING_UP}.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    public long getLastAnomalyTimestamp() {
+        return lastAnomalyTimestamp;
+    }
+
+    public double getLastAnomalyZ() {
+        return lastAnomalyZ;
+    }
+
+    public String getLastAnomalyStatus() {
+        return lastAnomalyStatus;
+    }
+
+    /**
+     * Checkpoint of the state (not the settings), read back by {@link #restore}.
+     */
+    public byte[] toBytes() {
+        ByteBuffer out = ByteBuffer.allocate(79 + HOURS_PER_WEEK * 20);
+        out.put(FORMAT_VERSION);
+        out.putLong(lastTimestamp).putInt(lastCount).putDouble(ewmaShort).putDouble(ewmaLong);
+        out.putLong(count).putDouble(mean).putDouble(m2);
+        out.putDouble(lastZ).put(statusCode(status));
+        out.putLong(lastAnomalyTimestamp).putDouble(lastAnomalyZ).put(statusCode(lastAnomalyStatus));
+        for (int i = 0; i < HOURS_PER_WEEK; i++) {
+            out.putInt(seasonalCounts[i]).putDouble(seasonalMeans[i]).putDouble(seasonalM2[i]);
+        }
+        return out.array();
+    }
+
+    public void restore(byte[] state) {
+        ByteBuffer in = ByteBuffer.wrap(state);
+        if (in.get() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unknown running statistics format");
+        }
+        lastTimestamp = in.getLong();
+        lastCount = in.getInt();
+        ewmaShort = in.getDouble();
+        ewmaLong = in.getDouble();
+        count = in.getLong();
+        mean = in.getDouble();
+        m2 = in.getDouble();
+        lastZ = in.getDouble();
+        status = statusOf(in.get());
+        lastAnomalyTimestamp = in.getLong();
+        lastAnomalyZ = in.getDouble();
+        lastAnomalyStatus = statusOf(in.get());
+        for (int i = 0; i < HOURS_PER_WEEK; i++) {
+            seasonalCounts[i] = in.getInt();
+            seasonalMeans[i] = in.getDouble();
+            seasonalM2[i] = in.getDouble();
+        }
+    }
+
+    private static byte statusCode(String status) {
+        for (byte i = 0; i < STATUSES.length; i++) {
+            if (STATUSES[i].equals(status)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String statusOf(byte code) {
+        return code >= 0 && code < STATUSES.length ? STATUSES[code] : null;
+    }
+}
@@ -0,0 +1,165 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.PlayerCountSample;
+import com.steamtracker.repository.JournalCheckpointRepository;
+import com.steamtracker.repository.PlayerCountBulkWriter;
+import com.steamtracker.repository.SampleJournal;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Where collected samples are persisted. With {@code journal.enabled} (the default) a batch is
+ * appended to the local {@link SampleJournal} and a background thread flushes the journal into
+ * the database every {@code journal.flush-ms}, in transactions of up to {@code journal.batch-size}
+ * samples, so collection neither waits for nor loses samples to a slow or unavailable database.
+ * Samples left in the journal by a previous run are flushed before the app reports ready, so the
+ * hot tier warm load sees them. Without the journal batches are written directly.
+ */
+@Service
+public class SampleJournalService {
+    private static final Logger logger = LoggerFactory.getLogger(SampleJournalService.class);
+
+    @Autowired
+    private PlayerCountBulkWriter playerCountBulkWriter;
+
+    @Autowired
+    private JournalCheckpointRepository journalCheckpointRepository;
+
+    private final SampleJournal journal;
+    private final int batchSize;
+    private final long flushMillis;
+    private final Timer writeTimer;
+    private final Object flushLock = new Object();
+    // Last sequence known to be in the database; -1 until read from there
+    private volatile long flushedSequence = -1;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "journal-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SampleJournalService(@Value("${journal.enabled:true}") boolean enabled,
+                                @Value("${journal.dir:data/journal}") String directory,
+                                @Value("${journal.segment-bytes:16777216}") int segmentBytes,
+                                @Value("${journal.batch-size:5000}") int batchSize,
+                                @Value("${journal.flush-ms:1000}") long flushMillis,
+                                MeterRegistry meterRegistry) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("journal.batch-size must be at least 1");
+        }
+        this.journal = enabled ? new SampleJournal(Path.of(directory), segmentBytes) : null;
+        this.batchSize = batchSize;
+        this.flushMillis = flushMillis;
+        this.writeTimer = Timer.builder("playercount.db.write")
+                .description("Latency of persisting a batch of player count samples")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        if (journal != null) {
+            Gauge.builder("journal.pending.samples", this, service -> service.getPendingSamples())
+                    .description("Journaled samples not yet flushed to the database")
+                    .register(meterRegistry);
+            Gauge.builder("journal.segments", journal, SampleJournal::getSegmentCount)
+                    .description("Segment files of the local sample journal")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Persists a collected batch: journaled, or written to the database without the journal.
+     *
+     * @return the number of samples journaled, or written to the database without the journal
+     */
+    public int write(List<PlayerCountSample> samples) {
+        if (journal == null) {
+            return writeTimer.record(() -> playerCountBulkWriter.writeSamples(samples));
+        }
+        journal.append(samples);
+        return samples.size();
+    }
+
+    @PostConstruct
+    public void replay() {
+        if (journal == null) {
+            return;
+        }
+        logger.info("Replaying sample journal {} up to sequence {}", journal.getJournalId(), journal.getLastSequence());
+        flush();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startFlushing() {
+        if (journal != null) {
+            flusher.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes everything journaled so far, batch by batch; on a database error the rest waits for the next run.
+     */
+    public void flush() {
+        if (journal == null) {
+            return;
+        }
+        synchronized (flushLock) {
+            try {
+                if (flushedSequence < 0) {
+                    flushedSequence = journalCheckpointRepository.findFlushedSequence(journal.getJournalId());
+                }
+                while (flushedSequence < journal.getLastSequence()) {
+                    List<PlayerCountSample> batch = new ArrayList<>(Math.min(batchSize, 1024));
+                    long last = journal.read(flushedSequence + 1, batchSize, batch);
+                    if (!batch.isEmpty()) {
+                        writeTimer.record(() -> playerCountBulkWriter.writeJournalBatch(batch, journal.getJournalId(), last));
+                    }
+                    flushedSequence = last;
+                    journal.deleteUpTo(last);
+                }
+            } catch (DataAccessException e) {
+                logger.warn("Could not flush sample journal, {} samples pending: {}", getPendingSamples(), e.getMessage());
+            } catch (RuntimeException e) {
+                // Keeps the flusher scheduled
+                logger.error("Sample journal flush failed", e);
+            }
+        }
+    }
+
+    public long getPendingSamples() {
+        if (journal == null) {
+            return 0;
+        }
+        return flushedSequence < 0 ? journal.getLastSequence() : journal.getLastSequence() - flushedSequence;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (journal == null) {
+            return;
+        }
+        flusher.shutdownNow();
+        flush();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            logger.warn("Could not close sample journal: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.PlayerCountSeries;
+
+/**
+ * Fixed-capacity ring of (timestamp, count) pairs for one game, oldest overwritten first.
+ * Timestamps are epoch milliseconds (UTC) and must be appended in ascending order.
+ */
+public class SampleRingBuffer {
+    private final long[] timestamps;
+    private final int[] counts;
+    private int head;
+    private int size;
+
+    // Every sample recorded at or after this instant is in the buffer
+    private long completeSince;
+
+    public SampleRingBuffer(int capacity, long completeSince) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.timestamps = new long[capacity];
+        this.counts = new int[capacity];
+        this.completeSince = completeSince;
+    }
+
+    public synchronized void add(long timestampMillis, int count) {
+        if (size > 0 && timestampMillis <= timestamps[index(size - 1)]) {
+            // Late or duplicate sample: only strictly newer samples can be appended in place
+            return;
+        }
+        if (size == timestamps.length) {
+            completeSince = Math.max(completeSince, timestamps[head] + 1);
+            head = (head + 1) % timestamps.length;
+            size--;
+        }
+        int tail = index(size);
+        timestamps[tail] = timestampMillis;
+        counts[tail] = count;
+        size++;
+    }
+
+    /**
+     * Drops samples recorded before {@code cutoffMillis}.
+     */
+    public synchronized void trimBefore(long cutoffMillis) {
+        while (size > 0 && timestamps[head] < cutoffMillis) {
+            head = (head + 1) % timestamps.length;
+            size--;
+        }
+        completeSince = Math.max(completeSince, cutoffMillis);
+    }
+
+    public synchronized boolean covers(long sinceMillis) {
+        return sinceMillis >= completeSince;
+    }
+
+    /**
+     * Copies the samples recorded at or after {@code sinceMillis} into {@code target}.
+     */
+    public synchronized void copySince(long sinceMillis, PlayerCountSeries target) {
+        for (int i = 0; i < size; i++) {
+            int slot = index(i);
+            if (timestamps[slot] >= sinceMillis) {
+                target.add(timestamps[slot], counts[slot]);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return timestamps.length;
+    }
+
+    // Bytes held by the two primitive arrays
+    public long footprintBytes() {
+        return (long) timestamps.length * (Long.BYTES + Integer.BYTES);
+    }
+
+    private int index(int offset) {
+        return (head + offset) % timestamps.length;
+    }
+}
@@ -0,0 +1,279 @@
+package com.steamtracker.service;
+
+import com.steamtracker.repository.CollectorLeaseRepository;
+import com.steamtracker.repository.GameRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits collection between app instances sharing one database.
+ * <p>
+ * Tracked games are hashed into {@code collector.cluster.shards} shards. Every
+ * {@code collector.cluster.renew-ms} each instance heartbeats, on a thread of its own so that
+ * long scheduled jobs cannot delay it past the lease, renews its leases and moves towards
+ * an equal share of the shards: it releases shards above its share and claims free or expired
+ * ones below it. A new instance therefore gets its share within two renewals, and the shards of an
+ * instance that stops renewing are taken over once its lease ({@code collector.cluster.lease-seconds})
+ * runs out and another instance renews, at most lease-seconds plus renew-ms after its last renewal
+ * (25 s with the defaults). An instance whose lease has run out locally, e.g. after losing the database, owns
+ * nothing until it renews, so two instances never collect the same shard.
+ * <p>
+ * Each instance also refreshes its {@link AdaptiveSamplingSchedule} and staleness gauges from the
+ * games table on every renewal, so games tracked or changed through another instance are picked up.
+ * With {@code collector.cluster.enabled=false} this instance owns every game.
+ */
+@Service
+public class ShardLeaseService {
+    private static final Logger logger = LoggerFactory.getLogger(ShardLeaseService.class);
+
+    @Autowired
+    private CollectorLeaseRepository collectorLeaseRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private AdaptiveSamplingSchedule samplingSchedule;
+
+    @Autowired
+    private GameStalenessMetrics gameStalenessMetrics;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private GameStatsService gameStatsService;
+
+    @Autowired
+    private TrackedGamesCache trackedGamesCache;
+
+    private final boolean enabled;
+    private final String instanceId;
+    private final int shards;
+    private final int leaseSeconds;
+    private final long renewMillis;
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "lease-renewal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Owned shard -> when this instance's continuous ownership began (schedule millis)
+    private volatile Map<Integer, Long> owned = Map.of();
+    private volatile long leaseValidUntilNanos;
+    private boolean shardsCreated;
+    private int liveInstances = 1;
+
+    public ShardLeaseService(@Value("${collector.cluster.enabled:true}") boolean enabled,
+                             @Value("${collector.cluster.instance-id:}") String instanceId,
+                             @Value("${collector.cluster.shards:64}") int shards,
+                             @Value("${collector.cluster.lease-seconds:20}") int leaseSeconds,
+                             @Value("${collector.cluster.renew-ms:5000}") long renewMillis,
+                             MeterRegistry meterRegistry) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("collector.cluster.shards must be at least 1");
+        }
+        if (TimeUnit.SECONDS.toMillis(leaseSeconds) <= renewMillis) {
+            throw new IllegalArgumentException("collector.cluster.lease-seconds must be longer than renew-ms");
+        }
+        this.enabled = enabled;
+        this.instanceId = instanceId.isBlank() ? defaultInstanceId() : instanceId;
+        this.shards = shards;
+        this.leaseSeconds = leaseSeconds;
+        this.renewMillis = renewMillis;
+
+        Gauge.builder("collector.shards.owned", this, service -> service.ownedShardCount())
+                .description("Collection shards leased by this instance")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRenewing() {
+        if (enabled) {
+            renewer.scheduleWithFixedDelay(this::renew, 0, renewMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void renew() {
+        if (!enabled) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        try {
+            if (!shardsCreated) {
+                collectorLeaseRepository.ensureShards(shards);
+                shardsCreated = true;
+            }
+            liveInstances = collectorLeaseRepository.heartbeat(instanceId, leaseSeconds);
+            List<Integer> held = new ArrayList<>(collectorLeaseRepository.renew(instanceId, leaseSeconds));
+            int share = fairShare(shards, liveInstances);
+
+            if (held.size() > share) {
+                List<Integer> surplus = held.subList(share, held.size());
+                collectorLeaseRepository.release(instanceId, surplus);
+                logger.info("Released {} shards to rebalance across {} instances", surplus.size(), liveInstances);
+                surplus.clear();
+            } else if (held.size() < share) {
+                List<Integer> claimed = collectorLeaseRepository.claim(instanceId, leaseSeconds, share - held.size());
+                if (!claimed.isEmpty()) {
+                    logger.info("Claimed {} shards ({} instances live)", claimed.size(), liveInstances);
+                }
+                held.addAll(claimed);
+            }
+
+            long now = AdaptiveSamplingSchedule.currentMillis();
+            Map<Integer, Long> previous = currentOwnership();
+            Map<Integer, Long> current = new HashMap<>();
+            for (Integer shard : held) {
+                current.put(shard, previous.getOrDefault(shard, now));
+            }
+            owned = Map.copyOf(current);
+            leaseValidUntilNanos = startNanos + TimeUnit.SECONDS.toNanos(leaseSeconds);
+        } catch (DataAccessException e) {
+            logger.warn("Could not renew collection leases: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            // Keeps the renewal scheduled
+            logger.error("Renewing collection leases failed", e);
+        }
+
+        try {
+            refreshTrackedGames();
+        } catch (DataAccessException e) {
+            logger.warn("Could not refresh tracked games: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Refreshing tracked games failed", e);
+        }
+    }
+
+    /**
+     * Whether this instance should collect {@code appId} right now.
+     */
+    public boolean isOwned(Long appId) {
+        return !enabled || currentOwnership().containsKey(shardOf(appId, shards));
+    }
+
+    public List<Long> filterOwned(List<Long> appIds) {
+        if (!enabled) {
+            return appIds;
+        }
+        Map<Integer, Long> current = currentOwnership();
+        List<Long> mine = new ArrayList<>(appIds.size());
+        for (Long appId : appIds) {
+            if (current.containsKey(shardOf(appId, shards))) {
+                mine.add(appId);
+            }
+        }
+        return mine;
+    }
+
+    /**
+     * Since when (schedule millis) this instance has continuously collected {@code appId}:
+     * {@link Long#MIN_VALUE} without clustering, {@link Long#MAX_VALUE} if it does not collect it.
+     */
+    public long ownedSinceMillis(Long appId) {
+        if (!enabled) {
+            return Long.MIN_VALUE;
+        }
+        Long since = currentOwnership().get(shardOf(appId, shards));
+        return since != null ? since : Long.MAX_VALUE;
+    }
+
+    /**
+     * Whether this instance runs cluster-wide housekeeping (block sealing, retention): the owner of shard 0.
+     */
+    public boolean isLeader() {
+        return !enabled || currentOwnership().containsKey(0);
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (!enabled) {
+            return;
+        }
+        renewer.shutdownNow();
+        owned = Map.of();
+        try {
+            collectorLeaseRepository.leave(instanceId);
+            logger.info("Released all collection shards of instance {}", instanceId);
+        } catch (DataAccessException e) {
+            logger.warn("Could not release collection shards: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Shard of a game. App IDs are mostly multiples of 10, so they are mixed before taking the remainder.
+     */
+    static int shardOf(Long appId, int shards) {
+        long mixed = appId * 0x9E3779B97F4A7C15L;
+        return Math.floorMod(mixed ^ (mixed >>> 32), shards);
+    }
+
+    /**
+     * Shards one instance should hold; rounded up so that every shard has room for an owner.
+     */
+    static int fairShare(int shards, int liveInstances) {
+        return (shards + Math.max(1, liveInstances) - 1) / Math.max(1, liveInstances);
+    }
+
+    private Map<Integer, Long> currentOwnership() {
+        return System.nanoTime() - leaseValidUntilNanos < 0 ? owned : Map.of();
+    }
+
+    private int ownedShardCount() {
+        return enabled ? currentOwnership().size() : shards;
+    }
+
+    private void refreshTrackedGames() {
+        Map<Long, Integer> intervals = new HashMap<>();
+        Map<Long, LocalDateTime> lastUpdated = new HashMap<>();
+        for (Object[] row : gameRepository.findTrackedSamplingState()) {
+            Long appId = (Long) row[0];
+            intervals.put(appId, (Integer) row[1]);
+            if (row[2] != null) {
+                lastUpdated.put(appId, (LocalDateTime) row[2]);
+                gameStalenessMetrics.track(appId, (LocalDateTime) row[2]);
+            }
+        }
+        samplingSchedule.reconcile(intervals);
+        gameStalenessMetrics.retain(intervals.keySet());
+        leaderboardService.retain(intervals.keySet());
+        gameStatsService.retain(intervals.keySet());
+        // Other instances record samples and tracking changes this one never sees
+        trackedGamesCache.reloadIfStale(intervals, lastUpdated);
+    }
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "instance";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,92 @@
+package com.steamtracker.service;
+
+/**
+ * Maximum (or minimum) of one game's counts over a sliding time window, as a monotonic deque:
+ * a sample is dropped as soon as a newer one is at least as extreme, so the front is always the
+ * extreme of the window. Adding is amortised O(1), reading is O(1).
+ * Timestamps are epoch milliseconds (UTC); a sample older than the newest one is treated as if
+ * it arrived with the newest timestamp, so it may stay in the window slightly too long.
+ */
+public class SlidingExtreme {
+    private final long windowMillis;
+    private final boolean max;
+    private long[] timestamps = new long[8];
+    private int[] counts = new int[8];
+    private int head;
+    private int size;
+
+    public SlidingExtreme(long windowMillis, boolean max) {
+        if (windowMillis < 1) {
+            throw new IllegalArgumentException("Window must be positive");
+        }
+        this.windowMillis = windowMillis;
+        this.max = max;
+    }
+
+    public void add(long timestampMillis, int count) {
+        if (size > 0) {
+            timestampMillis = Math.max(timestampMillis, timestamps[index(size - 1)]);
+        }
+        while (size > 0 && !beats(counts[index(size - 1)], count)) {
+            size--;
+        }
+        if (size == timestamps.length) {
+            grow();
+        }
+        timestamps[index(size)] = timestampMillis;
+        counts[index(size)] = count;
+        size++;
+    }
+
+    /**
+     * Whether any sample of the window ending at {@code nowMillis} is left.
+     */
+    public boolean isEmpty(long nowMillis) {
+        evict(nowMillis);
+        return size == 0;
+    }
+
+    /**
+     * Extreme count of the window ending at {@code nowMillis}; check {@link #isEmpty} first.
+     */
+    public int getCount(long nowMillis) {
+        evict(nowMillis);
+        return counts[head];
+    }
+
+    /**
+     * When the extreme count was (last) recorded.
+     */
+    public long getTimestamp(long nowMillis) {
+        evict(nowMillis);
+        return timestamps[head];
+    }
+
+    // Samples strictly more extreme than the new one survive; ties go to the newer sample
+    private boolean beats(int existing, int incoming) {
+        return max ? existing > incoming : existing < incoming;
+    }
+
+    private void evict(long nowMillis) {
+        while (size > 0 && timestamps[head] <= nowMillis - windowMillis) {
+            head = (head + 1) % timestamps.length;
+            size--;
+        }
+    }
+
+    private void grow() {
+        long[] newTimestamps = new long[timestamps.length * 2];
+        int[] newCounts = new int[counts.length * 2];
+        for (int i = 0; i < size; i++) {
+            newTimestamps[i] = timestamps[index(i)];
+            newCounts[i] = counts[index(i)];
+        }
+        timestamps = newTimestamps;
+        counts = newCounts;
+        head = 0;
+    }
+
+    private int index(int offset) {
+        return (head + offset) % timestamps.length;
+    }
+}
@@ -0,0 +1,43 @@
+package com.steamtracker.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs startup loads that collection does not depend on (hot tier, leaderboard, search catalog, game stats)
+ * one after another on a background thread, so the app is ready, and collecting, without waiting
+ * for them. Each of them serves reads from its fallback until its load has finished.
+ */
+@Component
+public class StartupWarmup {
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "warm-up");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public void submit(String name, Runnable load) {
+        worker.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                load.run();
+                logger.info("Warm-up of {} finished in {} ms", name, Duration.ofNanos(System.nanoTime() - start).toMillis());
+            } catch (RuntimeException e) {
+                logger.error("Warm-up of {} failed", name, e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+}
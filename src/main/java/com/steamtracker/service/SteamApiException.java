@@ -0,0 +1,15 @@
+package com.steamtracker.service;
+
+/**
+ * A Steam API call failed after retries, or was rejected by an open circuit breaker.
+ */
+public class SteamApiException extends RuntimeException {
+
+    public SteamApiException(String message) {
+        super(message);
+    }
+
+    public SteamApiException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
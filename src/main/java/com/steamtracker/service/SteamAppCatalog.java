@@ -0,0 +1,232 @@
+package com.steamtracker.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.steamtracker.entity.Game;
+import com.steamtracker.repository.GameRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Searchable catalog of Steam apps.
+ * The full app list is read from a local GetAppList snapshot ({@code steam.catalog.path})
+ * with a streaming parser and indexed once, in the background at startup; until then, or
+ * without a snapshot, only the built-in popular games are searchable. Tracked games are kept
+ * in a small separate index so games added by ID are found even when they are not in the snapshot.
+ */
+@Component
+public class SteamAppCatalog {
+    private static final Logger logger = LoggerFactory.getLogger(SteamAppCatalog.class);
+
+    private static final int POPULAR_BOOST = 150;
+
+    // Well-known games and their common aliases, always searchable and ranked first
+    private static final Map<String, SteamApiService.GameInfo> POPULAR_GAMES = new HashMap<>();
+
+    static {
+        POPULAR_GAMES.put("counter-strike 2", new SteamApiService.GameInfo(730L, "Counter-Strike 2"));
+        POPULAR_GAMES.put("cs2", new SteamApiService.GameInfo(730L, "Counter-Strike 2"));
+        POPULAR_GAMES.put("counter-strike", new SteamApiService.GameInfo(10L, "Counter-Strike"));
+        POPULAR_GAMES.put("cs", new SteamApiService.GameInfo(10L, "Counter-Strike"));
+        POPULAR_GAMES.put("dota 2", new SteamApiService.GameInfo(570L, "Dota 2"));
+        POPULAR_GAMES.put("dota", new SteamApiService.GameInfo(570L, "Dota 2"));
+        POPULAR_GAMES.put("team fortress 2", new SteamApiService.GameInfo(440L, "Team Fortress 2"));
+        POPULAR_GAMES.put("tf2", new SteamApiService.GameInfo(440L, "Team Fortress 2"));
+        POPULAR_GAMES.put("left 4 dead 2", new SteamApiService.GameInfo(550L, "Left 4 Dead 2"));
+        POPULAR_GAMES.put("l4d2", new SteamApiService.GameInfo(550L, "Left 4 Dead 2"));
+        POPULAR_GAMES.put("garry's mod", new SteamApiService.GameInfo(4000L, "Garry's Mod"));
+        POPULAR_GAMES.put("gmod", new SteamApiService.GameInfo(4000L, "Garry's Mod"));
+        POPULAR_GAMES.put("rust", new SteamApiService.GameInfo(252490L, "Rust"));
+        POPULAR_GAMES.put("apex legends", new SteamApiService.GameInfo(1172470L, "Apex Legends"));
+        POPULAR_GAMES.put("apex", new SteamApiService.GameInfo(1172470L, "Apex Legends"));
+        POPULAR_GAMES.put("pubg", new SteamApiService.GameInfo(578080L, "PLAYERUNKNOWN'S BATTLEGROUNDS"));
+        POPULAR_GAMES.put("playerunknown's battlegrounds", new SteamApiService.GameInfo(578080L, "PLAYERUNKNOWN'S BATTLEGROUNDS"));
+        POPULAR_GAMES.put("grand theft auto v", new SteamApiService.GameInfo(271590L, "Grand Theft Auto V"));
+        POPULAR_GAMES.put("gta v", new SteamApiService.GameInfo(271590L, "Grand Theft Auto V"));
+        POPULAR_GAMES.put("gta 5", new SteamApiService.GameInfo(271590L, "Grand Theft Auto V"));
+        POPULAR_GAMES.put("rocket league", new SteamApiService.GameInfo(252950L, "Rocket League"));
+        POPULAR_GAMES.put("among us", new SteamApiService.GameInfo(945360L, "Among Us"));
+        POPULAR_GAMES.put("fall guys", new SteamApiService.GameInfo(1097150L, "Fall Guys"));
+        POPULAR_GAMES.put("destiny 2", new SteamApiService.GameInfo(1085660L, "Destiny 2"));
+        POPULAR_GAMES.put("warframe", new SteamApiService.GameInfo(230410L, "Warframe"));
+        POPULAR_GAMES.put("terraria", new SteamApiService.GameInfo(105600L, "Terraria"));
+        POPULAR_GAMES.put("stardew valley", new SteamApiService.GameInfo(413150L, "Stardew Valley"));
+        POPULAR_GAMES.put("civilization vi", new SteamApiService.GameInfo(289070L, "Sid Meier's Civilization VI"));
+        POPULAR_GAMES.put("civ 6", new SteamApiService.GameInfo(289070L, "Sid Meier's Civilization VI"));
+        POPULAR_GAMES.put("factorio", new SteamApiService.GameInfo(427520L, "Factorio"));
+        POPULAR_GAMES.put("minecraft", new SteamApiService.GameInfo(1086940L, "Minecraft"));
+        POPULAR_GAMES.put("valheim", new SteamApiService.GameInfo(892970L, "Valheim"));
+        POPULAR_GAMES.put("rimworld", new SteamApiService.GameInfo(294100L, "RimWorld"));
+        POPULAR_GAMES.put("dead by daylight", new SteamApiService.GameInfo(381210L, "Dead by Daylight"));
+        POPULAR_GAMES.put("dbd", new SteamApiService.GameInfo(381210L, "Dead by Daylight"));
+        POPULAR_GAMES.put("cities skylines", new SteamApiService.GameInfo(255710L, "Cities: Skylines"));
+        POPULAR_GAMES.put("euro truck simulator 2", new SteamApiService.GameInfo(227300L, "Euro Truck Simulator 2"));
+        POPULAR_GAMES.put("ets2", new SteamApiService.GameInfo(227300L, "Euro Truck Simulator 2"));
+        POPULAR_GAMES.put("cyberpunk 2077", new SteamApiService.GameInfo(1091500L, "Cyberpunk 2077"));
+        POPULAR_GAMES.put("witcher 3", new SteamApiService.GameInfo(292030L, "The Witcher 3: Wild Hunt"));
+        POPULAR_GAMES.put("skyrim", new SteamApiService.GameInfo(489830L, "The Elder Scrolls V: Skyrim Special Edition"));
+        POPULAR_GAMES.put("fallout 4", new SteamApiService.GameInfo(377160L, "Fallout 4"));
+    }
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private StartupWarmup startupWarmup;
+
+    @Value("${steam.catalog.path:}")
+    private String catalogPath;
+
+    private volatile SteamAppIndex catalogIndex = seedBuilder().build();
+    private volatile SteamAppIndex trackedIndex = SteamAppIndex.builder().build();
+    private final Map<Long, String> trackedNames = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleLoad() {
+        startupWarmup.submit("search catalog", this::load);
+    }
+
+    public void load() {
+        for (Game game : gameRepository.findAllTracked()) {
+            trackedNames.put(game.getAppId(), game.getName());
+        }
+        rebuildTrackedIndex();
+
+        if (catalogPath == null || catalogPath.isBlank()) {
+            logger.info("No Steam catalog snapshot configured, searching {} built-in games", POPULAR_GAMES.size());
+            return;
+        }
+        loadSnapshot(Path.of(catalogPath));
+    }
+
+    /**
+     * Replaces the catalog with the apps in a GetAppList snapshot, keeping the built-in games.
+     */
+    public void loadSnapshot(Path path) {
+        if (!Files.isReadable(path)) {
+            logger.warn("Steam catalog snapshot {} not found, searching built-in games only", path.toAbsolutePath());
+            return;
+        }
+
+        long start = System.nanoTime();
+        try (InputStream in = Files.newInputStream(path)) {
+            SteamAppIndex.Builder builder = seedBuilder();
+            int apps = readAppList(in, builder);
+            catalogIndex = builder.build();
+            logger.info("Indexed {} Steam apps from {} in {} ms", apps, path,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            logger.error("Failed to load Steam catalog snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Streams a GetAppList document ({@code {"applist":{"apps":[{"appid":..,"name":..}]}}}, or the
+     * newer {@code response.apps} shape) into the builder without materializing the tree.
+     *
+     * @return the number of apps read
+     */
+    static int readAppList(InputStream in, SteamAppIndex.Builder builder) throws IOException {
+        int count = 0;
+        try (JsonParser parser = new JsonFactory().createParser(in)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.FIELD_NAME || !"apps".equals(parser.currentName())) {
+                    continue;
+                }
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    long appId = -1;
+                    String name = null;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = parser.currentName();
+                        parser.nextToken();
+                        if ("appid".equals(field)) {
+                            appId = parser.getValueAsLong(-1);
+                        } else if ("name".equals(field)) {
+                            name = parser.getValueAsString();
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    if (appId > 0 && name != null && !name.isBlank()) {
+                        builder.add(appId, name.trim());
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Tracked games first, then catalog matches, at most {@code limit} distinct apps.
+     */
+    public List<SteamApiService.GameInfo> search(String query, int limit) {
+        Map<Long, SteamApiService.GameInfo> results = new LinkedHashMap<>();
+        for (SteamApiService.GameInfo game : trackedIndex.search(query, limit)) {
+            results.put(game.getAppId(), game);
+        }
+        if (results.size() < limit) {
+            for (SteamApiService.GameInfo game : catalogIndex.search(query, limit)) {
+                results.putIfAbsent(game.getAppId(), game);
+                if (results.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return new ArrayList<>(results.values());
+    }
+
+    public void registerTrackedGame(Long appId, String name) {
+        trackedNames.put(appId, name);
+        rebuildTrackedIndex();
+    }
+
+    public void unregisterTrackedGame(Long appId) {
+        if (trackedNames.remove(appId) != null) {
+            rebuildTrackedIndex();
+        }
+    }
+
+    public int size() {
+        return catalogIndex.size();
+    }
+
+    private synchronized void rebuildTrackedIndex() {
+        SteamAppIndex.Builder builder = SteamAppIndex.builder();
+        for (Map.Entry<Long, String> entry : new HashMap<>(trackedNames).entrySet()) {
+            builder.add(entry.getKey(), entry.getValue());
+        }
+        trackedIndex = builder.build();
+    }
+
+    private static SteamAppIndex.Builder seedBuilder() {
+        SteamAppIndex.Builder builder = SteamAppIndex.builder();
+        for (Map.Entry<String, SteamApiService.GameInfo> entry : POPULAR_GAMES.entrySet()) {
+            SteamApiService.GameInfo game = entry.getValue();
+            builder.add(game.getAppId(), game.getName(), entry.getKey(), POPULAR_BOOST);
+            builder.add(game.getAppId(), game.getName(), game.getName(), POPULAR_BOOST);
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,397 @@
+package com.steamtracker.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Immutable search index over Steam app names.
+ * Names are split into terms; each distinct term keeps a posting list of the names using it.
+ * A query term matches dictionary terms exactly, by prefix (last query term only, as the user
+ * is still typing) or by trigram similarity (typos). Candidates come from the query term with
+ * the fewest postings and are verified against the other terms. Documents are numbered in
+ * static-rank order and at most {@code SCAN_BUDGET} candidates are verified, so query cost
+ * is bounded regardless of catalog size.
+ */
+public class SteamAppIndex {
+
+    private static final int MAX_PREFIX_TERMS = 512;
+    private static final int SCAN_BUDGET = 1024;
+    private static final int MAX_FUZZY_TERMS = 32;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final double MIN_FUZZY_SIMILARITY = 0.35;
+    // Short words share few trigrams, a single typo removes most of them
+    private static final double MIN_FUZZY_SIMILARITY_SHORT = 0.25;
+    private static final double PREFIX_WEIGHT = 0.9;
+    private static final int[] EMPTY = new int[0];
+
+    private final long[] appIds;
+    private final String[] displayNames;
+    private final String[] keys;
+    private final int[] boosts;
+    private final int[][] docTerms;
+
+    // Sorted distinct terms, their posting lists, and a trigram index over the terms themselves
+    private final String[] terms;
+    private final int[][] termDocs;
+    private final int[] termTrigramCounts;
+    private final Map<Long, int[]> termTrigrams;
+
+    private SteamAppIndex(Builder builder) {
+        int size = builder.size;
+
+        // Document ids follow static rank (boost, then shorter names), so every posting list
+        // is also ordered best-first and a query can stop after its scan budget
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingInt(i -> -builder.boosts[i])
+                .thenComparingInt(i -> builder.keys[i].length())
+                .thenComparingLong(i -> builder.appIds[i]));
+        this.appIds = new long[size];
+        this.displayNames = new String[size];
+        this.keys = new String[size];
+        this.boosts = new int[size];
+        for (int doc = 0; doc < size; doc++) {
+            int source = order[doc];
+            appIds[doc] = builder.appIds[source];
+            displayNames[doc] = builder.displayNames[source];
+            keys[doc] = builder.keys[source];
+            boosts[doc] = builder.boosts[source];
+        }
+
+        TreeMap<String, IntList> dictionary = new TreeMap<>();
+        for (int doc = 0; doc < size; doc++) {
+            for (String term : keys[doc].split(" ")) {
+                IntList docs = dictionary.computeIfAbsent(term, t -> new IntList());
+                if (docs.size == 0 || docs.values[docs.size - 1] != doc) {
+                    docs.add(doc);
+                }
+            }
+        }
+
+        this.terms = dictionary.keySet().toArray(new String[0]);
+        this.termDocs = new int[terms.length][];
+        this.termTrigramCounts = new int[terms.length];
+        Map<String, Integer> termIds = new HashMap<>(terms.length * 2);
+        Map<Long, IntList> trigramLists = new HashMap<>();
+        int termId = 0;
+        for (Map.Entry<String, IntList> entry : dictionary.entrySet()) {
+            termIds.put(entry.getKey(), termId);
+            termDocs[termId] = entry.getValue().toArray();
+            long[] trigrams = trigrams(entry.getKey());
+            termTrigramCounts[termId] = trigrams.length;
+            for (long trigram : trigrams) {
+                trigramLists.computeIfAbsent(trigram, t -> new IntList()).add(termId);
+            }
+            termId++;
+        }
+
+        this.termTrigrams = new HashMap<>(trigramLists.size() * 2);
+        for (Map.Entry<Long, IntList> entry : trigramLists.entrySet()) {
+            termTrigrams.put(entry.getKey(), entry.getValue().toArray());
+        }
+
+        this.docTerms = new int[size][];
+        for (int doc = 0; doc < size; doc++) {
+            String[] split = keys[doc].split(" ");
+            docTerms[doc] = new int[split.length];
+            for (int i = 0; i < split.length; i++) {
+                docTerms[doc][i] = termIds.get(split[i]);
+            }
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return appIds.length;
+    }
+
+    /**
+     * Returns up to {@code limit} apps ranked by how well their name matches {@code query}.
+     */
+    public List<SteamApiService.GameInfo> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0 || appIds.length == 0) {
+            return List.of();
+        }
+
+        String[] queryTerms = q.split(" ");
+        List<Map<Integer, Double>> matches = new ArrayList<>(queryTerms.length);
+        int generator = -1;
+        long generatorCost = Long.MAX_VALUE;
+        for (int i = 0; i < queryTerms.length; i++) {
+            Map<Integer, Double> termMatches = matchTerms(queryTerms[i], i == queryTerms.length - 1);
+            matches.add(termMatches);
+            if (termMatches.isEmpty()) {
+                continue;
+            }
+            long cost = 0;
+            for (int term : termMatches.keySet()) {
+                cost += termDocs[term].length;
+            }
+            if (cost < generatorCost) {
+                generatorCost = cost;
+                generator = i;
+            }
+        }
+        if (generator < 0) {
+            return List.of();
+        }
+        // Longer queries may leave one term unmatched, e.g. a badly mistyped word
+        int allowedMisses = queryTerms.length >= 3 ? 1 : 0;
+
+        // Keep the best limit + a few documents; aliases may collapse several onto one app
+        int keep = limit + 8;
+        PriorityQueue<long[]> best = new PriorityQueue<>(keep + 1, this::compareWorstFirst);
+
+        // Merge the generator's posting lists in document (= static rank) order
+        PriorityQueue<int[]> cursors = new PriorityQueue<>(Comparator.comparingInt(c -> termDocs[c[0]][c[1]]));
+        for (int term : matches.get(generator).keySet()) {
+            cursors.add(new int[]{term, 0});
+        }
+        int scanned = 0;
+        int lastDoc = -1;
+        while (!cursors.isEmpty() && scanned < SCAN_BUDGET) {
+            int[] cursor = cursors.poll();
+            int doc = termDocs[cursor[0]][cursor[1]];
+            if (++cursor[1] < termDocs[cursor[0]].length) {
+                cursors.add(cursor);
+            }
+            if (doc == lastDoc) {
+                continue;
+            }
+            lastDoc = doc;
+            scanned++;
+
+            double weight = 0;
+            int misses = 0;
+            for (int i = 0; i < matches.size() && misses <= allowedMisses; i++) {
+                double termWeight = bestWeight(doc, matches.get(i));
+                if (termWeight == 0) {
+                    misses++;
+                }
+                weight += termWeight;
+            }
+            if (misses > allowedMisses) {
+                continue;
+            }
+
+            int score = (int) (weight / queryTerms.length * 500) + boosts[doc];
+            if (keys[doc].equals(q)) {
+                score += 500;
+            } else if (keys[doc].startsWith(q)) {
+                score += 300;
+            }
+            best.add(new long[]{score, doc});
+            if (best.size() > keep) {
+                best.poll();
+            }
+        }
+
+        List<long[]> ranked = new ArrayList<>(best);
+        ranked.sort((a, b) -> compareWorstFirst(b, a));
+        Map<Long, SteamApiService.GameInfo> results = new LinkedHashMap<>();
+        for (long[] entry : ranked) {
+            int doc = (int) entry[1];
+            results.putIfAbsent(appIds[doc], new SteamApiService.GameInfo(appIds[doc], displayNames[doc]));
+            if (results.size() >= limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(results.values());
+    }
+
+    // Lower score first; on equal score the later document (lower static rank) counts as worse
+    private int compareWorstFirst(long[] a, long[] b) {
+        int byScore = Long.compare(a[0], b[0]);
+        return byScore != 0 ? byScore : Long.compare(b[1], a[1]);
+    }
+
+    private double bestWeight(int doc, Map<Integer, Double> termMatches) {
+        double best = 0;
+        for (int term : docTerms[doc]) {
+            Double weight = termMatches.get(term);
+            if (weight != null && weight > best) {
+                best = weight;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Dictionary terms a query term may stand for, with a weight in (0, 1].
+     */
+    private Map<Integer, Double> matchTerms(String queryTerm, boolean allowPrefix) {
+        Map<Integer, Double> result = new HashMap<>();
+        int from = lowerBound(queryTerm);
+        if (from < terms.length && terms[from].equals(queryTerm)) {
+            result.put(from, 1.0);
+        }
+        if (allowPrefix) {
+            for (int i = from; i < terms.length && i - from < MAX_PREFIX_TERMS
+                    && terms[i].startsWith(queryTerm); i++) {
+                result.putIfAbsent(i, PREFIX_WEIGHT);
+            }
+        }
+        if (queryTerm.length() >= MIN_FUZZY_LENGTH) {
+            fuzzyTerms(queryTerm, result);
+        }
+        return result;
+    }
+
+    private void fuzzyTerms(String queryTerm, Map<Integer, Double> result) {
+        long[] queryTrigrams = trigrams(queryTerm);
+        double minSimilarity = queryTerm.length() <= 5 ? MIN_FUZZY_SIMILARITY_SHORT : MIN_FUZZY_SIMILARITY;
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (long trigram : queryTrigrams) {
+            for (int term : termTrigrams.getOrDefault(trigram, EMPTY)) {
+                shared.merge(term, 1, Integer::sum);
+            }
+        }
+
+        PriorityQueue<double[]> best = new PriorityQueue<>(Comparator.comparingDouble(entry -> entry[0]));
+        for (Map.Entry<Integer, Integer> entry : shared.entrySet()) {
+            int term = entry.getKey();
+            int common = entry.getValue();
+            double similarity = (double) common / (queryTrigrams.length + termTrigramCounts[term] - common);
+            if (similarity >= minSimilarity) {
+                best.add(new double[]{similarity, term});
+                if (best.size() > MAX_FUZZY_TERMS) {
+                    best.poll();
+                }
+            }
+        }
+        for (double[] entry : best) {
+            // A fuzzy match never outranks an exact or prefix match of the same term
+            result.merge((int) entry[1], entry[0] * PREFIX_WEIGHT, Math::max);
+        }
+    }
+
+    private int lowerBound(String term) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(term) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Lower-cases, strips accents and apostrophes and collapses other punctuation to single spaces.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK || c == '\'' || c == '’') {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                pendingSpace = false;
+                sb.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    // Distinct trigrams of the space-padded term, three 16-bit chars packed into a long
+    private static long[] trigrams(String term) {
+        String padded = " " + term + " ";
+        long[] result = new long[padded.length() - 2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        Arrays.sort(result);
+        int unique = 0;
+        for (int i = 0; i < result.length; i++) {
+            if (i == 0 || result[i] != result[i - 1]) {
+                result[unique++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, unique);
+    }
+
+    public static class Builder {
+        private long[] appIds = new long[1024];
+        private String[] displayNames = new String[1024];
+        private String[] keys = new String[1024];
+        private int[] boosts = new int[1024];
+        private int size;
+
+        /**
+         * Adds a searchable name for an app. The same app may be added under several aliases.
+         *
+         * @param boost added to the match score, used to rank well-known games first
+         */
+        public Builder add(long appId, String displayName, String searchName, int boost) {
+            String key = normalize(searchName);
+            if (key.isEmpty()) {
+                return this;
+            }
+            if (size == appIds.length) {
+                int capacity = size * 2;
+                appIds = Arrays.copyOf(appIds, capacity);
+                displayNames = Arrays.copyOf(displayNames, capacity);
+                keys = Arrays.copyOf(keys, capacity);
+                boosts = Arrays.copyOf(boosts, capacity);
+            }
+            appIds[size] = appId;
+            displayNames[size] = displayName;
+            keys[size] = key;
+            boosts[size] = boost;
+            size++;
+            return this;
+        }
+
+        public Builder add(long appId, String name) {
+            return add(appId, name, name, 0);
+        }
+
+        public SteamAppIndex build() {
+            return new SteamAppIndex(this);
+        }
+    }
+
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.steamtracker.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Shared, non-blocking HTTP client for the Steam Web API.
+ * One pooled {@link HttpClient} (HTTP/2 with keep-alive fallback) serves every call. Each
+ * request is rate limited, bounded by connect and request timeouts, retried with jittered
+ * exponential backoff on transport errors, 429 and 5xx, and guarded by a circuit breaker
+ * per endpoint so an unhealthy endpoint fails fast instead of stalling callers.
+ * <p>
+ * Metrics: {@code steam.api.requests} times every HTTP attempt by endpoint and outcome,
+ * {@code steam.api.calls} counts finished calls (after retries) by endpoint and result, and
+ * {@code steam.api.circuit.open} is 1 while an endpoint's circuit rejects calls.
+ */
+@Component
+public class SteamHttpClient {
+    private static final Logger logger = LoggerFactory.getLogger(SteamHttpClient.class);
+
+    private final SteamRateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final int maxRetries;
+    private final long backoffBaseMillis;
+    private final long backoffMaxMillis;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public SteamHttpClient(SteamRateLimiter rateLimiter,
+                           MeterRegistry meterRegistry,
+                           @Value("${steam.api.http.connect-timeout-ms:2000}") long connectTimeoutMillis,
+                           @Value("${steam.api.http.request-timeout-ms:5000}") long requestTimeoutMillis,
+                           @Value("${steam.api.http.max-retries:2}") int maxRetries,
+                           @Value("${steam.api.http.backoff-base-ms:200}") long backoffBaseMillis,
+                           @Value("${steam.api.http.backoff-max-ms:2000}") long backoffMaxMillis,
+                           @Value("${steam.api.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                           @Value("${steam.api.circuit-breaker.open-seconds:30}") long openSeconds) {
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.maxRetries = maxRetries;
+        this.backoffBaseMillis = backoffBaseMillis;
+        this.backoffMaxMillis = backoffMaxMillis;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = TimeUnit.SECONDS.toMillis(openSeconds);
+    }
+
+    /**
+     * Fetches {@code url} and completes with the response body of a 200 response.
+     * Fails with {@link SteamApiException} once retries are exhausted, on a non-retryable
+     * status, or immediately while the endpoint's circuit is open.
+     *
+     * @param endpoint name of the API method, used to pick the circuit breaker
+     */
+    public CompletableFuture<String> getAsync(String endpoint, String url) {
+        return attempt(endpoint, URI.create(url), 0).whenComplete((body, error) ->
+                Counter.builder("steam.api.calls")
+                        .description("Steam API calls by final result, after retries")
+                        .tag("endpoint", endpoint)
+                        .tag("result", error == null ? "success" : "failure")
+                        .register(meterRegistry)
+                        .increment());
+    }
+
+    public CircuitBreaker.State getCircuitState(String endpoint) {
+        return breakerFor(endpoint).getState();
+    }
+
+    private CompletableFuture<String> attempt(String endpoint, URI uri, int attempt) {
+        CircuitBreaker breaker = breakerFor(endpoint);
+        if (!breaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new SteamApiException("Circuit open for " + endpoint));
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(requestTimeout).GET().build();
+        return delay(rateLimiter.reserve(), TimeUnit.NANOSECONDS)
+                .thenCompose(ignored -> {
+                    // Timed from the send, so rate limiter waits are not counted as Steam latency
+                    Timer.Sample sample = Timer.start(meterRegistry);
+                    return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                            .whenComplete((response, error) -> sample.stop(requestTimer(endpoint, response, error)));
+                })
+                .handle((response, error) -> {
+                    if (error == null && response.statusCode() == 200) {
+                        breaker.onSuccess();
+                        return CompletableFuture.completedFuture(response.body());
+                    }
+
+                    int status = error == null ? response.statusCode() : -1;
+                    boolean retryable = error != null || status == 429 || status >= 500;
+                    if (!retryable) {
+                        // The endpoint answered, so it is healthy even if this request was rejected
+                        breaker.onSuccess();
+                        return CompletableFuture.<String>failedFuture(
+                                new SteamApiException(endpoint + " returned HTTP " + status));
+                    }
+
+                    breaker.onFailure();
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    SteamApiException failure = cause != null
+                            ? new SteamApiException(endpoint + " request failed: " + cause, cause)
+                            : new SteamApiException(endpoint + " returned HTTP " + status);
+                    if (attempt >= maxRetries) {
+                        return CompletableFuture.<String>failedFuture(failure);
+                    }
+
+                    long backoff = backoffMillis(attempt);
+                    logger.debug("{} attempt {} failed ({}), retrying in {} ms",
+                            endpoint, attempt + 1, failure.getMessage(), backoff);
+                    return delay(backoff, TimeUnit.MILLISECONDS)
+                            .thenCompose(ignored -> attempt(endpoint, uri, attempt + 1));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    // "Full jitter": uniform in [0, min(max, base * 2^attempt)]
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(backoffMaxMillis, backoffBaseMillis << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static CompletableFuture<Void> delay(long amount, TimeUnit unit) {
+        if (amount <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(amount, unit));
+    }
+
+    private Timer requestTimer(String endpoint, HttpResponse<String> response, Throwable error) {
+        String outcome;
+        if (error != null) {
+            outcome = "ERROR";
+        } else if (response.statusCode() >= 500) {
+            outcome = "SERVER_ERROR";
+        } else if (response.statusCode() >= 400) {
+            outcome = "CLIENT_ERROR";
+        } else {
+            outcome = "SUCCESS";
+        }
+        return Timer.builder("steam.api.requests")
+                .description("Latency of single Steam API HTTP attempts")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private CircuitBreaker breakerFor(String endpoint) {
+        return breakers.computeIfAbsent(endpoint, name -> {
+            CircuitBreaker breaker = new CircuitBreaker(name, failureThreshold, openMillis);
+            Gauge.builder("steam.api.circuit.open", breaker, b -> b.getState() == CircuitBreaker.State.OPEN ? 1 : 0)
+                    .description("1 while calls to the endpoint are rejected by its circuit breaker")
+                    .tag("endpoint", name)
+                    .register(meterRegistry);
+            return breaker;
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package com.steamtracker.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket shared by every outgoing Steam API call.
+ * Tokens refill continuously at {@code permitsPerSecond} up to {@code burst}.
+ */
+@Component
+public class SteamRateLimiter {
+    private final double permitsPerSecond;
+    private final double burst;
+    private final LongSupplier nanoClock;
+
+    private double availableTokens;
+    private long lastRefillNanos;
+
+    @Autowired
+    public SteamRateLimiter(@Value("${steam.api.rate-limit.permits-per-second:20}") double permitsPerSecond,
+                            @Value("${steam.api.rate-limit.burst:20}") int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    SteamRateLimiter(double permitsPerSecond, int burst, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate limit and burst must be positive");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.nanoClock = nanoClock;
+        this.availableTokens = burst;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes a token now, borrowing against future refills if the bucket is empty.
+     *
+     * @return how long the caller must wait before using the token, in nanoseconds
+     */
+    public synchronized long reserve() {
+        refill();
+        availableTokens -= 1;
+        if (availableTokens >= 0) {
+            return 0;
+        }
+        return (long) (-availableTokens / permitsPerSecond * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        double elapsedSeconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        availableTokens = Math.min(burst, availableTokens + elapsedSeconds * permitsPerSecond);
+        lastRefillNanos = now;
+    }
+}
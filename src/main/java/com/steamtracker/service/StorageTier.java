@@ -0,0 +1,37 @@
+package com.steamtracker.service;
+
+/**
+ * Storage tiers for player count history, finest first.
+ */
+public enum StorageTier {
+    RAW("player_counts", null, 0),
+    HOURLY("player_counts_hourly", "hour", 3_600),
+    DAILY("player_counts_daily", "day", 86_400);
+
+    private final String tableName;
+    private final String truncateUnit;
+    private final long resolutionSeconds;
+
+    StorageTier(String tableName, String truncateUnit, long resolutionSeconds) {
+        this.tableName = tableName;
+        this.truncateUnit = truncateUnit;
+        this.resolutionSeconds = resolutionSeconds;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    // date_trunc() unit for rollup tiers, null for raw samples
+    public String getTruncateUnit() {
+        return truncateUnit;
+    }
+
+    public long getResolutionSeconds() {
+        return resolutionSeconds;
+    }
+
+    public boolean isRollup() {
+        return truncateUnit != null;
+    }
+}
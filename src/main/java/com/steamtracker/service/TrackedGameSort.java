@@ -0,0 +1,53 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.TrackedGame;
+
+import java.util.Comparator;
+
+import static java.util.Comparator.comparing;
+import static java.util.Comparator.naturalOrder;
+import static java.util.Comparator.nullsLast;
+import static java.util.Comparator.reverseOrder;
+
+/**
+ * Sort keys of the tracked games list. Games without a value sort last in either direction.
+ */
+public enum TrackedGameSort {
+    NAME(comparing(TrackedGame::getName, String.CASE_INSENSITIVE_ORDER),
+            comparing(TrackedGame::getName, String.CASE_INSENSITIVE_ORDER.reversed())),
+    LAST_UPDATED(comparing(TrackedGame::getLastUpdated, nullsLast(naturalOrder())),
+            comparing(TrackedGame::getLastUpdated, nullsLast(reverseOrder()))),
+    CURRENT_PLAYERS(comparing(TrackedGame::getCurrentPlayers, nullsLast(naturalOrder())),
+            comparing(TrackedGame::getCurrentPlayers, nullsLast(reverseOrder())));
+
+    private final Comparator<TrackedGame> ascending;
+    private final Comparator<TrackedGame> descending;
+
+    TrackedGameSort(Comparator<TrackedGame> ascending, Comparator<TrackedGame> descending) {
+        this.ascending = ascending;
+        this.descending = descending;
+    }
+
+    /**
+     * Order for one direction; ties are broken by app ID so pages never overlap.
+     */
+    public Comparator<TrackedGame> comparator(boolean descendingOrder) {
+        return (descendingOrder ? descending : ascending).thenComparing(TrackedGame::getAppId);
+    }
+
+    /**
+     * Accepts the enum name or its camel-case form, e.g. {@code lastUpdated}.
+     */
+    public static TrackedGameSort fromParameter(String value) {
+        if (value == null || value.isBlank()) {
+            return NAME;
+        }
+        String normalized = value.trim().replace("_", "").toUpperCase();
+        for (TrackedGameSort sort : values()) {
+            if (sort.name().replace("_", "").equals(normalized)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unknown sort key: " + value);
+    }
+}
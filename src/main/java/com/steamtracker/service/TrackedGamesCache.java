@@ -0,0 +1,192 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.PlayerCountSample;
+import com.steamtracker.dto.TrackedGame;
+import com.steamtracker.dto.TrackedGamesPage;
+import com.steamtracker.entity.Game;
+import com.steamtracker.repository.GameRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Snapshot of the tracked games list behind {@code /api/games/tracked}.
+ * <p>
+ * The games are kept in memory and changed by tracking, untracking and recorded samples; each
+ * change to an entry bumps a version and drops the snapshot, which the next request rebuilds without
+ * touching the database. Calls that change nothing keep the version, so clients keep getting 304s.
+ * {@link #invalidate()} makes that rebuild reload from the games table instead; changes made through
+ * another instance are found by {@link #reloadIfStale}. The version, prefixed with an ID unique to this process,
+ * is the ETag of every page of a snapshot. It is weak ({@code W/}) because Tomcat only gzips
+ * responses without a strong ETag; {@code If-None-Match} compares weakly anyway.
+ */
+@Service
+public class TrackedGamesCache {
+
+    private final String bootId = UUID.randomUUID().toString().substring(0, 8);
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    private final Map<Long, TrackedGame> games = new HashMap<>();
+    private boolean reloadNeeded = true;
+    private long version;
+    private volatile Snapshot snapshot;
+
+    public synchronized void track(Game game) {
+        if (!reloadNeeded) {
+            games.put(game.getAppId(), new TrackedGame(game.getAppId(), game.getName(), game.getCreatedAt(),
+                    game.getLastUpdated(), game.getSampleIntervalSeconds(), null));
+        }
+        changed();
+    }
+
+    public synchronized void untrack(Long appId) {
+        if (games.remove(appId) != null) {
+            changed();
+        }
+    }
+
+    public synchronized void setSampleInterval(Long appId, Integer seconds) {
+        TrackedGame game = games.get(appId);
+        if (game != null && !Objects.equals(game.getSampleIntervalSeconds(), seconds)) {
+            games.put(appId, copy(game, game.getLastUpdated(), seconds, game.getCurrentPlayers()));
+            changed();
+        }
+    }
+
+    /**
+     * Applies a finished collection batch: at most one new snapshot per batch, not per sample.
+     */
+    public synchronized void record(List<PlayerCountSample> samples) {
+        boolean changed = false;
+        for (PlayerCountSample sample : samples) {
+            TrackedGame game = games.get(sample.getAppId());
+            if (game == null || sample.getPlayerCount() == null) {
+                continue;
+            }
+            LocalDateTime lastUpdated = game.getLastUpdated();
+            if (lastUpdated == null || sample.getRecordedAt().isAfter(lastUpdated)
+                    || (sample.getRecordedAt().equals(lastUpdated)
+                    && !sample.getPlayerCount().equals(game.getCurrentPlayers()))) {
+                games.put(game.getAppId(), copy(game, sample.getRecordedAt(), game.getSampleIntervalSeconds(),
+                        sample.getPlayerCount()));
+                changed = true;
+            }
+        }
+        if (changed) {
+            changed();
+        }
+    }
+
+    /**
+     * Reloads on the next request if the games table, as read by the caller, holds anything this
+     * list has not seen: other tracked games, other sampling intervals or later samples. Samples this
+     * instance recorded reach the table after the list, so they never count as later.
+     */
+    public synchronized void reloadIfStale(Map<Long, Integer> intervals, Map<Long, LocalDateTime> lastUpdated) {
+        if (!reloadNeeded && isStale(intervals, lastUpdated)) {
+            invalidate();
+        }
+    }
+
+    private boolean isStale(Map<Long, Integer> intervals, Map<Long, LocalDateTime> lastUpdated) {
+        if (!games.keySet().equals(intervals.keySet())) {
+            return true;
+        }
+        for (TrackedGame game : games.values()) {
+            LocalDateTime stored = lastUpdated.get(game.getAppId());
+            // The table rounds to microseconds, possibly up
+            if (!Objects.equals(game.getSampleIntervalSeconds(), intervals.get(game.getAppId()))
+                    || (stored != null && (game.getLastUpdated() == null
+                    || stored.isAfter(game.getLastUpdated().plus(1, ChronoUnit.MICROS))))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reloads the games from the database on the next request.
+     */
+    public synchronized void invalidate() {
+        reloadNeeded = true;
+        changed();
+    }
+
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    private synchronized Snapshot rebuild() {
+        if (snapshot != null) {
+            return snapshot;
+        }
+        if (reloadNeeded) {
+            games.clear();
+            for (Game game : gameRepository.findAllTracked()) {
+                games.put(game.getAppId(), new TrackedGame(game.getAppId(), game.getName(), game.getCreatedAt(),
+                        game.getLastUpdated(), game.getSampleIntervalSeconds(),
+                        leaderboardService.getCurrentPlayers(game.getAppId())));
+            }
+            reloadNeeded = false;
+        }
+        // Entries are replaced, never mutated, so the snapshot can share them
+        snapshot = new Snapshot("W/\"" + bootId + "-" + version + '"', List.copyOf(games.values()));
+        return snapshot;
+    }
+
+    private void changed() {
+        version++;
+        snapshot = null;
+    }
+
+    private static TrackedGame copy(TrackedGame game, LocalDateTime lastUpdated, Integer sampleIntervalSeconds,
+                                    Integer currentPlayers) {
+        return new TrackedGame(game.getAppId(), game.getName(), game.getCreatedAt(), lastUpdated,
+                sampleIntervalSeconds, currentPlayers);
+    }
+
+    /**
+     * One immutable version of the list; each sort order is computed once, on first use.
+     */
+    public static final class Snapshot {
+        private final String etag;
+        private final List<TrackedGame> games;
+        private final Map<String, List<TrackedGame>> sorted = new ConcurrentHashMap<>();
+
+        private Snapshot(String etag, List<TrackedGame> games) {
+            this.etag = etag;
+            this.games = games;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public TrackedGamesPage getPage(TrackedGameSort sort, boolean descending, int page, int size) {
+            List<TrackedGame> ordered = sorted.computeIfAbsent(sort.name() + descending, key -> {
+                List<TrackedGame> list = new ArrayList<>(games);
+                list.sort(sort.comparator(descending));
+                return list;
+            });
+            int from = (int) Math.min((long) page * size, ordered.size());
+            int to = Math.min(from + size, ordered.size());
+            int totalPages = (ordered.size() + size - 1) / size;
+            return new TrackedGamesPage(ordered.subList(from, to), page, size, ordered.size(), totalPages);
+        }
+    }
+}
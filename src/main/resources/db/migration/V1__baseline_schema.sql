@@ -0,0 +1,49 @@
+-- Schema as previously created by Hibernate (ddl-auto: update). Every statement is idempotent so
+-- databases created that way are brought under Flyway without changes.
+
+CREATE TABLE IF NOT EXISTS games (
+    app_id bigint NOT NULL PRIMARY KEY,
+    name varchar(255) NOT NULL,
+    created_at timestamp(6),
+    last_updated timestamp(6)
+);
+
+ALTER TABLE games ADD COLUMN IF NOT EXISTS sample_interval_seconds integer;
+
+CREATE TABLE IF NOT EXISTS player_counts_hourly (
+    app_id bigint NOT NULL,
+    bucket_start timestamp(6) NOT NULL,
+    min_count integer NOT NULL,
+    max_count integer NOT NULL,
+    sum_count bigint NOT NULL,
+    sample_count integer NOT NULL,
+    last_count integer NOT NULL,
+    last_recorded_at timestamp(6) NOT NULL,
+    PRIMARY KEY (app_id, bucket_start)
+);
+
+CREATE TABLE IF NOT EXISTS player_counts_daily (
+    app_id bigint NOT NULL,
+    bucket_start timestamp(6) NOT NULL,
+    min_count integer NOT NULL,
+    max_count integer NOT NULL,
+    sum_count bigint NOT NULL,
+    sample_count integer NOT NULL,
+    last_count integer NOT NULL,
+    last_recorded_at timestamp(6) NOT NULL,
+    PRIMARY KEY (app_id, bucket_start)
+);
+
+CREATE TABLE IF NOT EXISTS player_count_blocks (
+    app_id bigint NOT NULL,
+    block_start timestamp(6) NOT NULL,
+    first_recorded_at timestamp(6) NOT NULL,
+    last_recorded_at timestamp(6) NOT NULL,
+    sample_count integer NOT NULL,
+    min_count integer NOT NULL,
+    max_count integer NOT NULL,
+    data bytea NOT NULL,
+    PRIMARY KEY (app_id, block_start)
+);
+
+CREATE INDEX IF NOT EXISTS idx_player_count_blocks_last_recorded_at ON player_count_blocks (last_recorded_at);
@@ -0,0 +1,47 @@
+-- Range-partitions player_counts by month of recorded_at. Monthly partitions are named
+-- player_counts_yYYYYmMM and created ahead of time by PartitionMaintenanceService; rows outside
+-- every partition (e.g. imports of old data) land in player_counts_default.
+-- An existing heap table is copied into the new layout, keeping ids.
+
+DO $$
+DECLARE
+    first_month date := date_trunc('month', now())::date;
+    last_month date := (date_trunc('month', now()) + interval '2 months')::date;
+    partition_month date;
+BEGIN
+    IF to_regclass('player_counts') IS NOT NULL THEN
+        ALTER TABLE player_counts RENAME TO player_counts_legacy;
+        SELECT least(first_month, coalesce(date_trunc('month', min(recorded_at))::date, first_month))
+        INTO first_month FROM player_counts_legacy;
+    END IF;
+
+    CREATE TABLE player_counts (
+        id bigint GENERATED BY DEFAULT AS IDENTITY,
+        app_id bigint NOT NULL REFERENCES games (app_id),
+        player_count integer NOT NULL,
+        recorded_at timestamp(6) NOT NULL,
+        CONSTRAINT pk_player_counts PRIMARY KEY (id, recorded_at)
+    ) PARTITION BY RANGE (recorded_at);
+
+    CREATE TABLE player_counts_default PARTITION OF player_counts DEFAULT;
+
+    partition_month := first_month;
+    WHILE partition_month <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF player_counts FOR VALUES FROM (%L) TO (%L)',
+                       'player_counts_' || to_char(partition_month, '"y"YYYY"m"MM'),
+                       partition_month, (partition_month + interval '1 month')::date);
+        partition_month := (partition_month + interval '1 month')::date;
+    END LOOP;
+
+    IF to_regclass('player_counts_legacy') IS NOT NULL THEN
+        INSERT INTO player_counts (id, app_id, player_count, recorded_at)
+        SELECT id, app_id, player_count, recorded_at FROM player_counts_legacy;
+        PERFORM setval(pg_get_serial_sequence('player_counts', 'id'),
+                       coalesce((SELECT max(id) FROM player_counts), 0) + 1, false);
+        DROP TABLE player_counts_legacy;
+    END IF;
+END $$;
+
+-- History reads filter on both columns; the recorded_at index serves block sealing
+CREATE INDEX idx_player_counts_app_id_recorded_at ON player_counts (app_id, recorded_at);
+CREATE INDEX idx_player_counts_recorded_at ON player_counts (recorded_at);
@@ -0,0 +1,2 @@
+-- Set when a game is untracked; the row is deleted once the purge job has removed its history
+ALTER TABLE games ADD COLUMN IF NOT EXISTS untracked_at timestamp(6);
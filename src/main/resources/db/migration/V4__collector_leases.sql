@@ -0,0 +1,11 @@
+-- Cluster-aware collection: live instances and their leases on shards of the tracked games
+CREATE TABLE collector_instances (
+    instance_id varchar(100) PRIMARY KEY,
+    heartbeat_at timestamptz NOT NULL
+);
+
+CREATE TABLE collector_shards (
+    shard_id integer PRIMARY KEY,
+    owner_id varchar(100),
+    lease_until timestamptz
+);
@@ -0,0 +1,2 @@
+-- Lets the leaderboard read the current hour's buckets (and retention find old ones) without a full scan
+CREATE INDEX IF NOT EXISTS idx_player_counts_hourly_bucket_start ON player_counts_hourly (bucket_start);
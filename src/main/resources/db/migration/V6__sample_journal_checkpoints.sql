@@ -0,0 +1,6 @@
+-- How far each instance's local sample journal has been flushed, updated with the flushed samples
+CREATE TABLE sample_journal_checkpoints (
+    journal_id varchar(36) PRIMARY KEY,
+    flushed_sequence bigint NOT NULL,
+    updated_at timestamptz NOT NULL DEFAULT now()
+);
@@ -0,0 +1,8 @@
+-- Checkpoints of the in-memory running statistics of each game (see RunningStats)
+CREATE TABLE game_stats (
+    app_id bigint PRIMARY KEY REFERENCES games (app_id) ON DELETE CASCADE,
+    state bytea NOT NULL,
+    updated_at timestamptz NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_game_stats_updated_at ON game_stats (updated_at);
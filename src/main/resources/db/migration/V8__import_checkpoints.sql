@@ -0,0 +1,6 @@
+-- How far each bulk import has been loaded: every record before records_done is in the database
+CREATE TABLE import_checkpoints (
+    import_id varchar(255) PRIMARY KEY,
+    records_done bigint NOT NULL,
+    updated_at timestamptz NOT NULL DEFAULT now()
+);
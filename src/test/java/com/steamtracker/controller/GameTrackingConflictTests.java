@@ -0,0 +1,39 @@
+package com.steamtracker.controller;
+
+import com.steamtracker.service.GameService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GameTrackingConflictTests {
+
+    private final GameController controller = new GameController();
+
+    GameTrackingConflictTests() {
+        ReflectionTestUtils.setField(controller, "gameService", new GameService() {
+            @Override
+            public void startTrackingGame(Long appId, String gameName) {
+                throw new IllegalStateException("Game is still being untracked, try again later");
+            }
+        });
+    }
+
+    @Test
+    void trackingAGameBeingPurgedIsAConflict() {
+        ResponseEntity<String> response = controller.startTrackingGame(730L, "Counter-Strike 2");
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Game is still being untracked, try again later", response.getBody());
+    }
+
+    @Test
+    void addingAGameBeingPurgedIsAConflict() {
+        ResponseEntity<String> response = controller.addGameById(730L, "Counter-Strike 2");
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Game is still being untracked, try again later", response.getBody());
+    }
+}
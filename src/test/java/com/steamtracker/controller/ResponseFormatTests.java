@@ -0,0 +1,53 @@
+package com.steamtracker.controller;
+
+import com.steamtracker.dto.ColumnarHistory;
+import com.steamtracker.dto.DeltaHistory;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResponseFormatTests {
+
+    @Test
+    void defaultsToJsonObjects() {
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate(null));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("*/*"));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("application/json, text/plain, */*"));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("text/html"));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("not a media type;;"));
+    }
+
+    @Test
+    void picksMostPreferredNamedFormat() {
+        assertEquals(ResponseFormat.CBOR, ResponseFormat.negotiate("application/cbor"));
+        assertEquals(ResponseFormat.COLUMNAR_JSON,
+                ResponseFormat.negotiate("application/vnd.steamtracker.columnar+json, application/json"));
+        assertEquals(ResponseFormat.CBOR,
+                ResponseFormat.negotiate("application/json;q=0.5, application/cbor"));
+        // A wildcard preferred over a named format still means the default
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("*/*, application/cbor;q=0.1"));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("application/cbor;q=0"));
+    }
+
+    @Test
+    void givesEachFormatItsOwnEtag() {
+        assertEquals("\"abc-7\"", ResponseFormat.JSON.etag("\"abc-7\""));
+        assertEquals("\"abc-7-columnar\"", ResponseFormat.COLUMNAR_JSON.etag("\"abc-7\""));
+        assertEquals("\"abc-7-cbor\"", ResponseFormat.CBOR.etag("\"abc-7\""));
+        assertEquals("W/\"abc-7-cbor\"", ResponseFormat.CBOR.etag("W/\"abc-7\""));
+    }
+
+    @Test
+    void deltaEncodingRoundTrips() {
+        ColumnarHistory history = new ColumnarHistory(new long[]{1_700_000_000L, 1_700_000_030L, 1_700_000_090L},
+                new int[]{10, 12, 9});
+
+        DeltaHistory encoded = DeltaHistory.from(history);
+
+        assertEquals(1_700_000_000L, encoded.getStart());
+        assertArrayEquals(new int[]{0, 30, 60}, encoded.getTimestampDeltas());
+        assertArrayEquals(history.getTimestamps(), encoded.toColumnar().getTimestamps());
+        assertArrayEquals(history.getPlayerCounts(), encoded.toColumnar().getPlayerCounts());
+    }
+}
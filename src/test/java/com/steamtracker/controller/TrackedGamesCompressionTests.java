@@ -0,0 +1,105 @@
+package com.steamtracker.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.steamtracker.entity.Game;
+import com.steamtracker.repository.GameRepository;
+import com.steamtracker.service.LeaderboardService;
+import com.steamtracker.service.TrackedGameSort;
+import com.steamtracker.service.TrackedGamesCache;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Serves a tracked games page with its snapshot ETag from Tomcat configured as in application.yml,
+ * since Tomcat decides from the ETag whether a response may be compressed.
+ */
+class TrackedGamesCompressionTests {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private WebServer server;
+
+    @AfterEach
+    void stop() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    void gzipsTrackedGamesPagesThatCarryTheSnapshotEtag() throws Exception {
+        TrackedGamesCache.Snapshot snapshot = snapshot(200);
+        String etag = ResponseFormat.JSON.etag(snapshot.getEtag());
+        byte[] body = objectMapper.writeValueAsBytes(snapshot.getPage(TrackedGameSort.NAME, false, 0, 200));
+        start(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                response.setContentType("application/json");
+                response.setHeader(HttpHeaders.ETAG, etag);
+                response.getOutputStream().write(body);
+            }
+        });
+
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/api/games/tracked"))
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertTrue(body.length > 2048, "page too small to be compressed: " + body.length);
+        assertEquals(etag, response.headers().firstValue(HttpHeaders.ETAG).orElse(null));
+        assertEquals("gzip", response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+        assertTrue(response.body().length < body.length);
+    }
+
+    private void start(HttpServlet servlet) {
+        Compression compression = new Compression();
+        compression.setEnabled(true);
+        compression.setMimeTypes(new String[]{"application/json", "application/vnd.steamtracker.columnar+json",
+                "application/cbor"});
+        compression.setMinResponseSize(DataSize.ofKilobytes(2));
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        factory.setCompression(compression);
+        server = factory.getWebServer(context -> context.addServlet("tracked", servlet).addMapping("/*"));
+        server.start();
+    }
+
+    private static TrackedGamesCache.Snapshot snapshot(int size) {
+        List<Game> games = new ArrayList<>();
+        for (long appId = 1; appId <= size; appId++) {
+            games.add(new Game(appId, "Game " + appId));
+        }
+        GameRepository gameRepository = (GameRepository) Proxy.newProxyInstance(GameRepository.class.getClassLoader(),
+                new Class<?>[]{GameRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findAllTracked")) {
+                        return games;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        TrackedGamesCache cache = new TrackedGamesCache();
+        ReflectionTestUtils.setField(cache, "gameRepository", gameRepository);
+        ReflectionTestUtils.setField(cache, "leaderboardService", new LeaderboardService());
+        return cache.getSnapshot();
+    }
+}
@@ -0,0 +1,93 @@
+package com.steamtracker.controller;
+
+import com.steamtracker.dto.TrackedGamesPage;
+import com.steamtracker.entity.Game;
+import com.steamtracker.repository.GameRepository;
+import com.steamtracker.service.GameService;
+import com.steamtracker.service.LeaderboardService;
+import com.steamtracker.service.TrackedGamesCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TrackedGamesEtagTests {
+
+    private final TrackedGamesCache cache = new TrackedGamesCache();
+    private final GameController controller = new GameController();
+
+    TrackedGamesEtagTests() {
+        GameRepository gameRepository = (GameRepository) Proxy.newProxyInstance(GameRepository.class.getClassLoader(),
+                new Class<?>[]{GameRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findAllTracked")) {
+                        return List.of(new Game(730L, "Counter-Strike 2"), new Game(570L, "Dota 2"));
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        ReflectionTestUtils.setField(cache, "gameRepository", gameRepository);
+        ReflectionTestUtils.setField(cache, "leaderboardService", new LeaderboardService());
+        ReflectionTestUtils.setField(controller, "gameService", new GameService() {
+            @Override
+            public TrackedGamesCache.Snapshot getTrackedGames() {
+                return cache.getSnapshot();
+            }
+        });
+    }
+
+    @Test
+    void unchangedListIsNotModified() {
+        ResponseEntity<?> first = get(null, null);
+        String etag = first.getHeaders().getETag();
+
+        ResponseEntity<?> second = get(etag, null);
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(2, ((TrackedGamesPage) first.getBody()).getTotalItems());
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertEquals(etag, second.getHeaders().getETag());
+        assertNull(second.getBody());
+    }
+
+    @Test
+    void changedListIsSentAgain() {
+        String etag = get(null, null).getHeaders().getETag();
+
+        cache.untrack(570L);
+        ResponseEntity<?> response = get(etag, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotEquals(etag, response.getHeaders().getETag());
+        assertEquals(1, ((TrackedGamesPage) response.getBody()).getTotalItems());
+    }
+
+    @Test
+    void eachFormatHasItsOwnEtag() {
+        String json = get(null, null).getHeaders().getETag();
+        String columnar = get(null, "application/vnd.steamtracker.columnar+json").getHeaders().getETag();
+
+        assertNotEquals(json, columnar);
+        assertEquals(HttpStatus.OK, get(json, "application/vnd.steamtracker.columnar+json").getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED,
+                get(columnar, "application/vnd.steamtracker.columnar+json").getStatusCode());
+    }
+
+    private ResponseEntity<?> get(String ifNoneMatch, String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/games/tracked");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return controller.getTrackedGames(0, 50, null, "asc", accept,
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+    }
+}
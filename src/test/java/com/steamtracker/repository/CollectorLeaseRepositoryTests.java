@@ -0,0 +1,239 @@
+package com.steamtracker.repository;
+
+import com.steamtracker.service.AdaptiveSamplingSchedule;
+import com.steamtracker.service.GameStalenessMetrics;
+import com.steamtracker.service.GameStatsService;
+import com.steamtracker.service.LeaderboardService;
+import com.steamtracker.service.ShardLeaseService;
+import com.steamtracker.service.TrackedGamesCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs the leases of several instances against the database configured in application.yml
+ * ({@code test.db.url}, {@code test.db.username} and {@code test.db.password} override it), in a
+ * schema of their own so that a running app is not disturbed. Skipped when the database is unreachable.
+ */
+class CollectorLeaseRepositoryTests {
+
+    private static final int SHARDS = 8;
+
+    private static String schema;
+    private static JdbcTemplate admin;
+    private static JdbcTemplate jdbcTemplate;
+
+    private final CollectorLeaseRepository repository = new CollectorLeaseRepository();
+
+    @BeforeAll
+    static void createSchema() throws IOException {
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource("application.yml"));
+        Properties config = yaml.getObject();
+        String url = System.getProperty("test.db.url", config.getProperty("spring.datasource.url"));
+        String username = System.getProperty("test.db.username", config.getProperty("spring.datasource.username"));
+        String password = System.getProperty("test.db.password", config.getProperty("spring.datasource.password"));
+        DriverManagerDataSource adminSource = new DriverManagerDataSource(url, username, password);
+        try (Connection ignored = adminSource.getConnection()) {
+            // Reachable
+        } catch (SQLException e) {
+            assumeTrue(false, "database unreachable: " + e.getMessage());
+        }
+
+        schema = "lease_test_" + UUID.randomUUID().toString().substring(0, 8);
+        admin = new JdbcTemplate(adminSource);
+        admin.execute("CREATE SCHEMA " + schema);
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                url + (url.contains("?") ? "&" : "?") + "currentSchema=" + schema, username, password));
+        jdbcTemplate.execute(StreamUtils.copyToString(
+                new ClassPathResource("db/migration/V4__collector_leases.sql").getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @AfterAll
+    static void dropSchema() {
+        if (schema != null) {
+            admin.execute("DROP SCHEMA " + schema + " CASCADE");
+        }
+    }
+
+    @BeforeEach
+    void resetTables() {
+        jdbcTemplate.update("DELETE FROM collector_shards");
+        jdbcTemplate.update("DELETE FROM collector_instances");
+        ReflectionTestUtils.setField(repository, "jdbcTemplate", jdbcTemplate);
+        repository.ensureShards(SHARDS);
+    }
+
+    @Test
+    void concurrentClaimsNeverShareAShard() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Integer>>> claims = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                String instanceId = "instance-" + i;
+                claims.add(threads.submit((Callable<List<Integer>>) () -> repository.claim(instanceId, 30, SHARDS)));
+            }
+
+            Set<Integer> claimed = new HashSet<>();
+            int total = 0;
+            for (Future<List<Integer>> claim : claims) {
+                claimed.addAll(claim.get());
+                total += claim.get().size();
+            }
+
+            assertEquals(SHARDS, total);
+            assertEquals(SHARDS, claimed.size());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void releasedShardsCanBeClaimedByOthers() {
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7), sorted(repository.claim("a", 30, SHARDS)));
+        assertTrue(repository.claim("b", 30, SHARDS).isEmpty());
+
+        repository.release("b", List.of(0, 1));
+        assertTrue(repository.claim("b", 30, SHARDS).isEmpty());
+
+        repository.release("a", List.of(6, 7));
+        assertEquals(List.of(6, 7), sorted(repository.claim("b", 30, SHARDS)));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), repository.renew("a", 30));
+    }
+
+    @Test
+    void expiredLeasesAreTakenOver() throws InterruptedException {
+        repository.claim("a", 1, 4);
+        repository.claim("b", 30, 2);
+
+        Thread.sleep(1_200);
+
+        assertEquals(List.of(0, 1, 2, 3, 6, 7), sorted(repository.claim("c", 30, SHARDS)));
+        assertTrue(repository.renew("a", 30).isEmpty());
+        assertEquals(List.of(4, 5), repository.renew("b", 30));
+    }
+
+    @Test
+    void heartbeatForgetsSilentInstances() throws InterruptedException {
+        assertEquals(1, repository.heartbeat("a", 1));
+        assertEquals(2, repository.heartbeat("b", 1));
+
+        Thread.sleep(1_200);
+
+        assertEquals(1, repository.heartbeat("b", 1));
+        repository.leave("b");
+        assertEquals(1, repository.heartbeat("c", 1));
+    }
+
+    @Test
+    void instancesRebalanceAsTheyJoinAndStop() throws InterruptedException {
+        ShardLeaseService a = instance("a");
+        ShardLeaseService b = instance("b");
+        ShardLeaseService c = instance("c");
+
+        a.renew();
+        assertEquals(Map.of("a", 8L), owners());
+
+        // A newcomer gets its share within two renewals
+        b.renew();
+        a.renew();
+        b.renew();
+        assertEquals(Map.of("a", 4L, "b", 4L), owners());
+
+        c.renew();
+        a.renew();
+        b.renew();
+        c.renew();
+        assertEquals(Map.of("a", 3L, "b", 3L, "c", 2L), owners());
+        assertDisjoint(a, b, c);
+
+        // a stops renewing; b and c keep their leases alive and take a's shards once it has run out
+        Thread.sleep(1_100);
+        b.renew();
+        c.renew();
+        Thread.sleep(1_100);
+        b.renew();
+        c.renew();
+        assertEquals(Map.of("b", 4L, "c", 4L), owners());
+        assertTrue(a.filterOwned(appIds()).isEmpty());
+        assertDisjoint(b, c);
+        assertEquals(appIds().size(), b.filterOwned(appIds()).size() + c.filterOwned(appIds()).size());
+    }
+
+    private ShardLeaseService instance(String instanceId) {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ShardLeaseService service = new ShardLeaseService(true, instanceId, SHARDS, 2, 100, meterRegistry);
+        GameRepository gameRepository = (GameRepository) Proxy.newProxyInstance(GameRepository.class.getClassLoader(),
+                new Class<?>[]{GameRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findTrackedSamplingState")) {
+                        return List.of();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        ReflectionTestUtils.setField(service, "collectorLeaseRepository", repository);
+        ReflectionTestUtils.setField(service, "gameRepository", gameRepository);
+        ReflectionTestUtils.setField(service, "samplingSchedule",
+                new AdaptiveSamplingSchedule(30, 1800, 0.02, 100, meterRegistry));
+        ReflectionTestUtils.setField(service, "gameStalenessMetrics", new GameStalenessMetrics(meterRegistry));
+        ReflectionTestUtils.setField(service, "leaderboardService", new LeaderboardService());
+        ReflectionTestUtils.setField(service, "gameStatsService",
+                new GameStatsService(60, 24, 500, 10, 3.0, 7, meterRegistry));
+        ReflectionTestUtils.setField(service, "trackedGamesCache", new TrackedGamesCache());
+        return service;
+    }
+
+    private static Map<String, Long> owners() {
+        return jdbcTemplate.queryForList("SELECT owner_id FROM collector_shards WHERE owner_id IS NOT NULL", String.class)
+                .stream()
+                .collect(Collectors.groupingBy(owner -> owner, Collectors.counting()));
+    }
+
+    private static void assertDisjoint(ShardLeaseService... instances) {
+        Set<Long> seen = new HashSet<>();
+        for (ShardLeaseService instance : instances) {
+            for (Long appId : instance.filterOwned(appIds())) {
+                assertTrue(seen.add(appId), "game " + appId + " collected twice");
+            }
+        }
+    }
+
+    private static List<Integer> sorted(List<Integer> shards) {
+        return shards.stream().sorted().toList();
+    }
+
+    private static List<Long> appIds() {
+        return LongStream.rangeClosed(1, 200).map(i -> i * 10).boxed().toList();
+    }
+}
@@ -0,0 +1,63 @@
+package com.steamtracker.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SampleBlockCodecTests {
+
+    @Test
+    void roundTripsIrregularSeries() {
+        long[] timestamps = {1_700_000_000_123L, 1_700_000_030_456L, 1_700_000_031_000L, 1_700_003_600_000L,
+                1_700_003_600_000L};
+        int[] counts = {0, 1_500_000, 3, Integer.MAX_VALUE, Integer.MIN_VALUE};
+
+        byte[] block = SampleBlockCodec.encode(timestamps, counts, timestamps.length);
+        long[] decodedTimestamps = new long[SampleBlockCodec.sampleCount(block)];
+        int[] decodedCounts = new int[decodedTimestamps.length];
+        int size = SampleBlockCodec.decode(block, decodedTimestamps, decodedCounts);
+
+        assertEquals(timestamps.length, size);
+        assertArrayEquals(timestamps, decodedTimestamps);
+        assertArrayEquals(counts, decodedCounts);
+    }
+
+    @Test
+    void packsSteadySamplingIntoFewBytesPerSample() {
+        // One day at 30 s with a little scheduling jitter and a slowly drifting count
+        Random random = new Random(7);
+        int size = 2_880;
+        long[] timestamps = new long[size];
+        int[] counts = new int[size];
+        long time = 1_700_000_000_000L;
+        int count = 800_000;
+        for (int i = 0; i < size; i++) {
+            timestamps[i] = time + random.nextInt(200);
+            counts[i] = count;
+            time += 30_000;
+            count += random.nextInt(2_001) - 1_000;
+        }
+
+        byte[] block = SampleBlockCodec.encode(timestamps, counts, size);
+        long[] decodedTimestamps = new long[size];
+        int[] decodedCounts = new int[size];
+        SampleBlockCodec.decode(block, decodedTimestamps, decodedCounts);
+
+        assertArrayEquals(timestamps, decodedTimestamps);
+        assertArrayEquals(counts, decodedCounts);
+        assertTrue(block.length < size * 5, "block took " + block.length + " bytes");
+    }
+
+    @Test
+    void encodesEmptyBlock() {
+        byte[] block = SampleBlockCodec.encode(new long[0], new int[0], 0);
+
+        assertEquals(0, SampleBlockCodec.sampleCount(block));
+        assertEquals(0, SampleBlockCodec.decode(block, new long[0], new int[0]));
+        assertEquals(1, block.length);
+    }
+}
@@ -0,0 +1,115 @@
+package com.steamtracker.repository;
+
+import com.steamtracker.dto.PlayerCountSample;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SampleJournalTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 1, 12, 0, 0, 123_456_000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysAppendedSamplesAfterReopening() throws IOException {
+        String journalId;
+        try (SampleJournal journal = new SampleJournal(directory, 1024)) {
+            journalId = journal.getJournalId();
+            assertEquals(3, journal.append(samples(0, 3)));
+        }
+
+        try (SampleJournal journal = new SampleJournal(directory, 1024)) {
+            assertEquals(journalId, journal.getJournalId());
+            assertEquals(3, journal.getLastSequence());
+            List<PlayerCountSample> read = new ArrayList<>();
+            assertEquals(3, journal.read(2, 10, read));
+            assertEquals(2, read.size());
+            assertEquals(730L + 1, read.get(0).getAppId());
+            assertEquals(1001, read.get(0).getPlayerCount());
+            assertEquals(START.plusSeconds(30), read.get(0).getRecordedAt());
+        }
+    }
+
+    @Test
+    void rotatesSegmentsAndDeletesFlushedOnes() throws IOException {
+        // Four records per segment
+        try (SampleJournal journal = new SampleJournal(directory, 4 * SampleJournal.RECORD_BYTES)) {
+            journal.append(samples(0, 10));
+            assertEquals(3, journal.getSegmentCount());
+
+            List<PlayerCountSample> read = new ArrayList<>();
+            assertEquals(7, journal.read(3, 5, read));
+            assertEquals(5, read.size());
+
+            assertEquals(1, journal.deleteUpTo(7));
+            assertEquals(2, journal.getSegmentCount());
+            // The segment appended to is kept even when fully flushed
+            assertEquals(1, journal.deleteUpTo(10));
+            assertEquals(1, journal.getSegmentCount());
+            assertEquals(11, journal.append(samples(10, 1)));
+        }
+    }
+
+    @Test
+    void dropsTornRecordAtTheEnd() throws IOException {
+        try (SampleJournal journal = new SampleJournal(directory, 1024)) {
+            journal.append(samples(0, 3));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            Path segment = files.filter(path -> path.toString().endsWith(".journal")).findFirst().orElseThrow();
+            try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+                file.seek(2L * SampleJournal.RECORD_BYTES + 4);
+                file.write(0x7F);
+            }
+        }
+
+        try (SampleJournal journal = new SampleJournal(directory, 1024)) {
+            assertEquals(2, journal.getLastSequence());
+            // The torn slot is reused by the next append
+            assertEquals(3, journal.append(samples(5, 1)));
+        }
+    }
+
+    @Test
+    void startsANewJournalIdWithoutSegments() throws IOException {
+        String first;
+        try (SampleJournal journal = new SampleJournal(directory, 1024)) {
+            first = journal.getJournalId();
+        }
+        try (SampleJournal journal = new SampleJournal(directory, 1024)) {
+            assertNotEquals(first, journal.getJournalId());
+        }
+    }
+
+    @Test
+    void refusesADirectoryInUse() throws IOException {
+        SampleJournal journal = new SampleJournal(directory, 1024);
+        try {
+            assertThrows(IllegalStateException.class, () -> new SampleJournal(directory, 1024));
+        } finally {
+            journal.close();
+        }
+    }
+
+    private static List<PlayerCountSample> samples(int from, int count) {
+        List<PlayerCountSample> samples = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            samples.add(new PlayerCountSample(730L + i, 1000 + i, START.plusSeconds(30L * i)));
+        }
+        return samples;
+    }
+}
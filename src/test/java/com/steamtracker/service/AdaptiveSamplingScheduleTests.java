@@ -0,0 +1,135 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.PlayerCountSample;
+import com.steamtracker.dto.PlayerCountSeries;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveSamplingScheduleTests {
+
+    private final AdaptiveSamplingSchedule schedule =
+            new AdaptiveSamplingSchedule(30, 1800, 0.02, 100, new SimpleMeterRegistry());
+
+    @Test
+    void steadyGameBacksOffToMaximumInterval() {
+        schedule.track(1L, null, 0);
+        long now = 0;
+        for (int i = 0; i < 10; i++) {
+            record(1L, 5_000, now);
+            now += schedule.getIntervalMillis(1L);
+        }
+
+        assertEquals(1_800_000, schedule.getIntervalMillis(1L));
+    }
+
+    @Test
+    void volatilePopularGameStaysAtMinimumInterval() {
+        schedule.track(1L, null, 0);
+        long now = 0;
+        for (int i = 0; i < 10; i++) {
+            record(1L, i % 2 == 0 ? 1_000_000 : 950_000, now);
+            now += schedule.getIntervalMillis(1L);
+        }
+
+        assertEquals(30_000, schedule.getIntervalMillis(1L));
+    }
+
+    @Test
+    void smallGameNoiseIsDamped() {
+        schedule.track(1L, null, 0);
+        long now = 0;
+        for (int i = 0; i < 10; i++) {
+            record(1L, i % 2 == 0 ? 3 : 5, now);
+            now += schedule.getIntervalMillis(1L);
+        }
+
+        assertTrue(schedule.getIntervalMillis(1L) > 30_000);
+    }
+
+    @Test
+    void busyGameShrinksImmediately() {
+        schedule.track(1L, null, 0);
+        long now = 0;
+        for (int i = 0; i < 6; i++) {
+            record(1L, 10_000, now);
+            now += schedule.getIntervalMillis(1L);
+        }
+        long settled = schedule.getIntervalMillis(1L);
+
+        record(1L, 20_000, now);
+
+        assertTrue(schedule.getIntervalMillis(1L) < settled / 2);
+    }
+
+    @Test
+    void pollsDueGamesInOrderAndHonoursOverrides() {
+        schedule.track(1L, null, 2_000);
+        schedule.track(2L, 60, 1_000);
+        schedule.track(3L, null, 5_000);
+
+        assertEquals(List.of(2L, 1L), schedule.pollDue(2_000));
+        assertEquals(5_000, schedule.nextDueMillis());
+
+        record(2L, 100, 2_000);
+        assertEquals(60_000, schedule.getIntervalMillis(2L));
+        schedule.untrack(3L);
+        assertEquals(32_000, schedule.nextDueMillis());
+        assertEquals(List.of(1L), schedule.pollDue(32_000));
+    }
+
+    @Test
+    void reconcileAddsDropsAndUpdatesOverrides() {
+        schedule.track(1L, null, 0);
+        schedule.track(2L, null, 0);
+
+        Map<Long, Integer> tracked = new HashMap<>();
+        tracked.put(2L, 120);
+        tracked.put(3L, null);
+        schedule.reconcile(tracked);
+
+        assertEquals(2, schedule.size());
+        assertEquals(-1, schedule.getIntervalMillis(1L));
+        assertEquals(120_000, schedule.getIntervalMillis(2L));
+        assertEquals(30_000, schedule.getIntervalMillis(3L));
+    }
+
+    @Test
+    void restartKeepsPhaseAndCollectsOverdueGamesAtOnce() {
+        // Last sampled 10 s before the restart: due one minimum interval after that sample
+        assertEquals(1_020_000, schedule.firstDueMillis(990_000L, null, 1_000_000));
+        assertEquals(1_050_000, schedule.firstDueMillis(990_000L, 60, 1_000_000));
+        // The restart took longer than the interval
+        assertEquals(1_000_000, schedule.firstDueMillis(900_000L, null, 1_000_000));
+
+        long spread = schedule.firstDueMillis(null, null, 1_000_000);
+        assertTrue(spread >= 1_000_000 && spread < 1_030_000);
+    }
+
+    @Test
+    void filterScheduledDropsSamplesOfUntrackedGames() {
+        schedule.track(1L, null, 0);
+        schedule.track(2L, null, 0);
+        schedule.untrack(2L);
+        List<PlayerCountSample> samples = List.of(
+                new PlayerCountSample(1L, 10, PlayerCountSeries.toLocalDateTime(0)),
+                new PlayerCountSample(2L, 20, PlayerCountSeries.toLocalDateTime(0)),
+                new PlayerCountSample(3L, 30, PlayerCountSeries.toLocalDateTime(0)));
+
+        List<PlayerCountSample> scheduled = schedule.filterScheduled(samples);
+
+        assertEquals(1, scheduled.size());
+        assertEquals(1L, scheduled.get(0).getAppId());
+    }
+
+    private void record(Long appId, int playerCount, long millis) {
+        schedule.recordSamples(List.of(
+                new PlayerCountSample(appId, playerCount, PlayerCountSeries.toLocalDateTime(millis))));
+    }
+}
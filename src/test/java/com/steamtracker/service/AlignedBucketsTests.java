@@ -0,0 +1,50 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.AlignedHistory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AlignedBucketsTests {
+
+    @Test
+    void gamesShareOneEpochAlignedAxis() {
+        // 90s to 300s with 60s buckets: buckets start at 60, 120, 180 and 240
+        AlignedBuckets buckets = new AlignedBuckets(List.of(1L, 2L), 90_000, 300_000, 60, DownsampleMode.AVG);
+        buckets.add(1, 95_000, 10);
+        buckets.add(1, 110_000, 21);
+        buckets.add(2, 250_000, 7);
+        buckets.add(2, 400_000, 99);
+        buckets.put(2, 2, 5);
+
+        AlignedHistory history = buckets.toHistory();
+
+        assertArrayEquals(new long[]{60_000, 120_000, 180_000, 240_000}, history.getTimestamps());
+        assertArrayEquals(new Integer[]{16, null, null, null}, history.getSeries().get(1L));
+        assertArrayEquals(new Integer[]{null, 5, null, 7}, history.getSeries().get(2L));
+        assertEquals(List.of(1L, 2L), List.copyOf(history.getSeries().keySet()));
+    }
+
+    @Test
+    void minAndMaxKeepExtremes() {
+        AlignedBuckets min = new AlignedBuckets(List.of(1L), 0, 60_000, 60, DownsampleMode.MIN);
+        AlignedBuckets max = new AlignedBuckets(List.of(1L), 0, 60_000, 60, DownsampleMode.MAX);
+        for (int count : new int[]{40, 12, 75}) {
+            min.add(1, 1_000, count);
+            max.add(1, 1_000, count);
+        }
+
+        assertArrayEquals(new Integer[]{12}, min.toHistory().getSeries().get(1L));
+        assertArrayEquals(new Integer[]{75}, max.toHistory().getSeries().get(1L));
+    }
+
+    @Test
+    void lttbCannotBeAligned() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AlignedBuckets(List.of(1L), 0, 60_000, 60, DownsampleMode.LTTB));
+    }
+}
@@ -0,0 +1,257 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.JobStatus;
+import com.steamtracker.entity.Game;
+import com.steamtracker.repository.GameRepository;
+import com.steamtracker.repository.PlayerCountBlockRepository;
+import com.steamtracker.repository.PlayerCountBulkWriter;
+import com.steamtracker.repository.PlayerCountPartitionRepository;
+import com.steamtracker.repository.PlayerCountRollupRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataLifecycleJobServiceTests {
+
+    private static final int CHUNK_SIZE = 2;
+
+    private final Deletions deletions = new Deletions();
+    private final List<Game> games = new ArrayList<>();
+    private final StubShardLeaseService shardLeaseService = new StubShardLeaseService();
+    private final DataLifecycleJobService service = new DataLifecycleJobService(CHUNK_SIZE, 100);
+
+    DataLifecycleJobServiceTests() {
+        GameRepository gameRepository = (GameRepository) Proxy.newProxyInstance(GameRepository.class.getClassLoader(),
+                new Class<?>[]{GameRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findAll" -> games;
+                    case "deleteUntracked" -> deletions.next("games");
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        ReflectionTestUtils.setField(service, "gameRepository", gameRepository);
+        ReflectionTestUtils.setField(service, "playerCountBulkWriter", new PlayerCountBulkWriter() {
+            @Override
+            public int deleteChunkByAppId(Long appId, int limit) {
+                return deletions.next("player_counts");
+            }
+        });
+        ReflectionTestUtils.setField(service, "playerCountBlockRepository", new PlayerCountBlockRepository() {
+            @Override
+            public int deleteChunkByAppId(Long appId, int limit) {
+                return deletions.next("player_count_blocks");
+            }
+
+            @Override
+            public int deleteChunkOlderThan(LocalDateTime cutoff, int limit) {
+                return deletions.next("player_count_blocks");
+            }
+        });
+        ReflectionTestUtils.setField(service, "playerCountRollupRepository", new PlayerCountRollupRepository() {
+            @Override
+            public int deleteChunkByAppId(StorageTier tier, Long appId, int limit) {
+                return deletions.next(tier.getTableName());
+            }
+
+            @Override
+            public int deleteChunkOlderThan(StorageTier tier, LocalDateTime cutoff, int limit) {
+                return deletions.next(tier.getTableName());
+            }
+        });
+        ReflectionTestUtils.setField(service, "playerCountPartitionRepository", new PlayerCountPartitionRepository() {
+            @Override
+            public int deleteChunkBefore(LocalDateTime cutoff, int limit) {
+                return deletions.next("player_counts");
+            }
+        });
+        ReflectionTestUtils.setField(service, "partitionMaintenanceService", new PartitionMaintenanceService() {
+            @Override
+            public int dropExpiredPartitions(LocalDateTime cutoff) {
+                return deletions.next("partitions");
+            }
+        });
+        ReflectionTestUtils.setField(service, "rollupService", new RollupService() {
+            @Override
+            public int getRetentionDays(StorageTier tier) {
+                return tier == StorageTier.DAILY ? 0 : 14;
+            }
+        });
+        ReflectionTestUtils.setField(service, "shardLeaseService", shardLeaseService);
+    }
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void untrackDeletesEveryPhaseInChunksBeforeTheGame() throws InterruptedException {
+        deletions.script("player_counts", 2, 2, 1);
+        deletions.script("player_counts_hourly", 2, 0);
+        deletions.script("games", 1);
+
+        JobStatus job = await(service.submitUntrack(730L));
+
+        assertEquals("SUCCEEDED", job.getState());
+        assertEquals(List.of("player_counts", "player_counts", "player_counts", "player_count_blocks",
+                "player_counts_hourly", "player_counts_hourly", "player_counts_daily", "player_counts", "games"),
+                deletions.calls);
+        assertEquals(8, job.getRowsDeleted());
+    }
+
+    @Test
+    void failedPhaseKeepsTheGame() throws InterruptedException {
+        deletions.script("player_count_blocks", () -> {
+            throw new IllegalStateException("connection lost");
+        });
+
+        JobStatus job = await(service.submitUntrack(730L));
+
+        assertEquals("FAILED", job.getState());
+        assertEquals("player_count_blocks", job.getPhase());
+        assertEquals("connection lost", job.getError());
+        assertFalse(deletions.calls.contains("games"));
+    }
+
+    @Test
+    void interruptedJobIsCancelledAndKeepsTheGame() throws InterruptedException {
+        deletions.script("player_counts", () -> {
+            Thread.currentThread().interrupt();
+            return CHUNK_SIZE;
+        });
+
+        JobStatus job = await(service.submitUntrack(730L));
+
+        assertEquals("CANCELLED", job.getState());
+        assertEquals(List.of("player_counts"), deletions.calls);
+        assertEquals(CHUNK_SIZE, job.getRowsDeleted());
+    }
+
+    @Test
+    void retentionCoversPartitionsRowsAndBlocksThenRollups() throws InterruptedException {
+        deletions.script("partitions", 3);
+        deletions.script("player_counts", 2, 1);
+
+        JobStatus job = await(service.submitRetention());
+
+        assertEquals("SUCCEEDED", job.getState());
+        assertEquals(List.of("partitions", "player_counts", "player_counts", "player_count_blocks",
+                "player_counts_hourly"), deletions.calls);
+        assertEquals(3, job.getRowsDeleted());
+    }
+
+    @Test
+    void retentionIsQueuedOnlyOnce() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        deletions.script("partitions", () -> {
+            awaitRelease(release);
+            return 0;
+        });
+
+        JobStatus first = service.submitRetention();
+        JobStatus second = service.submitRetention();
+        release.countDown();
+        await(first);
+        JobStatus third = service.submitRetention();
+
+        assertEquals(first.getId(), second.getId());
+        assertNotEquals(first.getId(), third.getId());
+    }
+
+    @Test
+    void onlyTheLeaderResumesPendingUntracks() throws InterruptedException {
+        Game game = new Game(730L, "Counter-Strike 2");
+        game.setUntrackedAt(LocalDateTime.now());
+        games.add(game);
+        games.add(new Game(570L, "Dota 2"));
+
+        shardLeaseService.leader = false;
+        service.resumePendingUntracks();
+        assertTrue(service.getJobs().isEmpty());
+
+        shardLeaseService.leader = true;
+        service.resumePendingUntracks();
+        List<JobStatus> jobs = service.getJobs();
+        assertEquals(1, jobs.size());
+        assertEquals(730L, jobs.get(0).getAppId());
+        await(jobs.get(0));
+    }
+
+    private JobStatus await(JobStatus submitted) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            JobStatus job = service.getJob(submitted.getId());
+            if (job.getFinishedAt() != null) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("job " + submitted.getId() + " did not finish");
+    }
+
+    private static void awaitRelease(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Records every chunk deleted, answering from a script per table and 0 once it runs out.
+     */
+    private static class Deletions {
+        private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        private final Map<String, Queue<IntSupplier>> scripts = new HashMap<>();
+
+        void script(String table, int... chunks) {
+            for (int chunk : chunks) {
+                script(table, () -> chunk);
+            }
+        }
+
+        synchronized void script(String table, IntSupplier chunk) {
+            scripts.computeIfAbsent(table, t -> new ArrayDeque<>()).add(chunk);
+        }
+
+        int next(String table) {
+            calls.add(table);
+            IntSupplier chunk;
+            synchronized (this) {
+                Queue<IntSupplier> script = scripts.get(table);
+                chunk = script != null ? script.poll() : null;
+            }
+            return chunk != null ? chunk.getAsInt() : 0;
+        }
+    }
+
+    private static class StubShardLeaseService extends ShardLeaseService {
+        private volatile boolean leader = true;
+
+        StubShardLeaseService() {
+            super(false, "test", 64, 30, 10_000, new SimpleMeterRegistry());
+        }
+
+        @Override
+        public boolean isLeader() {
+            return leader;
+        }
+    }
+}
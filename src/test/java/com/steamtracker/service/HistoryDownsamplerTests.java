@@ -0,0 +1,51 @@
+package com.steamtracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryDownsamplerTests {
+
+    @Test
+    void keepsEverySampleWhenBelowThreshold() {
+        long[] timestamps = {0, 1, 2, 3};
+        int[] values = {5, 6, 7, 8};
+
+        assertArrayEquals(new int[]{0, 1, 2, 3}, HistoryDownsampler.lttb(timestamps, values, 4, 10));
+    }
+
+    @Test
+    void keepsEndpointsAndSpikes() {
+        int size = 1_000;
+        long[] timestamps = new long[size];
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            timestamps[i] = i * 30_000L;
+            values[i] = 100;
+        }
+        values[437] = 10_000;
+
+        int[] selected = HistoryDownsampler.lttb(timestamps, values, size, 50);
+
+        assertEquals(50, selected.length);
+        assertEquals(0, selected[0]);
+        assertEquals(size - 1, selected[selected.length - 1]);
+        boolean spikeKept = false;
+        for (int i = 0; i < selected.length; i++) {
+            if (i > 0) {
+                assertTrue(selected[i] > selected[i - 1]);
+            }
+            spikeKept |= selected[i] == 437;
+        }
+        assertTrue(spikeKept);
+    }
+
+    @Test
+    void rejectsThresholdBelowThree() {
+        assertThrows(IllegalArgumentException.class,
+                () -> HistoryDownsampler.lttb(new long[]{0, 1}, new int[]{1, 2}, 2, 2));
+    }
+}
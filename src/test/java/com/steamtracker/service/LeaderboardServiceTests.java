@@ -0,0 +1,145 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.GamePeaks;
+import com.steamtracker.dto.LeaderboardEntry;
+import com.steamtracker.dto.PlayerCountSample;
+import com.steamtracker.dto.PlayerCountSeries;
+import com.steamtracker.entity.Game;
+import com.steamtracker.repository.GameRepository;
+import com.steamtracker.repository.PlayerCountRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LeaderboardServiceTests {
+
+    private static final long HOUR_MILLIS = Duration.ofHours(1).toMillis();
+    private static final long DAY_MILLIS = Duration.ofDays(1).toMillis();
+
+    private final StubRollupRepository rollups = new StubRollupRepository();
+    private final LeaderboardService leaderboard = new LeaderboardService();
+    private final long now = AdaptiveSamplingSchedule.currentMillis();
+
+    LeaderboardServiceTests() {
+        GameRepository games = (GameRepository) Proxy.newProxyInstance(GameRepository.class.getClassLoader(),
+                new Class<?>[]{GameRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findAllTracked")) {
+                        return List.of(new Game(730L, "Counter-Strike 2"), new Game(570L, "Dota 2"));
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        ReflectionTestUtils.setField(leaderboard, "gameRepository", games);
+        ReflectionTestUtils.setField(leaderboard, "playerCountRollupRepository", rollups);
+    }
+
+    @Test
+    void peaksAndLowsLeaveTheirWindows() {
+        leaderboard.track(730L, "Counter-Strike 2");
+        leaderboard.record(List.of(
+                sample(730L, 5_000, now - 8 * DAY_MILLIS),
+                sample(730L, 900, now - 2 * DAY_MILLIS),
+                sample(730L, 50, now - 2 * DAY_MILLIS + HOUR_MILLIS),
+                sample(730L, 500, now - 2 * HOUR_MILLIS),
+                sample(730L, 100, now - HOUR_MILLIS)));
+
+        GamePeaks peaks = leaderboard.getPeaks(730L);
+
+        assertEquals(100, peaks.getCurrentPlayers());
+        assertEquals(500, peaks.getPeak24h());
+        assertEquals(PlayerCountSeries.toLocalDateTime(now - 2 * HOUR_MILLIS), peaks.getPeak24hAt());
+        assertEquals(100, peaks.getLow24h());
+        assertEquals(900, peaks.getPeak7d());
+        assertEquals(50, peaks.getLow7d());
+    }
+
+    @Test
+    void gameWithoutRecentSamplesHasNoPeaks() {
+        leaderboard.track(730L, "Counter-Strike 2");
+        leaderboard.record(List.of(sample(730L, 900, now - 8 * DAY_MILLIS)));
+
+        GamePeaks peaks = leaderboard.getPeaks(730L);
+
+        assertEquals(900, peaks.getCurrentPlayers());
+        assertNull(peaks.getPeak24h());
+        assertNull(peaks.getPeak7d());
+    }
+
+    @Test
+    void ignoresSamplesOfGamesNotOnTheBoard() {
+        leaderboard.record(List.of(sample(440L, 1_000, now)));
+
+        assertEquals(0, leaderboard.size());
+        assertNull(leaderboard.getPeaks(440L));
+    }
+
+    @Test
+    void loadsTheLastWeekOfRollupsAndSyncsLaterBuckets() {
+        rollups.buckets.add(new Bucket(730L, "Counter-Strike 2", 700_000, 1_200_000, 900_000, now - 3 * DAY_MILLIS));
+        rollups.buckets.add(new Bucket(570L, "Dota 2", 400_000, 600_000, 500_000, now - HOUR_MILLIS));
+
+        leaderboard.load();
+
+        assertEquals(now - 7 * DAY_MILLIS, rollups.sinceMillis.get(0), 1_000);
+        List<LeaderboardEntry> top = leaderboard.getTop(10);
+        assertEquals(730L, top.get(0).getAppId());
+        assertEquals(900_000, top.get(0).getCurrentPlayers());
+        assertEquals(1_200_000, leaderboard.getPeaks(730L).getPeak7d());
+        assertNull(leaderboard.getPeaks(730L).getPeak24h());
+        assertEquals(600_000, leaderboard.getPeaks(570L).getPeak24h());
+
+        // Another instance recorded a later, bigger Dota 2 bucket
+        rollups.buckets.clear();
+        rollups.buckets.add(new Bucket(570L, "Dota 2", 500_000, 1_000_000, 950_000, now));
+        leaderboard.sync();
+
+        assertEquals(now - HOUR_MILLIS - Duration.ofMinutes(2).toMillis(), rollups.sinceMillis.get(1));
+        top = leaderboard.getTop(10);
+        assertEquals(570L, top.get(0).getAppId());
+        assertEquals(950_000, top.get(0).getCurrentPlayers());
+        assertEquals(2, top.get(1).getRank());
+    }
+
+    private static PlayerCountSample sample(Long appId, int playerCount, long recordedAt) {
+        return new PlayerCountSample(appId, playerCount, PlayerCountSeries.toLocalDateTime(recordedAt));
+    }
+
+    private static class Bucket {
+        private final long appId;
+        private final String name;
+        private final int minCount;
+        private final int maxCount;
+        private final int lastCount;
+        private final long lastRecordedMillis;
+
+        private Bucket(long appId, String name, int minCount, int maxCount, int lastCount, long lastRecordedMillis) {
+            this.appId = appId;
+            this.name = name;
+            this.minCount = minCount;
+            this.maxCount = maxCount;
+            this.lastCount = lastCount;
+            this.lastRecordedMillis = lastRecordedMillis;
+        }
+    }
+
+    private static class StubRollupRepository extends PlayerCountRollupRepository {
+        private final List<Bucket> buckets = new ArrayList<>();
+        private final List<Long> sinceMillis = new ArrayList<>();
+
+        @Override
+        public void forEachBucketUpdatedSince(StorageTier tier, LocalDateTime since, UpdatedBucketHandler handler) {
+            sinceMillis.add(PlayerCountSeries.toEpochMillis(since));
+            for (Bucket bucket : buckets) {
+                handler.accept(bucket.appId, bucket.name, bucket.minCount, bucket.maxCount,
+                        bucket.lastCount, bucket.lastRecordedMillis);
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.PlayerCountSample;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LiveSampleBroadcasterTests {
+
+    private final LiveSampleBroadcaster broadcaster = new LiveSampleBroadcaster(2, 30, 1, 0);
+
+    @AfterEach
+    void shutdown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void deliversOnlyTheSubscribedGames() throws InterruptedException {
+        RecordingEmitter cs2 = new RecordingEmitter();
+        RecordingEmitter all = new RecordingEmitter();
+        broadcaster.subscribe(Set.of(730L), cs2);
+        broadcaster.subscribe(Set.of(), all);
+
+        broadcaster.publish(List.of(sample(730L, 1), sample(570L, 2)));
+
+        awaitTrue(() -> all.counts().size() == 2);
+        awaitTrue(() -> cs2.counts().size() == 1);
+        assertEquals(List.of(1), cs2.counts());
+        assertEquals(List.of(1, 2), all.counts());
+    }
+
+    @Test
+    void dropsTheOldestSamplesOfAClientThatFallsBehind() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.stallNextSend();
+        broadcaster.subscribe(Set.of(), emitter);
+
+        broadcaster.publish(List.of(sample(730L, 1)));
+        emitter.awaitStalled();
+        broadcaster.publish(List.of(sample(730L, 2), sample(730L, 3), sample(730L, 4)));
+        emitter.release();
+
+        awaitTrue(() -> emitter.counts().size() == 3);
+        assertEquals(List.of(1, 3, 4), emitter.counts());
+    }
+
+    @Test
+    void stalledClientIsDroppedWithoutHoldingUpOthers() throws InterruptedException {
+        RecordingEmitter stalled = new RecordingEmitter();
+        RecordingEmitter healthy = new RecordingEmitter();
+        stalled.stallNextSend();
+        broadcaster.subscribe(Set.of(730L), stalled);
+        broadcaster.subscribe(Set.of(570L), healthy);
+
+        broadcaster.publish(List.of(sample(730L, 1)));
+        stalled.awaitStalled();
+        // The only pooled thread is stuck in the stalled client's send
+        broadcaster.publish(List.of(sample(570L, 2)));
+        awaitTrue(() -> healthy.counts().size() == 1);
+
+        broadcaster.heartbeat();
+        assertEquals(1, broadcaster.getSubscriberCount());
+        broadcaster.publish(List.of(sample(730L, 3)));
+        stalled.release();
+
+        awaitTrue(() -> stalled.completed);
+        assertEquals(List.of(1), stalled.counts());
+    }
+
+    @Test
+    void heartbeatPingsIdleClients() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(Set.of(), emitter);
+
+        broadcaster.heartbeat();
+
+        awaitTrue(() -> emitter.events.size() == 1);
+        assertTrue(emitter.counts().isEmpty());
+        assertEquals(1, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void samplesPublishedWhileADrainEndsAreStillDelivered() throws InterruptedException {
+        LiveSampleBroadcaster unbounded = new LiveSampleBroadcaster(100_000, 30, 1, 10);
+        try {
+            RecordingEmitter emitter = new RecordingEmitter();
+            unbounded.subscribe(Set.of(), emitter);
+
+            for (int i = 0; i < 20_000; i++) {
+                unbounded.publish(List.of(sample(730L, i)));
+            }
+
+            awaitTrue(() -> emitter.counts().size() == 20_000);
+            assertFalse(emitter.completed);
+        } finally {
+            unbounded.shutdown();
+        }
+    }
+
+    private static PlayerCountSample sample(Long appId, int playerCount) {
+        return new PlayerCountSample(appId, playerCount, LocalDateTime.now());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met within 10 s");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Records the events sent to it; can hold one send, like a client that stopped reading.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<Object> events = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch stalled = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private volatile boolean stallNext;
+        private volatile boolean completed;
+
+        void stallNextSend() {
+            stallNext = true;
+        }
+
+        void awaitStalled() throws InterruptedException {
+            assertTrue(stalled.await(10, TimeUnit.SECONDS));
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        List<Integer> counts() {
+            List<Integer> counts = new ArrayList<>();
+            synchronized (events) {
+                for (Object event : events) {
+                    if (event instanceof PlayerCountSample sample) {
+                        counts.add(sample.getPlayerCount());
+                    }
+                }
+            }
+            return counts;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (stallNext) {
+                stallNext = false;
+                stalled.countDown();
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+                if (data.getData() instanceof PlayerCountSample) {
+                    events.add(data.getData());
+                    return;
+                }
+            }
+            events.add("ping");
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
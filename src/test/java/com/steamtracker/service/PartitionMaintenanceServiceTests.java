@@ -0,0 +1,84 @@
+package com.steamtracker.service;
+
+import com.steamtracker.repository.PlayerCountPartitionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PartitionMaintenanceServiceTests {
+
+    private final List<YearMonth> existing = new ArrayList<>();
+    private final List<YearMonth> defaultMonths = new ArrayList<>();
+    private final Map<YearMonth, Integer> strays = new HashMap<>();
+    private final List<YearMonth> created = new ArrayList<>();
+    private final PartitionMaintenanceService service = new PartitionMaintenanceService();
+
+    PartitionMaintenanceServiceTests() {
+        ReflectionTestUtils.setField(service, "monthsAhead", 1);
+        ReflectionTestUtils.setField(service, "playerCountPartitionRepository", new PlayerCountPartitionRepository() {
+            @Override
+            public List<YearMonth> findMonths() {
+                return existing;
+            }
+
+            @Override
+            public List<YearMonth> findDefaultPartitionMonths() {
+                return defaultMonths;
+            }
+
+            @Override
+            public int createMonth(YearMonth month) {
+                if (strays.get(month) != null && strays.get(month) < 0) {
+                    throw new DataIntegrityViolationException("partition overlaps");
+                }
+                created.add(month);
+                return strays.getOrDefault(month, 0);
+            }
+        });
+    }
+
+    @Test
+    void createsTheMonthsOfRowsInTheDefaultPartition() {
+        defaultMonths.addAll(List.of(YearMonth.of(2025, 5), YearMonth.of(2025, 6)));
+        strays.put(YearMonth.of(2025, 5), 2);
+        strays.put(YearMonth.of(2025, 6), 1);
+
+        int moved = service.partitionDefaultRows();
+
+        assertEquals(3, moved);
+        assertEquals(List.of(YearMonth.of(2025, 5), YearMonth.of(2025, 6)), created);
+    }
+
+    @Test
+    void maintenanceRunCreatesUpcomingAndStrayMonths() {
+        YearMonth current = YearMonth.now();
+        existing.add(current);
+        defaultMonths.add(YearMonth.of(2025, 5));
+
+        service.createUpcomingPartitions();
+
+        assertEquals(List.of(current.plusMonths(1), YearMonth.of(2025, 5)), created);
+    }
+
+    @Test
+    void aMonthThatFailsDoesNotStopTheOthers() {
+        defaultMonths.addAll(List.of(YearMonth.of(2025, 5), YearMonth.of(2025, 6)));
+        strays.put(YearMonth.of(2025, 5), -1);
+        strays.put(YearMonth.of(2025, 6), 4);
+
+        int moved = service.partitionDefaultRows();
+
+        assertEquals(4, moved);
+        assertTrue(created.contains(YearMonth.of(2025, 6)));
+        assertEquals(1, created.size());
+    }
+}
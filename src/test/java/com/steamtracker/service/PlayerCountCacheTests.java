@@ -0,0 +1,107 @@
+package com.steamtracker.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerCountCacheTests {
+
+    private final StubSteamApiService steam = new StubSteamApiService();
+
+    @Test
+    void answersFromMemoryWithinTheTtl() {
+        PlayerCountCache cache = cache(60, 100);
+        cache.put(730L, 1_000);
+
+        assertEquals(1_000, cache.getAsync(730L).join());
+        assertEquals(1, cache.getHits());
+        assertTrue(steam.requests.isEmpty());
+    }
+
+    @Test
+    void fetchesAgainOnceAnEntryExpires() {
+        PlayerCountCache cache = cache(0, 100);
+        cache.put(730L, 1_000);
+
+        CompletableFuture<Integer> lookup = cache.getAsync(730L);
+        steam.requests.get(0).complete(2_000);
+
+        assertEquals(2_000, lookup.join());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void concurrentLookupsShareOneRequest() {
+        PlayerCountCache cache = cache(60, 100);
+
+        CompletableFuture<Integer> first = cache.getAsync(730L);
+        CompletableFuture<Integer> second = cache.getAsync(730L);
+        steam.requests.get(0).complete(1_000);
+
+        assertSame(first, second);
+        assertEquals(1, steam.requests.size());
+        assertEquals(1_000, cache.getAsync(730L).join());
+    }
+
+    @Test
+    void failedLookupsAreNotCached() {
+        PlayerCountCache cache = cache(60, 100);
+
+        cache.getAsync(730L);
+        steam.requests.get(0).completeExceptionally(new SteamApiException("unavailable"));
+        cache.getAsync(730L);
+
+        assertEquals(2, steam.requests.size());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void evictsTheOldestTenthWhenFull() {
+        PlayerCountCache cache = cache(60, 10);
+        for (long appId = 1; appId <= 11; appId++) {
+            cache.put(appId, (int) appId);
+        }
+
+        assertEquals(9, cache.size());
+        assertEquals(11, cache.getAsync(11L).join());
+        assertTrue(steam.requests.isEmpty());
+        cache.getAsync(1L);
+        cache.getAsync(2L);
+        assertEquals(2, steam.requests.size());
+    }
+
+    @Test
+    void dropsExpiredEntriesWhenFull() {
+        PlayerCountCache cache = cache(0, 10);
+        for (long appId = 1; appId <= 11; appId++) {
+            cache.put(appId, (int) appId);
+        }
+
+        assertEquals(0, cache.size());
+    }
+
+    private PlayerCountCache cache(long ttlSeconds, int maxSize) {
+        PlayerCountCache cache = new PlayerCountCache(ttlSeconds, maxSize, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "steamApiService", steam);
+        return cache;
+    }
+
+    private static class StubSteamApiService extends SteamApiService {
+        private final List<CompletableFuture<Integer>> requests = new ArrayList<>();
+
+        @Override
+        public CompletableFuture<Integer> getCurrentPlayerCountAsync(Long appId) {
+            CompletableFuture<Integer> request = new CompletableFuture<>();
+            requests.add(request);
+            return request;
+        }
+    }
+}
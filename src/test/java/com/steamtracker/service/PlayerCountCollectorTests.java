@@ -0,0 +1,125 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.CollectionCycleResult;
+import com.steamtracker.dto.PlayerCountSample;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerCountCollectorTests {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ScheduledExecutorService steamThreads = Executors.newScheduledThreadPool(8);
+    private final StubSteamApiService steam = new StubSteamApiService();
+    private final RecordingGameService gameService = new RecordingGameService();
+
+    @AfterEach
+    void shutdown() {
+        steamThreads.shutdownNow();
+    }
+
+    @Test
+    void neverHasMoreThanTheConcurrencyInFlight() {
+        PlayerCountCollector collector = collector(3);
+
+        CollectionCycleResult result = collector.collect(appIds(40));
+
+        assertEquals(3, steam.maxInFlight.get());
+        assertEquals(40, steam.calls.get());
+        assertEquals(40, result.getSamplesRecorded());
+    }
+
+    @Test
+    void reportsRecordedSamplesFailuresAndThroughput() {
+        steam.failingAppIds = List.of(3L, 7L);
+        steam.missingAppIds = List.of(5L);
+        PlayerCountCollector collector = collector(4);
+
+        CollectionCycleResult result = collector.collect(appIds(10));
+
+        assertEquals(10, result.getGamesAttempted());
+        assertEquals(7, result.getSamplesRecorded());
+        assertEquals(3, result.getFailures());
+        assertEquals(7, gameService.recorded.size());
+        assertTrue(result.getDurationMillis() >= 5, "duration " + result.getDurationMillis());
+        assertEquals(result.getGamesAttempted() * 1000.0 / result.getDurationMillis(), result.getGamesPerSecond(), 1e-9);
+        assertEquals(7, meterRegistry.counter("collector.samples").count());
+        assertEquals(3, meterRegistry.counter("collector.failures").count());
+    }
+
+    @Test
+    void countsWhatTheGameServiceKept() {
+        gameService.kept = 2;
+        PlayerCountCollector collector = collector(4);
+
+        CollectionCycleResult result = collector.collect(appIds(5));
+
+        assertEquals(2, result.getSamplesRecorded());
+        assertEquals(0, result.getFailures());
+    }
+
+    private PlayerCountCollector collector(int concurrency) {
+        PlayerCountCollector collector = new PlayerCountCollector(concurrency, meterRegistry);
+        ReflectionTestUtils.setField(collector, "steamApiService", steam);
+        ReflectionTestUtils.setField(collector, "gameService", gameService);
+        return collector;
+    }
+
+    private static List<Long> appIds(int count) {
+        return LongStream.rangeClosed(1, count).boxed().toList();
+    }
+
+    /**
+     * Answers each lookup after 5 ms on another thread, like the async HTTP client, and tracks
+     * how many are outstanding.
+     */
+    private class StubSteamApiService extends SteamApiService {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile List<Long> failingAppIds = List.of();
+        private volatile List<Long> missingAppIds = List.of();
+
+        @Override
+        public CompletableFuture<Integer> getCurrentPlayerCountAsync(Long appId) {
+            calls.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            CompletableFuture<Integer> response = new CompletableFuture<>();
+            steamThreads.schedule(() -> {
+                inFlight.decrementAndGet();
+                if (failingAppIds.contains(appId)) {
+                    response.completeExceptionally(new SteamApiException("HTTP 503"));
+                } else {
+                    response.complete(missingAppIds.contains(appId) ? null : 1_000);
+                }
+            }, 5, TimeUnit.MILLISECONDS);
+            return response;
+        }
+    }
+
+    private static class RecordingGameService extends GameService {
+        private final List<PlayerCountSample> recorded = Collections.synchronizedList(new ArrayList<>());
+        private volatile int kept = -1;
+
+        @Override
+        public int recordPlayerCounts(List<PlayerCountSample> collected) {
+            recorded.addAll(collected);
+            return kept >= 0 ? kept : collected.size();
+        }
+    }
+}
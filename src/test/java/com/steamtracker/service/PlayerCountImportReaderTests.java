@@ -0,0 +1,135 @@
+package com.steamtracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PlayerCountImportReaderTests {
+
+    private static final long NOON = Instant.parse("2024-05-01T12:00:00Z").toEpochMilli();
+
+    @Test
+    void readsCsvWithHeaderInAnyColumnOrder() throws IOException {
+        String csv = "player_count,app_id,recorded_at\n" +
+                "1000,730,2024-05-01T12:00:00\n" +
+                "\n" +
+                "\"1100\",730,2024-05-01 12:00:30\n";
+        List<long[]> records = new ArrayList<>();
+        List<String> rejects = new ArrayList<>();
+
+        long read = read(csv.getBytes(StandardCharsets.UTF_8), PlayerCountImportReader.Format.CSV, null, records, rejects);
+
+        assertEquals(2, read);
+        assertEquals(List.of(), rejects);
+        assertRecord(records.get(0), 1, 730, NOON, 1000);
+        assertRecord(records.get(1), 2, 730, NOON + 30_000, 1100);
+    }
+
+    @Test
+    void readsCsvWithoutHeaderForTheDefaultGame() throws IOException {
+        String csv = "1714564800,1000\n1714564800123,1001\n";
+        List<long[]> records = new ArrayList<>();
+
+        read(csv.getBytes(StandardCharsets.UTF_8), PlayerCountImportReader.Format.CSV, 570L, records, new ArrayList<>());
+
+        assertRecord(records.get(0), 1, 570, NOON, 1000);
+        assertRecord(records.get(1), 2, 570, NOON + 123, 1001);
+    }
+
+    @Test
+    void rejectsBadRecordsAndKeepsReading() throws IOException {
+        String csv = "app_id,recorded_at,player_count\n" +
+                "x,2024-05-01T12:00:00,1\n" +
+                "730,yesterday,1\n" +
+                "730,2024-05-01T12:00:00,many\n" +
+                "730,2024-05-01T14:00:00+02:00,7\n";
+        List<long[]> records = new ArrayList<>();
+        List<String> rejects = new ArrayList<>();
+
+        long read = read(csv.getBytes(StandardCharsets.UTF_8), PlayerCountImportReader.Format.CSV, null, records, rejects);
+
+        assertEquals(4, read);
+        assertEquals(List.of("1: invalid app ID 'x'", "2: invalid timestamp 'yesterday'",
+                "3: invalid player count 'many'"), rejects);
+        assertRecord(records.get(0), 4, 730, NOON, 7);
+    }
+
+    @Test
+    void readsJsonArraysAndNewlineDelimitedJson() throws IOException {
+        String array = "[{\"appId\": 730, \"timestamp\": \"2024-05-01T12:00:00Z\", \"playerCount\": 5, \"extra\": {\"a\": 1}}," +
+                "{\"app_id\": \"570\", \"recorded_at\": 1714564800, \"player_count\": 6}]";
+        List<long[]> records = new ArrayList<>();
+        read(array.getBytes(StandardCharsets.UTF_8), PlayerCountImportReader.Format.JSON, null, records, new ArrayList<>());
+        assertRecord(records.get(0), 1, 730, NOON, 5);
+        assertRecord(records.get(1), 2, 570, NOON, 6);
+
+        // As written by /api/games/{appId}/history/stream
+        String ndjson = "{\"timestamp\":\"2024-05-01T12:00:00\",\"playerCount\":8}\n" +
+                "{\"timestamp\":\"2024-05-01T12:00:30.500\",\"playerCount\":9}\n";
+        records.clear();
+        read(ndjson.getBytes(StandardCharsets.UTF_8), PlayerCountImportReader.Format.JSON, 730L, records, new ArrayList<>());
+        assertRecord(records.get(0), 1, 730, NOON, 8);
+        assertRecord(records.get(1), 2, 730, NOON + 30_500, 9);
+    }
+
+    @Test
+    void decompressesGzipInput() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write("730,2024-05-01T12:00:00,42\n".getBytes(StandardCharsets.UTF_8));
+        }
+        List<long[]> records = new ArrayList<>();
+
+        read(compressed.toByteArray(), PlayerCountImportReader.Format.CSV, null, records, new ArrayList<>());
+
+        assertRecord(records.get(0), 1, 730, NOON, 42);
+    }
+
+    @Test
+    void failsOnAHeaderWithoutRequiredColumns() {
+        String csv = "app_id,player_count\n730,1\n";
+        assertThrows(IllegalArgumentException.class, () -> read(csv.getBytes(StandardCharsets.UTF_8),
+                PlayerCountImportReader.Format.CSV, null, new ArrayList<>(), new ArrayList<>()));
+    }
+
+    @Test
+    void picksTheFormatFromNameOrMediaType() {
+        assertEquals(PlayerCountImportReader.Format.CSV, PlayerCountImportReader.Format.of("counts.csv.gz"));
+        assertEquals(PlayerCountImportReader.Format.CSV, PlayerCountImportReader.Format.of("text/csv; charset=utf-8"));
+        assertEquals(PlayerCountImportReader.Format.JSON, PlayerCountImportReader.Format.of("application/x-ndjson"));
+        assertEquals(PlayerCountImportReader.Format.JSON, PlayerCountImportReader.Format.of(null));
+    }
+
+    private static long read(byte[] input, PlayerCountImportReader.Format format, Long defaultAppId,
+                             List<long[]> records, List<String> rejects) throws IOException {
+        return new PlayerCountImportReader(new ByteArrayInputStream(input), format, defaultAppId)
+                .read(new PlayerCountImportReader.RecordHandler() {
+                    @Override
+                    public void accept(long record, long appId, long timestampMillis, int playerCount) {
+                        records.add(new long[]{record, appId, timestampMillis, playerCount});
+                    }
+
+                    @Override
+                    public void reject(long record, String reason) {
+                        rejects.add(record + ": " + reason);
+                    }
+                });
+    }
+
+    private static void assertRecord(long[] record, long number, long appId, long timestampMillis, int playerCount) {
+        assertEquals(number, record[0]);
+        assertEquals(appId, record[1]);
+        assertEquals(timestampMillis, record[2]);
+        assertEquals(playerCount, record[3]);
+    }
+}
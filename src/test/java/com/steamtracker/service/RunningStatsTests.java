@@ -0,0 +1,164 @@
+package com.steamtracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunningStatsTests {
+
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long WEEK = 168 * HOUR;
+    // A Monday, 00:00 UTC
+    private static final long START = LocalDateTime.of(2024, 5, 6, 0, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+
+    @Test
+    void matchesTwoPassMeanAndVariance() {
+        RunningStats stats = newStats(3.0);
+        Random random = new Random(11);
+        int[] counts = new int[5_000];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 10_000 + random.nextInt(5_000);
+            stats.add(START + i * MINUTE, counts[i]);
+        }
+
+        double mean = 0;
+        for (int count : counts) {
+            mean += count;
+        }
+        mean /= counts.length;
+        double squares = 0;
+        for (int count : counts) {
+            squares += (count - mean) * (count - mean);
+        }
+        assertEquals(counts.length, stats.getCount());
+        assertEquals(mean, stats.getMean(), 1e-6);
+        assertEquals(Math.sqrt(squares / (counts.length - 1)), stats.getStdDev(), 1e-6);
+    }
+
+    @Test
+    void ewmasFollowAStepAtTheirOwnPace() {
+        RunningStats stats = newStats(3.0);
+        stats.add(START, 1_000);
+        // One short time constant after a step to 2000
+        stats.add(START + HOUR, 2_000);
+
+        assertEquals(1_000 + 1_000 * (1 - Math.exp(-1)), stats.getEwmaShort(), 1e-6);
+        assertEquals(1_000 + 1_000 * (1 - Math.exp(-1.0 / 24)), stats.getEwmaLong(), 1e-6);
+        assertTrue(stats.getTrend() > 0);
+    }
+
+    @Test
+    void bucketsByHourOfWeekFromMonday() {
+        assertEquals(0, RunningStats.hourOfWeek(START));
+        assertEquals(0, RunningStats.hourOfWeek(START + 59 * MINUTE));
+        assertEquals(1, RunningStats.hourOfWeek(START + HOUR));
+        assertEquals(167, RunningStats.hourOfWeek(START - 1));
+        assertEquals(5, RunningStats.hourOfWeek(START + 3 * WEEK + 5 * HOUR));
+    }
+
+    @Test
+    void warmsUpBeforeFlagging() {
+        RunningStats stats = newStats(3.0);
+        for (int i = 0; i < 10; i++) {
+            assertFalse(stats.add(START + i * MINUTE, 1_000 + i * 100));
+            assertEquals(RunningStats.WARMING_UP, stats.getStatus());
+        }
+        assertFalse(stats.add(START + 10 * MINUTE, 1_500));
+        assertEquals(RunningStats.NORMAL, stats.getStatus());
+        assertNull(stats.getLastAnomalyStatus());
+    }
+
+    @Test
+    void flagsSpikesAndDropsAgainstTheSeasonalBaseline() {
+        RunningStats stats = newStats(3.0);
+        Random random = new Random(3);
+        // Four weeks of a daily cycle: 10k at night, 50k in the evening, with some noise
+        for (long t = START; t < START + 4 * WEEK; t += 10 * MINUTE) {
+            stats.add(t, dailyCycle(t) + random.nextInt(1_000));
+        }
+        long now = START + 4 * WEEK;
+
+        // 50k is normal in the evening but a spike at night
+        long night = now + 3 * HOUR;
+        assertTrue(stats.getSeasonalSamples(night) >= 10);
+        assertTrue(stats.add(night, 50_000));
+        assertEquals(RunningStats.SPIKE, stats.getStatus());
+        assertEquals(night, stats.getLastAnomalyTimestamp());
+        assertTrue(stats.getLastZ() > 3.0);
+
+        long evening = now + 19 * HOUR;
+        assertFalse(stats.add(evening, dailyCycle(evening) + 500));
+        assertEquals(RunningStats.NORMAL, stats.getStatus());
+        assertTrue(stats.add(evening + 10 * MINUTE, 5_000));
+        assertEquals(RunningStats.DROP, stats.getStatus());
+        assertEquals(RunningStats.DROP, stats.getLastAnomalyStatus());
+    }
+
+    @Test
+    void ignoresSamplesThatAreNotNewer() {
+        RunningStats stats = newStats(3.0);
+        stats.add(START, 1_000);
+        stats.add(START + MINUTE, 2_000);
+        assertFalse(stats.add(START + MINUTE, 9_000));
+        assertFalse(stats.add(START, 9_000));
+
+        assertEquals(2, stats.getCount());
+        assertEquals(2_000, stats.getLastCount());
+        assertEquals(1_500, stats.getMean(), 1e-9);
+    }
+
+    @Test
+    void seasonalBaselineForgetsOldSamplesOnceFull() {
+        RunningStats stats = new RunningStats(HOUR, 24 * HOUR, 20, 10, 3.0);
+        long t = START;
+        for (int i = 0; i < 200; i++, t += WEEK) {
+            stats.add(t, 1_000);
+        }
+        for (int i = 0; i < 200; i++, t += WEEK) {
+            stats.add(t, 5_000);
+        }
+
+        assertEquals(20, stats.getSeasonalSamples(START));
+        assertEquals(5_000, stats.getSeasonalMean(START), 1);
+        assertTrue(stats.getSeasonalStdDev(START) < 50);
+        assertEquals(3_000, stats.getMean(), 1e-6);
+    }
+
+    @Test
+    void restoresACheckpoint() {
+        RunningStats stats = newStats(3.0);
+        Random random = new Random(5);
+        for (int i = 0; i < 1_000; i++) {
+            stats.add(START + i * 7 * MINUTE, 5_000 + random.nextInt(2_000));
+        }
+        stats.add(START + 1_000 * 7 * MINUTE, 50_000);
+
+        RunningStats restored = newStats(3.0);
+        restored.restore(stats.toBytes());
+
+        assertArrayEquals(stats.toBytes(), restored.toBytes());
+        assertEquals(RunningStats.SPIKE, restored.getStatus());
+        long next = START + 1_001 * 7 * MINUTE;
+        assertEquals(stats.add(next, 6_000), restored.add(next, 6_000));
+        assertEquals(stats.getLastZ(), restored.getLastZ());
+        assertEquals(stats.getTrend(), restored.getTrend());
+    }
+
+    private static RunningStats newStats(double zThreshold) {
+        return new RunningStats(HOUR, 24 * HOUR, 500, 10, zThreshold);
+    }
+
+    private static int dailyCycle(long timestampMillis) {
+        long hourOfDay = Math.floorMod(timestampMillis / HOUR, 24);
+        return hourOfDay >= 17 && hourOfDay < 23 ? 50_000 : 10_000;
+    }
+}
@@ -0,0 +1,57 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.PlayerCountSeries;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SampleRingBufferTests {
+
+    @Test
+    void overwritesOldestAndNarrowsCoverage() {
+        SampleRingBuffer buffer = new SampleRingBuffer(3, 0);
+        for (int i = 1; i <= 5; i++) {
+            buffer.add(i * 1000L, i);
+        }
+
+        PlayerCountSeries series = new PlayerCountSeries();
+        buffer.copySince(0, series);
+
+        assertEquals(3, series.size());
+        assertArrayEquals(new int[]{3, 4, 5}, Arrays.copyOf(series.getCounts(), 3));
+        assertFalse(buffer.covers(2000));
+        assertTrue(buffer.covers(2001));
+    }
+
+    @Test
+    void ignoresDuplicateAndLateSamples() {
+        SampleRingBuffer buffer = new SampleRingBuffer(10, 0);
+        buffer.add(2000, 1);
+        buffer.add(2000, 2);
+        buffer.add(1000, 3);
+
+        assertEquals(1, buffer.size());
+    }
+
+    @Test
+    void trimsByTime() {
+        SampleRingBuffer buffer = new SampleRingBuffer(10, 0);
+        buffer.add(1000, 1);
+        buffer.add(2000, 2);
+        buffer.add(3000, 3);
+
+        buffer.trimBefore(2500);
+
+        PlayerCountSeries series = new PlayerCountSeries();
+        buffer.copySince(0, series);
+        assertEquals(1, series.size());
+        assertEquals(3, series.getCounts()[0]);
+        assertTrue(buffer.covers(2500));
+        assertFalse(buffer.covers(2000));
+    }
+}
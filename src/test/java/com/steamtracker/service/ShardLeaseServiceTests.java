@@ -0,0 +1,29 @@
+package com.steamtracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardLeaseServiceTests {
+
+    @Test
+    void appIdsThatAreMultiplesOfTenSpreadOverAllShards() {
+        int[] games = new int[64];
+        for (long appId = 10; appId <= 640_000; appId += 10) {
+            games[ShardLeaseService.shardOf(appId, 64)]++;
+        }
+
+        for (int count : games) {
+            assertTrue(count > 800 && count < 1_200, "uneven shard: " + count);
+        }
+    }
+
+    @Test
+    void fairShareLeavesRoomForEveryShard() {
+        assertEquals(64, ShardLeaseService.fairShare(64, 1));
+        assertEquals(22, ShardLeaseService.fairShare(64, 3));
+        assertEquals(1, ShardLeaseService.fairShare(64, 100));
+        assertEquals(64, ShardLeaseService.fairShare(64, 0));
+    }
+}
@@ -0,0 +1,53 @@
+package com.steamtracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlidingExtremeTests {
+
+    @Test
+    void matchesBruteForceOverRandomSamples() {
+        long window = 10_000;
+        SlidingExtreme max = new SlidingExtreme(window, true);
+        SlidingExtreme min = new SlidingExtreme(window, false);
+        Random random = new Random(7);
+        long[] timestamps = new long[2_000];
+        int[] counts = new int[2_000];
+
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = i * 1_000L;
+            counts[i] = random.nextInt(1_000);
+            max.add(timestamps[i], counts[i]);
+            min.add(timestamps[i], counts[i]);
+
+            int expectedMax = Integer.MIN_VALUE;
+            int expectedMin = Integer.MAX_VALUE;
+            for (int j = 0; j <= i; j++) {
+                if (timestamps[j] > timestamps[i] - window) {
+                    expectedMax = Math.max(expectedMax, counts[j]);
+                    expectedMin = Math.min(expectedMin, counts[j]);
+                }
+            }
+            assertEquals(expectedMax, max.getCount(timestamps[i]));
+            assertEquals(expectedMin, min.getCount(timestamps[i]));
+        }
+    }
+
+    @Test
+    void peakExpiresWithItsWindow() {
+        SlidingExtreme max = new SlidingExtreme(60_000, true);
+        max.add(0, 500);
+        max.add(30_000, 100);
+
+        assertEquals(500, max.getCount(59_999));
+        assertEquals(0, max.getTimestamp(59_999));
+        assertEquals(100, max.getCount(60_000));
+        assertFalse(max.isEmpty(89_999));
+        assertTrue(max.isEmpty(90_000));
+    }
+}
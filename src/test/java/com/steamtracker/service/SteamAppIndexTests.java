@@ -0,0 +1,65 @@
+package com.steamtracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SteamAppIndexTests {
+
+    private final SteamAppIndex index = SteamAppIndex.builder()
+            .add(730, "Counter-Strike 2", "cs2", 150)
+            .add(730, "Counter-Strike 2", "Counter-Strike 2", 150)
+            .add(10, "Counter-Strike")
+            .add(105600, "Terraria")
+            .add(413150, "Stardew Valley")
+            .add(999, "Strike Force Heroes")
+            .build();
+
+    @Test
+    void ranksExactAndPrefixMatchesFirst() {
+        List<SteamApiService.GameInfo> results = index.search("counter", 10);
+
+        assertEquals(730L, results.get(0).getAppId());
+        assertEquals(10L, results.get(1).getAppId());
+    }
+
+    @Test
+    void matchesAliasesOncePerApp() {
+        List<SteamApiService.GameInfo> results = index.search("cs2", 10);
+
+        assertEquals(1, results.stream().filter(r -> r.getAppId() == 730L).count());
+        assertEquals("Counter-Strike 2", results.get(0).getName());
+    }
+
+    @Test
+    void matchesWordPrefixes() {
+        List<SteamApiService.GameInfo> results = index.search("valley", 10);
+
+        assertEquals(413150L, results.get(0).getAppId());
+    }
+
+    @Test
+    void toleratesTypos() {
+        List<SteamApiService.GameInfo> results = index.search("terarria", 10);
+
+        assertTrue(results.stream().anyMatch(r -> r.getAppId() == 105600L));
+    }
+
+    @Test
+    void streamsGetAppListSnapshots() throws Exception {
+        String json = "{\"applist\":{\"apps\":[{\"appid\":570,\"name\":\"Dota 2\"},"
+                + "{\"appid\":1,\"name\":\"\"},{\"appid\":440,\"name\":\"Team Fortress 2\",\"extra\":[1,2]}]}}";
+        SteamAppIndex.Builder builder = SteamAppIndex.builder();
+
+        int read = SteamAppCatalog.readAppList(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), builder);
+
+        assertEquals(2, read);
+        assertEquals(440L, builder.build().search("fortress", 5).get(0).getAppId());
+    }
+}
@@ -0,0 +1,128 @@
+package com.steamtracker.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SteamHttpClientTests {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void retriesServerErrorsUntilSuccess() {
+        server.createContext("/flaky", exchange -> {
+            int attempt = requests.incrementAndGet();
+            respond(exchange, attempt < 3 ? 503 : 200, "{\"response\":{\"player_count\":42}}");
+        });
+
+        String body = client(5).getAsync("flaky", baseUrl + "/flaky").join();
+
+        assertEquals("{\"response\":{\"player_count\":42}}", body);
+        assertEquals(3, requests.get());
+        assertEquals(2, meterRegistry.get("steam.api.requests").tag("outcome", "SERVER_ERROR").timer().count());
+        assertEquals(1, meterRegistry.get("steam.api.requests").tag("outcome", "SUCCESS").timer().count());
+        assertEquals(1.0, meterRegistry.get("steam.api.calls").tag("result", "success").counter().count());
+    }
+
+    @Test
+    void doesNotRetryClientErrors() {
+        server.createContext("/missing", exchange -> {
+            requests.incrementAndGet();
+            respond(exchange, 404, "");
+        });
+
+        SteamHttpClient client = client(1);
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> client.getAsync("missing", baseUrl + "/missing").join());
+
+        assertInstanceOf(SteamApiException.class, e.getCause());
+        assertEquals(1, requests.get());
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState("missing"));
+    }
+
+    @Test
+    void opensCircuitAfterRepeatedFailures() {
+        server.createContext("/down", exchange -> {
+            requests.incrementAndGet();
+            respond(exchange, 500, "");
+        });
+        SteamHttpClient client = client(2);
+
+        // Two attempts (one retry) trip the breaker; the next call is rejected without a request
+        assertThrows(CompletionException.class, () -> client.getAsync("down", baseUrl + "/down").join());
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState("down"));
+        int requestsWhenOpened = requests.get();
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> client.getAsync("down", baseUrl + "/down").join());
+        assertInstanceOf(SteamApiException.class, e.getCause());
+        assertEquals(requestsWhenOpened, requests.get());
+    }
+
+    @Test
+    void timesOutSlowResponses() {
+        server.createContext("/slow", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(1_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "late");
+        });
+        SteamHttpClient client = new SteamHttpClient(new SteamRateLimiter(1000, 1000), meterRegistry,
+                500, 100, 0, 1, 1, 5, 30);
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> client.getAsync("slow", baseUrl + "/slow").join());
+        assertInstanceOf(SteamApiException.class, e.getCause());
+    }
+
+    private SteamHttpClient client(int failureThreshold) {
+        return new SteamHttpClient(new SteamRateLimiter(1000, 1000), meterRegistry,
+                500, 2_000, 2, 1, 5, failureThreshold, 30);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body)
+            throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+        exchange.close();
+    }
+}
@@ -0,0 +1,61 @@
+package com.steamtracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SteamRateLimiterTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private long now = 1_000 * SECOND;
+    private final SteamRateLimiter limiter = new SteamRateLimiter(10, 3, () -> now);
+
+    @Test
+    void burstIsFreeThenRequestsAreSpacedAtTheRate() {
+        assertEquals(0, limiter.reserve());
+        assertEquals(0, limiter.reserve());
+        assertEquals(0, limiter.reserve());
+
+        assertEquals(SECOND / 10, limiter.reserve());
+        assertEquals(2 * SECOND / 10, limiter.reserve());
+        assertEquals(3 * SECOND / 10, limiter.reserve());
+    }
+
+    @Test
+    void tokensRefillContinuously() {
+        for (int i = 0; i < 3; i++) {
+            limiter.reserve();
+        }
+
+        now += SECOND / 20;
+        assertEquals(SECOND / 20, limiter.reserve());
+
+        now += SECOND / 20;
+        // The refill only paid back the half token borrowed above
+        assertEquals(SECOND / 10, limiter.reserve());
+    }
+
+    @Test
+    void idleTimeRefillsNoMoreThanTheBurst() {
+        for (int i = 0; i < 3; i++) {
+            limiter.reserve();
+        }
+
+        now += 60 * SECOND;
+
+        assertEquals(0, limiter.reserve());
+        assertEquals(0, limiter.reserve());
+        assertEquals(0, limiter.reserve());
+        assertEquals(SECOND / 10, limiter.reserve());
+    }
+
+    @Test
+    void rejectsNonPositiveSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new SteamRateLimiter(0, 3));
+        assertThrows(IllegalArgumentException.class, () -> new SteamRateLimiter(10, 0));
+    }
+}
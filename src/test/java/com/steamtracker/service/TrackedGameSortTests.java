@@ -0,0 +1,47 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.TrackedGame;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TrackedGameSortTests {
+
+    private final List<TrackedGame> games = List.of(
+            game(1L, "beta", 500),
+            game(2L, "Alpha", null),
+            game(3L, "gamma", 900),
+            game(4L, "delta", 500));
+
+    @Test
+    void gamesWithoutCountSortLastInBothDirections() {
+        assertEquals(List.of(1L, 4L, 3L, 2L), sorted(TrackedGameSort.CURRENT_PLAYERS, false));
+        assertEquals(List.of(3L, 1L, 4L, 2L), sorted(TrackedGameSort.CURRENT_PLAYERS, true));
+    }
+
+    @Test
+    void namesSortIgnoringCase() {
+        assertEquals(List.of(2L, 1L, 4L, 3L), sorted(TrackedGameSort.NAME, false));
+    }
+
+    @Test
+    void parsesCamelCaseParameters() {
+        assertEquals(TrackedGameSort.LAST_UPDATED, TrackedGameSort.fromParameter("lastUpdated"));
+        assertEquals(TrackedGameSort.CURRENT_PLAYERS, TrackedGameSort.fromParameter("current_players"));
+        assertEquals(TrackedGameSort.NAME, TrackedGameSort.fromParameter(null));
+    }
+
+    private List<Long> sorted(TrackedGameSort sort, boolean descending) {
+        List<TrackedGame> list = new ArrayList<>(games);
+        list.sort(sort.comparator(descending));
+        return list.stream().map(TrackedGame::getAppId).toList();
+    }
+
+    private static TrackedGame game(Long appId, String name, Integer players) {
+        return new TrackedGame(appId, name, LocalDateTime.now(), LocalDateTime.now(), null, players);
+    }
+}
@@ -0,0 +1,156 @@
+package com.steamtracker.service;
+
+import com.steamtracker.dto.PlayerCountSample;
+import com.steamtracker.dto.TrackedGame;
+import com.steamtracker.entity.Game;
+import com.steamtracker.repository.GameRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrackedGamesCacheTests {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 10, 1, 12, 0, 0, 123_456_789);
+
+    private final List<Game> stored = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final TrackedGamesCache cache = new TrackedGamesCache();
+
+    TrackedGamesCacheTests() {
+        GameRepository gameRepository = (GameRepository) Proxy.newProxyInstance(GameRepository.class.getClassLoader(),
+                new Class<?>[]{GameRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findAllTracked")) {
+                        loads.incrementAndGet();
+                        return List.copyOf(stored);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        ReflectionTestUtils.setField(cache, "gameRepository", gameRepository);
+        ReflectionTestUtils.setField(cache, "leaderboardService", new LeaderboardService());
+        stored.add(game(730L, "Counter-Strike 2", T0, null));
+        stored.add(game(570L, "Dota 2", T0, 120));
+    }
+
+    @Test
+    void keepsTheEtagWhenNothingChanges() {
+        String etag = cache.getSnapshot().getEtag();
+
+        cache.record(List.of(sample(440L, 10, T0.plusMinutes(1))));
+        cache.record(List.of(sample(730L, 10, T0.minusMinutes(1))));
+        cache.untrack(440L);
+        cache.setSampleInterval(570L, 120);
+
+        assertEquals(etag, cache.getSnapshot().getEtag());
+        assertTrue(etag.startsWith("W/\""));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void newSamplesChangeTheEtagOncePerBatch() {
+        String etag = cache.getSnapshot().getEtag();
+
+        cache.record(List.of(sample(730L, 1_000, T0.plusMinutes(1)), sample(570L, 500, T0.plusMinutes(1))));
+        TrackedGamesCache.Snapshot next = cache.getSnapshot();
+
+        assertNotEquals(etag, next.getEtag());
+        assertEquals(1_000, find(next, 730L).getCurrentPlayers());
+        assertEquals(T0.plusMinutes(1), find(next, 570L).getLastUpdated());
+        assertEquals(version(etag) + 1, version(next.getEtag()));
+
+        cache.record(List.of(sample(730L, 1_000, T0.plusMinutes(1))));
+        assertEquals(next.getEtag(), cache.getSnapshot().getEtag());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidateReloadsFromTheGamesTable() {
+        cache.getSnapshot();
+        stored.add(game(440L, "Team Fortress 2", null, null));
+
+        cache.invalidate();
+        TrackedGamesCache.Snapshot reloaded = cache.getSnapshot();
+
+        assertEquals(2, loads.get());
+        assertEquals("Team Fortress 2", find(reloaded, 440L).getName());
+    }
+
+    @Test
+    void reloadsOnlyForChangesMadeElsewhere() {
+        String etag = cache.getSnapshot().getEtag();
+        // Samples recorded here reach the table later, rounded to microseconds
+        cache.record(List.of(sample(730L, 1_000, T0.plusMinutes(1))));
+        String recorded = cache.getSnapshot().getEtag();
+        assertNotEquals(etag, recorded);
+
+        cache.reloadIfStale(intervals(730L, null, 570L, 120),
+                lastUpdated(730L, T0.plusMinutes(1).plusNanos(544), 570L, T0));
+        assertEquals(recorded, cache.getSnapshot().getEtag());
+
+        cache.reloadIfStale(intervals(730L, null, 570L, 120), lastUpdated(730L, T0.plusMinutes(1), 570L, T0.plusMinutes(2)));
+        assertNotEquals(recorded, cache.getSnapshot().getEtag());
+        assertEquals(2, loads.get());
+
+        cache.reloadIfStale(intervals(730L, null), lastUpdated(730L, T0));
+        cache.getSnapshot();
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void reloadsWhenAnotherInstanceChangesAnInterval() {
+        cache.getSnapshot();
+
+        cache.reloadIfStale(intervals(730L, 60, 570L, 120), lastUpdated(730L, T0, 570L, T0));
+        cache.getSnapshot();
+
+        assertEquals(2, loads.get());
+    }
+
+    private static Game game(Long appId, String name, LocalDateTime lastUpdated, Integer interval) {
+        Game game = new Game(appId, name);
+        game.setLastUpdated(lastUpdated);
+        game.setSampleIntervalSeconds(interval);
+        return game;
+    }
+
+    private static PlayerCountSample sample(Long appId, int playerCount, LocalDateTime recordedAt) {
+        return new PlayerCountSample(appId, playerCount, recordedAt);
+    }
+
+    private static TrackedGame find(TrackedGamesCache.Snapshot snapshot, Long appId) {
+        return snapshot.getPage(TrackedGameSort.NAME, false, 0, 100).getItems().stream()
+                .filter(game -> game.getAppId().equals(appId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static long version(String etag) {
+        return Long.parseLong(etag.substring(etag.lastIndexOf('-') + 1, etag.length() - 1));
+    }
+
+    private static Map<Long, Integer> intervals(Object... pairs) {
+        Map<Long, Integer> map = new HashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            map.put((Long) pairs[i], (Integer) pairs[i + 1]);
+        }
+        return map;
+    }
+
+    private static Map<Long, LocalDateTime> lastUpdated(Object... pairs) {
+        Map<Long, LocalDateTime> map = new HashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            map.put((Long) pairs[i], (LocalDateTime) pairs[i + 1]);
+        }
+        return map;
+    }
+}
@@ -8,6 +8,8 @@ const GameChart = ({ gameId, gameName }) => {
     const [loading, setLoading] = useState(false);
     const [error, setError] = useState('');
     const [timeRange, setTimeRange] = useState(7);
+    const [peaks, setPeaks] = useState(null);
+    const [runningStats, setRunningStats] = useState(null);
 
     useEffect(() => {
         if (gameId) {
@@ -15,13 +17,37 @@ const GameChart = ({ gameId, gameName }) => {
         }
     }, [gameId, timeRange]);
 
+    useEffect(() => {
+        if (!gameId) return undefined;
+
+        // Live samples pushed by the backend after each collection
+        const source = new EventSource(`http://localhost:8080/api/games/live?appIds=${gameId}`);
+        source.addEventListener('sample', (event) => {
+            const sample = JSON.parse(event.data);
+            setChartData(previous => [...previous, {
+                timestamp: new Date(sample.recordedAt).toLocaleString(),
+                playerCount: sample.playerCount,
+                date: new Date(sample.recordedAt)
+            }]);
+            setPeaks(previous => previous && {
+                ...previous,
+                currentPlayers: sample.playerCount,
+                peak24h: Math.max(previous.peak24h ?? sample.playerCount, sample.playerCount),
+                peak7d: Math.max(previous.peak7d ?? sample.playerCount, sample.playerCount),
+                low24h: Math.min(previous.low24h ?? sample.playerCount, sample.playerCount)
+            });
+        });
+
+        return () => source.close();
+    }, [gameId]);
+
     const fetchPlayerCountHistory = async () => {
         setLoading(true);
         setError('');
 
         try { // Frontend API call
             const response = await axios.get(`http://localhost:8080/api/games/${gameId}/history`, {
-                params: { days: timeRange }
+                params: { days: timeRange, points: 500, mode: 'lttb' }
             });
 
             const formattedData = response.data.map(item => ({
@@ -31,6 +57,8 @@ const GameChart = ({ gameId, gameName }) => {
             }));
 
             setChartData(formattedData);
+            fetchPeaks();
+            fetchRunningStats();
         } catch (err) {
             setError('Failed to load player count history');
             console.error('Chart data error:', err);
@@ -39,16 +67,39 @@ const GameChart = ({ gameId, gameName }) => {
         }
     };
 
-    const getStats = () => {
-        if (chartData.length === 0) return null;
+    // Peaks and lows are kept by the backend, so they don't depend on the downsampled chart points
+    const fetchPeaks = async () => {
+        try {
+            const response = await axios.get(`http://localhost:8080/api/games/${gameId}/peaks`);
+            setPeaks(response.data);
+        } catch (err) {
+            setPeaks(null);
+            console.error('Peak stats error:', err);
+        }
+    };
+
+    // Trend and spike/drop status are maintained by the backend at ingest
+    const fetchRunningStats = async () => {
+        try {
+            const response = await axios.get(`http://localhost:8080/api/games/${gameId}/stats`);
+            setRunningStats(response.data);
+        } catch (err) {
+            setRunningStats(null);
+            console.error('Running stats error:', err);
+        }
+    };
 
-        const counts = chartData.map(d => d.playerCount);
-        const current = counts[counts.length - 1] || 0;
-        const max = Math.max(...counts);
-        const min = Math.min(...counts);
-        const avg = Math.round(counts.reduce((a, b) => a + b, 0) / counts.length);
+    const getStats = () => {
+        if (!peaks || peaks.currentPlayers == null) return null;
 
-        return { current, max, min, avg };
+        return {
+            current: peaks.currentPlayers,
+            peak24h: peaks.peak24h ?? peaks.currentPlayers,
+            peak7d: peaks.peak7d ?? peaks.currentPlayers,
+            low24h: peaks.low24h ?? peaks.currentPlayers,
+            trendPercent: runningStats?.trendPercent,
+            status: runningStats?.status
+        };
     };
 
     const stats = getStats();
@@ -119,22 +170,33 @@ const GameChart = ({ gameId, gameName }) => {
                     <div className="stat-card">
                         <TrendingUp size={16} />
                         <div>
-                            <span className="stat-label">Peak</span>
-                            <span className="stat-value">{stats.max.toLocaleString()}</span>
+                            <span className="stat-label">24h Peak</span>
+                            <span className="stat-value">{stats.peak24h.toLocaleString()}</span>
                         </div>
                     </div>
                     <div className="stat-card">
                         <div>
-                            <span className="stat-label">Average</span>
-                            <span className="stat-value">{stats.avg.toLocaleString()}</span>
+                            <span className="stat-label">7d Peak</span>
+                            <span className="stat-value">{stats.peak7d.toLocaleString()}</span>
                         </div>
                     </div>
                     <div className="stat-card">
                         <div>
-                            <span className="stat-label">Minimum</span>
-                            <span className="stat-value">{stats.min.toLocaleString()}</span>
+                            <span className="stat-label">24h Low</span>
+                            <span className="stat-value">{stats.low24h.toLocaleString()}</span>
                         </div>
                     </div>
+                    {stats.trendPercent != null && (
+                        <div className="stat-card">
+                            <div>
+                                <span className="stat-label">Trend</span>
+                                <span className="stat-value">
+                                    {stats.trendPercent >= 0 ? '+' : ''}{stats.trendPercent.toFixed(1)}%
+                                    {(stats.status === 'SPIKE' || stats.status === 'DROP') && ` (${stats.status.toLowerCase()})`}
+                                </span>
+                            </div>
+                        </div>
+                    )}
                 </div>
             )}
 
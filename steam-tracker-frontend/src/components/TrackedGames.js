@@ -2,6 +2,9 @@ import React, { useState, useEffect } from 'react';
 import axios from 'axios';
 import { Database, Clock, TrendingUp, RefreshCw, X, AlertTriangle } from 'lucide-react';
 
+// The largest page the server hands out; bigger lists are fetched page by page
+const PAGE_SIZE = 500;
+
 const TrackedGames = ({ onGameSelect, refreshTrigger }) => {
     const [trackedGames, setTrackedGames] = useState([]);
     const [loading, setLoading] = useState(false);
@@ -16,17 +19,25 @@ const TrackedGames = ({ onGameSelect, refreshTrigger }) => {
         setError('');
 
         try {
-            const response = await axios.get('http://localhost:8080/api/games/tracked');
-            console.log('Tracked games response:', response.data); // Debug log
-
-            // Ensure we have an array
-            if (Array.isArray(response.data)) {
-                setTrackedGames(response.data);
-            } else {
-                console.error('Expected array but got:', typeof response.data, response.data);
-                setTrackedGames([]);
-                setError('Invalid response format from server');
+            // The browser revalidates each page with its ETag, so an unchanged list comes back as cheap 304s
+            const games = [];
+            let totalPages = 1;
+            for (let page = 0; page < totalPages; page++) {
+                const response = await axios.get('http://localhost:8080/api/games/tracked', {
+                    params: { sort: 'currentPlayers', direction: 'desc', page, size: PAGE_SIZE }
+                });
+
+                // Ensure we have an array
+                if (!Array.isArray(response.data?.items)) {
+                    console.error('Expected array but got:', typeof response.data, response.data);
+                    setTrackedGames([]);
+                    setError('Invalid response format from server');
+                    return;
+                }
+                games.push(...response.data.items);
+                totalPages = response.data.totalPages;
             }
+            setTrackedGames(games);
         } catch (err) {
             setError('Failed to load tracked games');
             console.error('Tracked games error:', err);